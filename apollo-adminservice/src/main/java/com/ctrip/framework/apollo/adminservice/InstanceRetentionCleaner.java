@@ -0,0 +1,113 @@
+package com.ctrip.framework.apollo.adminservice;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.service.InstanceService;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.IntSupplier;
+
+/**
+ * Purges the instances and instance configs which are not refreshed within the retention window,
+ * so that the instance tables won't grow with every client ip ever seen.
+ *
+ * <p>Records are deleted in bounded batches, each in its own transaction, to avoid long running
+ * transactions and lock contention with the config service audits.</p>
+ */
+@Component
+public class InstanceRetentionCleaner implements InitializingBean, DisposableBean {
+  private static final Logger logger = LoggerFactory.getLogger(InstanceRetentionCleaner.class);
+
+  private final BizConfig bizConfig;
+  private final InstanceService instanceService;
+  private final ScheduledExecutorService executorService;
+  private ScheduledFuture<?> scheduledFuture;
+
+  public InstanceRetentionCleaner(final BizConfig bizConfig, final InstanceService instanceService) {
+    this.bizConfig = bizConfig;
+    this.instanceService = instanceService;
+    executorService = Executors.newScheduledThreadPool(1, ApolloThreadFactory
+        .create("InstanceRetentionCleaner", true));
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    schedule();
+    bizConfig.addChangeListener(changedKeys -> {
+      if (changedKeys.contains(BizConfig.INSTANCE_RETENTION_SCAN_INTERVAL)) {
+        schedule();
+      }
+    });
+  }
+
+  /**
+   * (re)schedule the scan with the current interval, a running scan is not interrupted
+   */
+  private synchronized void schedule() {
+    if (scheduledFuture != null) {
+      scheduledFuture.cancel(false);
+    }
+    int interval = bizConfig.instanceRetentionScanInterval();
+    scheduledFuture = executorService.scheduleWithFixedDelay(this::cleanExpiredInstances, interval, interval,
+        bizConfig.instanceRetentionScanIntervalTimeUnit());
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    executorService.shutdownNow();
+  }
+
+  void cleanExpiredInstances() {
+    if (!bizConfig.isInstanceRetentionEnabled()) {
+      return;
+    }
+    Transaction transaction = Tracer.newTransaction("Apollo.InstanceRetention", "cleanExpiredInstances");
+    try {
+      Date expiredDate = getExpiredDate(bizConfig.instanceRetentionDays());
+      int batchSize = bizConfig.instanceRetentionBatchSize();
+
+      long instanceConfigs = purge(() -> instanceService.purgeExpiredInstanceConfigs(expiredDate, batchSize),
+          batchSize);
+      long instances = purge(() -> instanceService.purgeExpiredInstances(expiredDate, batchSize),
+          batchSize);
+
+      Tracer.logEvent("Apollo.InstanceRetention.InstanceConfig", String.valueOf(instanceConfigs));
+      Tracer.logEvent("Apollo.InstanceRetention.Instance", String.valueOf(instances));
+      logger.info("Purged {} instance configs and {} instances not refreshed since {}",
+          instanceConfigs, instances, expiredDate);
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      logger.error("Clean expired instances failed", ex);
+    } finally {
+      transaction.complete();
+    }
+  }
+
+  private long purge(IntSupplier purger, int batchSize) {
+    long total = 0;
+    int deleted;
+    do {
+      deleted = purger.getAsInt();
+      total += deleted;
+    } while (deleted == batchSize && !Thread.currentThread().isInterrupted());
+    return total;
+  }
+
+  private Date getExpiredDate(int retentionDays) {
+    Calendar cal = Calendar.getInstance();
+    cal.add(Calendar.DATE, -retentionDays);
+    return cal.getTime();
+  }
+}
@@ -4,7 +4,6 @@ package com.ctrip.framework.apollo.adminservice.aop;
 import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.Item;
 import com.ctrip.framework.apollo.biz.entity.Namespace;
-import com.ctrip.framework.apollo.biz.entity.NamespaceLock;
 import com.ctrip.framework.apollo.biz.service.ItemService;
 import com.ctrip.framework.apollo.biz.service.NamespaceLockService;
 import com.ctrip.framework.apollo.biz.service.NamespaceService;
@@ -12,27 +11,34 @@ import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.exception.ServiceException;
+import com.ctrip.framework.apollo.core.ConfigConsts;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 
 
 /**
  * 一个namespace在一次发布中只能允许一个人修改配置
- * 通过数据库lock表来实现
+ * 通过数据库lock表来实现，namespace以及当前用户持有的锁会短暂缓存，避免连续修改时每次都查询数据库
  */
 @Aspect
 @Component
 public class NamespaceAcquireLockAspect {
   private static final Logger logger = LoggerFactory.getLogger(NamespaceAcquireLockAspect.class);
+  private static final Joiner STRING_JOINER = Joiner.on(ConfigConsts.CLUSTER_NAMESPACE_SEPARATOR);
 
   private final NamespaceLockService namespaceLockService;
   private final NamespaceService namespaceService;
   private final ItemService itemService;
   private final BizConfig bizConfig;
+  //appId+cluster+namespace or namespace id -> namespace
+  private volatile Cache<Object, Namespace> namespaceCache;
 
   public NamespaceAcquireLockAspect(
       final NamespaceLockService namespaceLockService,
@@ -43,6 +49,21 @@ public class NamespaceAcquireLockAspect {
     this.namespaceService = namespaceService;
     this.itemService = itemService;
     this.bizConfig = bizConfig;
+    this.namespaceCache = buildNamespaceCache();
+    bizConfig.addChangeListener(changedKeys -> {
+      if (changedKeys.contains(BizConfig.NAMESPACE_LOCK_NAMESPACE_CACHE_EXPIRE)
+          || changedKeys.contains(BizConfig.NAMESPACE_LOCK_NAMESPACE_CACHE_SIZE)) {
+        namespaceCache = buildNamespaceCache();
+      }
+    });
+  }
+
+  private Cache<Object, Namespace> buildNamespaceCache() {
+    return CacheBuilder.newBuilder()
+        .expireAfterWrite(bizConfig.namespaceLockNamespaceCacheExpire(),
+            bizConfig.namespaceLockNamespaceCacheExpireTimeUnit())
+        .maximumSize(bizConfig.namespaceLockNamespaceCacheSize())
+        .build();
   }
 
 
@@ -83,7 +104,12 @@ public class NamespaceAcquireLockAspect {
       return;
     }
 
-    Namespace namespace = namespaceService.findOne(appId, clusterName, namespaceName);
+    String namespaceKey = STRING_JOINER.join(appId, clusterName, namespaceName);
+    Namespace namespace = namespaceCache.getIfPresent(namespaceKey);
+    if (namespace == null) {
+      namespace = namespaceService.findOne(appId, clusterName, namespaceName);
+      cacheNamespace(namespaceKey, namespace);
+    }
 
     acquireLock(namespace, currentUser);
   }
@@ -93,55 +119,47 @@ public class NamespaceAcquireLockAspect {
       return;
     }
 
-    Namespace namespace = namespaceService.findOne(namespaceId);
+    Namespace namespace = namespaceCache.getIfPresent(namespaceId);
+    if (namespace == null) {
+      namespace = namespaceService.findOne(namespaceId);
+      cacheNamespace(namespaceId, namespace);
+    }
 
     acquireLock(namespace, currentUser);
 
   }
 
+  private void cacheNamespace(Object key, Namespace namespace) {
+    if (namespace != null) {
+      namespaceCache.put(key, namespace);
+    }
+  }
+
   private void acquireLock(Namespace namespace, String currentUser) {
     if (namespace == null) {
       throw new BadRequestException("namespace not exist.");
     }
 
-    long namespaceId = namespace.getId();
-
-    NamespaceLock namespaceLock = namespaceLockService.findLock(namespaceId);
-    if (namespaceLock == null) {
-      try {
-        tryLock(namespaceId, currentUser);
-        //lock success
-      } catch (DataIntegrityViolationException e) {
-        //lock fail
-        namespaceLock = namespaceLockService.findLock(namespaceId);
-        checkLock(namespace, namespaceLock, currentUser);
-      } catch (Exception e) {
-        logger.error("try lock error", e);
-        throw e;
-      }
-    } else {
-      //check lock owner is current user
-      checkLock(namespace, namespaceLock, currentUser);
+    String lockOwner;
+    try {
+      lockOwner = namespaceLockService.acquireLock(namespace.getId(), currentUser);
+    } catch (Exception e) {
+      logger.error("try lock error", e);
+      throw e;
     }
-  }
 
-  private void tryLock(long namespaceId, String user) {
-    NamespaceLock lock = new NamespaceLock();
-    lock.setNamespaceId(namespaceId);
-    lock.setDataChangeCreatedBy(user);
-    lock.setDataChangeLastModifiedBy(user);
-    namespaceLockService.tryLock(lock);
+    checkLock(namespace, lockOwner, currentUser);
   }
 
-  private void checkLock(Namespace namespace, NamespaceLock namespaceLock,
-                         String currentUser) {
-    if (namespaceLock == null) {
+  private void checkLock(Namespace namespace, String lockOwner, String currentUser) {
+    if (lockOwner == null) {
       throw new ServiceException(
           String.format("Check lock for %s failed, please retry.", namespace.getNamespaceName()));
     }
 
-    String lockOwner = namespaceLock.getDataChangeCreatedBy();
     if (!lockOwner.equals(currentUser)) {
+      Tracer.logEvent("Apollo.NamespaceLock.Conflict", STRING_JOINER.join(namespace.getAppId(),
+          namespace.getClusterName(), namespace.getNamespaceName()));
       throw new BadRequestException(
           "namespace:" + namespace.getNamespaceName() + " is modified by " + lockOwner);
     }
@@ -3,10 +3,13 @@ package com.ctrip.framework.apollo.adminservice.controller;
 import com.ctrip.framework.apollo.biz.entity.Commit;
 import com.ctrip.framework.apollo.biz.service.CommitService;
 import com.ctrip.framework.apollo.common.dto.CommitDTO;
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
+import com.ctrip.framework.apollo.common.utils.RequestPrecondition;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -29,4 +32,16 @@ public class CommitController {
     return BeanUtils.batchTransform(CommitDTO.class, commits);
   }
 
+  @GetMapping("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/commit/cursor")
+  public CursorPageDTO<CommitDTO> findByCursor(@PathVariable String appId, @PathVariable String clusterName,
+                                               @PathVariable String namespaceName,
+                                               @RequestParam(value = "cursor", required = false) Long cursor,
+                                               @RequestParam(value = "size", defaultValue = "10") int size) {
+    RequestPrecondition.checkCursorPageSize(size);
+
+    List<Commit> commits = commitService.find(appId, clusterName, namespaceName,
+        cursor == null ? Long.MAX_VALUE : cursor, size);
+    return CursorPageDTO.of(BeanUtils.batchTransform(CommitDTO.class, commits), size, CommitDTO::getId);
+  }
+
 }
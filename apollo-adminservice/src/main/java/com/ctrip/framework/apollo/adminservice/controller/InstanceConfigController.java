@@ -5,12 +5,14 @@ import com.ctrip.framework.apollo.biz.entity.InstanceConfig;
 import com.ctrip.framework.apollo.biz.entity.Release;
 import com.ctrip.framework.apollo.biz.service.InstanceService;
 import com.ctrip.framework.apollo.biz.service.ReleaseService;
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.common.dto.InstanceConfigDTO;
 import com.ctrip.framework.apollo.common.dto.InstanceDTO;
 import com.ctrip.framework.apollo.common.dto.PageDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
 import com.ctrip.framework.apollo.common.exception.NotFoundException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
+import com.ctrip.framework.apollo.common.utils.RequestPrecondition;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.HashMultimap;
@@ -30,6 +32,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -59,41 +62,25 @@ public class InstanceConfigController {
     Page<InstanceConfig> instanceConfigsPage = instanceService.findActiveInstanceConfigsByReleaseKey
         (release.getReleaseKey(), pageable);
 
-    List<InstanceDTO> instanceDTOs = Collections.emptyList();
+    List<InstanceDTO> instanceDTOs = assembleInstanceDTOs(instanceConfigsPage.getContent());
+
+    return new PageDTO<>(instanceDTOs, pageable, instanceConfigsPage.getTotalElements());
+  }
 
-    if (instanceConfigsPage.hasContent()) {
-      Multimap<Long, InstanceConfig> instanceConfigMap = HashMultimap.create();
-      Set<String> otherReleaseKeys = Sets.newHashSet();
-
-      for (InstanceConfig instanceConfig : instanceConfigsPage.getContent()) {
-        instanceConfigMap.put(instanceConfig.getInstanceId(), instanceConfig);
-        otherReleaseKeys.add(instanceConfig.getReleaseKey());
-      }
-
-      Set<Long> instanceIds = instanceConfigMap.keySet();
-
-      List<Instance> instances = instanceService.findInstancesByIds(instanceIds);
-
-      if (!CollectionUtils.isEmpty(instances)) {
-        instanceDTOs = BeanUtils.batchTransform(InstanceDTO.class, instances);
-      }
-
-      for (InstanceDTO instanceDTO : instanceDTOs) {
-        Collection<InstanceConfig> configs = instanceConfigMap.get(instanceDTO.getId());
-        List<InstanceConfigDTO> configDTOs = configs.stream().map(instanceConfig -> {
-          InstanceConfigDTO instanceConfigDTO = new InstanceConfigDTO();
-          //to save some space
-          instanceConfigDTO.setRelease(null);
-          instanceConfigDTO.setReleaseDeliveryTime(instanceConfig.getReleaseDeliveryTime());
-          instanceConfigDTO.setDataChangeLastModifiedTime(instanceConfig
-              .getDataChangeLastModifiedTime());
-          return instanceConfigDTO;
-        }).collect(Collectors.toList());
-        instanceDTO.setConfigs(configDTOs);
-      }
+  @GetMapping("/by-release/cursor")
+  public CursorPageDTO<InstanceDTO> getByReleaseWithCursor(@RequestParam("releaseId") long releaseId,
+                                                           @RequestParam(value = "cursor", defaultValue = "0") long cursor,
+                                                           @RequestParam(value = "size", defaultValue = "20") int size) {
+    RequestPrecondition.checkCursorPageSize(size);
+    Release release = releaseService.findOne(releaseId);
+    if (release == null) {
+      throw new NotFoundException(String.format("release not found for %s", releaseId));
     }
+    List<InstanceConfig> instanceConfigs = instanceService
+        .findActiveInstanceConfigsByReleaseKey(release.getReleaseKey(), cursor, size);
 
-    return new PageDTO<>(instanceDTOs, pageable, instanceConfigsPage.getTotalElements());
+    return new CursorPageDTO<>(assembleInstanceDTOs(instanceConfigs), size,
+        nextCursor(instanceConfigs, size));
   }
 
   @GetMapping("/by-namespace-and-releases-not-in")
@@ -178,6 +165,37 @@ public class InstanceConfigController {
     return new PageDTO<>(instanceDTOs, pageable, instances.getTotalElements());
   }
 
+  @GetMapping("/by-namespace/cursor")
+  public CursorPageDTO<InstanceDTO> getInstancesByNamespaceWithCursor(
+      @RequestParam("appId") String appId, @RequestParam("clusterName") String clusterName,
+      @RequestParam("namespaceName") String namespaceName,
+      @RequestParam(value = "instanceAppId", required = false) String instanceAppId,
+      @RequestParam(value = "cursor", defaultValue = "0") long cursor,
+      @RequestParam(value = "size", defaultValue = "20") int size) {
+    RequestPrecondition.checkCursorPageSize(size);
+    List<InstanceConfig> instanceConfigs;
+    if (Strings.isNullOrEmpty(instanceAppId)) {
+      instanceConfigs = instanceService.findActiveInstanceConfigsByNamespace(appId, clusterName,
+          namespaceName, cursor, size);
+    } else {
+      instanceConfigs = instanceService.findActiveInstanceConfigsByNamespaceAndInstanceAppId(
+          instanceAppId, appId, clusterName, namespaceName, cursor, size);
+    }
+
+    List<InstanceDTO> instanceDTOs = Collections.emptyList();
+    if (!instanceConfigs.isEmpty()) {
+      Map<Long, Instance> instances = BeanUtils.mapByKey("id", instanceService.findInstancesByIds(
+          instanceConfigs.stream().map(InstanceConfig::getInstanceId).collect(Collectors.toSet())));
+      //keep the cursor order
+      instanceDTOs = instanceConfigs.stream().map(instanceConfig -> instances.get(instanceConfig
+          .getInstanceId())).filter(Objects::nonNull).distinct()
+          .map(instance -> BeanUtils.transform(InstanceDTO.class, instance))
+          .collect(Collectors.toList());
+    }
+
+    return new CursorPageDTO<>(instanceDTOs, size, nextCursor(instanceConfigs, size));
+  }
+
   @GetMapping("/by-namespace/count")
   public long getInstancesCountByNamespace(@RequestParam("appId") String appId,
                                           @RequestParam("clusterName") String clusterName,
@@ -186,4 +204,46 @@ public class InstanceConfigController {
         namespaceName, PageRequest.of(0, 1));
     return instances.getTotalElements();
   }
+
+  private List<InstanceDTO> assembleInstanceDTOs(List<InstanceConfig> instanceConfigs) {
+    if (CollectionUtils.isEmpty(instanceConfigs)) {
+      return Collections.emptyList();
+    }
+
+    Multimap<Long, InstanceConfig> instanceConfigMap = HashMultimap.create();
+    for (InstanceConfig instanceConfig : instanceConfigs) {
+      instanceConfigMap.put(instanceConfig.getInstanceId(), instanceConfig);
+    }
+
+    List<Instance> instances = instanceService.findInstancesByIds(instanceConfigMap.keySet());
+
+    if (CollectionUtils.isEmpty(instances)) {
+      return Collections.emptyList();
+    }
+
+    List<InstanceDTO> instanceDTOs = BeanUtils.batchTransform(InstanceDTO.class, instances);
+
+    for (InstanceDTO instanceDTO : instanceDTOs) {
+      Collection<InstanceConfig> configs = instanceConfigMap.get(instanceDTO.getId());
+      List<InstanceConfigDTO> configDTOs = configs.stream().map(instanceConfig -> {
+        InstanceConfigDTO instanceConfigDTO = new InstanceConfigDTO();
+        //to save some space
+        instanceConfigDTO.setRelease(null);
+        instanceConfigDTO.setReleaseDeliveryTime(instanceConfig.getReleaseDeliveryTime());
+        instanceConfigDTO.setDataChangeLastModifiedTime(instanceConfig
+            .getDataChangeLastModifiedTime());
+        return instanceConfigDTO;
+      }).collect(Collectors.toList());
+      instanceDTO.setConfigs(configDTOs);
+    }
+
+    return instanceDTOs;
+  }
+
+  private Long nextCursor(List<InstanceConfig> instanceConfigs, int size) {
+    if (instanceConfigs.size() < size) {
+      return null;
+    }
+    return instanceConfigs.get(instanceConfigs.size() - 1).getId();
+  }
 }
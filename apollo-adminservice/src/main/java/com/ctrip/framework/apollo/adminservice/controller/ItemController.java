@@ -9,6 +9,7 @@ import com.ctrip.framework.apollo.biz.service.ItemService;
 import com.ctrip.framework.apollo.biz.service.NamespaceService;
 import com.ctrip.framework.apollo.biz.utils.ConfigChangeContentBuilder;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
+import com.ctrip.framework.apollo.common.dto.NamespaceItemsDTO;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.exception.NotFoundException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
@@ -135,6 +136,22 @@ public class ItemController {
     return BeanUtils.batchTransform(ItemDTO.class, itemService.findItemsWithOrdered(appId, clusterName, namespaceName));
   }
 
+  @GetMapping("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/items-with-namespace")
+  public NamespaceItemsDTO findNamespaceItems(@PathVariable("appId") String appId,
+                                              @PathVariable("clusterName") String clusterName,
+                                              @PathVariable("namespaceName") String namespaceName) {
+    Namespace namespace = namespaceService.findOne(appId, clusterName, namespaceName);
+    if (namespace == null) {
+      throw new NotFoundException(String.format("namespace not found for %s %s %s", appId, clusterName,
+          namespaceName));
+    }
+
+    NamespaceItemsDTO namespaceItems = new NamespaceItemsDTO();
+    namespaceItems.setNamespaceId(namespace.getId());
+    namespaceItems.setItems(BeanUtils.batchTransform(ItemDTO.class, itemService.findItemsWithOrdered(namespace.getId())));
+    return namespaceItems;
+  }
+
   @GetMapping("/items/{itemId}")
   public ItemDTO get(@PathVariable("itemId") long itemId) {
     Item item = itemService.findOne(itemId);
@@ -7,13 +7,17 @@ import com.ctrip.framework.apollo.biz.message.MessageSender;
 import com.ctrip.framework.apollo.biz.message.Topics;
 import com.ctrip.framework.apollo.biz.service.NamespaceBranchService;
 import com.ctrip.framework.apollo.biz.service.NamespaceService;
+import com.ctrip.framework.apollo.biz.service.ReleaseDiffService;
 import com.ctrip.framework.apollo.biz.service.ReleaseService;
 import com.ctrip.framework.apollo.biz.utils.ReleaseMessageKeyGenerator;
 import com.ctrip.framework.apollo.common.constants.NamespaceBranchStatus;
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseDiffDTO;
 import com.ctrip.framework.apollo.common.exception.NotFoundException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
+import com.ctrip.framework.apollo.common.utils.RequestPrecondition;
 import com.google.common.base.Splitter;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,16 +43,19 @@ public class ReleaseController {
   private final NamespaceService namespaceService;
   private final MessageSender messageSender;
   private final NamespaceBranchService namespaceBranchService;
+  private final ReleaseDiffService releaseDiffService;
 
   public ReleaseController(
       final ReleaseService releaseService,
       final NamespaceService namespaceService,
       final MessageSender messageSender,
-      final NamespaceBranchService namespaceBranchService) {
+      final NamespaceBranchService namespaceBranchService,
+      final ReleaseDiffService releaseDiffService) {
     this.releaseService = releaseService;
     this.namespaceService = namespaceService;
     this.messageSender = messageSender;
     this.namespaceBranchService = namespaceBranchService;
+    this.releaseDiffService = releaseDiffService;
   }
 
 
@@ -71,6 +78,12 @@ public class ReleaseController {
     return BeanUtils.batchTransform(ReleaseDTO.class, releases);
   }
 
+  @GetMapping("/releases/compare")
+  public ReleaseDiffDTO compare(@RequestParam("baseReleaseId") long baseReleaseId,
+                                @RequestParam("toCompareReleaseId") long toCompareReleaseId) {
+    return releaseDiffService.compare(baseReleaseId, toCompareReleaseId);
+  }
+
   @GetMapping("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/all")
   public List<ReleaseDTO> findAllReleases(@PathVariable("appId") String appId,
                                           @PathVariable("clusterName") String clusterName,
@@ -90,6 +103,32 @@ public class ReleaseController {
     return BeanUtils.batchTransform(ReleaseDTO.class, releases);
   }
 
+  @GetMapping("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/all/cursor")
+  public CursorPageDTO<ReleaseDTO> findAllReleasesByCursor(@PathVariable("appId") String appId,
+                                                           @PathVariable("clusterName") String clusterName,
+                                                           @PathVariable("namespaceName") String namespaceName,
+                                                           @RequestParam(value = "cursor", required = false) Long cursor,
+                                                           @RequestParam(value = "size", defaultValue = "20") int size) {
+    RequestPrecondition.checkCursorPageSize(size);
+
+    List<Release> releases = releaseService.findAllReleases(appId, clusterName, namespaceName,
+        cursor == null ? Long.MAX_VALUE : cursor, size);
+    return CursorPageDTO.of(BeanUtils.batchTransform(ReleaseDTO.class, releases), size, ReleaseDTO::getId);
+  }
+
+  @GetMapping("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/active/cursor")
+  public CursorPageDTO<ReleaseDTO> findActiveReleasesByCursor(@PathVariable("appId") String appId,
+                                                              @PathVariable("clusterName") String clusterName,
+                                                              @PathVariable("namespaceName") String namespaceName,
+                                                              @RequestParam(value = "cursor", required = false) Long cursor,
+                                                              @RequestParam(value = "size", defaultValue = "20") int size) {
+    RequestPrecondition.checkCursorPageSize(size);
+
+    List<Release> releases = releaseService.findActiveReleases(appId, clusterName, namespaceName,
+        cursor == null ? Long.MAX_VALUE : cursor, size);
+    return CursorPageDTO.of(BeanUtils.batchTransform(ReleaseDTO.class, releases), size, ReleaseDTO::getId);
+  }
+
   @GetMapping("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/latest")
   public ReleaseDTO getLatest(@PathVariable("appId") String appId,
                               @PathVariable("clusterName") String clusterName,
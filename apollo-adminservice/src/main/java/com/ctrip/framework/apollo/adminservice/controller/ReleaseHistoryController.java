@@ -1,10 +1,14 @@
 package com.ctrip.framework.apollo.adminservice.controller;
 
 import com.ctrip.framework.apollo.biz.entity.ReleaseHistory;
+import com.ctrip.framework.apollo.biz.repository.ReleaseRepository.ReleaseSummary;
 import com.ctrip.framework.apollo.biz.service.ReleaseHistoryService;
+import com.ctrip.framework.apollo.biz.service.ReleaseService;
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.common.dto.PageDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseHistoryDTO;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
+import com.ctrip.framework.apollo.common.utils.RequestPrecondition;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.springframework.data.domain.Page;
@@ -18,6 +22,9 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
@@ -30,9 +37,12 @@ public class ReleaseHistoryController {
   }.getType();
 
   private final ReleaseHistoryService releaseHistoryService;
+  private final ReleaseService releaseService;
 
-  public ReleaseHistoryController(final ReleaseHistoryService releaseHistoryService) {
+  public ReleaseHistoryController(final ReleaseHistoryService releaseHistoryService,
+      final ReleaseService releaseService) {
     this.releaseHistoryService = releaseHistoryService;
+    this.releaseService = releaseService;
   }
 
   @GetMapping("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories")
@@ -46,6 +56,59 @@ public class ReleaseHistoryController {
     return transform2PageDTO(result, pageable);
   }
 
+  /**
+   * The release histories with the title and comment of their releases, the release configurations are not loaded
+   */
+  @GetMapping("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories/summaries")
+  public PageDTO<ReleaseHistoryDTO> findReleaseHistorySummariesByNamespace(
+      @PathVariable String appId, @PathVariable String clusterName,
+      @PathVariable String namespaceName,
+      Pageable pageable) {
+
+    Page<ReleaseHistory> result = releaseHistoryService.findReleaseHistoriesByNamespace(appId, clusterName,
+                                                                                        namespaceName, pageable);
+    PageDTO<ReleaseHistoryDTO> page = transform2PageDTO(result, pageable);
+    if (page == null) {
+      return null;
+    }
+
+    fillReleaseSummaries(page.getContent());
+    return page;
+  }
+
+  /**
+   * The cursor variant of {@link #findReleaseHistorySummariesByNamespace}
+   */
+  @GetMapping("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories/summaries/cursor")
+  public CursorPageDTO<ReleaseHistoryDTO> findReleaseHistorySummariesByNamespaceAndCursor(
+      @PathVariable String appId, @PathVariable String clusterName,
+      @PathVariable String namespaceName,
+      @RequestParam(value = "cursor", required = false) Long cursor,
+      @RequestParam(value = "size", defaultValue = "10") int size) {
+    CursorPageDTO<ReleaseHistoryDTO> page = findReleaseHistoriesByNamespaceAndCursor(appId, clusterName,
+        namespaceName, cursor, size);
+    fillReleaseSummaries(page.getContent());
+    return page;
+  }
+
+  @GetMapping("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories/cursor")
+  public CursorPageDTO<ReleaseHistoryDTO> findReleaseHistoriesByNamespaceAndCursor(
+      @PathVariable String appId, @PathVariable String clusterName,
+      @PathVariable String namespaceName,
+      @RequestParam(value = "cursor", required = false) Long cursor,
+      @RequestParam(value = "size", defaultValue = "10") int size) {
+    RequestPrecondition.checkCursorPageSize(size);
+
+    List<ReleaseHistory> releaseHistories = releaseHistoryService.findReleaseHistoriesByNamespace(appId,
+        clusterName, namespaceName, cursor == null ? Long.MAX_VALUE : cursor, size);
+
+    List<ReleaseHistoryDTO> releaseHistoryDTOs = new ArrayList<>(releaseHistories.size());
+    for (ReleaseHistory releaseHistory : releaseHistories) {
+      releaseHistoryDTOs.add(transformReleaseHistory2DTO(releaseHistory));
+    }
+
+    return CursorPageDTO.of(releaseHistoryDTOs, size, ReleaseHistoryDTO::getId);
+  }
 
   @GetMapping("/releases/histories/by_release_id_and_operation")
   public PageDTO<ReleaseHistoryDTO> findReleaseHistoryByReleaseIdAndOperation(
@@ -70,6 +133,21 @@ public class ReleaseHistoryController {
 
   }
 
+  private void fillReleaseSummaries(List<ReleaseHistoryDTO> releaseHistories) {
+    Set<Long> releaseIds = releaseHistories.stream().map(ReleaseHistoryDTO::getReleaseId)
+        .filter(releaseId -> releaseId != 0).collect(Collectors.toSet());
+    Map<Long, ReleaseSummary> releases = releaseService.findSummariesByReleaseIds(releaseIds).stream()
+        .collect(Collectors.toMap(ReleaseSummary::getId, Function.identity()));
+
+    for (ReleaseHistoryDTO releaseHistory : releaseHistories) {
+      ReleaseSummary release = releases.get(releaseHistory.getReleaseId());
+      if (release != null) {
+        releaseHistory.setReleaseTitle(release.getName());
+        releaseHistory.setReleaseComment(release.getComment());
+      }
+    }
+  }
+
   private PageDTO<ReleaseHistoryDTO> transform2PageDTO(Page<ReleaseHistory> releaseHistoriesPage, Pageable pageable){
     if (!releaseHistoriesPage.hasContent()) {
       return null;
@@ -3,22 +3,23 @@ package com.ctrip.framework.apollo.adminservice.aop;
 
 import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.Namespace;
-import com.ctrip.framework.apollo.biz.entity.NamespaceLock;
 import com.ctrip.framework.apollo.biz.service.ItemService;
 import com.ctrip.framework.apollo.biz.service.NamespaceLockService;
 import com.ctrip.framework.apollo.biz.service.NamespaceService;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
+import com.ctrip.framework.apollo.common.config.ServerConfigChangeListener;
 import com.ctrip.framework.apollo.common.exception.ServiceException;
+import com.google.common.collect.Sets;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.springframework.dao.DataIntegrityViolationException;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import java.util.concurrent.TimeUnit;
+
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -41,8 +42,17 @@ public class NamespaceLockTest {
   private ItemService itemService;
   @Mock
   private BizConfig bizConfig;
-  @InjectMocks
-  NamespaceAcquireLockAspect namespaceLockAspect;
+  private NamespaceAcquireLockAspect namespaceLockAspect;
+
+  @Before
+  public void setUp() {
+    when(bizConfig.namespaceLockNamespaceCacheExpire()).thenReturn(60);
+    when(bizConfig.namespaceLockNamespaceCacheExpireTimeUnit()).thenReturn(TimeUnit.SECONDS);
+    when(bizConfig.namespaceLockNamespaceCacheSize()).thenReturn(100);
+
+    namespaceLockAspect = new NamespaceAcquireLockAspect(namespaceLockService, namespaceService, itemService,
+        bizConfig);
+  }
 
   @Test
   public void acquireLockWithNotLockedAndSwitchON() {
@@ -59,14 +69,13 @@ public class NamespaceLockTest {
 
     when(bizConfig.isNamespaceLockSwitchOff()).thenReturn(false);
     when(namespaceService.findOne(APP, CLUSTER, NAMESPACE)).thenReturn(mockNamespace());
-    when(namespaceLockService.findLock(anyLong())).thenReturn(null);
+    when(namespaceLockService.acquireLock(NAMESPACE_ID, CURRENT_USER)).thenReturn(CURRENT_USER);
 
     namespaceLockAspect.acquireLock(APP, CLUSTER, NAMESPACE, CURRENT_USER);
 
     verify(bizConfig).isNamespaceLockSwitchOff();
     verify(namespaceService).findOne(APP, CLUSTER, NAMESPACE);
-    verify(namespaceLockService).findLock(anyLong());
-    verify(namespaceLockService).tryLock(any());
+    verify(namespaceLockService).acquireLock(NAMESPACE_ID, CURRENT_USER);
 
   }
 
@@ -75,13 +84,9 @@ public class NamespaceLockTest {
 
     when(bizConfig.isNamespaceLockSwitchOff()).thenReturn(false);
     when(namespaceService.findOne(APP, CLUSTER, NAMESPACE)).thenReturn(mockNamespace());
-    when(namespaceLockService.findLock(NAMESPACE_ID)).thenReturn(mockNamespaceLock(ANOTHER_USER));
+    when(namespaceLockService.acquireLock(NAMESPACE_ID, CURRENT_USER)).thenReturn(ANOTHER_USER);
 
     namespaceLockAspect.acquireLock(APP, CLUSTER, NAMESPACE, CURRENT_USER);
-
-    verify(bizConfig).isNamespaceLockSwitchOff();
-    verify(namespaceService).findOne(APP, CLUSTER, NAMESPACE);
-    verify(namespaceLockService).findLock(NAMESPACE_ID);
   }
 
   @Test
@@ -89,13 +94,34 @@ public class NamespaceLockTest {
 
     when(bizConfig.isNamespaceLockSwitchOff()).thenReturn(false);
     when(namespaceService.findOne(APP, CLUSTER, NAMESPACE)).thenReturn(mockNamespace());
-    when(namespaceLockService.findLock(NAMESPACE_ID)).thenReturn(mockNamespaceLock(CURRENT_USER));
+    when(namespaceLockService.acquireLock(NAMESPACE_ID, CURRENT_USER)).thenReturn(CURRENT_USER);
 
+    namespaceLockAspect.acquireLock(APP, CLUSTER, NAMESPACE, CURRENT_USER);
     namespaceLockAspect.acquireLock(APP, CLUSTER, NAMESPACE, CURRENT_USER);
 
-    verify(bizConfig).isNamespaceLockSwitchOff();
-    verify(namespaceService).findOne(APP, CLUSTER, NAMESPACE);
-    verify(namespaceLockService).findLock(NAMESPACE_ID);
+    //namespace is resolved from cache for the second time
+    verify(namespaceService, times(1)).findOne(APP, CLUSTER, NAMESPACE);
+    verify(namespaceLockService, times(2)).acquireLock(NAMESPACE_ID, CURRENT_USER);
+  }
+
+  @Test
+  public void acquireLockAfterNamespaceCacheSettingsChanged() {
+
+    when(bizConfig.isNamespaceLockSwitchOff()).thenReturn(false);
+    when(namespaceService.findOne(APP, CLUSTER, NAMESPACE)).thenReturn(mockNamespace());
+    when(namespaceLockService.acquireLock(NAMESPACE_ID, CURRENT_USER)).thenReturn(CURRENT_USER);
+
+    namespaceLockAspect.acquireLock(APP, CLUSTER, NAMESPACE, CURRENT_USER);
+
+    ArgumentCaptor<ServerConfigChangeListener> listener = ArgumentCaptor.forClass(ServerConfigChangeListener.class);
+    verify(bizConfig).addChangeListener(listener.capture());
+    when(bizConfig.namespaceLockNamespaceCacheSize()).thenReturn(0);
+    listener.getValue().onChange(Sets.newHashSet(BizConfig.NAMESPACE_LOCK_NAMESPACE_CACHE_SIZE));
+
+    namespaceLockAspect.acquireLock(APP, CLUSTER, NAMESPACE, CURRENT_USER);
+
+    //the cache is rebuilt with the new size, which caches nothing
+    verify(namespaceService, times(2)).findOne(APP, CLUSTER, NAMESPACE);
   }
 
   @Test
@@ -103,14 +129,22 @@ public class NamespaceLockTest {
 
     when(bizConfig.isNamespaceLockSwitchOff()).thenReturn(false);
     when(namespaceService.findOne(NAMESPACE_ID)).thenReturn(mockNamespace());
-    when(namespaceLockService.findLock(NAMESPACE_ID)).thenReturn(null);
+    when(namespaceLockService.acquireLock(NAMESPACE_ID, CURRENT_USER)).thenReturn(CURRENT_USER);
 
     namespaceLockAspect.acquireLock(NAMESPACE_ID, CURRENT_USER);
 
     verify(bizConfig).isNamespaceLockSwitchOff();
     verify(namespaceService).findOne(NAMESPACE_ID);
-    verify(namespaceLockService).findLock(NAMESPACE_ID);
-    verify(namespaceLockService).tryLock(any());
+    verify(namespaceLockService).acquireLock(NAMESPACE_ID, CURRENT_USER);
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void acquireLockWithNamespaceNotExist(){
+
+    when(bizConfig.isNamespaceLockSwitchOff()).thenReturn(false);
+    when(namespaceService.findOne(NAMESPACE_ID)).thenReturn(null);
+
+    namespaceLockAspect.acquireLock(NAMESPACE_ID, CURRENT_USER);
   }
 
   @Test(expected = ServiceException.class)
@@ -118,16 +152,9 @@ public class NamespaceLockTest {
 
     when(bizConfig.isNamespaceLockSwitchOff()).thenReturn(false);
     when(namespaceService.findOne(NAMESPACE_ID)).thenReturn(mockNamespace());
-    when(namespaceLockService.findLock(NAMESPACE_ID)).thenReturn(null);
-    when(namespaceLockService.tryLock(any())).thenThrow(DataIntegrityViolationException.class);
+    when(namespaceLockService.acquireLock(NAMESPACE_ID, CURRENT_USER)).thenReturn(null);
 
     namespaceLockAspect.acquireLock(NAMESPACE_ID, CURRENT_USER);
-
-    verify(bizConfig).isNamespaceLockSwitchOff();
-    verify(namespaceService).findOne(NAMESPACE_ID);
-    verify(namespaceLockService, times(2)).findLock(NAMESPACE_ID);
-    verify(namespaceLockService).tryLock(any());
-
   }
 
   private Namespace mockNamespace() {
@@ -139,12 +166,4 @@ public class NamespaceLockTest {
     return namespace;
   }
 
-  private NamespaceLock mockNamespaceLock(String locedUser) {
-    NamespaceLock lock = new NamespaceLock();
-    lock.setNamespaceId(NAMESPACE_ID);
-    lock.setDataChangeCreatedBy(locedUser);
-    return lock;
-  }
-
-
 }
@@ -5,8 +5,10 @@ import com.ctrip.framework.apollo.biz.entity.InstanceConfig;
 import com.ctrip.framework.apollo.biz.entity.Release;
 import com.ctrip.framework.apollo.biz.service.InstanceService;
 import com.ctrip.framework.apollo.biz.service.ReleaseService;
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.common.dto.InstanceDTO;
 import com.ctrip.framework.apollo.common.dto.PageDTO;
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.exception.NotFoundException;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
@@ -27,6 +29,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -297,6 +300,81 @@ public class InstanceConfigControllerTest {
   }
 
 
+  @Test
+  public void testGetInstancesByNamespaceWithCursor() throws Exception {
+    String someAppId = "someAppId";
+    String someClusterName = "someClusterName";
+    String someNamespaceName = "someNamespaceName";
+    String someIp = "someIp";
+    long someInstanceId = 1;
+    long anotherInstanceId = 2;
+    long someCursor = 10;
+    int someSize = 2;
+
+    InstanceConfig someInstanceConfig = assembleInstanceConfig(anotherInstanceId, someAppId,
+        someNamespaceName, "someKey", new Date());
+    someInstanceConfig.setId(someCursor + 1);
+    InstanceConfig anotherInstanceConfig = assembleInstanceConfig(someInstanceId, someAppId,
+        someNamespaceName, "someKey", new Date());
+    anotherInstanceConfig.setId(someCursor + 2);
+
+    when(instanceService.findActiveInstanceConfigsByNamespace(someAppId, someClusterName,
+        someNamespaceName, someCursor, someSize))
+        .thenReturn(Lists.newArrayList(someInstanceConfig, anotherInstanceConfig));
+
+    Instance someInstance = assembleInstance(someInstanceId, someAppId, someClusterName,
+        someNamespaceName, someIp);
+    Instance anotherInstance = assembleInstance(anotherInstanceId, someAppId, someClusterName,
+        someNamespaceName, someIp);
+    when(instanceService.findInstancesByIds(Sets.newHashSet(someInstanceId, anotherInstanceId)))
+        .thenReturn(Lists.newArrayList(someInstance, anotherInstance));
+
+    CursorPageDTO<InstanceDTO> result = instanceConfigController
+        .getInstancesByNamespaceWithCursor(someAppId, someClusterName, someNamespaceName, null,
+            someCursor, someSize);
+
+    assertEquals(2, result.getContent().size());
+    verifyInstance(anotherInstance, result.getContent().get(0));
+    verifyInstance(someInstance, result.getContent().get(1));
+    assertEquals(Long.valueOf(anotherInstanceConfig.getId()), result.getNextCursor());
+  }
+
+  @Test
+  public void testGetByReleaseWithCursorOnLastPage() throws Exception {
+    long someReleaseId = 1;
+    long someInstanceId = 1;
+    String someReleaseKey = "someKey";
+    Release someRelease = new Release();
+    someRelease.setReleaseKey(someReleaseKey);
+    long someCursor = 10;
+    int someSize = 2;
+
+    when(releaseService.findOne(someReleaseId)).thenReturn(someRelease);
+
+    InstanceConfig someInstanceConfig = assembleInstanceConfig(someInstanceId, "someConfigAppId",
+        "someNamespace", someReleaseKey, new Date());
+    when(instanceService.findActiveInstanceConfigsByReleaseKey(someReleaseKey, someCursor,
+        someSize)).thenReturn(Lists.newArrayList(someInstanceConfig));
+
+    Instance someInstance = assembleInstance(someInstanceId, "someAppId", "someCluster", "someDC",
+        "someIp");
+    when(instanceService.findInstancesByIds(Sets.newHashSet(someInstanceId)))
+        .thenReturn(Lists.newArrayList(someInstance));
+
+    CursorPageDTO<InstanceDTO> result = instanceConfigController.getByReleaseWithCursor(
+        someReleaseId, someCursor, someSize);
+
+    assertEquals(1, result.getContent().size());
+    verifyInstance(someInstance, result.getContent().get(0));
+    assertEquals(1, result.getContent().get(0).getConfigs().size());
+    assertFalse(result.hasNext());
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void testGetByReleaseWithCursorAndInvalidSize() throws Exception {
+    instanceConfigController.getByReleaseWithCursor(1, 0, 0);
+  }
+
   @Test
   public void testGetInstancesCountByNamespace() throws Exception {
     String someAppId = "someAppId";
@@ -0,0 +1,62 @@
+package com.ctrip.framework.apollo.adminservice.controller;
+
+import com.ctrip.framework.apollo.biz.entity.Item;
+import com.ctrip.framework.apollo.biz.entity.Namespace;
+import com.ctrip.framework.apollo.biz.repository.ItemRepository;
+import com.ctrip.framework.apollo.biz.repository.NamespaceRepository;
+import com.ctrip.framework.apollo.common.dto.NamespaceItemsDTO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.web.client.HttpClientErrorException;
+
+public class ItemControllerTest extends AbstractControllerTest {
+
+  @Autowired
+  private ItemRepository itemRepository;
+  @Autowired
+  private NamespaceRepository namespaceRepository;
+
+  @Test
+  @Sql(scripts = "/controller/test-itemset.sql", executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/controller/cleanup.sql", executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+  public void testFindNamespaceItems() {
+    Namespace namespace = namespaceRepository.findByAppIdAndClusterNameAndNamespaceName("someAppId", "default",
+        "application");
+
+    for (int i = 2; i > 0; i--) {
+      Item item = new Item();
+      item.setNamespaceId(namespace.getId());
+      item.setKey("key_" + i);
+      item.setValue("value_" + i);
+      item.setLineNum(i);
+      itemRepository.save(item);
+    }
+
+    NamespaceItemsDTO namespaceItems = restTemplate.getForObject(
+        url("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/items-with-namespace"),
+        NamespaceItemsDTO.class, "someAppId", "default", "application");
+
+    Assert.assertEquals(namespace.getId(), namespaceItems.getNamespaceId());
+    Assert.assertEquals(2, namespaceItems.getItems().size());
+    Assert.assertEquals("key_1", namespaceItems.getItems().get(0).getKey());
+    Assert.assertEquals("key_2", namespaceItems.getItems().get(1).getKey());
+  }
+
+  @Test
+  @Sql(scripts = "/controller/test-itemset.sql", executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/controller/cleanup.sql", executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+  public void testFindNamespaceItemsWithNamespaceNotExists() {
+    try {
+      restTemplate.getForObject(
+          url("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/items-with-namespace"),
+          NamespaceItemsDTO.class, "someAppId", "default", "someNotExistingNamespace");
+      Assert.fail("Should throw");
+    } catch (HttpClientErrorException ex) {
+      Assert.assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+  }
+}
@@ -8,6 +8,7 @@ import com.ctrip.framework.apollo.biz.service.NamespaceService;
 import com.ctrip.framework.apollo.biz.service.ReleaseService;
 import com.ctrip.framework.apollo.common.dto.AppDTO;
 import com.ctrip.framework.apollo.common.dto.ClusterDTO;
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.dto.NamespaceDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
@@ -17,8 +18,10 @@ import com.google.gson.Gson;
 import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -92,6 +95,41 @@ public class ReleaseControllerTest extends AbstractControllerTest {
     Assert.assertEquals(gson.toJson(configurations), release.getConfigurations());
   }
 
+  @Test
+  @Sql(scripts = "/controller/test-release.sql", executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/controller/cleanup.sql", executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+  public void testFindAllReleasesByCursor() {
+    String releasesUrl = "http://localhost:" + port + "/apps/someAppId/clusters/default/namespaces/application/releases";
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+    for (int i = 0; i < 3; i++) {
+      MultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>();
+      parameters.add("name", "someReleaseName" + i);
+      parameters.add("operator", "test");
+      restTemplate.postForEntity(releasesUrl, new HttpEntity<>(parameters, headers), ReleaseDTO.class);
+    }
+
+    ParameterizedTypeReference<CursorPageDTO<ReleaseDTO>> type =
+        new ParameterizedTypeReference<CursorPageDTO<ReleaseDTO>>() {
+        };
+
+    CursorPageDTO<ReleaseDTO> firstPage = restTemplate.exchange(releasesUrl + "/all/cursor?size=2", HttpMethod.GET,
+        null, type).getBody();
+
+    Assert.assertEquals(2, firstPage.getContent().size());
+    Assert.assertEquals("someReleaseName2", firstPage.getContent().get(0).getName());
+    Assert.assertEquals("someReleaseName1", firstPage.getContent().get(1).getName());
+    Assert.assertEquals(Long.valueOf(firstPage.getContent().get(1).getId()), firstPage.getNextCursor());
+
+    CursorPageDTO<ReleaseDTO> secondPage = restTemplate.exchange(
+        releasesUrl + "/all/cursor?size=2&cursor=" + firstPage.getNextCursor(), HttpMethod.GET, null, type).getBody();
+
+    Assert.assertEquals("someReleaseName0", secondPage.getContent().get(0).getName());
+    for (ReleaseDTO release : secondPage.getContent()) {
+      Assert.assertTrue(release.getId() < firstPage.getNextCursor());
+    }
+  }
+
   @Test
   public void testMessageSendAfterBuildRelease() throws Exception {
     String someAppId = "someAppId";
@@ -106,7 +144,7 @@ public class ReleaseControllerTest extends AbstractControllerTest {
     MessageSender someMessageSender = mock(MessageSender.class);
     Namespace someNamespace = mock(Namespace.class);
 
-    ReleaseController releaseController = new ReleaseController(someReleaseService, someNamespaceService, someMessageSender, null);
+    ReleaseController releaseController = new ReleaseController(someReleaseService, someNamespaceService, someMessageSender, null, null);
 
     when(someNamespaceService.findOne(someAppId, someCluster, someNamespaceName))
         .thenReturn(someNamespace);
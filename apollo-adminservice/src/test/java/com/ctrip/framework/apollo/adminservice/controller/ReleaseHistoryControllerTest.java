@@ -0,0 +1,38 @@
+package com.ctrip.framework.apollo.adminservice.controller;
+
+import com.ctrip.framework.apollo.common.dto.PageDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseHistoryDTO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+
+import java.util.List;
+
+public class ReleaseHistoryControllerTest extends AbstractControllerTest {
+
+  private ParameterizedTypeReference<PageDTO<ReleaseHistoryDTO>> pageType =
+      new ParameterizedTypeReference<PageDTO<ReleaseHistoryDTO>>() {
+      };
+
+  @Test
+  @Sql(scripts = {"/controller/cleanup-release-history.sql", "/controller/test-release-history.sql"},
+      executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/controller/cleanup-release-history.sql", executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+  public void testFindReleaseHistorySummaries() {
+    PageDTO<ReleaseHistoryDTO> page = restTemplate.exchange(
+        url("/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories/summaries?page=0&size=10"),
+        HttpMethod.GET, null, pageType, "someAppId", "default", "application").getBody();
+
+    List<ReleaseHistoryDTO> releaseHistories = page.getContent();
+
+    Assert.assertEquals(2, releaseHistories.size());
+    Assert.assertEquals(1002, releaseHistories.get(0).getReleaseId());
+    Assert.assertEquals("anotherReleaseName", releaseHistories.get(0).getReleaseTitle());
+    Assert.assertEquals("anotherComment", releaseHistories.get(0).getReleaseComment());
+    Assert.assertEquals(1001, releaseHistories.get(1).getReleaseId());
+    Assert.assertEquals("someReleaseName", releaseHistories.get(1).getReleaseTitle());
+  }
+}
@@ -0,0 +1,2 @@
+DELETE FROM ReleaseHistory;
+DELETE FROM Release;
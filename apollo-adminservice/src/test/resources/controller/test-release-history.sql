@@ -0,0 +1,9 @@
+INSERT INTO Release (Id, ReleaseKey, Name, Comment, AppId, ClusterName, NamespaceName, Configurations, IsAbandoned, DataChange_CreatedBy, DataChange_CreatedTime)
+VALUES (1001, 'someReleaseKey', 'someReleaseName', 'someComment', 'someAppId', 'default', 'application', '{"k1":"v1"}', 0, 'someOperator', '2019-01-01 00:00:00');
+INSERT INTO Release (Id, ReleaseKey, Name, Comment, AppId, ClusterName, NamespaceName, Configurations, IsAbandoned, DataChange_CreatedBy, DataChange_CreatedTime)
+VALUES (1002, 'anotherReleaseKey', 'anotherReleaseName', 'anotherComment', 'someAppId', 'default', 'application', '{"k1":"v2"}', 0, 'someOperator', '2019-01-01 00:00:01');
+
+INSERT INTO ReleaseHistory (Id, AppId, ClusterName, NamespaceName, BranchName, ReleaseId, PreviousReleaseId, Operation, OperationContext, DataChange_CreatedBy, DataChange_CreatedTime)
+VALUES (2001, 'someAppId', 'default', 'application', 'default', 1001, 0, 0, '{}', 'someOperator', '2019-01-01 00:00:00');
+INSERT INTO ReleaseHistory (Id, AppId, ClusterName, NamespaceName, BranchName, ReleaseId, PreviousReleaseId, Operation, OperationContext, DataChange_CreatedBy, DataChange_CreatedTime)
+VALUES (2002, 'someAppId', 'default', 'application', 'default', 1002, 1001, 0, '{}', 'someOperator', '2019-01-01 00:00:01');
@@ -3,8 +3,8 @@ package com.ctrip.framework.apollo.biz.config;
 import com.ctrip.framework.apollo.biz.service.BizDBPropertySource;
 import com.ctrip.framework.apollo.common.config.RefreshableConfig;
 import com.ctrip.framework.apollo.common.config.RefreshablePropertySource;
+import com.ctrip.framework.apollo.tracer.Tracer;
 import com.google.common.base.Strings;
-import com.google.common.collect.Maps;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.springframework.stereotype.Component;
@@ -18,6 +18,13 @@ import java.util.concurrent.TimeUnit;
 @Component
 public class BizConfig extends RefreshableConfig {
 
+  //the keys of the configs which are applied by the change listeners
+  public static final String NAMESPACE_LOCK_CACHE_EXPIRE = "namespace.lock.cache.expire";
+  public static final String NAMESPACE_LOCK_NAMESPACE_CACHE_EXPIRE = "namespace.lock.namespace-cache.expire";
+  public static final String NAMESPACE_LOCK_NAMESPACE_CACHE_SIZE = "namespace.lock.namespace-cache.size";
+  public static final String SERVICE_REGISTRY_HEARTBEAT_INTERVAL = "apollo.service-registry.heartbeat.interval";
+  public static final String INSTANCE_RETENTION_SCAN_INTERVAL = "apollo.instance.retention.scan.interval";
+
   private static final int DEFAULT_ITEM_KEY_LENGTH = 128;
   private static final int DEFAULT_ITEM_VALUE_LENGTH = 20000;
   private static final int DEFAULT_APPNAMESPACE_CACHE_REBUILD_INTERVAL = 60; //60s
@@ -27,6 +34,25 @@ public class BizConfig extends RefreshableConfig {
   private static final int DEFAULT_RELEASE_MESSAGE_SCAN_INTERVAL_IN_MS = 1000; //1000ms
   private static final int DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH = 100;
   private static final int DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH_INTERVAL_IN_MILLI = 100;//100ms
+  private static final int DEFAULT_INSTANCE_RETENTION_DAYS = 0; //disabled
+  private static final int MIN_INSTANCE_RETENTION_DAYS = 2; //instance config is refreshed once per day
+  private static final int DEFAULT_INSTANCE_RETENTION_BATCH_SIZE = 500;
+  private static final int DEFAULT_INSTANCE_RETENTION_SCAN_INTERVAL = 60; //60min
+  private static final int DEFAULT_NAMESPACE_LOCK_CACHE_EXPIRE = 5; //5s
+  private static final int DEFAULT_NAMESPACE_LOCK_NAMESPACE_CACHE_EXPIRE = 60; //60s
+  private static final int DEFAULT_NAMESPACE_LOCK_NAMESPACE_CACHE_SIZE = 10000;
+  private static final int DEFAULT_LONG_POLLING_HOLD_TIME_IN_MILLI = 60000; //60s
+  //the clients not recognizing the hold time header would time out after 90s
+  private static final int MAX_LONG_POLLING_HOLD_TIME_IN_MILLI = 85000; //85s
+  private static final int DEFAULT_LONG_POLLING_RECONNECT_JITTER_IN_MILLI = 5000; //5s
+  private static final int DEFAULT_LONG_POLLING_DRAIN_WINDOW_IN_MILLI = 30000; //30s
+  private static final int DEFAULT_RELEASE_DIFF_CACHE_SIZE = 1000;
+  private static final int DEFAULT_SERVICE_REGISTRY_HEARTBEAT_INTERVAL_IN_MILLI = 1000; //1s
+  private static final int DEFAULT_SERVICE_REGISTRY_EXPIRE_IN_MILLI = 3000; //3s
+  private static final int DEFAULT_CONFIG_SERVICE_WARM_UP_SIZE = 1000;
+  private static final int DEFAULT_CONFIG_SERVICE_WARM_UP_TIMEOUT = 60; //60s
+  private static final int DEFAULT_CONFIG_SERVICE_WARM_UP_THREADS = 4;
+  private static final String DEFAULT_CONFIG_SERVICE_SNAPSHOT_PATH = "/opt/data/apollo-configservice/config-snapshot";
 
   private Gson gson = new Gson();
   private static final Type namespaceValueLengthOverrideTypeReference =
@@ -34,6 +60,7 @@ public class BizConfig extends RefreshableConfig {
       }.getType();
 
   private final BizDBPropertySource propertySource;
+  private volatile Snapshot snapshot;
 
   public BizConfig(final BizDBPropertySource propertySource) {
     this.propertySource = propertySource;
@@ -44,59 +71,83 @@ public class BizConfig extends RefreshableConfig {
     return Collections.singletonList(propertySource);
   }
 
-  public List<String> eurekaServiceUrls() {
-    String configuration = getValue("eureka.service.url", "");
-    if (Strings.isNullOrEmpty(configuration)) {
-      return Collections.emptyList();
-    }
+  /**
+   * the typed configs are served from the snapshot, which is rebuilt when the configs are refreshed
+   */
+  @Override
+  protected void onRefreshed() {
+    snapshot = new Snapshot();
+  }
+
+  private Snapshot snapshot() {
+    Snapshot current = snapshot;
+    //not set up yet, load from the environment directly
+    return current != null ? current : new Snapshot();
+  }
 
-    return splitter.splitToList(configuration);
+  public List<String> eurekaServiceUrls() {
+    return snapshot().eurekaServiceUrls;
   }
 
   public int grayReleaseRuleScanInterval() {
-    int interval = getIntProperty("apollo.gray-release-rule-scan.interval", DEFAULT_GRAY_RELEASE_RULE_SCAN_INTERVAL);
-    return checkInt(interval, 1, Integer.MAX_VALUE, DEFAULT_GRAY_RELEASE_RULE_SCAN_INTERVAL);
+    return snapshot().grayReleaseRuleScanInterval;
   }
 
   public int itemKeyLengthLimit() {
-    int limit = getIntProperty("item.key.length.limit", DEFAULT_ITEM_KEY_LENGTH);
-    return checkInt(limit, 5, Integer.MAX_VALUE, DEFAULT_ITEM_KEY_LENGTH);
+    return snapshot().itemKeyLengthLimit;
   }
 
   public int itemValueLengthLimit() {
-    int limit = getIntProperty("item.value.length.limit", DEFAULT_ITEM_VALUE_LENGTH);
-    return checkInt(limit, 5, Integer.MAX_VALUE, DEFAULT_ITEM_VALUE_LENGTH);
+    return snapshot().itemValueLengthLimit;
   }
 
   public Map<Long, Integer> namespaceValueLengthLimitOverride() {
-    String namespaceValueLengthOverrideString = getValue("namespace.value.length.limit.override");
-    Map<Long, Integer> namespaceValueLengthOverride = Maps.newHashMap();
-    if (!Strings.isNullOrEmpty(namespaceValueLengthOverrideString)) {
-      namespaceValueLengthOverride =
-          gson.fromJson(namespaceValueLengthOverrideString, namespaceValueLengthOverrideTypeReference);
-    }
-
-    return namespaceValueLengthOverride;
+    return snapshot().namespaceValueLengthLimitOverride;
   }
 
   public boolean isNamespaceLockSwitchOff() {
-    return !getBooleanProperty("namespace.lock.switch", false);
+    return snapshot().namespaceLockSwitchOff;
+  }
+
+  /**
+   * how long the operator's own namespace lock is cached, 0 means no cache
+   */
+  public int namespaceLockCacheExpire() {
+    return snapshot().namespaceLockCacheExpire;
+  }
+
+  public TimeUnit namespaceLockCacheExpireTimeUnit() {
+    return TimeUnit.SECONDS;
+  }
+
+  /**
+   * how long the namespace is cached by the lock aspect, 0 means no cache
+   */
+  public int namespaceLockNamespaceCacheExpire() {
+    return snapshot().namespaceLockNamespaceCacheExpire;
+  }
+
+  public TimeUnit namespaceLockNamespaceCacheExpireTimeUnit() {
+    return TimeUnit.SECONDS;
+  }
+
+  public int namespaceLockNamespaceCacheSize() {
+    return snapshot().namespaceLockNamespaceCacheSize;
   }
 
   /**
    * ctrip config
    **/
   public String cloggingUrl() {
-    return getValue("clogging.server.url");
+    return snapshot().cloggingUrl;
   }
 
   public String cloggingPort() {
-    return getValue("clogging.server.port");
+    return snapshot().cloggingPort;
   }
 
   public int appNamespaceCacheScanInterval() {
-    int interval = getIntProperty("apollo.app-namespace-cache-scan.interval", DEFAULT_APPNAMESPACE_CACHE_SCAN_INTERVAL);
-    return checkInt(interval, 1, Integer.MAX_VALUE, DEFAULT_APPNAMESPACE_CACHE_SCAN_INTERVAL);
+    return snapshot().appNamespaceCacheScanInterval;
   }
 
   public TimeUnit appNamespaceCacheScanIntervalTimeUnit() {
@@ -104,8 +155,7 @@ public class BizConfig extends RefreshableConfig {
   }
 
   public int appNamespaceCacheRebuildInterval() {
-    int interval = getIntProperty("apollo.app-namespace-cache-rebuild.interval", DEFAULT_APPNAMESPACE_CACHE_REBUILD_INTERVAL);
-    return checkInt(interval, 1, Integer.MAX_VALUE, DEFAULT_APPNAMESPACE_CACHE_REBUILD_INTERVAL);
+    return snapshot().appNamespaceCacheRebuildInterval;
   }
 
   public TimeUnit appNamespaceCacheRebuildIntervalTimeUnit() {
@@ -113,8 +163,7 @@ public class BizConfig extends RefreshableConfig {
   }
 
   public int releaseMessageCacheScanInterval() {
-    int interval = getIntProperty("apollo.release-message-cache-scan.interval", DEFAULT_RELEASE_MESSAGE_CACHE_SCAN_INTERVAL);
-    return checkInt(interval, 1, Integer.MAX_VALUE, DEFAULT_RELEASE_MESSAGE_CACHE_SCAN_INTERVAL);
+    return snapshot().releaseMessageCacheScanInterval;
   }
 
   public TimeUnit releaseMessageCacheScanIntervalTimeUnit() {
@@ -122,22 +171,164 @@ public class BizConfig extends RefreshableConfig {
   }
 
   public int releaseMessageScanIntervalInMilli() {
-    int interval = getIntProperty("apollo.message-scan.interval", DEFAULT_RELEASE_MESSAGE_SCAN_INTERVAL_IN_MS);
-    return checkInt(interval, 100, Integer.MAX_VALUE, DEFAULT_RELEASE_MESSAGE_SCAN_INTERVAL_IN_MS);
+    return snapshot().releaseMessageScanIntervalInMilli;
   }
 
   public int releaseMessageNotificationBatch() {
-    int batch = getIntProperty("apollo.release-message.notification.batch", DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH);
-    return checkInt(batch, 1, Integer.MAX_VALUE, DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH);
+    return snapshot().releaseMessageNotificationBatch;
   }
 
   public int releaseMessageNotificationBatchIntervalInMilli() {
-    int interval = getIntProperty("apollo.release-message.notification.batch.interval", DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH_INTERVAL_IN_MILLI);
-    return checkInt(interval, 10, Integer.MAX_VALUE, DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH_INTERVAL_IN_MILLI);
+    return snapshot().releaseMessageNotificationBatchIntervalInMilli;
+  }
+
+  public int longPollingHoldTimeInMilli() {
+    return snapshot().longPollingHoldTimeInMilli;
+  }
+
+  /**
+   * the clients spread their reconnects after failures within this window, e.g. when the config services are restarted
+   */
+  public int longPollingReconnectJitterInMilli() {
+    return snapshot().longPollingReconnectJitterInMilli;
+  }
+
+  /**
+   * the clients of a draining config service move to other config services within this window
+   */
+  public int longPollingDrainWindowInMilli() {
+    return snapshot().longPollingDrainWindowInMilli;
+  }
+
+  /**
+   * the max number of release diffs cached in admin service, takes effect after restart
+   */
+  public int releaseDiffCacheSize() {
+    return snapshot().releaseDiffCacheSize;
   }
 
   public boolean isConfigServiceCacheEnabled() {
-    return getBooleanProperty("config-service.cache.enabled", false);
+    return snapshot().configServiceCacheEnabled;
+  }
+
+  /**
+   * whether to keep the latest releases in a local snapshot file, only works with the config service cache, takes
+   * effect after restart
+   */
+  public boolean isConfigServiceSnapshotEnabled() {
+    return snapshot().configServiceSnapshotEnabled;
+  }
+
+  /**
+   * the base directory of the snapshots, each config database has its own sub directory
+   */
+  public String configServiceSnapshotPath() {
+    return snapshot().configServiceSnapshotPath;
+  }
+
+  /**
+   * the max number of namespaces loaded into the config service cache on startup, 0 means no warm up
+   */
+  public int configServiceWarmUpSize() {
+    return snapshot().configServiceWarmUpSize;
+  }
+
+  /**
+   * the config service reports healthy once the warm up finishes or times out
+   */
+  public int configServiceWarmUpTimeout() {
+    return snapshot().configServiceWarmUpTimeout;
+  }
+
+  public TimeUnit configServiceWarmUpTimeoutTimeUnit() {
+    return TimeUnit.SECONDS;
+  }
+
+  public int configServiceWarmUpThreads() {
+    return snapshot().configServiceWarmUpThreads;
+  }
+
+  /**
+   * how often the services registered in the database refresh their heartbeats, takes effect after restart
+   */
+  public int serviceRegistryHeartbeatIntervalInMilli() {
+    return snapshot().serviceRegistryHeartbeatIntervalInMilli;
+  }
+
+  /**
+   * the services registered in the database are regarded as down if they miss heartbeats for this long
+   */
+  public int serviceRegistryExpireInMilli() {
+    return snapshot().serviceRegistryExpireInMilli;
+  }
+
+  /**
+   * the config service urls returned by the meta service with the kubernetes profile
+   */
+  public List<String> configServiceUrls() {
+    return snapshot().configServiceUrls;
+  }
+
+  /**
+   * the admin service urls returned by the meta service with the kubernetes profile
+   */
+  public List<String> adminServiceUrls() {
+    return snapshot().adminServiceUrls;
+  }
+
+  /**
+   * whether the hosts of the config and admin service urls are headless services, which are resolved to the pods
+   */
+  public boolean isKubernetesHeadlessServiceEnabled() {
+    return snapshot().kubernetesHeadlessServiceEnabled;
+  }
+
+  public boolean isInstanceRetentionEnabled() {
+    return instanceRetentionDays() > 0;
+  }
+
+  /**
+   * instances and instance configs that are not refreshed in the last N days will be purged
+   */
+  public int instanceRetentionDays() {
+    return snapshot().instanceRetentionDays;
+  }
+
+  public int instanceRetentionBatchSize() {
+    return snapshot().instanceRetentionBatchSize;
+  }
+
+  public int instanceRetentionScanInterval() {
+    return snapshot().instanceRetentionScanInterval;
+  }
+
+  public TimeUnit instanceRetentionScanIntervalTimeUnit() {
+    return TimeUnit.MINUTES;
+  }
+
+  private List<String> loadUrls(String key) {
+    String configuration = getValue(key, "");
+    if (Strings.isNullOrEmpty(configuration)) {
+      return Collections.emptyList();
+    }
+
+    return Collections.unmodifiableList(splitter.splitToList(configuration));
+  }
+
+  private Map<Long, Integer> loadNamespaceValueLengthLimitOverride() {
+    String namespaceValueLengthOverrideString = getValue("namespace.value.length.limit.override");
+    Map<Long, Integer> namespaceValueLengthOverride = null;
+    if (!Strings.isNullOrEmpty(namespaceValueLengthOverrideString)) {
+      try {
+        namespaceValueLengthOverride =
+            gson.fromJson(namespaceValueLengthOverrideString, namespaceValueLengthOverrideTypeReference);
+      } catch (Throwable ex) {
+        Tracer.logError("Parse namespace.value.length.limit.override failed.", ex);
+      }
+    }
+
+    return namespaceValueLengthOverride == null ? Collections.emptyMap()
+        : Collections.unmodifiableMap(namespaceValueLengthOverride);
   }
 
   int checkInt(int value, int min, int max, int defaultValue) {
@@ -146,4 +337,82 @@ public class BizConfig extends RefreshableConfig {
     }
     return defaultValue;
   }
+
+  /**
+   * The immutable typed configs, so the getters on the hot paths don't go through the environment every time.
+   */
+  private final class Snapshot {
+    private final List<String> eurekaServiceUrls = loadUrls("eureka.service.url");
+    private final int grayReleaseRuleScanInterval = checkInt(getIntProperty("apollo.gray-release-rule-scan.interval",
+        DEFAULT_GRAY_RELEASE_RULE_SCAN_INTERVAL), 1, Integer.MAX_VALUE, DEFAULT_GRAY_RELEASE_RULE_SCAN_INTERVAL);
+    private final int itemKeyLengthLimit = checkInt(getIntProperty("item.key.length.limit", DEFAULT_ITEM_KEY_LENGTH),
+        5, Integer.MAX_VALUE, DEFAULT_ITEM_KEY_LENGTH);
+    private final int itemValueLengthLimit = checkInt(getIntProperty("item.value.length.limit",
+        DEFAULT_ITEM_VALUE_LENGTH), 5, Integer.MAX_VALUE, DEFAULT_ITEM_VALUE_LENGTH);
+    private final Map<Long, Integer> namespaceValueLengthLimitOverride = loadNamespaceValueLengthLimitOverride();
+    private final boolean namespaceLockSwitchOff = !getBooleanProperty("namespace.lock.switch", false);
+    private final int namespaceLockCacheExpire = checkInt(getIntProperty(NAMESPACE_LOCK_CACHE_EXPIRE,
+        DEFAULT_NAMESPACE_LOCK_CACHE_EXPIRE), 0, 60, DEFAULT_NAMESPACE_LOCK_CACHE_EXPIRE);
+    private final int namespaceLockNamespaceCacheExpire = checkInt(getIntProperty(
+        NAMESPACE_LOCK_NAMESPACE_CACHE_EXPIRE, DEFAULT_NAMESPACE_LOCK_NAMESPACE_CACHE_EXPIRE), 0, 3600,
+        DEFAULT_NAMESPACE_LOCK_NAMESPACE_CACHE_EXPIRE);
+    private final int namespaceLockNamespaceCacheSize = checkInt(getIntProperty(NAMESPACE_LOCK_NAMESPACE_CACHE_SIZE,
+        DEFAULT_NAMESPACE_LOCK_NAMESPACE_CACHE_SIZE), 0, Integer.MAX_VALUE, DEFAULT_NAMESPACE_LOCK_NAMESPACE_CACHE_SIZE);
+    private final String cloggingUrl = getValue("clogging.server.url");
+    private final String cloggingPort = getValue("clogging.server.port");
+    private final int appNamespaceCacheScanInterval = checkInt(getIntProperty(
+        "apollo.app-namespace-cache-scan.interval", DEFAULT_APPNAMESPACE_CACHE_SCAN_INTERVAL), 1, Integer.MAX_VALUE,
+        DEFAULT_APPNAMESPACE_CACHE_SCAN_INTERVAL);
+    private final int appNamespaceCacheRebuildInterval = checkInt(getIntProperty(
+        "apollo.app-namespace-cache-rebuild.interval", DEFAULT_APPNAMESPACE_CACHE_REBUILD_INTERVAL), 1,
+        Integer.MAX_VALUE, DEFAULT_APPNAMESPACE_CACHE_REBUILD_INTERVAL);
+    private final int releaseMessageCacheScanInterval = checkInt(getIntProperty(
+        "apollo.release-message-cache-scan.interval", DEFAULT_RELEASE_MESSAGE_CACHE_SCAN_INTERVAL), 1,
+        Integer.MAX_VALUE, DEFAULT_RELEASE_MESSAGE_CACHE_SCAN_INTERVAL);
+    private final int releaseMessageScanIntervalInMilli = checkInt(getIntProperty("apollo.message-scan.interval",
+        DEFAULT_RELEASE_MESSAGE_SCAN_INTERVAL_IN_MS), 100, Integer.MAX_VALUE, DEFAULT_RELEASE_MESSAGE_SCAN_INTERVAL_IN_MS);
+    private final int releaseMessageNotificationBatch = checkInt(getIntProperty(
+        "apollo.release-message.notification.batch", DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH), 1,
+        Integer.MAX_VALUE, DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH);
+    private final int releaseMessageNotificationBatchIntervalInMilli = checkInt(getIntProperty(
+        "apollo.release-message.notification.batch.interval", DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH_INTERVAL_IN_MILLI),
+        10, Integer.MAX_VALUE, DEFAULT_RELEASE_MESSAGE_NOTIFICATION_BATCH_INTERVAL_IN_MILLI);
+    private final int longPollingHoldTimeInMilli = checkInt(getIntProperty("apollo.long-polling.hold-time",
+        DEFAULT_LONG_POLLING_HOLD_TIME_IN_MILLI), 1000, MAX_LONG_POLLING_HOLD_TIME_IN_MILLI,
+        DEFAULT_LONG_POLLING_HOLD_TIME_IN_MILLI);
+    private final int longPollingReconnectJitterInMilli = checkInt(getIntProperty(
+        "apollo.long-polling.reconnect-jitter", DEFAULT_LONG_POLLING_RECONNECT_JITTER_IN_MILLI), 0, Integer.MAX_VALUE,
+        DEFAULT_LONG_POLLING_RECONNECT_JITTER_IN_MILLI);
+    private final int longPollingDrainWindowInMilli = checkInt(getIntProperty("apollo.long-polling.drain-window",
+        DEFAULT_LONG_POLLING_DRAIN_WINDOW_IN_MILLI), 0, Integer.MAX_VALUE, DEFAULT_LONG_POLLING_DRAIN_WINDOW_IN_MILLI);
+    private final int releaseDiffCacheSize = checkInt(getIntProperty("apollo.release-diff.cache.size",
+        DEFAULT_RELEASE_DIFF_CACHE_SIZE), 0, Integer.MAX_VALUE, DEFAULT_RELEASE_DIFF_CACHE_SIZE);
+    private final boolean configServiceCacheEnabled = getBooleanProperty("config-service.cache.enabled", false);
+    private final boolean configServiceSnapshotEnabled = getBooleanProperty("config-service.snapshot.enabled", false);
+    private final String configServiceSnapshotPath = getValue("config-service.snapshot.path",
+        DEFAULT_CONFIG_SERVICE_SNAPSHOT_PATH);
+    private final int configServiceWarmUpSize = checkInt(getIntProperty("config-service.warm-up.size",
+        DEFAULT_CONFIG_SERVICE_WARM_UP_SIZE), 0, Integer.MAX_VALUE, DEFAULT_CONFIG_SERVICE_WARM_UP_SIZE);
+    private final int configServiceWarmUpTimeout = checkInt(getIntProperty("config-service.warm-up.timeout",
+        DEFAULT_CONFIG_SERVICE_WARM_UP_TIMEOUT), 1, Integer.MAX_VALUE, DEFAULT_CONFIG_SERVICE_WARM_UP_TIMEOUT);
+    private final int configServiceWarmUpThreads = checkInt(getIntProperty("config-service.warm-up.threads",
+        DEFAULT_CONFIG_SERVICE_WARM_UP_THREADS), 1, 64, DEFAULT_CONFIG_SERVICE_WARM_UP_THREADS);
+    private final int serviceRegistryHeartbeatIntervalInMilli = checkInt(getIntProperty(
+        SERVICE_REGISTRY_HEARTBEAT_INTERVAL, DEFAULT_SERVICE_REGISTRY_HEARTBEAT_INTERVAL_IN_MILLI), 100,
+        Integer.MAX_VALUE, DEFAULT_SERVICE_REGISTRY_HEARTBEAT_INTERVAL_IN_MILLI);
+    private final int serviceRegistryExpireInMilli = checkInt(getIntProperty("apollo.service-registry.expire",
+        DEFAULT_SERVICE_REGISTRY_EXPIRE_IN_MILLI), serviceRegistryHeartbeatIntervalInMilli * 2, Integer.MAX_VALUE,
+        Math.max(DEFAULT_SERVICE_REGISTRY_EXPIRE_IN_MILLI, serviceRegistryHeartbeatIntervalInMilli * 3));
+    private final List<String> configServiceUrls = loadUrls("apollo.config-service.url");
+    private final List<String> adminServiceUrls = loadUrls("apollo.admin-service.url");
+    private final boolean kubernetesHeadlessServiceEnabled = getBooleanProperty(
+        "apollo.kubernetes.headless-service.enabled", false);
+    private final int instanceRetentionDays = checkInt(getIntProperty("apollo.instance.retention.days",
+        DEFAULT_INSTANCE_RETENTION_DAYS), MIN_INSTANCE_RETENTION_DAYS, Integer.MAX_VALUE,
+        DEFAULT_INSTANCE_RETENTION_DAYS);
+    private final int instanceRetentionBatchSize = checkInt(getIntProperty("apollo.instance.retention.batch",
+        DEFAULT_INSTANCE_RETENTION_BATCH_SIZE), 1, 10000, DEFAULT_INSTANCE_RETENTION_BATCH_SIZE);
+    private final int instanceRetentionScanInterval = checkInt(getIntProperty(INSTANCE_RETENTION_SCAN_INTERVAL,
+        DEFAULT_INSTANCE_RETENTION_SCAN_INTERVAL), 1, Integer.MAX_VALUE, DEFAULT_INSTANCE_RETENTION_SCAN_INTERVAL);
+  }
 }
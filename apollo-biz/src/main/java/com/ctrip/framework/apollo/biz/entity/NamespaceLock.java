@@ -7,9 +7,11 @@ import org.hibernate.annotations.Where;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "NamespaceLock")
+@Table(name = "NamespaceLock", uniqueConstraints = @UniqueConstraint(name = "IX_NamespaceId",
+    columnNames = "NamespaceId"))
 @Where(clause = "isDeleted = 0")
 public class NamespaceLock extends BaseEntity{
 
@@ -2,6 +2,7 @@ package com.ctrip.framework.apollo.biz.eureka;
 
 
 import com.ctrip.framework.apollo.biz.config.BizConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.netflix.eureka.EurekaClientConfigBean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
@@ -11,6 +12,7 @@ import java.util.List;
 
 @Component
 @Primary
+@ConditionalOnProperty(value = "eureka.client.enabled", havingValue = "true", matchIfMissing = true)
 public class ApolloEurekaClientConfig extends EurekaClientConfigBean {
 
   private final BizConfig bizConfig;
@@ -0,0 +1,128 @@
+package com.ctrip.framework.apollo.biz.registry;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.service.ServiceRegistryService;
+import com.ctrip.framework.apollo.common.condition.ConditionalOnProfile;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.foundation.Foundation;
+import com.google.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers this service to the database once it is ready to serve, and keeps the heartbeat so that the meta service
+ * could discover it within seconds. The registration is removed when the service is shut down.
+ *
+ * <p>The service is not registered while any of its health indicators reports out of service, e.g. the config
+ * service warming up its cache, which is what the eureka health check does for the services registered to eureka.</p>
+ */
+@Component
+@ConditionalOnProfile(DatabaseServiceRegistrar.DATABASE_DISCOVERY_PROFILE)
+public class DatabaseServiceRegistrar implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+  public static final String DATABASE_DISCOVERY_PROFILE = "database-discovery";
+  private static final Logger logger = LoggerFactory.getLogger(DatabaseServiceRegistrar.class);
+
+  private final ServiceRegistryService serviceRegistryService;
+  private final BizConfig bizConfig;
+  private final Environment environment;
+  private final ScheduledExecutorService heartbeatService;
+  private ScheduledFuture<?> heartbeatFuture;
+  private volatile Collection<HealthIndicator> healthIndicators = Collections.emptyList();
+  private volatile boolean ready;
+  private String serviceName;
+  private String uri;
+
+  public DatabaseServiceRegistrar(final ServiceRegistryService serviceRegistryService, final BizConfig bizConfig,
+      final Environment environment) {
+    this.serviceRegistryService = serviceRegistryService;
+    this.bizConfig = bizConfig;
+    this.environment = environment;
+    this.heartbeatService = Executors.newSingleThreadScheduledExecutor(
+        ApolloThreadFactory.create("DatabaseServiceRegistrar", true));
+  }
+
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    serviceName = environment.getProperty("spring.application.name");
+    uri = environment.getProperty("apollo.service-registry.uri");
+    if (Strings.isNullOrEmpty(uri)) {
+      uri = String.format("http://%s:%s/", Foundation.net().getHostAddress(),
+          environment.getProperty("server.port", "8080"));
+    }
+    healthIndicators = event.getApplicationContext().getBeansOfType(HealthIndicator.class).values();
+
+    scheduleHeartbeat();
+    bizConfig.addChangeListener(changedKeys -> {
+      if (changedKeys.contains(BizConfig.SERVICE_REGISTRY_HEARTBEAT_INTERVAL)) {
+        scheduleHeartbeat();
+      }
+    });
+  }
+
+  /**
+   * (re)schedule the heartbeat with the current interval
+   */
+  private synchronized void scheduleHeartbeat() {
+    if (heartbeatFuture != null) {
+      heartbeatFuture.cancel(false);
+    }
+    long interval = bizConfig.serviceRegistryHeartbeatIntervalInMilli();
+    heartbeatFuture = heartbeatService.scheduleWithFixedDelay(this::heartbeat, 0, interval, TimeUnit.MILLISECONDS);
+  }
+
+  private void heartbeat() {
+    try {
+      if (!ready) {
+        ready = isReady();
+        if (!ready) {
+          return;
+        }
+        logger.info("Register {} to database with uri {}", serviceName, uri);
+      }
+      serviceRegistryService.heartbeat(serviceName, uri, Foundation.server().getDataCenter());
+    } catch (Throwable ex) {
+      logger.warn("Heartbeat of {} with uri {} failed", serviceName, uri, ex);
+      Tracer.logError(ex);
+    }
+  }
+
+  /**
+   * only checked before the registration, the service is never taken out of the registry once registered
+   */
+  private boolean isReady() {
+    for (HealthIndicator healthIndicator : healthIndicators) {
+      if (Status.OUT_OF_SERVICE.equals(healthIndicator.health().getStatus())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    heartbeatService.shutdownNow();
+    if (!ready) {
+      return;
+    }
+    try {
+      serviceRegistryService.deregister(serviceName, uri);
+    } catch (Throwable ex) {
+      logger.warn("Deregister {} with uri {} failed", serviceName, uri, ex);
+    }
+  }
+}
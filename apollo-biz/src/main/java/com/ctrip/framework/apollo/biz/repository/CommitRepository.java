@@ -14,6 +14,10 @@ public interface CommitRepository extends PagingAndSortingRepository<Commit, Lon
   List<Commit> findByAppIdAndClusterNameAndNamespaceNameOrderByIdDesc(String appId, String clusterName,
                                                                       String namespaceName, Pageable pageable);
 
+  List<Commit> findByAppIdAndClusterNameAndNamespaceNameAndIdLessThanOrderByIdDesc(String appId, String clusterName,
+                                                                                   String namespaceName, long id,
+                                                                                   Pageable pageable);
+
   @Modifying
   @Query("update Commit set isdeleted=1,DataChange_LastModifiedBy = ?4 where appId=?1 and clusterName=?2 and namespaceName = ?3")
   int batchDelete(String appId, String clusterName, String namespaceName, String operator);
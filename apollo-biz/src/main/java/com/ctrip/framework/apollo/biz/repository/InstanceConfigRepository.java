@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -24,6 +25,12 @@ public interface InstanceConfigRepository extends PagingAndSortingRepository<Ins
   Page<InstanceConfig> findByConfigAppIdAndConfigClusterNameAndConfigNamespaceNameAndDataChangeLastModifiedTimeAfter(
       String appId, String clusterName, String namespaceName, Date validDate, Pageable pageable);
 
+  List<InstanceConfig> findByReleaseKeyAndDataChangeLastModifiedTimeAfterAndIdGreaterThanOrderByIdAsc(
+      String releaseKey, Date validDate, long id, Pageable pageable);
+
+  List<InstanceConfig> findByConfigAppIdAndConfigClusterNameAndConfigNamespaceNameAndDataChangeLastModifiedTimeAfterAndIdGreaterThanOrderByIdAsc(
+      String appId, String clusterName, String namespaceName, Date validDate, long id, Pageable pageable);
+
   List<InstanceConfig> findByConfigAppIdAndConfigClusterNameAndConfigNamespaceNameAndDataChangeLastModifiedTimeAfterAndReleaseKeyNotIn(
       String appId, String clusterName, String namespaceName, Date validDate, Set<String> releaseKey);
 
@@ -31,6 +38,21 @@ public interface InstanceConfigRepository extends PagingAndSortingRepository<Ins
   @Query("delete from InstanceConfig  where ConfigAppId=?1 and ConfigClusterName=?2 and ConfigNamespaceName = ?3")
   int batchDelete(String appId, String clusterName, String namespaceName);
 
+  @Query("select a.id from InstanceConfig a where a.dataChangeLastModifiedTime < :expiredDate order by a.id")
+  List<Long> findIdsByDataChangeLastModifiedTimeBefore(@Param("expiredDate") Date expiredDate, Pageable pageable);
+
+  @Modifying
+  @Query("delete from InstanceConfig a where a.id in :ids and a.dataChangeLastModifiedTime < :expiredDate")
+  int batchDeleteExpired(@Param("ids") Collection<Long> ids, @Param("expiredDate") Date expiredDate);
+
+  @Query("select a from InstanceConfig a, Instance b where b.id = a.instanceId and a.configAppId = :configAppId " +
+      "and a.configClusterName = :clusterName and a.configNamespaceName = :namespaceName " +
+      "and a.dataChangeLastModifiedTime > :validDate and b.appId = :instanceAppId and a.id > :id order by a.id")
+  List<InstanceConfig> findByNamespaceAndInstanceAppIdAndIdGreaterThan(
+      @Param("instanceAppId") String instanceAppId, @Param("configAppId") String configAppId,
+      @Param("clusterName") String clusterName, @Param("namespaceName") String namespaceName,
+      @Param("validDate") Date validDate, @Param("id") long id, Pageable pageable);
+
   @Query(
       value = "select b.Id from `InstanceConfig` a inner join `Instance` b on b.Id =" +
           " a.`InstanceId` where a.`ConfigAppId` = :configAppId and a.`ConfigClusterName` = " +
@@ -2,8 +2,26 @@ package com.ctrip.framework.apollo.biz.repository;
 
 import com.ctrip.framework.apollo.biz.entity.Instance;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 
 public interface InstanceRepository extends PagingAndSortingRepository<Instance, Long> {
   Instance findByAppIdAndClusterNameAndDataCenterAndIp(String appId, String clusterName, String dataCenter, String ip);
+
+  @Query("select a.id from Instance a where a.dataChangeLastModifiedTime < :expiredDate and not exists " +
+      "(select b.id from InstanceConfig b where b.instanceId = a.id) order by a.id")
+  List<Long> findOrphanIdsByDataChangeLastModifiedTimeBefore(@Param("expiredDate") Date expiredDate,
+      Pageable pageable);
+
+  @Modifying
+  @Query("delete from Instance a where a.id in :ids and not exists " +
+      "(select b.id from InstanceConfig b where b.instanceId = a.id)")
+  int batchDeleteOrphans(@Param("ids") Collection<Long> ids);
 }
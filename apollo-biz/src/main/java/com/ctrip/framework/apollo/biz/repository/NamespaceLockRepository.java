@@ -2,7 +2,10 @@ package com.ctrip.framework.apollo.biz.repository;
 
 import com.ctrip.framework.apollo.biz.entity.NamespaceLock;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
 public interface NamespaceLockRepository extends PagingAndSortingRepository<NamespaceLock, Long> {
 
@@ -10,4 +13,16 @@ public interface NamespaceLockRepository extends PagingAndSortingRepository<Name
 
   Long deleteByNamespaceId(Long namespaceId);
 
+  /**
+   * Insert the lock unless the namespace is locked already, the unique key on NamespaceId decides the winner of
+   * concurrent insertions without raising an error.
+   *
+   * @return 1 if the lock is inserted, 0 if the namespace is locked already
+   */
+  @Modifying
+  @Query(value = "insert ignore into `NamespaceLock` (`NamespaceId`, `DataChange_CreatedBy`, "
+      + "`DataChange_CreatedTime`, `DataChange_LastModifiedBy`, `DataChange_LastTime`, `IsDeleted`) "
+      + "values (:namespaceId, :operator, current_timestamp, :operator, current_timestamp, 0)", nativeQuery = true)
+  int insertIfAbsent(@Param("namespaceId") long namespaceId, @Param("operator") String operator);
+
 }
@@ -25,14 +25,32 @@ public interface ReleaseRepository extends PagingAndSortingRepository<Release, L
 
   List<Release> findByAppIdAndClusterNameAndNamespaceNameAndIsAbandonedFalseOrderByIdDesc(String appId, String clusterName, String namespaceName, Pageable page);
 
+  List<Release> findByAppIdAndClusterNameAndNamespaceNameAndIdLessThanOrderByIdDesc(String appId, String clusterName, String namespaceName, long id, Pageable page);
+
+  List<Release> findByAppIdAndClusterNameAndNamespaceNameAndIsAbandonedFalseAndIdLessThanOrderByIdDesc(String appId, String clusterName, String namespaceName, long id, Pageable page);
+
   List<Release> findByReleaseKeyIn(Set<String> releaseKey);
 
   List<Release> findByIdIn(Set<Long> releaseIds);
 
+  @Query("SELECT r.id AS id, r.name AS name, r.comment AS comment FROM Release r WHERE r.id IN ?1")
+  List<ReleaseSummary> findSummariesByIdIn(Set<Long> releaseIds);
+
   @Modifying
   @Query("update Release set isdeleted=1,DataChange_LastModifiedBy = ?4 where appId=?1 and clusterName=?2 and namespaceName = ?3")
   int batchDelete(String appId, String clusterName, String namespaceName, String operator);
 
   // For release history conversion program, need to delete after conversion it done
   List<Release> findByAppIdAndClusterNameAndNamespaceNameOrderByIdAsc(String appId, String clusterName, String namespaceName);
+
+  /**
+   * The release without the configurations, which could be large
+   */
+  interface ReleaseSummary {
+    Long getId();
+
+    String getName();
+
+    String getComment();
+  }
 }
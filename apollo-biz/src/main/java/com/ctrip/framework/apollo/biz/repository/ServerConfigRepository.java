@@ -2,11 +2,22 @@ package com.ctrip.framework.apollo.biz.repository;
 
 import com.ctrip.framework.apollo.biz.entity.ServerConfig;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
  */
 public interface ServerConfigRepository extends PagingAndSortingRepository<ServerConfig, Long> {
   ServerConfig findTopByKeyAndCluster(String key, String cluster);
+
+  /**
+   * the deleted configs are included, so that the refresh could remove them
+   */
+  @Query(value = "select * from `ServerConfig` where `DataChange_LastTime` >= :lastModifiedTime", nativeQuery = true)
+  List<ServerConfig> findModifiedSinceIncludingDeleted(@Param("lastModifiedTime") Date lastModifiedTime);
 }
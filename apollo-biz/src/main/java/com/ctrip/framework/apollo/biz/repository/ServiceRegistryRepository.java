@@ -0,0 +1,46 @@
+package com.ctrip.framework.apollo.biz.repository;
+
+import com.ctrip.framework.apollo.biz.entity.ServiceRegistry;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+
+public interface ServiceRegistryRepository extends PagingAndSortingRepository<ServiceRegistry, Long> {
+
+  ServiceRegistry findByServiceNameAndUri(String serviceName, String uri);
+
+  List<ServiceRegistry> findByServiceNameAndDataChangeLastModifiedTimeGreaterThanEqual(String serviceName,
+      Date aliveSince);
+
+  /**
+   * the heartbeat time is set by the database, so that only the database clock is used to check the liveness
+   */
+  @Modifying(clearAutomatically = true)
+  @Query("update ServiceRegistry set dataChangeLastModifiedTime = current_timestamp, dataCenter = :dataCenter "
+      + "where serviceName = :serviceName and uri = :uri")
+  int refresh(@Param("serviceName") String serviceName, @Param("uri") String uri,
+      @Param("dataCenter") String dataCenter);
+
+  @Modifying
+  @Query(value = "insert into `ServiceRegistry` (`ServiceName`, `Uri`, `DataCenter`, `DataChange_CreatedTime`, "
+      + "`DataChange_LastTime`) values (:serviceName, :uri, :dataCenter, current_timestamp, current_timestamp)",
+      nativeQuery = true)
+  int register(@Param("serviceName") String serviceName, @Param("uri") String uri,
+      @Param("dataCenter") String dataCenter);
+
+  @Query(value = "select current_timestamp", nativeQuery = true)
+  Date currentTimestamp();
+
+  @Modifying
+  @Query("delete from ServiceRegistry where serviceName = :serviceName and uri = :uri")
+  int deleteByServiceNameAndUri(@Param("serviceName") String serviceName, @Param("uri") String uri);
+
+  @Modifying
+  @Query("delete from ServiceRegistry where dataChangeLastModifiedTime < :before")
+  int deleteExpired(@Param("before") Date before);
+}
@@ -2,6 +2,7 @@ package com.ctrip.framework.apollo.biz.service;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import com.ctrip.framework.apollo.biz.entity.ServerConfig;
 import com.ctrip.framework.apollo.biz.repository.ServerConfigRepository;
@@ -9,25 +10,33 @@ import com.ctrip.framework.apollo.common.config.RefreshablePropertySource;
 import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.foundation.Foundation;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
+ * Loads all the server configs at the first time, and then only the configs modified since the last refresh. All the
+ * configs are reloaded once in a while in case the changes committed late with earlier modified time are missed.
+ *
  * @author Jason Song(song_s@ctrip.com)
  */
 @Component
 public class BizDBPropertySource extends RefreshablePropertySource {
 
-  private static final Logger logger = LoggerFactory.getLogger(BizDBPropertySource.class);
+  private static final int FULL_REFRESH_ROUNDS = 10;
 
   @Autowired
   private ServerConfigRepository serverConfigRepository;
 
+  //key -> cluster -> value, only the default cluster's, the data center's and the cluster's configs are kept
+  private final Map<String, Map<String, String>> clusterConfigs = Maps.newHashMap();
+  private Date lastModifiedTime;
+  private int incrementalRefreshRounds;
+
   public BizDBPropertySource(String name, Map<String, Object> source) {
     super(name, source);
   }
@@ -41,51 +50,71 @@ public class BizDBPropertySource extends RefreshablePropertySource {
   }
 
   @Override
-  protected void refresh() {
-    Iterable<ServerConfig> dbConfigs = serverConfigRepository.findAll();
-
-    Map<String, Object> newConfigs = Maps.newHashMap();
-    //default cluster's configs
-    for (ServerConfig config : dbConfigs) {
-      if (Objects.equals(ConfigConsts.CLUSTER_NAME_DEFAULT, config.getCluster())) {
-        newConfigs.put(config.getKey(), config.getValue());
-      }
+  protected synchronized void refresh() {
+    Iterable<ServerConfig> dbConfigs;
+    boolean fullRefresh = lastModifiedTime == null || incrementalRefreshRounds >= FULL_REFRESH_ROUNDS;
+    if (fullRefresh) {
+      dbConfigs = serverConfigRepository.findAll();
+      clusterConfigs.clear();
+      incrementalRefreshRounds = 0;
+    } else {
+      //the configs modified at the same time as the last one are loaded again, as the time is only precise to second
+      //the deleted configs are loaded too, so that they are removed
+      dbConfigs = serverConfigRepository.findModifiedSinceIncludingDeleted(lastModifiedTime);
+      incrementalRefreshRounds++;
     }
 
-    //data center's configs
     String dataCenter = getCurrentDataCenter();
+    String cluster = System.getProperty(ConfigConsts.APOLLO_CLUSTER_KEY);
+
+    Set<String> loadedKeys = Sets.newHashSet();
     for (ServerConfig config : dbConfigs) {
-      if (Objects.equals(dataCenter, config.getCluster())) {
-        newConfigs.put(config.getKey(), config.getValue());
+      Date modifiedTime = config.getDataChangeLastModifiedTime();
+      if (modifiedTime != null && (lastModifiedTime == null || modifiedTime.after(lastModifiedTime))) {
+        lastModifiedTime = modifiedTime;
       }
-    }
 
-    //cluster's config
-    if (!Strings.isNullOrEmpty(System.getProperty(ConfigConsts.APOLLO_CLUSTER_KEY))) {
-      String cluster = System.getProperty(ConfigConsts.APOLLO_CLUSTER_KEY);
-      for (ServerConfig config : dbConfigs) {
-        if (Objects.equals(cluster, config.getCluster())) {
-          newConfigs.put(config.getKey(), config.getValue());
+      if (Objects.equals(ConfigConsts.CLUSTER_NAME_DEFAULT, config.getCluster())
+          || Objects.equals(dataCenter, config.getCluster())
+          || (!Strings.isNullOrEmpty(cluster) && Objects.equals(cluster, config.getCluster()))) {
+        Map<String, String> configs = clusterConfigs.computeIfAbsent(config.getKey(), key -> Maps.newHashMap());
+        if (config.isDeleted()) {
+          configs.remove(config.getCluster());
+        } else {
+          configs.put(config.getCluster(), config.getValue());
         }
+        loadedKeys.add(config.getKey());
       }
     }
 
-    //put to environment
-    for (Map.Entry<String, Object> config: newConfigs.entrySet()){
-      String key = config.getKey();
-      Object value = config.getValue();
-
-      if (this.source.get(key) == null) {
-        logger.info("Load config from DB : {} = {}", key, value);
-      } else if (!Objects.equals(this.source.get(key), value)) {
-        logger.info("Load config from DB : {} = {}. Old value = {}", key,
-                    value, this.source.get(key));
+    //put to environment, the keys without any config left are removed
+    for (String key : loadedKeys) {
+      String value = resolveValue(clusterConfigs.get(key), dataCenter, cluster);
+      if (value != null) {
+        updateProperty(key, value);
+      } else {
+        clusterConfigs.remove(key);
+        removeProperty(key);
       }
+    }
 
-      this.source.put(key, value);
-
+    //the configs missed by the incremental refreshes after they were deleted
+    if (fullRefresh) {
+      Sets.difference(source.keySet(), loadedKeys).immutableCopy().forEach(this::removeProperty);
     }
+  }
 
+  /**
+   * cluster's config overrides data center's config, which overrides default cluster's config
+   */
+  private String resolveValue(Map<String, String> configs, String dataCenter, String cluster) {
+    if (!Strings.isNullOrEmpty(cluster) && configs.containsKey(cluster)) {
+      return configs.get(cluster);
+    }
+    if (dataCenter != null && configs.containsKey(dataCenter)) {
+      return configs.get(dataCenter);
+    }
+    return configs.get(ConfigConsts.CLUSTER_NAME_DEFAULT);
   }
 
 }
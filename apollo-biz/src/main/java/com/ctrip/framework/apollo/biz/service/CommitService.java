@@ -2,6 +2,7 @@ package com.ctrip.framework.apollo.biz.service;
 
 import com.ctrip.framework.apollo.biz.entity.Commit;
 import com.ctrip.framework.apollo.biz.repository.CommitRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +28,14 @@ public class CommitService {
     return commitRepository.findByAppIdAndClusterNameAndNamespaceNameOrderByIdDesc(appId, clusterName, namespaceName, page);
   }
 
+  /**
+   * Find the commits whose id is less than the cursor, the latest first
+   */
+  public List<Commit> find(String appId, String clusterName, String namespaceName, long cursor, int size) {
+    return commitRepository.findByAppIdAndClusterNameAndNamespaceNameAndIdLessThanOrderByIdDesc(appId, clusterName,
+        namespaceName, cursor, PageRequest.of(0, size));
+  }
+
   @Transactional
   public int batchDelete(String appId, String clusterName, String namespaceName, String operator){
     return commitRepository.batchDelete(appId, clusterName, namespaceName, operator);
@@ -9,6 +9,7 @@ import com.google.common.collect.Lists;
 import java.util.Objects;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -124,6 +125,38 @@ public class InstanceService {
     return new PageImpl<>(instances, pageable, instanceIdResult.getTotalElements());
   }
 
+  /**
+   * Keyset variant of {@link #findActiveInstanceConfigsByReleaseKey(String, Pageable)}, which
+   * returns at most size instance configs whose id is greater than afterId
+   */
+  public List<InstanceConfig> findActiveInstanceConfigsByReleaseKey(String releaseKey, long afterId,
+                                                                     int size) {
+    return instanceConfigRepository
+        .findByReleaseKeyAndDataChangeLastModifiedTimeAfterAndIdGreaterThanOrderByIdAsc(releaseKey,
+            getValidInstanceConfigDate(), afterId, PageRequest.of(0, size));
+  }
+
+  /**
+   * Keyset variant of {@link #findInstancesByNamespace(String, String, String, Pageable)}, the
+   * instance configs are returned so that callers could use the last id as the next cursor
+   */
+  public List<InstanceConfig> findActiveInstanceConfigsByNamespace(String appId, String clusterName,
+                                                                   String namespaceName,
+                                                                   long afterId, int size) {
+    return instanceConfigRepository
+        .findByConfigAppIdAndConfigClusterNameAndConfigNamespaceNameAndDataChangeLastModifiedTimeAfterAndIdGreaterThanOrderByIdAsc(
+            appId, clusterName, namespaceName, getValidInstanceConfigDate(), afterId,
+            PageRequest.of(0, size));
+  }
+
+  public List<InstanceConfig> findActiveInstanceConfigsByNamespaceAndInstanceAppId(
+      String instanceAppId, String appId, String clusterName, String namespaceName, long afterId,
+      int size) {
+    return instanceConfigRepository.findByNamespaceAndInstanceAppIdAndIdGreaterThan(instanceAppId,
+        appId, clusterName, namespaceName, getValidInstanceConfigDate(), afterId,
+        PageRequest.of(0, size));
+  }
+
   public List<InstanceConfig> findInstanceConfigsByNamespaceWithReleaseKeysNotIn(String appId,
                                                                                  String clusterName,
                                                                                  String
@@ -174,6 +207,38 @@ public class InstanceService {
     return instanceConfigRepository.save(existedInstanceConfig);
   }
 
+  /**
+   * Delete at most batchSize instance configs which are not refreshed since expiredDate
+   *
+   * @return the number of deleted instance configs
+   */
+  @Transactional
+  public int purgeExpiredInstanceConfigs(Date expiredDate, int batchSize) {
+    List<Long> ids = instanceConfigRepository.findIdsByDataChangeLastModifiedTimeBefore(expiredDate,
+        PageRequest.of(0, batchSize));
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    //double check the last modified time in case the instance config is refreshed in the meantime
+    return instanceConfigRepository.batchDeleteExpired(ids, expiredDate);
+  }
+
+  /**
+   * Delete at most batchSize instances which are created before expiredDate and have no instance
+   * configs any more
+   *
+   * @return the number of deleted instances
+   */
+  @Transactional
+  public int purgeExpiredInstances(Date expiredDate, int batchSize) {
+    List<Long> ids = instanceRepository.findOrphanIdsByDataChangeLastModifiedTimeBefore(expiredDate,
+        PageRequest.of(0, batchSize));
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    return instanceRepository.batchDeleteOrphans(ids);
+  }
+
   @Transactional
   public int batchDeleteInstanceConfig(String configAppId, String configClusterName, String configNamespaceName){
     return instanceConfigRepository.batchDelete(configAppId, configClusterName, configNamespaceName);
@@ -1,17 +1,41 @@
 package com.ctrip.framework.apollo.biz.service;
 
+import com.ctrip.framework.apollo.biz.config.BizConfig;
 import com.ctrip.framework.apollo.biz.entity.NamespaceLock;
 import com.ctrip.framework.apollo.biz.repository.NamespaceLockRepository;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class NamespaceLockService {
+  private static final String TRACER_EVENT_TYPE = "Apollo.NamespaceLock";
+  private static final int MAX_LOCK_OWNER_CACHE_SIZE = 10000;
 
   private final NamespaceLockRepository namespaceLockRepository;
+  //namespace id -> lock owner, only the operator's own lock is cached
+  private volatile Cache<Long, String> lockOwnerCache;
 
-  public NamespaceLockService(final NamespaceLockRepository namespaceLockRepository) {
+  public NamespaceLockService(final NamespaceLockRepository namespaceLockRepository, final BizConfig bizConfig) {
     this.namespaceLockRepository = namespaceLockRepository;
+    this.lockOwnerCache = buildLockOwnerCache(bizConfig);
+    //the cached owners are dropped when the expiry is changed, they are loaded from the database again
+    bizConfig.addChangeListener(changedKeys -> {
+      if (changedKeys.contains(BizConfig.NAMESPACE_LOCK_CACHE_EXPIRE)) {
+        lockOwnerCache = buildLockOwnerCache(bizConfig);
+      }
+    });
+  }
+
+  private Cache<Long, String> buildLockOwnerCache(BizConfig bizConfig) {
+    return CacheBuilder.newBuilder()
+        .expireAfterWrite(bizConfig.namespaceLockCacheExpire(), bizConfig.namespaceLockCacheExpireTimeUnit())
+        .maximumSize(MAX_LOCK_OWNER_CACHE_SIZE)
+        .build();
   }
 
   public NamespaceLock findLock(Long namespaceId){
@@ -24,8 +48,57 @@ public class NamespaceLockService {
     return namespaceLockRepository.save(lock);
   }
 
+  /**
+   * Acquire the lock of the namespace for the operator. Once the operator holds the lock, the ownership of
+   * (namespaceId, operator) is cached for namespace.lock.cache.expire, so continuous modifications from the lock owner
+   * don't need to hit the database. The lock is inserted with a conditional insert, and the affected row count tells
+   * whether the namespace is locked by someone else.
+   *
+   * <p>The cache is per admin service instance, a lock released on another instance could still be treated as owned
+   * for at most the cache expiry.</p>
+   *
+   * @return the owner of the lock, or null if the lock is released concurrently and the caller should retry
+   */
+  @Transactional
+  public String acquireLock(long namespaceId, String operator) {
+    if (operator.equals(lockOwnerCache.getIfPresent(namespaceId))) {
+      Tracer.logEvent(TRACER_EVENT_TYPE, "CacheHit");
+      return operator;
+    }
+
+    if (namespaceLockRepository.insertIfAbsent(namespaceId, operator) > 0) {
+      Tracer.logEvent(TRACER_EVENT_TYPE, "Acquired");
+      lockOwnerCache.put(namespaceId, operator);
+      return operator;
+    }
+
+    NamespaceLock lock = findLock(namespaceId);
+    if (lock == null) {
+      return null;
+    }
+
+    String lockOwner = lock.getDataChangeCreatedBy();
+    //only the operator's own lock is cached, other owners might release the lock at any time
+    if (lockOwner.equals(operator)) {
+      lockOwnerCache.put(namespaceId, operator);
+    } else {
+      Tracer.logEvent(TRACER_EVENT_TYPE, "Contended");
+    }
+    return lockOwner;
+  }
+
   @Transactional
   public void unlock(Long namespaceId){
+    lockOwnerCache.invalidate(namespaceId);
     namespaceLockRepository.deleteByNamespaceId(namespaceId);
+    //invalidate again after completion in case the owner is cached back before the deletion is visible
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+          lockOwnerCache.invalidate(namespaceId);
+        }
+      });
+    }
   }
 }
@@ -0,0 +1,128 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.Release;
+import com.ctrip.framework.apollo.common.constants.GsonType;
+import com.ctrip.framework.apollo.common.dto.ReleaseDiffDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseItemChangeDTO;
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
+import com.ctrip.framework.apollo.common.exception.NotFoundException;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.gson.Gson;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Computes the changed keys between two releases. Releases are immutable, so the diff of two releases is computed
+ * once and cached, then the callers don't need to load the full configurations of both releases every time.
+ */
+@Service
+public class ReleaseDiffService {
+  private static final Gson GSON = new Gson();
+
+  private final ReleaseService releaseService;
+  private final Cache<String, ReleaseDiffDTO> releaseDiffCache;
+
+  public ReleaseDiffService(final ReleaseService releaseService, final BizConfig bizConfig) {
+    this.releaseService = releaseService;
+    this.releaseDiffCache = CacheBuilder.newBuilder().maximumSize(bizConfig.releaseDiffCacheSize()).build();
+  }
+
+  /**
+   * @param baseReleaseId      0 means an empty release, e.g. the first release has no previous release
+   * @param toCompareReleaseId 0 means an empty release, e.g. the gray branch is deleted
+   */
+  public ReleaseDiffDTO compare(long baseReleaseId, long toCompareReleaseId) {
+    String key = baseReleaseId + "+" + toCompareReleaseId;
+    ReleaseDiffDTO diff = releaseDiffCache.getIfPresent(key);
+    if (diff == null) {
+      Tracer.logEvent("Apollo.ReleaseDiff.Compute", key);
+      diff = doCompare(baseReleaseId, toCompareReleaseId);
+      releaseDiffCache.put(key, diff);
+    }
+    return diff;
+  }
+
+  private ReleaseDiffDTO doCompare(long baseReleaseId, long toCompareReleaseId) {
+    if (baseReleaseId == 0 && toCompareReleaseId == 0) {
+      throw new BadRequestException("base release id and release id to compare could not be both 0");
+    }
+
+    Set<Long> releaseIds = new HashSet<>(2);
+    if (baseReleaseId != 0) {
+      releaseIds.add(baseReleaseId);
+    }
+    if (toCompareReleaseId != 0) {
+      releaseIds.add(toCompareReleaseId);
+    }
+    Map<Long, Release> releases = Maps.newHashMap();
+    for (Release release : releaseService.findByReleaseIds(releaseIds)) {
+      releases.put(release.getId(), release);
+    }
+
+    Release baseRelease = findRelease(releases, baseReleaseId);
+    Release toCompareRelease = findRelease(releases, toCompareReleaseId);
+    Release identity = toCompareRelease != null ? toCompareRelease : baseRelease;
+    if (baseRelease != null && toCompareRelease != null
+        && (!Objects.equals(baseRelease.getAppId(), toCompareRelease.getAppId())
+        || !Objects.equals(baseRelease.getNamespaceName(), toCompareRelease.getNamespaceName()))) {
+      throw new BadRequestException(String.format("release %s and %s don't belong to the same namespace",
+          baseReleaseId, toCompareReleaseId));
+    }
+
+    ReleaseDiffDTO diff = new ReleaseDiffDTO();
+    diff.setAppId(identity.getAppId());
+    diff.setNamespaceName(identity.getNamespaceName());
+    diff.setBaseReleaseId(baseReleaseId);
+    diff.setToCompareReleaseId(toCompareReleaseId);
+
+    Map<String, String> baseConfigurations = parseConfigurations(baseRelease);
+    Map<String, String> toCompareConfigurations = parseConfigurations(toCompareRelease);
+
+    for (Map.Entry<String, String> entry : baseConfigurations.entrySet()) {
+      String key = entry.getKey();
+      String baseValue = entry.getValue();
+      String toCompareValue = toCompareConfigurations.get(key);
+      if (toCompareValue == null) {
+        diff.addChange(new ReleaseItemChangeDTO(ReleaseItemChangeDTO.DELETED, key, baseValue, null));
+      } else if (!Objects.equals(baseValue, toCompareValue)) {
+        diff.addChange(new ReleaseItemChangeDTO(ReleaseItemChangeDTO.MODIFIED, key, baseValue, toCompareValue));
+      }
+    }
+
+    for (Map.Entry<String, String> entry : toCompareConfigurations.entrySet()) {
+      if (baseConfigurations.get(entry.getKey()) == null) {
+        diff.addChange(new ReleaseItemChangeDTO(ReleaseItemChangeDTO.ADDED, entry.getKey(), null,
+            entry.getValue()));
+      }
+    }
+
+    return diff;
+  }
+
+  private Release findRelease(Map<Long, Release> releases, long releaseId) {
+    if (releaseId == 0) {
+      return null;
+    }
+    Release release = releases.get(releaseId);
+    if (release == null) {
+      throw new NotFoundException(String.format("release not found for %s", releaseId));
+    }
+    return release;
+  }
+
+  private Map<String, String> parseConfigurations(Release release) {
+    if (release == null) {
+      return Collections.emptyMap();
+    }
+    return GSON.fromJson(release.getConfigurations(), GsonType.CONFIG);
+  }
+}
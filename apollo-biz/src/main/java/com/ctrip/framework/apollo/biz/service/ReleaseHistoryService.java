@@ -5,11 +5,13 @@ import com.ctrip.framework.apollo.biz.entity.ReleaseHistory;
 import com.ctrip.framework.apollo.biz.repository.ReleaseHistoryRepository;
 import com.google.gson.Gson;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -38,6 +40,15 @@ public class ReleaseHistoryService {
                                                                                            namespaceName, pageable);
   }
 
+  /**
+   * Find the release histories whose id is less than the cursor, the latest first
+   */
+  public List<ReleaseHistory> findReleaseHistoriesByNamespace(String appId, String clusterName,
+                                                              String namespaceName, long cursor, int size) {
+    return releaseHistoryRepository.findByAppIdAndClusterNameAndNamespaceNameAndIdLessThanOrderByIdDesc(appId,
+        clusterName, namespaceName, cursor, PageRequest.of(0, size));
+  }
+
   public Page<ReleaseHistory> findByReleaseIdAndOperation(long releaseId, int operation, Pageable page) {
     return releaseHistoryRepository.findByReleaseIdAndOperationOrderByIdDesc(releaseId, operation, page);
   }
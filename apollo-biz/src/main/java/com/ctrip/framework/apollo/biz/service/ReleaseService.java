@@ -99,6 +99,13 @@ public class ReleaseService {
     return Lists.newArrayList(releases);
   }
 
+  public List<ReleaseRepository.ReleaseSummary> findSummariesByReleaseIds(Set<Long> releaseIds) {
+    if (CollectionUtils.isEmpty(releaseIds)) {
+      return Collections.emptyList();
+    }
+    return releaseRepository.findSummariesByIdIn(releaseIds);
+  }
+
   public List<Release> findByReleaseKeys(Set<String> releaseKeys) {
     return releaseRepository.findByReleaseKeyIn(releaseKeys);
   }
@@ -138,6 +145,26 @@ public class ReleaseService {
     return releases;
   }
 
+  /**
+   * Keyset variant of {@link #findAllReleases(String, String, String, Pageable)}, which returns the releases whose
+   * id is less than the cursor
+   */
+  public List<Release> findAllReleases(String appId, String clusterName, String namespaceName, long cursor,
+                                       int size) {
+    return releaseRepository.findByAppIdAndClusterNameAndNamespaceNameAndIdLessThanOrderByIdDesc(appId, clusterName,
+        namespaceName, cursor, PageRequest.of(0, size));
+  }
+
+  /**
+   * Keyset variant of {@link #findActiveReleases(String, String, String, Pageable)}, which returns the active releases
+   * whose id is less than the cursor
+   */
+  public List<Release> findActiveReleases(String appId, String clusterName, String namespaceName, long cursor,
+                                          int size) {
+    return releaseRepository.findByAppIdAndClusterNameAndNamespaceNameAndIsAbandonedFalseAndIdLessThanOrderByIdDesc(
+        appId, clusterName, namespaceName, cursor, PageRequest.of(0, size));
+  }
+
   @Transactional
   public Release mergeBranchChangeSetsAndRelease(Namespace namespace, String branchName, String releaseName,
                                                  String releaseComment, boolean isEmergencyPublish,
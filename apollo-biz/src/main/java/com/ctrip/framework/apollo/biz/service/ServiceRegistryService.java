@@ -0,0 +1,57 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.entity.ServiceRegistry;
+import com.ctrip.framework.apollo.biz.repository.ServiceRegistryRepository;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The database backed registry of the config services and the admin services, used instead of eureka with the
+ * database-discovery profile.
+ */
+@Service
+public class ServiceRegistryService {
+
+  private final ServiceRegistryRepository serviceRegistryRepository;
+
+  public ServiceRegistryService(final ServiceRegistryRepository serviceRegistryRepository) {
+    this.serviceRegistryRepository = serviceRegistryRepository;
+  }
+
+  /**
+   * register the instance at the first time, and refresh its heartbeat time afterwards
+   */
+  @Transactional
+  public void heartbeat(String serviceName, String uri, String dataCenter) {
+    if (serviceRegistryRepository.refresh(serviceName, uri, dataCenter) == 0) {
+      serviceRegistryRepository.register(serviceName, uri, dataCenter);
+    }
+  }
+
+  /**
+   * @param expireInMilli the instances without heartbeat for this long are regarded as down, it is compared with the
+   * database clock, as the heartbeat time is set by the database
+   */
+  public List<ServiceRegistry> findAliveInstances(String serviceName, long expireInMilli) {
+    return serviceRegistryRepository.findByServiceNameAndDataChangeLastModifiedTimeGreaterThanEqual(serviceName,
+        databaseTimeBefore(expireInMilli));
+  }
+
+  @Transactional
+  public int deregister(String serviceName, String uri) {
+    return serviceRegistryRepository.deleteByServiceNameAndUri(serviceName, uri);
+  }
+
+  @Transactional
+  public int deleteExpired(long retentionInMilli) {
+    return serviceRegistryRepository.deleteExpired(databaseTimeBefore(retentionInMilli));
+  }
+
+  private Date databaseTimeBefore(long milli) {
+    return new Date(serviceRegistryRepository.currentTimestamp().getTime() - milli);
+  }
+}
@@ -1,15 +1,28 @@
 package com.ctrip.framework.apollo.biz.config;
 
+import com.ctrip.framework.apollo.biz.MockBeanFactory;
+import com.ctrip.framework.apollo.biz.entity.ServerConfig;
+import com.ctrip.framework.apollo.biz.repository.ServerConfigRepository;
 import com.ctrip.framework.apollo.biz.service.BizDBPropertySource;
+import com.ctrip.framework.apollo.core.ConfigConsts;
+import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.StandardEnvironment;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -62,6 +75,37 @@ public class BizConfigTest {
     assertEquals(defaultBatch, bizConfig.releaseMessageNotificationBatch());
   }
 
+  @Test
+  public void testRefreshSnapshotAndNotifyListeners() throws Exception {
+    BizDBPropertySource propertySource = new BizDBPropertySource();
+    ServerConfigRepository serverConfigRepository = mock(ServerConfigRepository.class);
+    ReflectionTestUtils.setField(propertySource, "serverConfigRepository", serverConfigRepository);
+    bizConfig = new BizConfig(propertySource);
+    ReflectionTestUtils.setField(bizConfig, "environment", new StandardEnvironment());
+
+    String someKey = "apollo.release-message.notification.batch";
+    Date someTime = new Date(1000);
+    ServerConfig someConfig = MockBeanFactory.mockServerConfig(someKey, "20", ConfigConsts.CLUSTER_NAME_DEFAULT);
+    someConfig.setDataChangeLastModifiedTime(someTime);
+    ServerConfig anotherConfig = MockBeanFactory.mockServerConfig(someKey, "30", ConfigConsts.CLUSTER_NAME_DEFAULT);
+    anotherConfig.setDataChangeLastModifiedTime(new Date(2000));
+    when(serverConfigRepository.findAll()).thenReturn(Lists.newArrayList(someConfig));
+    when(serverConfigRepository.findModifiedSinceIncludingDeleted(someTime))
+        .thenReturn(Lists.newArrayList(anotherConfig));
+
+    List<Set<String>> changes = Lists.newArrayList();
+    bizConfig.addChangeListener(changes::add);
+    bizConfig.setup();
+
+    assertEquals(20, bizConfig.releaseMessageNotificationBatch());
+    assertTrue(changes.isEmpty());
+
+    ReflectionTestUtils.invokeMethod(bizConfig, "refresh");
+
+    assertEquals(30, bizConfig.releaseMessageNotificationBatch());
+    assertEquals(Collections.singletonList(Collections.singleton(someKey)), changes);
+  }
+
   @Test
   public void testCheckInt() throws Exception {
     int someInvalidValue = 1;
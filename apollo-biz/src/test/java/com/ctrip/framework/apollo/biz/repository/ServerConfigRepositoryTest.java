@@ -0,0 +1,41 @@
+package com.ctrip.framework.apollo.biz.repository;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.entity.ServerConfig;
+import com.ctrip.framework.apollo.core.ConfigConsts;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ServerConfigRepositoryTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private ServerConfigRepository serverConfigRepository;
+
+  @Test
+  public void testFindModifiedSinceIncludingDeleted() {
+    String someKey = "someKey";
+    ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setKey(someKey);
+    serverConfig.setCluster(ConfigConsts.CLUSTER_NAME_DEFAULT);
+    serverConfig.setValue("someValue");
+    serverConfig.setComment("someComment");
+    serverConfig.setDataChangeCreatedBy("someOperator");
+    serverConfig = serverConfigRepository.save(serverConfig);
+
+    serverConfigRepository.delete(serverConfig);
+
+    Assert.assertNull(serverConfigRepository.findTopByKeyAndCluster(someKey, ConfigConsts.CLUSTER_NAME_DEFAULT));
+
+    List<ServerConfig> modifiedConfigs = serverConfigRepository.findModifiedSinceIncludingDeleted(new Date(0))
+        .stream().filter(config -> someKey.equals(config.getKey())).collect(Collectors.toList());
+
+    Assert.assertEquals(1, modifiedConfigs.size());
+    Assert.assertTrue(modifiedConfigs.get(0).isDeleted());
+  }
+}
@@ -14,11 +14,14 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -100,5 +103,72 @@ public class BizDBPropertySourceTest extends AbstractUnitTest {
     assertNull(propertySource.getProperty("noKey"));
   }
 
+  @Test
+  public void testIncrementalRefresh() {
+    Date someTime = new Date(1000);
+    Date anotherTime = new Date(2000);
+    ServerConfig someConfig = MockBeanFactory.mockServerConfig(defaultKey, defaultValue,
+        ConfigConsts.CLUSTER_NAME_DEFAULT);
+    someConfig.setDataChangeLastModifiedTime(someTime);
+    ServerConfig dcConfig = MockBeanFactory.mockServerConfig(defaultKey, dcConfigValue, "dc");
+    dcConfig.setDataChangeLastModifiedTime(anotherTime);
+    ServerConfig newConfig = MockBeanFactory.mockServerConfig("newKey", "newValue", ConfigConsts.CLUSTER_NAME_DEFAULT);
+    newConfig.setDataChangeLastModifiedTime(anotherTime);
+
+    when(serverConfigRepository.findAll()).thenReturn(Lists.newArrayList(someConfig));
+    when(serverConfigRepository.findModifiedSinceIncludingDeleted(someTime))
+        .thenReturn(Lists.newArrayList(someConfig, dcConfig, newConfig));
+    when(serverConfigRepository.findModifiedSinceIncludingDeleted(anotherTime))
+        .thenReturn(Lists.newArrayList(dcConfig, newConfig));
+
+    propertySource.refresh();
+    assertEquals(defaultValue, propertySource.getProperty(defaultKey));
+
+    propertySource.refresh();
+    //data center's config overrides the default cluster's config loaded before
+    assertEquals(dcConfigValue, propertySource.getProperty(defaultKey));
+    assertEquals("newValue", propertySource.getProperty("newKey"));
+
+    propertySource.refresh();
+
+    verify(serverConfigRepository, times(1)).findAll();
+    verify(serverConfigRepository, times(1)).findModifiedSinceIncludingDeleted(someTime);
+    verify(serverConfigRepository, times(1)).findModifiedSinceIncludingDeleted(anotherTime);
+  }
+
+
+  @Test
+  public void testIncrementalRefreshWithDeletedConfigs() {
+    Date someTime = new Date(1000);
+    Date anotherTime = new Date(2000);
+    ServerConfig someConfig = MockBeanFactory.mockServerConfig(defaultKey, defaultValue,
+        ConfigConsts.CLUSTER_NAME_DEFAULT);
+    someConfig.setDataChangeLastModifiedTime(someTime);
+    ServerConfig dcConfig = MockBeanFactory.mockServerConfig(defaultKey, dcConfigValue, "dc");
+    dcConfig.setDataChangeLastModifiedTime(someTime);
+    ServerConfig newConfig = MockBeanFactory.mockServerConfig("newKey", "newValue", ConfigConsts.CLUSTER_NAME_DEFAULT);
+    newConfig.setDataChangeLastModifiedTime(someTime);
+
+    ServerConfig deletedDcConfig = MockBeanFactory.mockServerConfig(defaultKey, dcConfigValue, "dc");
+    deletedDcConfig.setDataChangeLastModifiedTime(anotherTime);
+    deletedDcConfig.setDeleted(true);
+    ServerConfig deletedNewConfig = MockBeanFactory.mockServerConfig("newKey", "newValue",
+        ConfigConsts.CLUSTER_NAME_DEFAULT);
+    deletedNewConfig.setDataChangeLastModifiedTime(anotherTime);
+    deletedNewConfig.setDeleted(true);
+
+    when(serverConfigRepository.findAll()).thenReturn(Lists.newArrayList(someConfig, dcConfig, newConfig));
+    when(serverConfigRepository.findModifiedSinceIncludingDeleted(someTime))
+        .thenReturn(Lists.newArrayList(deletedDcConfig, deletedNewConfig));
+
+    propertySource.refresh();
+    assertEquals(dcConfigValue, propertySource.getProperty(defaultKey));
+    assertEquals("newValue", propertySource.getProperty("newKey"));
+
+    propertySource.refresh();
+    //the default cluster's config takes effect again after the data center's override is deleted
+    assertEquals(defaultValue, propertySource.getProperty(defaultKey));
+    assertNull(propertySource.getProperty("newKey"));
+  }
 
 }
@@ -237,6 +237,117 @@ public class InstanceServiceTest extends AbstractIntegrationTest {
     assertEquals(Lists.newArrayList(someInstanceConfig, anotherInstanceConfig), instanceConfigs);
   }
 
+  @Test
+  @Rollback
+  public void testFindActiveInstanceConfigsByReleaseKeyWithCursor() throws Exception {
+    String someConfigAppId = "someConfigAppId";
+    String someConfigClusterName = "someConfigClusterName";
+    String someConfigNamespaceName = "someConfigNamespaceName";
+    String someReleaseKey = "someReleaseKey";
+    Date someValidDate = new Date();
+
+    InstanceConfig someInstanceConfig = prepareInstanceConfigForInstance(1, someConfigAppId,
+        someConfigClusterName, someConfigNamespaceName, someReleaseKey, someValidDate);
+    InstanceConfig anotherInstanceConfig = prepareInstanceConfigForInstance(2, someConfigAppId,
+        someConfigClusterName, someConfigNamespaceName, someReleaseKey, someValidDate);
+    InstanceConfig yetAnotherInstanceConfig = prepareInstanceConfigForInstance(3, someConfigAppId,
+        someConfigClusterName, someConfigNamespaceName, someReleaseKey, someValidDate);
+
+    List<InstanceConfig> firstPage = instanceService
+        .findActiveInstanceConfigsByReleaseKey(someReleaseKey, 0, 2);
+    List<InstanceConfig> secondPage = instanceService
+        .findActiveInstanceConfigsByReleaseKey(someReleaseKey, firstPage.get(1).getId(), 2);
+
+    assertEquals(Lists.newArrayList(someInstanceConfig, anotherInstanceConfig), firstPage);
+    assertEquals(Lists.newArrayList(yetAnotherInstanceConfig), secondPage);
+  }
+
+  @Test
+  @Rollback
+  public void testFindActiveInstanceConfigsByNamespaceWithCursor() throws Exception {
+    String someConfigAppId = "someConfigAppId";
+    String someConfigClusterName = "someConfigClusterName";
+    String someConfigNamespaceName = "someConfigNamespaceName";
+    String someReleaseKey = "someReleaseKey";
+    Date someValidDate = new Date();
+
+    Calendar calendar = Calendar.getInstance();
+    calendar.add(Calendar.DATE, -2);
+    Date someInvalidDate = calendar.getTime();
+
+    Instance someInstance = instanceService.createInstance(assembleInstance("someAppId",
+        "someClusterName", "someDataCenter", "someIp"));
+    Instance anotherInstance = instanceService.createInstance(assembleInstance("anotherAppId",
+        "someClusterName", "someDataCenter", "someIp"));
+
+    InstanceConfig someInstanceConfig = prepareInstanceConfigForInstance(someInstance.getId(),
+        someConfigAppId, someConfigClusterName, someConfigNamespaceName, someReleaseKey,
+        someValidDate);
+    InstanceConfig anotherInstanceConfig = prepareInstanceConfigForInstance(anotherInstance.getId(),
+        someConfigAppId, someConfigClusterName, someConfigNamespaceName, someReleaseKey,
+        someValidDate);
+    prepareInstanceConfigForInstance(anotherInstance.getId() + 1, someConfigAppId,
+        someConfigClusterName, someConfigNamespaceName, someReleaseKey, someInvalidDate);
+
+    List<InstanceConfig> result = instanceService.findActiveInstanceConfigsByNamespace(
+        someConfigAppId, someConfigClusterName, someConfigNamespaceName, 0, 10);
+    List<InstanceConfig> afterCursor = instanceService.findActiveInstanceConfigsByNamespace(
+        someConfigAppId, someConfigClusterName, someConfigNamespaceName,
+        someInstanceConfig.getId(), 10);
+    List<InstanceConfig> byInstanceAppId = instanceService
+        .findActiveInstanceConfigsByNamespaceAndInstanceAppId("anotherAppId", someConfigAppId,
+            someConfigClusterName, someConfigNamespaceName, 0, 10);
+
+    assertEquals(Lists.newArrayList(someInstanceConfig, anotherInstanceConfig), result);
+    assertEquals(Lists.newArrayList(anotherInstanceConfig), afterCursor);
+    assertEquals(Lists.newArrayList(anotherInstanceConfig), byInstanceAppId);
+  }
+
+  @Test
+  @Rollback
+  public void testPurgeExpiredInstancesAndInstanceConfigs() throws Exception {
+    String someConfigAppId = "someConfigAppId";
+    String someConfigClusterName = "someConfigClusterName";
+    String someConfigNamespaceName = "someConfigNamespaceName";
+    String someReleaseKey = "someReleaseKey";
+
+    Calendar calendar = Calendar.getInstance();
+    calendar.add(Calendar.DATE, -10);
+    Date someExpiredDate = calendar.getTime();
+    calendar.add(Calendar.DATE, 3);
+    Date someRetentionDate = calendar.getTime();
+
+    Instance someInstance = assembleInstance("someAppId", "someClusterName", "someDataCenter",
+        "someIp");
+    someInstance.setDataChangeCreatedTime(someExpiredDate);
+    someInstance = instanceService.createInstance(someInstance);
+    Instance anotherInstance = assembleInstance("someAppId", "someClusterName", "someDataCenter",
+        "anotherIp");
+    anotherInstance.setDataChangeCreatedTime(someExpiredDate);
+    anotherInstance = instanceService.createInstance(anotherInstance);
+
+    prepareInstanceConfigForInstance(someInstance.getId(), someConfigAppId,
+        someConfigClusterName, someConfigNamespaceName, someReleaseKey, someExpiredDate);
+    prepareInstanceConfigForInstance(someInstance.getId(), "anotherConfigAppId",
+        someConfigClusterName, someConfigNamespaceName, someReleaseKey, someExpiredDate);
+    prepareInstanceConfigForInstance(anotherInstance.getId(), someConfigAppId,
+        someConfigClusterName, someConfigNamespaceName, someReleaseKey, new Date());
+
+    assertEquals(1, instanceService.purgeExpiredInstanceConfigs(someRetentionDate, 1));
+    assertEquals(1, instanceService.purgeExpiredInstanceConfigs(someRetentionDate, 1));
+    assertEquals(0, instanceService.purgeExpiredInstanceConfigs(someRetentionDate, 1));
+
+    assertEquals(1, instanceService.purgeExpiredInstances(someRetentionDate, 10));
+    assertEquals(0, instanceService.purgeExpiredInstances(someRetentionDate, 10));
+
+    assertNull(instanceService.findInstanceConfig(someInstance.getId(), someConfigAppId,
+        someConfigNamespaceName));
+    assertNull(instanceService.findInstance("someAppId", "someClusterName", "someDataCenter",
+        "someIp"));
+    assertEquals(anotherInstance.getId(), instanceService.findInstance("someAppId",
+        "someClusterName", "someDataCenter", "anotherIp").getId());
+  }
+
   private InstanceConfig prepareInstanceConfigForInstance(long instanceId, String configAppId,
                                                           String configClusterName, String
                                                               configNamespace, String releaseKey,
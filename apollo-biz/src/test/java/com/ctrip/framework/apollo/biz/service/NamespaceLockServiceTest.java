@@ -0,0 +1,72 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.entity.NamespaceLock;
+import com.ctrip.framework.apollo.biz.repository.NamespaceLockRepository;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.Rollback;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class NamespaceLockServiceTest extends AbstractIntegrationTest {
+  private static final long SOME_NAMESPACE_ID = 1000;
+  private static final String SOME_USER = "someUser";
+  private static final String ANOTHER_USER = "anotherUser";
+
+  @Autowired
+  private NamespaceLockService namespaceLockService;
+  @Autowired
+  private NamespaceLockRepository namespaceLockRepository;
+
+  @After
+  public void tearDown() throws Exception {
+    //the cached owner outlives the rolled back lock row
+    namespaceLockService.unlock(SOME_NAMESPACE_ID);
+  }
+
+  @Test
+  @Rollback
+  public void testAcquireLock() throws Exception {
+    assertEquals(SOME_USER, namespaceLockService.acquireLock(SOME_NAMESPACE_ID, SOME_USER));
+
+    NamespaceLock lock = namespaceLockService.findLock(SOME_NAMESPACE_ID);
+    assertNotNull(lock);
+    assertEquals(SOME_USER, lock.getDataChangeCreatedBy());
+
+    assertEquals(SOME_USER, namespaceLockService.acquireLock(SOME_NAMESPACE_ID, SOME_USER));
+    assertEquals(SOME_USER, namespaceLockService.acquireLock(SOME_NAMESPACE_ID, ANOTHER_USER));
+  }
+
+  @Test
+  @Rollback
+  public void testAcquireLockAfterUnlock() throws Exception {
+    assertEquals(SOME_USER, namespaceLockService.acquireLock(SOME_NAMESPACE_ID, SOME_USER));
+
+    namespaceLockService.unlock(SOME_NAMESPACE_ID);
+
+    assertEquals(ANOTHER_USER, namespaceLockService.acquireLock(SOME_NAMESPACE_ID, ANOTHER_USER));
+    assertEquals(ANOTHER_USER, namespaceLockService.acquireLock(SOME_NAMESPACE_ID, SOME_USER));
+  }
+
+  @Test
+  @Rollback
+  public void testAcquireLockWithCachedOwner() throws Exception {
+    assertEquals(SOME_USER, namespaceLockService.acquireLock(SOME_NAMESPACE_ID, SOME_USER));
+
+    //the lock row is removed without going through this service, the owner is still served from the cache
+    namespaceLockRepository.deleteByNamespaceId(SOME_NAMESPACE_ID);
+
+    assertEquals(SOME_USER, namespaceLockService.acquireLock(SOME_NAMESPACE_ID, SOME_USER));
+    assertNull(namespaceLockService.findLock(SOME_NAMESPACE_ID));
+
+    namespaceLockService.unlock(SOME_NAMESPACE_ID);
+
+    assertEquals(ANOTHER_USER, namespaceLockService.acquireLock(SOME_NAMESPACE_ID, ANOTHER_USER));
+    assertEquals(ANOTHER_USER, namespaceLockService.acquireLock(SOME_NAMESPACE_ID, SOME_USER));
+  }
+}
@@ -0,0 +1,122 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractUnitTest;
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.Release;
+import com.ctrip.framework.apollo.common.dto.ReleaseDiffDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseItemChangeDTO;
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
+import com.ctrip.framework.apollo.common.exception.NotFoundException;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReleaseDiffServiceTest extends AbstractUnitTest {
+  private static final String SOME_APP_ID = "someAppId";
+  private static final String SOME_NAMESPACE = "someNamespace";
+
+  @Mock
+  private ReleaseService releaseService;
+  @Mock
+  private BizConfig bizConfig;
+
+  private ReleaseDiffService releaseDiffService;
+
+  @Before
+  public void setUp() throws Exception {
+    when(bizConfig.releaseDiffCacheSize()).thenReturn(10);
+    releaseDiffService = new ReleaseDiffService(releaseService, bizConfig);
+  }
+
+  @Test
+  public void testCompare() throws Exception {
+    Release baseRelease = assembleRelease(1, SOME_APP_ID, SOME_NAMESPACE, "{\"k1\":\"v1\",\"k2\":\"v2\",\"k3\":\"v3\"}");
+    Release toCompareRelease = assembleRelease(2, SOME_APP_ID, SOME_NAMESPACE,
+        "{\"k1\":\"v1\",\"k2\":\"v2-new\",\"k4\":\"v4\"}");
+
+    when(releaseService.findByReleaseIds(Sets.newHashSet(1L, 2L)))
+        .thenReturn(Lists.newArrayList(baseRelease, toCompareRelease));
+
+    ReleaseDiffDTO diff = releaseDiffService.compare(1, 2);
+
+    assertEquals(SOME_APP_ID, diff.getAppId());
+    assertEquals(SOME_NAMESPACE, diff.getNamespaceName());
+    assertEquals(3, diff.getChanges().size());
+    assertChange(diff.getChanges(), ReleaseItemChangeDTO.MODIFIED, "k2", "v2", "v2-new");
+    assertChange(diff.getChanges(), ReleaseItemChangeDTO.DELETED, "k3", "v3", null);
+    assertChange(diff.getChanges(), ReleaseItemChangeDTO.ADDED, "k4", null, "v4");
+
+    assertSame(diff, releaseDiffService.compare(1, 2));
+    verify(releaseService, times(1)).findByReleaseIds(anySet());
+  }
+
+  @Test
+  public void testCompareWithEmptyRelease() throws Exception {
+    Release someRelease = assembleRelease(1, SOME_APP_ID, SOME_NAMESPACE, "{\"k1\":\"v1\"}");
+
+    when(releaseService.findByReleaseIds(Sets.newHashSet(1L))).thenReturn(Lists.newArrayList(someRelease));
+
+    ReleaseDiffDTO addedDiff = releaseDiffService.compare(0, 1);
+    ReleaseDiffDTO deletedDiff = releaseDiffService.compare(1, 0);
+
+    assertChange(addedDiff.getChanges(), ReleaseItemChangeDTO.ADDED, "k1", null, "v1");
+    assertChange(deletedDiff.getChanges(), ReleaseItemChangeDTO.DELETED, "k1", "v1", null);
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testCompareWithReleaseNotFound() throws Exception {
+    when(releaseService.findByReleaseIds(Sets.newHashSet(1L))).thenReturn(Collections.emptyList());
+
+    releaseDiffService.compare(0, 1);
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void testCompareReleasesOfDifferentNamespaces() throws Exception {
+    Release baseRelease = assembleRelease(1, SOME_APP_ID, SOME_NAMESPACE, "{}");
+    Release toCompareRelease = assembleRelease(2, SOME_APP_ID, "anotherNamespace", "{}");
+
+    when(releaseService.findByReleaseIds(Sets.newHashSet(1L, 2L)))
+        .thenReturn(Lists.newArrayList(baseRelease, toCompareRelease));
+
+    releaseDiffService.compare(1, 2);
+  }
+
+  private void assertChange(List<ReleaseItemChangeDTO> changes, String type, String key, String oldValue,
+      String newValue) {
+    for (ReleaseItemChangeDTO change : changes) {
+      if (key.equals(change.getKey())) {
+        assertEquals(type, change.getType());
+        if (oldValue == null) {
+          assertNull(change.getOldValue());
+        } else {
+          assertEquals(oldValue, change.getOldValue());
+        }
+        assertEquals(newValue, change.getNewValue());
+        return;
+      }
+    }
+    throw new AssertionError("change not found for " + key);
+  }
+
+  private Release assembleRelease(long id, String appId, String namespaceName, String configurations) {
+    Release release = new Release();
+    release.setId(id);
+    release.setAppId(appId);
+    release.setNamespaceName(namespaceName);
+    release.setConfigurations(configurations);
+    return release;
+  }
+}
@@ -0,0 +1,63 @@
+package com.ctrip.framework.apollo.biz.service;
+
+import com.ctrip.framework.apollo.biz.AbstractIntegrationTest;
+import com.ctrip.framework.apollo.biz.entity.ServiceRegistry;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ServiceRegistryServiceTest extends AbstractIntegrationTest {
+  private static final String SOME_SERVICE = "someService";
+  private static final String SOME_URI =
+      "http://apollo-configservice-0.apollo-configservice.some-namespace.svc.cluster.local:8080/";
+  private static final String ANOTHER_URI = "http://5.6.7.8:8080/";
+  private static final long SOME_EXPIRE = 60000;
+
+  @Autowired
+  private ServiceRegistryService serviceRegistryService;
+
+  @Test
+  public void testHeartbeat() throws Exception {
+    serviceRegistryService.heartbeat(SOME_SERVICE, SOME_URI, "someDC");
+    serviceRegistryService.heartbeat(SOME_SERVICE, ANOTHER_URI, null);
+
+    List<ServiceRegistry> instances = serviceRegistryService.findAliveInstances(SOME_SERVICE, SOME_EXPIRE);
+    assertEquals(2, instances.size());
+    assertTrue(serviceRegistryService.findAliveInstances("anotherService", SOME_EXPIRE).isEmpty());
+
+    serviceRegistryService.heartbeat(SOME_SERVICE, SOME_URI, "anotherDC");
+
+    instances = serviceRegistryService.findAliveInstances(SOME_SERVICE, SOME_EXPIRE);
+    assertEquals(2, instances.size());
+    ServiceRegistry registry = instances.stream().filter(instance -> SOME_URI.equals(instance.getUri())).findFirst()
+        .get();
+    assertEquals("anotherDC", registry.getDataCenter());
+  }
+
+  @Test
+  public void testFindAliveInstancesByDatabaseTime() throws Exception {
+    serviceRegistryService.heartbeat(SOME_SERVICE, SOME_URI, null);
+
+    assertEquals(1, serviceRegistryService.findAliveInstances(SOME_SERVICE, SOME_EXPIRE).size());
+    //the database time doesn't move within the test transaction, so a negative expiration is used to move the
+    //threshold after the heartbeat
+    assertTrue(serviceRegistryService.findAliveInstances(SOME_SERVICE, -SOME_EXPIRE).isEmpty());
+  }
+
+  @Test
+  public void testDeregisterAndDeleteExpired() throws Exception {
+    serviceRegistryService.heartbeat(SOME_SERVICE, SOME_URI, null);
+    serviceRegistryService.heartbeat(SOME_SERVICE, ANOTHER_URI, null);
+
+    assertEquals(1, serviceRegistryService.deregister(SOME_SERVICE, SOME_URI));
+    assertEquals(1, serviceRegistryService.findAliveInstances(SOME_SERVICE, SOME_EXPIRE).size());
+
+    assertEquals(0, serviceRegistryService.deleteExpired(SOME_EXPIRE));
+    assertEquals(1, serviceRegistryService.deleteExpired(-SOME_EXPIRE));
+    assertTrue(serviceRegistryService.findAliveInstances(SOME_SERVICE, SOME_EXPIRE).isEmpty());
+  }
+}
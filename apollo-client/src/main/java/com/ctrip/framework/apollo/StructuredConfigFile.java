@@ -0,0 +1,34 @@
+package com.ctrip.framework.apollo;
+
+/**
+ * Config files with structured content, e.g. yaml and json, whose content is parsed lazily and only once per release.
+ *
+ * <p>The path is made up of map keys separated by dots and list indexes in brackets, e.g. {@code a.b[2].c}, the
+ * empty path refers to the whole document.</p>
+ *
+ * @since 1.5.0
+ */
+public interface StructuredConfigFile extends ConfigFile {
+
+  /**
+   * @return the value of the path, which is a map, a list or a scalar value, {@code null} if the path doesn't exist
+   *
+   * @throws RuntimeException if the content could not be parsed or the path is invalid
+   */
+  Object getValue(String path);
+
+  /**
+   * Bind the value of the path to the type, the bound object is cached until the content is changed and thus should be
+   * treated as read only
+   *
+   * @return the bound object, {@code null} if the path doesn't exist
+   *
+   * @throws RuntimeException if the content could not be parsed or bound
+   */
+  <T> T getValue(String path, Class<T> clazz);
+
+  /**
+   * Bind the whole document to the type, same as {@code getValue("", clazz)}
+   */
+  <T> T asObject(Class<T> clazz);
+}
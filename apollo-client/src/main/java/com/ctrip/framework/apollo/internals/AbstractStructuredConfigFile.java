@@ -0,0 +1,97 @@
+package com.ctrip.framework.apollo.internals;
+
+import com.ctrip.framework.apollo.StructuredConfigFile;
+import com.ctrip.framework.apollo.exceptions.ApolloConfigException;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.base.Objects;
+
+/**
+ * The content is parsed at the first access of the values instead of every update, and is not parsed again until the
+ * content is changed. When the new content is invalid, the last good document is kept and the invalid content is not
+ * parsed again.
+ */
+public abstract class AbstractStructuredConfigFile extends PlainTextConfigFile implements StructuredConfigFile {
+  private volatile ParsedDocument m_document;
+  private volatile FailedContent m_failedContent;
+
+  public AbstractStructuredConfigFile(String namespace, ConfigRepository configRepository) {
+    super(namespace, configRepository);
+  }
+
+  /**
+   * Parse the content to a tree of maps, lists and scalars
+   */
+  protected abstract Object parse(String content) throws Exception;
+
+  @Override
+  public Object getValue(String path) {
+    return document().getValue(path);
+  }
+
+  @Override
+  public <T> T getValue(String path, Class<T> clazz) {
+    return document().getValue(path, clazz);
+  }
+
+  @Override
+  public <T> T asObject(Class<T> clazz) {
+    return getValue("", clazz);
+  }
+
+  private ParsedDocument document() {
+    String content = getContent();
+    ParsedDocument document = m_document;
+    if (document != null && document.isParsedFrom(content)) {
+      return document;
+    }
+
+    synchronized (this) {
+      document = m_document;
+      if (document != null && document.isParsedFrom(content)) {
+        return document;
+      }
+      FailedContent failed = m_failedContent;
+      if (failed == null || !failed.isFailedOn(content)) {
+        try {
+          document = new ParsedDocument(content, content == null ? null : parse(content));
+          m_document = document;
+          m_failedContent = null;
+          return document;
+        } catch (Throwable ex) {
+          ApolloConfigException exception = new ApolloConfigException(
+              String.format("Parse %s file content failed for namespace: %s", getConfigFileFormat().getValue(),
+                  m_namespace), ex);
+          Tracer.logError(exception);
+          failed = new FailedContent(content, exception);
+          m_failedContent = failed;
+        }
+      }
+      // keep serving the last good document until the content is fixed
+      if (document != null) {
+        return document;
+      }
+      throw failed.getException();
+    }
+  }
+
+  /**
+   * The content failed to parse, which is recorded so that it is not parsed again
+   */
+  static class FailedContent {
+    private final String content;
+    private final ApolloConfigException exception;
+
+    FailedContent(String content, ApolloConfigException exception) {
+      this.content = content;
+      this.exception = exception;
+    }
+
+    boolean isFailedOn(String newContent) {
+      return content == newContent || Objects.equal(content, newContent);
+    }
+
+    ApolloConfigException getException() {
+      return exception;
+    }
+  }
+}
@@ -0,0 +1,251 @@
+package com.ctrip.framework.apollo.internals;
+
+import com.ctrip.framework.apollo.build.ApolloInjector;
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.util.ConfigUtil;
+import com.google.common.base.Strings;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client side load balancer of the config services.
+ *
+ * <ul>
+ *   <li>The healthy config services in the client's data center (or zone) are preferred</li>
+ *   <li>The latency and error rate of each config service are tracked with EWMA, and one of two randomly picked
+ *   config services with the lower score is selected</li>
+ *   <li>A config service is ejected after consecutive failures, and is probed again after the ejection period
+ *   which grows exponentially on each failed probe</li>
+ * </ul>
+ */
+public class ConfigServiceLoadBalancer {
+  static final String DATA_CENTER_METADATA_KEY = "dataCenter";
+  static final String ZONE_METADATA_KEY = "zone";
+  private static final double DECAY = 0.3;
+  private static final double ERROR_PENALTY = 10;
+  private static final int EJECT_CONSECUTIVE_FAILURES = 3;
+  private static final long BASE_EJECT_NANOS = TimeUnit.SECONDS.toNanos(10);
+  private static final long MAX_EJECT_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+  private final ConcurrentMap<String, InstanceStats> m_stats = Maps.newConcurrentMap();
+  private final String m_dataCenter;
+  private final Ticker m_ticker;
+
+  public ConfigServiceLoadBalancer() {
+    this(ApolloInjector.getInstance(ConfigUtil.class).getDataCenter(), Ticker.systemTicker());
+  }
+
+  ConfigServiceLoadBalancer(String dataCenter, Ticker ticker) {
+    m_dataCenter = dataCenter;
+    m_ticker = ticker;
+  }
+
+  /**
+   * Select one config service with power of two choices.
+   *
+   * @param services the available config services, should not be empty
+   */
+  public ServiceDTO select(List<ServiceDTO> services) {
+    List<ServiceDTO> candidates = candidates(services);
+    ServiceDTO selected = candidates.get(0);
+    if (candidates.size() > 1) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int first = random.nextInt(candidates.size());
+      int second = random.nextInt(candidates.size() - 1);
+      if (second >= first) {
+        second++;
+      }
+      ServiceDTO firstService = candidates.get(first);
+      ServiceDTO secondService = candidates.get(second);
+      selected = score(secondService) < score(firstService) ? secondService : firstService;
+    }
+
+    statsOf(selected).selected.incrementAndGet();
+    Tracer.logEvent("Apollo.ConfigService.Selected", selected.getHomepageUrl());
+    return selected;
+  }
+
+  /**
+   * Order the config services to try one by one: the selected one comes first, then the remaining ones in the
+   * order of preference.
+   */
+  public List<ServiceDTO> order(List<ServiceDTO> services) {
+    final ServiceDTO selected = select(services);
+    final long now = m_ticker.read();
+    List<ServiceDTO> ordered = Lists.newArrayList(services);
+    ordered.remove(selected);
+    Collections.sort(ordered, new Comparator<ServiceDTO>() {
+      @Override
+      public int compare(ServiceDTO o1, ServiceDTO o2) {
+        int result = Boolean.compare(!statsOf(o1).isAvailable(now), !statsOf(o2).isAvailable(now));
+        if (result == 0) {
+          result = Boolean.compare(!isLocal(o1), !isLocal(o2));
+        }
+        if (result == 0) {
+          result = Double.compare(score(o1), score(o2));
+        }
+        return result;
+      }
+    });
+    ordered.add(0, selected);
+    return ordered;
+  }
+
+  /**
+   * Record a successful request, the latency is not tracked for long polling requests.
+   */
+  public void onSuccess(ServiceDTO service) {
+    onSuccess(service, -1);
+  }
+
+  public void onSuccess(ServiceDTO service, long latencyInMillis) {
+    if (statsOf(service).success(latencyInMillis)) {
+      Tracer.logEvent("Apollo.ConfigService.Recovered", service.getHomepageUrl());
+    }
+  }
+
+  public void onFailure(ServiceDTO service) {
+    if (statsOf(service).failure(m_ticker.read())) {
+      Tracer.logEvent("Apollo.ConfigService.Ejected", service.getHomepageUrl());
+    }
+  }
+
+  /**
+   * Drop the stats of the config services which are not discovered any more, so that the stats don't grow as the
+   * config services are replaced over time.
+   */
+  public void retain(List<ServiceDTO> services) {
+    Set<String> homepageUrls = Sets.newHashSetWithExpectedSize(services.size());
+    for (ServiceDTO service : services) {
+      homepageUrls.add(service.getHomepageUrl());
+    }
+    m_stats.keySet().retainAll(homepageUrls);
+  }
+
+  InstanceStats getStats(ServiceDTO service) {
+    return m_stats.get(service.getHomepageUrl());
+  }
+
+  private List<ServiceDTO> candidates(List<ServiceDTO> services) {
+    long now = m_ticker.read();
+    List<ServiceDTO> available = Lists.newArrayListWithCapacity(services.size());
+    List<ServiceDTO> local = Lists.newArrayListWithCapacity(services.size());
+    for (ServiceDTO service : services) {
+      if (!statsOf(service).isAvailable(now)) {
+        continue;
+      }
+      available.add(service);
+      if (isLocal(service)) {
+        local.add(service);
+      }
+    }
+    if (!local.isEmpty()) {
+      return local;
+    }
+    // all the config services are ejected, try them anyway
+    return available.isEmpty() ? services : available;
+  }
+
+  private boolean isLocal(ServiceDTO service) {
+    if (Strings.isNullOrEmpty(m_dataCenter)) {
+      return false;
+    }
+    Map<String, String> metadata = service.getMetadata();
+    if (metadata == null) {
+      return false;
+    }
+    String dataCenter = metadata.get(DATA_CENTER_METADATA_KEY);
+    if (Strings.isNullOrEmpty(dataCenter)) {
+      dataCenter = metadata.get(ZONE_METADATA_KEY);
+    }
+    return m_dataCenter.equalsIgnoreCase(dataCenter);
+  }
+
+  private double score(ServiceDTO service) {
+    return statsOf(service).score();
+  }
+
+  private InstanceStats statsOf(ServiceDTO service) {
+    String key = service.getHomepageUrl();
+    InstanceStats stats = m_stats.get(key);
+    if (stats == null) {
+      stats = new InstanceStats();
+      InstanceStats previous = m_stats.putIfAbsent(key, stats);
+      if (previous != null) {
+        stats = previous;
+      }
+    }
+    return stats;
+  }
+
+  static class InstanceStats {
+    private final AtomicLong selected = new AtomicLong();
+    private double latency;
+    private double errorRate;
+    private int consecutiveFailures;
+    private int ejections;
+    private long ejectedUntil;
+
+    synchronized double score() {
+      return (latency + 1) * (1 + ERROR_PENALTY * errorRate);
+    }
+
+    synchronized boolean isAvailable(long now) {
+      return ejections == 0 || now - ejectedUntil >= 0;
+    }
+
+    /**
+     * @return whether the instance is recovered from ejection
+     */
+    synchronized boolean success(long latencyInMillis) {
+      if (latencyInMillis >= 0) {
+        latency = latency == 0 ? latencyInMillis : DECAY * latencyInMillis + (1 - DECAY) * latency;
+      }
+      errorRate = (1 - DECAY) * errorRate;
+      consecutiveFailures = 0;
+      boolean recovered = ejections > 0;
+      ejections = 0;
+      return recovered;
+    }
+
+    /**
+     * @return whether the instance is ejected
+     */
+    synchronized boolean failure(long now) {
+      errorRate = DECAY + (1 - DECAY) * errorRate;
+      consecutiveFailures++;
+      if (consecutiveFailures < EJECT_CONSECUTIVE_FAILURES) {
+        return false;
+      }
+      // each failed probe doubles the ejection period
+      long ejectNanos = Math.min(BASE_EJECT_NANOS << Math.min(ejections, 10), MAX_EJECT_NANOS);
+      ejections++;
+      ejectedUntil = now + ejectNanos;
+      return true;
+    }
+
+    long getSelected() {
+      return selected.get();
+    }
+
+    synchronized double getLatency() {
+      return latency;
+    }
+
+    synchronized double getErrorRate() {
+      return errorRate;
+    }
+  }
+}
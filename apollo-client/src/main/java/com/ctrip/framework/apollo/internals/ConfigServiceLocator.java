@@ -1,5 +1,6 @@
 package com.ctrip.framework.apollo.internals;
 
+import com.ctrip.framework.apollo.core.MetaDomainConsts;
 import com.ctrip.framework.apollo.core.ServiceNameConsts;
 import com.ctrip.framework.foundation.Foundation;
 import java.lang.reflect.Type;
@@ -35,6 +36,7 @@ public class ConfigServiceLocator {
   private static final Logger logger = LoggerFactory.getLogger(ConfigServiceLocator.class);
   private HttpUtil m_httpUtil;
   private ConfigUtil m_configUtil;
+  private ConfigServiceLoadBalancer m_loadBalancer;
   private AtomicReference<List<ServiceDTO>> m_configServices;
   private Type m_responseType;
   private ScheduledExecutorService m_executorService;
@@ -51,6 +53,7 @@ public class ConfigServiceLocator {
     }.getType();
     m_httpUtil = ApolloInjector.getInstance(HttpUtil.class);
     m_configUtil = ApolloInjector.getInstance(ConfigUtil.class);
+    m_loadBalancer = ApolloInjector.getInstance(ConfigServiceLoadBalancer.class);
     this.m_executorService = Executors.newScheduledThreadPool(1,
         ApolloThreadFactory.create("ConfigServiceLocator", true));
     initConfigServices();
@@ -141,13 +144,14 @@ public class ConfigServiceLocator {
   }
 
   private synchronized void updateConfigServices() {
-    String url = assembleMetaServiceUrl();
+    String domainName = m_configUtil.getMetaServerDomainName();
+    String url = assembleMetaServiceUrl(domainName);
 
-    HttpRequest request = new HttpRequest(url);
     int maxRetries = 2;
     Throwable exception = null;
 
     for (int i = 0; i < maxRetries; i++) {
+      HttpRequest request = new HttpRequest(url);
       Transaction transaction = Tracer.newTransaction("Apollo.MetaService", "getConfigService");
       transaction.addData("Url", url);
       try {
@@ -164,6 +168,10 @@ public class ConfigServiceLocator {
         Tracer.logEvent("ApolloConfigException", ExceptionUtil.getDetailMessage(ex));
         transaction.setStatus(ex);
         exception = ex;
+        // retry with another meta server if there are multiple ones
+        MetaDomainConsts.failover(m_configUtil.getApolloEnv(), domainName);
+        domainName = m_configUtil.getMetaServerDomainName();
+        url = assembleMetaServiceUrl(domainName);
       } finally {
         transaction.complete();
       }
@@ -181,11 +189,11 @@ public class ConfigServiceLocator {
 
   private void setConfigServices(List<ServiceDTO> services) {
     m_configServices.set(services);
+    m_loadBalancer.retain(services);
     logConfigServices(services);
   }
 
-  private String assembleMetaServiceUrl() {
-    String domainName = m_configUtil.getMetaServerDomainName();
+  private String assembleMetaServiceUrl(String domainName) {
     String appId = m_configUtil.getAppId();
     String localIp = m_configUtil.getLocalIp();
 
@@ -60,6 +60,7 @@ public class DefaultInjector implements Injector {
       bind(ConfigUtil.class).in(Singleton.class);
       bind(HttpUtil.class).in(Singleton.class);
       bind(ConfigServiceLocator.class).in(Singleton.class);
+      bind(ConfigServiceLoadBalancer.class).in(Singleton.class);
       bind(RemoteConfigLongPollService.class).in(Singleton.class);
       bind(YamlParser.class).in(Singleton.class);
     }
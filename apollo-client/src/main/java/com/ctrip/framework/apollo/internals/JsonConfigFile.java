@@ -1,11 +1,20 @@
 package com.ctrip.framework.apollo.internals;
 
 import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
  */
-public class JsonConfigFile extends PlainTextConfigFile {
+public class JsonConfigFile extends AbstractStructuredConfigFile {
   public JsonConfigFile(String namespace,
                         ConfigRepository configRepository) {
     super(namespace, configRepository);
@@ -15,4 +24,38 @@ public class JsonConfigFile extends PlainTextConfigFile {
   public ConfigFileFormat getConfigFileFormat() {
     return ConfigFileFormat.JSON;
   }
+
+  @Override
+  protected Object parse(String content) {
+    return toTree(new JsonParser().parse(content));
+  }
+
+  private Object toTree(JsonElement element) {
+    if (element == null || element.isJsonNull()) {
+      return null;
+    }
+    if (element.isJsonObject()) {
+      Map<String, Object> map = new LinkedHashMap<>();
+      for (Map.Entry<String, JsonElement> entry : ((JsonObject) element).entrySet()) {
+        map.put(entry.getKey(), toTree(entry.getValue()));
+      }
+      return map;
+    }
+    if (element.isJsonArray()) {
+      JsonArray array = (JsonArray) element;
+      List<Object> list = new ArrayList<>(array.size());
+      for (JsonElement item : array) {
+        list.add(toTree(item));
+      }
+      return list;
+    }
+    JsonPrimitive primitive = (JsonPrimitive) element;
+    if (primitive.isBoolean()) {
+      return primitive.getAsBoolean();
+    }
+    if (primitive.isNumber()) {
+      return primitive.getAsNumber();
+    }
+    return primitive.getAsString();
+  }
 }
@@ -0,0 +1,255 @@
+package com.ctrip.framework.apollo.internals;
+
+import com.ctrip.framework.apollo.exceptions.ApolloConfigException;
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Primitives;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The parsed tree of a structured config file content, the values looked up by paths are cached.
+ * <p>
+ * The tree is shared by all the callers, so the maps and lists returned are unmodifiable and the objects bound to a
+ * class are created on each call unless the class is immutable.
+ */
+class ParsedDocument {
+  private static final Object ABSENT = new Object();
+  private static final int MAX_CACHED_PATHS = 1024;
+  private static final Gson GSON = new Gson();
+
+  private final String content;
+  private final Object root;
+  private final ConcurrentMap<String, Object> values = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, JsonElement> jsonValues = new ConcurrentHashMap<>();
+  private final ConcurrentMap<List<Object>, Object> boundValues = new ConcurrentHashMap<>();
+
+  ParsedDocument(String content, Object root) {
+    this.content = content;
+    this.root = unmodifiable(root);
+  }
+
+  boolean isParsedFrom(String newContent) {
+    return content == newContent || Objects.equal(content, newContent);
+  }
+
+  Object getValue(String path) {
+    Object value = values.get(path);
+    if (value == null) {
+      value = resolve(compile(path));
+      if (value == null) {
+        value = ABSENT;
+      }
+      if (values.size() < MAX_CACHED_PATHS) {
+        values.putIfAbsent(path, value);
+      }
+    }
+    return value == ABSENT ? null : value;
+  }
+
+  @SuppressWarnings("unchecked")
+  <T> T getValue(String path, Class<T> clazz) {
+    boolean immutable = isImmutable(clazz);
+    List<Object> key = null;
+    if (immutable) {
+      key = Arrays.<Object>asList(path, clazz);
+      Object bound = boundValues.get(key);
+      if (bound != null) {
+        return (T) bound;
+      }
+    }
+
+    JsonElement json = getJsonValue(path);
+    if (json == null) {
+      return null;
+    }
+    T bound;
+    try {
+      bound = GSON.fromJson(json, clazz);
+    } catch (Throwable ex) {
+      throw new ApolloConfigException(String.format("Bind path '%s' to %s failed", path, clazz.getName()), ex);
+    }
+    if (bound != null && immutable && boundValues.size() < MAX_CACHED_PATHS) {
+      boundValues.putIfAbsent(key, bound);
+    }
+    return bound;
+  }
+
+  private JsonElement getJsonValue(String path) {
+    JsonElement json = jsonValues.get(path);
+    if (json == null) {
+      Object value = getValue(path);
+      if (value == null) {
+        return null;
+      }
+      json = toJsonElement(value);
+      if (jsonValues.size() < MAX_CACHED_PATHS) {
+        jsonValues.putIfAbsent(path, json);
+      }
+    }
+    return json;
+  }
+
+  private static boolean isImmutable(Class<?> clazz) {
+    return clazz == String.class || Primitives.isWrapperType(Primitives.wrap(clazz)) || clazz.isEnum()
+        || clazz == BigDecimal.class || clazz == BigInteger.class;
+  }
+
+  /**
+   * Copy the tree into unmodifiable maps and lists, so that the values returned could not change the document
+   */
+  private static Object unmodifiable(Object value) {
+    if (value instanceof Map) {
+      Map<Object, Object> map = new LinkedHashMap<>();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        map.put(entry.getKey(), unmodifiable(entry.getValue()));
+      }
+      return Collections.unmodifiableMap(map);
+    }
+    if (value instanceof Collection) {
+      List<Object> list = new ArrayList<>(((Collection<?>) value).size());
+      for (Object item : (Collection<?>) value) {
+        list.add(unmodifiable(item));
+      }
+      return Collections.unmodifiableList(list);
+    }
+    return value;
+  }
+
+  /**
+   * Gson skips anonymous map implementations (e.g. the ones created by the yaml parser), so the tree is converted
+   * explicitly
+   */
+  private JsonElement toJsonElement(Object value) {
+    if (value == null) {
+      return JsonNull.INSTANCE;
+    }
+    if (value instanceof Map) {
+      JsonObject object = new JsonObject();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        object.add(String.valueOf(entry.getKey()), toJsonElement(entry.getValue()));
+      }
+      return object;
+    }
+    if (value instanceof Collection) {
+      JsonArray array = new JsonArray();
+      for (Object item : (Collection<?>) value) {
+        array.add(toJsonElement(item));
+      }
+      return array;
+    }
+    if (value instanceof Number) {
+      return new JsonPrimitive((Number) value);
+    }
+    if (value instanceof Boolean) {
+      return new JsonPrimitive((Boolean) value);
+    }
+    if (value instanceof String) {
+      return new JsonPrimitive((String) value);
+    }
+    return GSON.toJsonTree(value);
+  }
+
+  private Object resolve(List<Object> segments) {
+    Object current = root;
+    for (Object segment : segments) {
+      if (current instanceof Map && segment instanceof String) {
+        current = getFromMap((Map<?, ?>) current, (String) segment);
+      } else if (current instanceof List && segment instanceof Integer) {
+        List<?> list = (List<?>) current;
+        int index = (Integer) segment;
+        current = index < list.size() ? list.get(index) : null;
+      } else {
+        return null;
+      }
+      if (current == null) {
+        return null;
+      }
+    }
+    return current;
+  }
+
+  private Object getFromMap(Map<?, ?> map, String key) {
+    Object value = map.get(key);
+    if (value != null) {
+      return value;
+    }
+    // keys of yaml might be numbers or booleans
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      if (entry.getKey() != null && key.equals(entry.getKey().toString())) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Split the path into map keys and list indexes, e.g. a.b[2].c -> "a", "b", 2, "c"
+   */
+  static List<Object> compile(String path) {
+    if (path == null || path.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<Object> segments = Lists.newArrayList();
+    StringBuilder name = new StringBuilder();
+    int i = 0;
+    while (i < path.length()) {
+      char c = path.charAt(i);
+      if (c == '.') {
+        addName(segments, name, path);
+        i++;
+      } else if (c == '[') {
+        if (name.length() > 0) {
+          addName(segments, name, path);
+        }
+        int end = path.indexOf(']', i);
+        if (end < 0) {
+          throw new IllegalArgumentException("Invalid path: " + path);
+        }
+        try {
+          segments.add(Integer.parseInt(path.substring(i + 1, end).trim()));
+        } catch (NumberFormatException ex) {
+          throw new IllegalArgumentException("Invalid path: " + path, ex);
+        }
+        i = end + 1;
+        if (i < path.length() && path.charAt(i) != '.' && path.charAt(i) != '[') {
+          throw new IllegalArgumentException("Invalid path: " + path);
+        }
+        if (i < path.length() && path.charAt(i) == '.') {
+          i++;
+        }
+      } else {
+        name.append(c);
+        i++;
+      }
+    }
+    if (name.length() > 0) {
+      addName(segments, name, path);
+    }
+    return segments;
+  }
+
+  private static void addName(List<Object> segments, StringBuilder name, String path) {
+    if (name.length() == 0) {
+      throw new IllegalArgumentException("Invalid path: " + path);
+    }
+    segments.add(name.toString());
+    name.setLength(0);
+  }
+}
@@ -1,6 +1,7 @@
 package com.ctrip.framework.apollo.internals;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
 import com.google.common.base.Strings;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
@@ -19,7 +20,7 @@ import com.ctrip.framework.apollo.core.dto.ApolloConfigNotification;
 import com.ctrip.framework.apollo.core.dto.ApolloNotificationMessages;
 import com.ctrip.framework.apollo.core.dto.ServiceDTO;
 import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
-import com.ctrip.framework.apollo.core.schedule.ExponentialSchedulePolicy;
+import com.ctrip.framework.apollo.core.schedule.FullJitterSchedulePolicy;
 import com.ctrip.framework.apollo.core.schedule.SchedulePolicy;
 import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
 import com.ctrip.framework.apollo.exceptions.ApolloConfigException;
@@ -37,10 +38,10 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -55,9 +56,13 @@ public class RemoteConfigLongPollService {
   private static final long INIT_NOTIFICATION_ID = ConfigConsts.NOTIFICATION_ID_PLACEHOLDER;
   //90 seconds, should be longer than server side's long polling timeout, which is now 60 seconds
   private static final int LONG_POLLING_READ_TIMEOUT = 90 * 1000;
+  //the read timeout is the hold time advertised by the server plus this margin
+  private static final int LONG_POLLING_READ_TIMEOUT_MARGIN = 30 * 1000;
   private final ExecutorService m_longPollingService;
   private final AtomicBoolean m_longPollingStopped;
-  private SchedulePolicy m_longPollFailSchedulePolicyInSecond;
+  private SchedulePolicy m_longPollFailSchedulePolicyInMillis;
+  private int m_longPollReadTimeout;
+  private long m_longPollReconnectJitter;
   private RateLimiter m_longPollRateLimiter;
   private final AtomicBoolean m_longPollStarted;
   private final Multimap<String, RemoteConfigRepository> m_longPollNamespaces;
@@ -68,12 +73,14 @@ public class RemoteConfigLongPollService {
   private ConfigUtil m_configUtil;
   private HttpUtil m_httpUtil;
   private ConfigServiceLocator m_serviceLocator;
+  private ConfigServiceLoadBalancer m_loadBalancer;
 
   /**
    * Constructor.
    */
   public RemoteConfigLongPollService() {
-    m_longPollFailSchedulePolicyInSecond = new ExponentialSchedulePolicy(1, 120); //in second
+    m_longPollFailSchedulePolicyInMillis = new FullJitterSchedulePolicy(1000, 120 * 1000); //in millis
+    m_longPollReadTimeout = LONG_POLLING_READ_TIMEOUT;
     m_longPollingStopped = new AtomicBoolean(false);
     m_longPollingService = Executors.newSingleThreadExecutor(
         ApolloThreadFactory.create("RemoteConfigLongPollService", true));
@@ -88,6 +95,7 @@ public class RemoteConfigLongPollService {
     m_configUtil = ApolloInjector.getInstance(ConfigUtil.class);
     m_httpUtil = ApolloInjector.getInstance(HttpUtil.class);
     m_serviceLocator = ApolloInjector.getInstance(ConfigServiceLocator.class);
+    m_loadBalancer = ApolloInjector.getInstance(ConfigServiceLoadBalancer.class);
     m_longPollRateLimiter = RateLimiter.create(m_configUtil.getLongPollQPS());
   }
 
@@ -138,8 +146,8 @@ public class RemoteConfigLongPollService {
   }
 
   private void doLongPollingRefresh(String appId, String cluster, String dataCenter) {
-    final Random random = new Random();
     ServiceDTO lastServiceDto = null;
+    ServiceDTO drainedServiceDto = null;
     while (!m_longPollingStopped.get() && !Thread.currentThread().isInterrupted()) {
       if (!m_longPollRateLimiter.tryAcquire(5, TimeUnit.SECONDS)) {
         //wait at most 5 seconds
@@ -150,10 +158,11 @@ public class RemoteConfigLongPollService {
       }
       Transaction transaction = Tracer.newTransaction("Apollo.ConfigService", "pollNotification");
       String url = null;
+      long reconnectDelayInMillis = 0;
       try {
         if (lastServiceDto == null) {
-          List<ServiceDTO> configServices = getConfigServices();
-          lastServiceDto = configServices.get(random.nextInt(configServices.size()));
+          List<ServiceDTO> configServices = excludeDrainedService(getConfigServices(), drainedServiceDto);
+          lastServiceDto = m_loadBalancer.select(configServices);
         }
 
         url =
@@ -162,12 +171,14 @@ public class RemoteConfigLongPollService {
 
         logger.debug("Long polling from {}", url);
         HttpRequest request = new HttpRequest(url);
-        request.setReadTimeout(LONG_POLLING_READ_TIMEOUT);
+        request.setReadTimeout(m_longPollReadTimeout);
 
         transaction.addData("Url", url);
 
         final HttpResponse<List<ApolloConfigNotification>> response =
             m_httpUtil.doGet(request, m_responseType);
+        m_loadBalancer.onSuccess(lastServiceDto);
+        updateLongPollingSchedule(response);
 
         logger.debug("Long polling response: {}, url: {}", response.getStatusCode(), url);
         if (response.getStatusCode() == 200 && response.getBody() != null) {
@@ -177,33 +188,94 @@ public class RemoteConfigLongPollService {
           notify(lastServiceDto, response.getBody());
         }
 
-        //try to load balance
-        if (response.getStatusCode() == 304 && random.nextBoolean()) {
+        //stick to the same config service unless it is draining or failed
+        long drainWindow = parseMillis(response.getHeader(ConfigConsts.LONG_POLLING_DRAIN_WINDOW_HEADER), -1);
+        if (drainWindow >= 0) {
+          Tracer.logEvent("Apollo.LongPoll.Drained", lastServiceDto.getHomepageUrl());
+          drainedServiceDto = lastServiceDto;
           lastServiceDto = null;
+          //spread the clients of the draining config service within the drain window
+          reconnectDelayInMillis = randomDelay(drainWindow);
+        } else if (drainedServiceDto != null && !isSameService(drainedServiceDto, lastServiceDto)) {
+          drainedServiceDto = null;
         }
 
-        m_longPollFailSchedulePolicyInSecond.success();
+        m_longPollFailSchedulePolicyInMillis.success();
         transaction.addData("StatusCode", response.getStatusCode());
         transaction.setStatus(Transaction.SUCCESS);
       } catch (Throwable ex) {
+        if (lastServiceDto != null) {
+          m_loadBalancer.onFailure(lastServiceDto);
+        }
         lastServiceDto = null;
         Tracer.logEvent("ApolloConfigException", ExceptionUtil.getDetailMessage(ex));
         transaction.setStatus(ex);
-        long sleepTimeInSecond = m_longPollFailSchedulePolicyInSecond.fail();
+        //full jitter backoff, and at least spread the reconnects within the jitter window advertised by the server
+        reconnectDelayInMillis = Math.max(m_longPollFailSchedulePolicyInMillis.fail(),
+            randomDelay(m_longPollReconnectJitter));
         logger.warn(
-            "Long polling failed, will retry in {} seconds. appId: {}, cluster: {}, namespaces: {}, long polling url: {}, reason: {}",
-            sleepTimeInSecond, appId, cluster, assembleNamespaces(), url, ExceptionUtil.getDetailMessage(ex));
+            "Long polling failed, will retry in {} milliseconds. appId: {}, cluster: {}, namespaces: {}, long polling url: {}, reason: {}",
+            reconnectDelayInMillis, appId, cluster, assembleNamespaces(), url, ExceptionUtil.getDetailMessage(ex));
+      } finally {
+        transaction.complete();
+      }
+
+      if (reconnectDelayInMillis > 0) {
         try {
-          TimeUnit.SECONDS.sleep(sleepTimeInSecond);
+          TimeUnit.MILLISECONDS.sleep(reconnectDelayInMillis);
         } catch (InterruptedException ie) {
           //ignore
         }
-      } finally {
-        transaction.complete();
       }
     }
   }
 
+  /**
+   * Honour the long polling schedule advertised by the config service
+   */
+  private void updateLongPollingSchedule(HttpResponse<?> response) {
+    long holdTime = parseMillis(response.getHeader(ConfigConsts.LONG_POLLING_HOLD_TIME_HEADER), -1);
+    if (holdTime > 0) {
+      m_longPollReadTimeout = (int) Math.min(holdTime + LONG_POLLING_READ_TIMEOUT_MARGIN, Integer.MAX_VALUE);
+    }
+    long reconnectJitter = parseMillis(response.getHeader(ConfigConsts.LONG_POLLING_RECONNECT_JITTER_HEADER), -1);
+    if (reconnectJitter >= 0) {
+      m_longPollReconnectJitter = reconnectJitter;
+    }
+  }
+
+  private List<ServiceDTO> excludeDrainedService(List<ServiceDTO> configServices, ServiceDTO drainedServiceDto) {
+    if (drainedServiceDto == null || configServices.size() <= 1) {
+      return configServices;
+    }
+    List<ServiceDTO> candidates = Lists.newArrayListWithCapacity(configServices.size());
+    for (ServiceDTO configService : configServices) {
+      if (!isSameService(configService, drainedServiceDto)) {
+        candidates.add(configService);
+      }
+    }
+    return candidates.isEmpty() ? configServices : candidates;
+  }
+
+  private boolean isSameService(ServiceDTO someService, ServiceDTO anotherService) {
+    return Objects.equal(someService.getHomepageUrl(), anotherService.getHomepageUrl());
+  }
+
+  private long parseMillis(String value, long defaultValue) {
+    if (Strings.isNullOrEmpty(value)) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException ex) {
+      return defaultValue;
+    }
+  }
+
+  private long randomDelay(long window) {
+    return window > 0 ? ThreadLocalRandom.current().nextLong(window) : 0;
+  }
+
   private void notify(ServiceDTO lastServiceDto, List<ApolloConfigNotification> notifications) {
     if (notifications == null || notifications.isEmpty()) {
       return;
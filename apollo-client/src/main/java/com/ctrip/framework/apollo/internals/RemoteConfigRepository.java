@@ -1,7 +1,6 @@
 package com.ctrip.framework.apollo.internals;
 
 import com.ctrip.framework.apollo.enums.ConfigSourceType;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -52,6 +51,7 @@ public class RemoteConfigRepository extends AbstractConfigRepository {
   private static final Escaper queryParamEscaper = UrlEscapers.urlFormParameterEscaper();
 
   private final ConfigServiceLocator m_serviceLocator;
+  private final ConfigServiceLoadBalancer m_loadBalancer;
   private final HttpUtil m_httpUtil;
   private final ConfigUtil m_configUtil;
   private final RemoteConfigLongPollService remoteConfigLongPollService;
@@ -81,6 +81,7 @@ public class RemoteConfigRepository extends AbstractConfigRepository {
     m_configUtil = ApolloInjector.getInstance(ConfigUtil.class);
     m_httpUtil = ApolloInjector.getInstance(HttpUtil.class);
     m_serviceLocator = ApolloInjector.getInstance(ConfigServiceLocator.class);
+    m_loadBalancer = ApolloInjector.getInstance(ConfigServiceLoadBalancer.class);
     remoteConfigLongPollService = ApolloInjector.getInstance(RemoteConfigLongPollService.class);
     m_longPollServiceDto = new AtomicReference<>();
     m_remoteMessages = new AtomicReference<>();
@@ -182,8 +183,7 @@ public class RemoteConfigRepository extends AbstractConfigRepository {
     List<ServiceDTO> configServices = getConfigServices();
     String url = null;
     for (int i = 0; i < maxRetries; i++) {
-      List<ServiceDTO> randomConfigServices = Lists.newLinkedList(configServices);
-      Collections.shuffle(randomConfigServices);
+      List<ServiceDTO> randomConfigServices = Lists.newLinkedList(m_loadBalancer.order(configServices));
       //Access the server which notifies the client first
       if (m_longPollServiceDto.get() != null) {
         randomConfigServices.add(0, m_longPollServiceDto.getAndSet(null));
@@ -210,9 +210,11 @@ public class RemoteConfigRepository extends AbstractConfigRepository {
 
         Transaction transaction = Tracer.newTransaction("Apollo.ConfigService", "queryConfig");
         transaction.addData("Url", url);
+        long start = System.currentTimeMillis();
         try {
 
           HttpResponse<ApolloConfig> response = m_httpUtil.doGet(request, ApolloConfig.class);
+          m_loadBalancer.onSuccess(configService, System.currentTimeMillis() - start);
           m_configNeedForceRefresh.set(false);
           m_loadConfigFailSchedulePolicy.success();
 
@@ -231,6 +233,11 @@ public class RemoteConfigRepository extends AbstractConfigRepository {
           return result;
         } catch (ApolloConfigStatusCodeException ex) {
           ApolloConfigStatusCodeException statusCodeException = ex;
+          if (ex.getStatusCode() >= 500) {
+            m_loadBalancer.onFailure(configService);
+          } else {
+            m_loadBalancer.onSuccess(configService, System.currentTimeMillis() - start);
+          }
           //config not found
           if (ex.getStatusCode() == 404) {
             String message = String.format(
@@ -244,6 +251,7 @@ public class RemoteConfigRepository extends AbstractConfigRepository {
           transaction.setStatus(statusCodeException);
           exception = statusCodeException;
         } catch (Throwable ex) {
+          m_loadBalancer.onFailure(configService);
           Tracer.logEvent("ApolloConfigException", ExceptionUtil.getDetailMessage(ex));
           transaction.setStatus(ex);
           exception = ex;
@@ -1,28 +1,24 @@
 package com.ctrip.framework.apollo.internals;
 
-import com.ctrip.framework.apollo.util.ExceptionUtil;
 import java.util.Properties;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import com.ctrip.framework.apollo.PropertiesCompatibleConfigFile;
 import com.ctrip.framework.apollo.build.ApolloInjector;
 import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
 import com.ctrip.framework.apollo.exceptions.ApolloConfigException;
 import com.ctrip.framework.apollo.tracer.Tracer;
 import com.ctrip.framework.apollo.util.yaml.YamlParser;
+import com.google.common.base.Objects;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
  */
-public class YamlConfigFile extends PlainTextConfigFile implements PropertiesCompatibleConfigFile {
-  private static final Logger logger = LoggerFactory.getLogger(YamlConfigFile.class);
-  private volatile Properties cachedProperties;
+public class YamlConfigFile extends AbstractStructuredConfigFile implements PropertiesCompatibleConfigFile {
+  private volatile CachedProperties cachedProperties;
+  private volatile FailedContent failedContent;
 
   public YamlConfigFile(String namespace, ConfigRepository configRepository) {
     super(namespace, configRepository);
-    tryTransformToProperties();
   }
 
   @Override
@@ -31,41 +27,54 @@ public class YamlConfigFile extends PlainTextConfigFile implements PropertiesCom
   }
 
   @Override
-  protected void update(Properties newProperties) {
-    super.update(newProperties);
-    tryTransformToProperties();
+  protected Object parse(String content) {
+    return ApolloInjector.getInstance(YamlParser.class).yamlToMap(content);
   }
 
+  /**
+   * The properties are transformed at the first access after the content is changed. When the new content is invalid,
+   * the last good properties are kept and the invalid content is not transformed again.
+   */
   @Override
   public Properties asProperties() {
-    if (cachedProperties == null) {
-      transformToProperties();
+    String content = getContent();
+    CachedProperties cached = cachedProperties;
+    if (cached == null || !cached.isTransformedFrom(content)) {
+      cached = transformToProperties(content);
     }
-    return cachedProperties;
+    return cached.properties;
   }
 
-  private boolean tryTransformToProperties() {
-    try {
-      transformToProperties();
-      return true;
-    } catch (Throwable ex) {
-      Tracer.logEvent("ApolloConfigException", ExceptionUtil.getDetailMessage(ex));
-      logger.warn("yaml to properties failed, reason: {}", ExceptionUtil.getDetailMessage(ex));
+  private synchronized CachedProperties transformToProperties(String content) {
+    CachedProperties cached = cachedProperties;
+    if (cached != null && cached.isTransformedFrom(content)) {
+      return cached;
     }
-    return false;
-  }
-
-  private synchronized void transformToProperties() {
-    cachedProperties = toProperties();
+    FailedContent failed = failedContent;
+    if (failed == null || !failed.isFailedOn(content)) {
+      try {
+        cached = new CachedProperties(content, toProperties(content));
+        cachedProperties = cached;
+        failedContent = null;
+        return cached;
+      } catch (ApolloConfigException ex) {
+        failed = new FailedContent(content, ex);
+        failedContent = failed;
+      }
+    }
+    if (cached != null) {
+      return cached;
+    }
+    throw failed.getException();
   }
 
-  private Properties toProperties() {
-    if (!this.hasContent()) {
+  private Properties toProperties(String content) {
+    if (content == null) {
       return new Properties();
     }
 
     try {
-      return ApolloInjector.getInstance(YamlParser.class).yamlToProperties(getContent());
+      return ApolloInjector.getInstance(YamlParser.class).yamlToProperties(content);
     } catch (Throwable ex) {
       ApolloConfigException exception = new ApolloConfigException(
           "Parse yaml file content failed for namespace: " + m_namespace, ex);
@@ -73,4 +82,18 @@ public class YamlConfigFile extends PlainTextConfigFile implements PropertiesCom
       throw exception;
     }
   }
+
+  private static class CachedProperties {
+    private final String content;
+    private final Properties properties;
+
+    CachedProperties(String content, Properties properties) {
+      this.content = content;
+      this.properties = properties;
+    }
+
+    boolean isTransformedFrom(String newContent) {
+      return content == newContent || Objects.equal(content, newContent);
+    }
+  }
 }
@@ -5,18 +5,29 @@ import com.ctrip.framework.apollo.enums.PropertyChangeType;
 import com.ctrip.framework.apollo.model.ConfigChange;
 import com.ctrip.framework.apollo.model.ConfigChangeEvent;
 import com.ctrip.framework.apollo.spring.util.SpringInjector;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.gson.Gson;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.TypeConverter;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -49,23 +60,49 @@ public class AutoUpdateConfigChangeListener implements ConfigChangeListener{
     if (CollectionUtils.isEmpty(keys)) {
       return;
     }
+    // 1. collect the relevant spring values, a spring value referring to several changed keys is updated only once
+    Set<SpringValue> targetValues = Sets.newLinkedHashSet();
     for (String key : keys) {
-      // 1. check whether the changed key is relevant
-      Collection<SpringValue> targetValues = springValueRegistry.get(beanFactory, key);
-      if (targetValues == null || targetValues.isEmpty()) {
-        continue;
+      Collection<SpringValue> springValues = springValueRegistry.get(beanFactory, key);
+      if (springValues != null) {
+        targetValues.addAll(springValues);
+      }
+    }
+    if (targetValues.isEmpty()) {
+      return;
+    }
+
+    Transaction transaction = Tracer.newTransaction("Apollo.SpringValue", "AutoUpdate");
+    try {
+      // 2. resolve all the new values first, the same placeholder is resolved only once in the change event
+      Map<Object, Object> resolvedValues = Maps.newHashMap();
+      Map<SpringValue, Object> newValues = Maps.newLinkedHashMap();
+      for (SpringValue springValue : targetValues) {
+        try {
+          newValues.put(springValue, resolvePropertyValue(springValue, resolvedValues));
+        } catch (Throwable ex) {
+          logger.error("Auto update apollo changed value failed, {}", springValue.toString(), ex);
+        }
       }
 
-      // 2. update the value
-      for (SpringValue val : targetValues) {
-        updateSpringValue(val);
+      // 3. apply the new values as a batch
+      for (Map.Entry<SpringValue, Object> entry : newValues.entrySet()) {
+        updateSpringValue(entry.getKey(), entry.getValue());
       }
+
+      transaction.addData("targets", targetValues.size());
+      transaction.addData("resolutions", resolvedValues.size());
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      throw ex;
+    } finally {
+      transaction.complete();
     }
   }
 
-  private void updateSpringValue(SpringValue springValue) {
+  private void updateSpringValue(SpringValue springValue, Object value) {
     try {
-      Object value = resolvePropertyValue(springValue);
       springValue.update(value);
 
       logger.info("Auto update apollo changed value successfully, new value: {}, {}", value,
@@ -75,15 +112,47 @@ public class AutoUpdateConfigChangeListener implements ConfigChangeListener{
     }
   }
 
+  /**
+   * Resolve the value with the results of the same change event, the placeholder is resolved once per bean scope, and
+   * converted once per target type if the converted value is immutable, e.g. String, Integer and enums.
+   */
+  private Object resolvePropertyValue(SpringValue springValue, Map<Object, Object> resolvedValues) {
+    String scope = null;
+    if (beanFactory.containsBean(springValue.getBeanName())) {
+      BeanDefinition bd = beanFactory.getMergedBeanDefinition(springValue.getBeanName());
+      scope = bd.getScope();
+    }
+
+    // expressions like "#{systemProperties.myProp}" are evaluated in the bean's scope
+    ResolutionKey resolutionKey = new ResolutionKey(springValue.getPlaceholder(), scope);
+    Object value = resolvedValues.get(resolutionKey);
+    if (value == null) {
+      value = placeholderHelper
+          .resolvePropertyValue(beanFactory, springValue.getBeanName(), springValue.getPlaceholder());
+      resolvedValues.put(resolutionKey, value);
+    }
+
+    if (springValue.isJson() || !isImmutable(springValue.getTargetType())) {
+      return convertPropertyValue(springValue, value);
+    }
+
+    ConversionKey conversionKey = new ConversionKey(resolutionKey, springValue);
+    Object converted = resolvedValues.get(conversionKey);
+    if (converted == null) {
+      converted = convertPropertyValue(springValue, value);
+      if (converted != null) {
+        resolvedValues.put(conversionKey, converted);
+      }
+    }
+    return converted;
+  }
+
   /**
    * Logic transplanted from DefaultListableBeanFactory
    * @see org.springframework.beans.factory.support.DefaultListableBeanFactory#doResolveDependency(org.springframework.beans.factory.config.DependencyDescriptor, java.lang.String, java.util.Set, org.springframework.beans.TypeConverter)
    */
-  private Object resolvePropertyValue(SpringValue springValue) {
+  private Object convertPropertyValue(SpringValue springValue, Object value) {
     // value will never be null, as @Value and @ApolloJsonValue will not allow that
-    Object value = placeholderHelper
-        .resolvePropertyValue(beanFactory, springValue.getBeanName(), springValue.getPlaceholder());
-
     if (springValue.isJson()) {
       value = parseJsonValue((String)value, springValue.getGenericType());
     } else {
@@ -113,6 +182,15 @@ public class AutoUpdateConfigChangeListener implements ConfigChangeListener{
     }
   }
 
+  /**
+   * the converted values of these types could be shared by the beans safely, other simple value types like
+   * StringBuilder or AtomicInteger are mutable
+   */
+  private boolean isImmutable(Class<?> type) {
+    return String.class == type || ClassUtils.isPrimitiveOrWrapper(type) || type.isEnum()
+        || BigDecimal.class == type;
+  }
+
   private boolean testTypeConverterHasConvertIfNecessaryWithFieldParameter() {
     try {
       TypeConverter.class.getMethod("convertIfNecessary", Object.class, Class.class, Field.class);
@@ -122,4 +200,71 @@ public class AutoUpdateConfigChangeListener implements ConfigChangeListener{
 
     return true;
   }
+
+  private static class ResolutionKey {
+    private final String placeholder;
+    private final String scope;
+
+    ResolutionKey(String placeholder, String scope) {
+      this.placeholder = placeholder;
+      this.scope = scope;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ResolutionKey)) {
+        return false;
+      }
+      ResolutionKey that = (ResolutionKey) o;
+      return Objects.equal(placeholder, that.placeholder) && Objects.equal(scope, that.scope);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(placeholder, scope);
+    }
+  }
+
+  /**
+   * The conversion depends on the generic type and the annotations of the field or the method parameter
+   */
+  private static class ConversionKey {
+    private final ResolutionKey resolutionKey;
+    private final boolean isField;
+    private final Type targetType;
+    private final List<Annotation> annotations;
+
+    ConversionKey(ResolutionKey resolutionKey, SpringValue springValue) {
+      this.resolutionKey = resolutionKey;
+      this.isField = springValue.isField();
+      if (isField) {
+        this.targetType = springValue.getField().getGenericType();
+        this.annotations = Arrays.asList(springValue.getField().getAnnotations());
+      } else {
+        this.targetType = springValue.getMethodParameter().getGenericParameterType();
+        this.annotations = Arrays.asList(springValue.getMethodParameter().getParameterAnnotations());
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ConversionKey)) {
+        return false;
+      }
+      ConversionKey that = (ConversionKey) o;
+      return isField == that.isField && resolutionKey.equals(that.resolutionKey)
+          && targetType.equals(that.targetType) && annotations.equals(that.annotations);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(resolutionKey, isField, targetType, annotations);
+    }
+  }
 }
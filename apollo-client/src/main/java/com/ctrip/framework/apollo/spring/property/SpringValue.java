@@ -1,6 +1,10 @@
 package com.ctrip.framework.apollo.spring.property;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -24,6 +28,8 @@ public class SpringValue {
   private Class<?> targetType;
   private Type genericType;
   private boolean isJson;
+  //resolved at the first update, so that the accessibility is not toggled for every update
+  private volatile MethodHandle injector;
 
   public SpringValue(String key, String placeholder, Object bean, String beanName, Field field, boolean isJson) {
     this.beanRef = new WeakReference<>(bean);
@@ -53,31 +59,51 @@ public class SpringValue {
   }
 
   public void update(Object newVal) throws IllegalAccessException, InvocationTargetException {
-    if (isField()) {
-      injectField(newVal);
-    } else {
-      injectMethod(newVal);
-    }
-  }
-
-  private void injectField(Object newVal) throws IllegalAccessException {
     Object bean = beanRef.get();
     if (bean == null) {
       return;
     }
+    MethodHandle injector = getInjector();
+    if (injector == null) {
+      // final fields could not be set via method handles
+      injectField(bean, newVal);
+      return;
+    }
+    try {
+      injector.invokeExact(bean, newVal);
+    } catch (RuntimeException | Error ex) {
+      throw ex;
+    } catch (Throwable ex) {
+      throw new InvocationTargetException(ex);
+    }
+  }
+
+  private void injectField(Object bean, Object newVal) throws IllegalAccessException {
     boolean accessible = field.isAccessible();
     field.setAccessible(true);
     field.set(bean, newVal);
     field.setAccessible(accessible);
   }
 
-  private void injectMethod(Object newVal)
-      throws InvocationTargetException, IllegalAccessException {
-    Object bean = beanRef.get();
-    if (bean == null) {
-      return;
+  private MethodHandle getInjector() throws IllegalAccessException {
+    MethodHandle handle = injector;
+    if (handle != null || (isField() && Modifier.isFinal(field.getModifiers()))) {
+      return handle;
+    }
+
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    if (isField()) {
+      field.setAccessible(true);
+      handle = lookup.unreflectSetter(field);
+    } else {
+      Method method = methodParameter.getMethod();
+      method.setAccessible(true);
+      handle = lookup.unreflect(method);
     }
-    methodParameter.getMethod().invoke(bean, newVal);
+    // the return value of setter methods is discarded
+    handle = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+    injector = handle;
+    return handle;
   }
 
   public String getBeanName() {
@@ -112,8 +138,8 @@ public class SpringValue {
     return isJson;
   }
 
-  boolean isTargetBeanValid() {
-    return beanRef.get() != null;
+  Object getBean() {
+    return beanRef.get();
   }
 
   @Override
@@ -1,34 +1,66 @@
 package com.ctrip.framework.apollo.spring.property;
 
 import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
-import com.google.common.collect.LinkedListMultimap;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.MapMaker;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanFactory;
 
+/**
+ * Registry of the spring values by bean factory and key.
+ *
+ * <p>Bean factories are weakly referenced. The spring values are dropped when their beans are garbage collected,
+ * which is notified by a reference queue, so the cleanup cost is proportional to the number of collected beans rather
+ * than the number of registered values.</p>
+ */
 public class SpringValueRegistry {
-  private static final long CLEAN_INTERVAL_IN_SECONDS = 5;
-  private final Map<BeanFactory, Multimap<String, SpringValue>> registry = Maps.newConcurrentMap();
+  private static final Logger logger = LoggerFactory.getLogger(SpringValueRegistry.class);
+
+  private final ConcurrentMap<BeanFactory, ConcurrentMap<String, Set<SpringValue>>> registry =
+      new MapMaker().weakKeys().makeMap();
+  private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
+  // the references must be reachable until they are enqueued
+  private final Set<SpringValueReference> references =
+      Collections.newSetFromMap(new ConcurrentHashMap<SpringValueReference, Boolean>());
   private final AtomicBoolean initialized = new AtomicBoolean(false);
-  private final Object LOCK = new Object();
+  private final AtomicLong registeredCount = new AtomicLong();
+  private final AtomicLong purgedCount = new AtomicLong();
 
   public void register(BeanFactory beanFactory, String key, SpringValue springValue) {
-    if (!registry.containsKey(beanFactory)) {
-      synchronized (LOCK) {
-        if (!registry.containsKey(beanFactory)) {
-          registry.put(beanFactory, LinkedListMultimap.<String, SpringValue>create());
-        }
+    ConcurrentMap<String, Set<SpringValue>> beanFactorySpringValues = registry.get(beanFactory);
+    if (beanFactorySpringValues == null) {
+      beanFactorySpringValues = new ConcurrentHashMap<>();
+      ConcurrentMap<String, Set<SpringValue>> existing =
+          registry.putIfAbsent(beanFactory, beanFactorySpringValues);
+      if (existing != null) {
+        beanFactorySpringValues = existing;
+      }
+    }
+
+    Set<SpringValue> springValues = beanFactorySpringValues.get(key);
+    if (springValues == null) {
+      springValues = Collections.newSetFromMap(new ConcurrentHashMap<SpringValue, Boolean>());
+      Set<SpringValue> existing = beanFactorySpringValues.putIfAbsent(key, springValues);
+      if (existing != null) {
+        springValues = existing;
       }
     }
 
-    registry.get(beanFactory).put(key, springValue);
+    Object bean = springValue.getBean();
+    if (bean == null || !springValues.add(springValue)) {
+      return;
+    }
+    references.add(new SpringValueReference(bean, referenceQueue, springValues, springValue));
+    registeredCount.incrementAndGet();
 
     // lazy initialize
     if (initialized.compareAndSet(false, true)) {
@@ -37,39 +69,62 @@ public class SpringValueRegistry {
   }
 
   public Collection<SpringValue> get(BeanFactory beanFactory, String key) {
-    Multimap<String, SpringValue> beanFactorySpringValues = registry.get(beanFactory);
+    ConcurrentMap<String, Set<SpringValue>> beanFactorySpringValues = registry.get(beanFactory);
     if (beanFactorySpringValues == null) {
       return null;
     }
-    return beanFactorySpringValues.get(key);
+    Set<SpringValue> springValues = beanFactorySpringValues.get(key);
+    return springValues == null ? Collections.<SpringValue>emptySet() : Collections.unmodifiableSet(springValues);
   }
 
-  private void initialize() {
-    Executors.newSingleThreadScheduledExecutor(ApolloThreadFactory.create("SpringValueRegistry", true)).scheduleAtFixedRate(
-        new Runnable() {
-          @Override
-          public void run() {
-            try {
-              scanAndClean();
-            } catch (Throwable ex) {
-              ex.printStackTrace();
-            }
-          }
-        }, CLEAN_INTERVAL_IN_SECONDS, CLEAN_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+  /**
+   * @return the number of spring values registered so far
+   */
+  public long getRegisteredCount() {
+    return registeredCount.get();
   }
 
-  private void scanAndClean() {
-    Iterator<Multimap<String, SpringValue>> iterator = registry.values().iterator();
-    while (!Thread.currentThread().isInterrupted() && iterator.hasNext()) {
-      Multimap<String, SpringValue> springValues = iterator.next();
-      Iterator<Entry<String, SpringValue>> springValueIterator = springValues.entries().iterator();
-      while (springValueIterator.hasNext()) {
-        Entry<String, SpringValue> springValue = springValueIterator.next();
-        if (!springValue.getValue().isTargetBeanValid()) {
-          // clear unused spring values
-          springValueIterator.remove();
+  /**
+   * @return the number of spring values purged because their beans were garbage collected
+   */
+  public long getPurgedCount() {
+    return purgedCount.get();
+  }
+
+  private void initialize() {
+    ApolloThreadFactory.create("SpringValueRegistry", true).newThread(new Runnable() {
+      @Override
+      public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+          try {
+            purge((SpringValueReference) referenceQueue.remove());
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          } catch (Throwable ex) {
+            logger.error("Purge spring value failed", ex);
+          }
         }
       }
+    }).start();
+  }
+
+  private void purge(SpringValueReference reference) {
+    references.remove(reference);
+    // empty sets are kept, as removing them might race with the registration of the same key
+    if (reference.springValues.remove(reference.springValue)) {
+      purgedCount.incrementAndGet();
+    }
+  }
+
+  private static class SpringValueReference extends WeakReference<Object> {
+    private final Set<SpringValue> springValues;
+    private final SpringValue springValue;
+
+    SpringValueReference(Object bean, ReferenceQueue<Object> queue, Set<SpringValue> springValues,
+        SpringValue springValue) {
+      super(bean, queue);
+      this.springValues = springValues;
+      this.springValue = springValue;
     }
   }
 }
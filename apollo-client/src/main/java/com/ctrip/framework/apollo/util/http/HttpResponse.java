@@ -1,15 +1,27 @@
 package com.ctrip.framework.apollo.util.http;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * @author Jason Song(song_s@ctrip.com)
  */
 public class HttpResponse<T> {
   private final int m_statusCode;
   private final T m_body;
+  private final Map<String, String> m_headers;
 
   public HttpResponse(int statusCode, T body) {
+    this(statusCode, body, Collections.<String, String>emptyMap());
+  }
+
+  /**
+   * @param headers the response headers, the keys should be case insensitive
+   */
+  public HttpResponse(int statusCode, T body, Map<String, String> headers) {
     this.m_statusCode = statusCode;
     this.m_body = body;
+    this.m_headers = headers;
   }
 
   public int getStatusCode() {
@@ -19,4 +31,11 @@ public class HttpResponse<T> {
   public T getBody() {
     return m_body;
   }
+
+  /**
+   * @return the first value of the header, or null if the header is not present
+   */
+  public String getHeader(String name) {
+    return m_headers.get(name);
+  }
 }
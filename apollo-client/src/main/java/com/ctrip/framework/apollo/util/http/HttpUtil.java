@@ -14,6 +14,9 @@ import java.lang.reflect.Type;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
@@ -126,11 +129,11 @@ public class HttpUtil {
       }
 
       if (statusCode == 200) {
-        return new HttpResponse<>(statusCode, serializeFunction.apply(response));
+        return new HttpResponse<>(statusCode, serializeFunction.apply(response), getHeaders(conn));
       }
 
       if (statusCode == 304) {
-        return new HttpResponse<>(statusCode, null);
+        return new HttpResponse<>(statusCode, null, getHeaders(conn));
       }
     } catch (ApolloConfigStatusCodeException ex) {
       throw ex;
@@ -158,4 +161,15 @@ public class HttpUtil {
         String.format("Get operation failed for %s", httpRequest.getUrl()));
   }
 
+  private Map<String, String> getHeaders(HttpURLConnection conn) {
+    Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (Map.Entry<String, List<String>> header : conn.getHeaderFields().entrySet()) {
+      // the key of the status line is null
+      if (header.getKey() != null && header.getValue() != null && !header.getValue().isEmpty()) {
+        headers.put(header.getKey(), header.getValue().get(0));
+      }
+    }
+    return headers;
+  }
+
 }
@@ -40,6 +40,20 @@ public class YamlParser {
     return result;
   }
 
+  /**
+   * Transform yaml content to a tree of maps, lists and scalars, the top level keys of multiple documents are merged
+   * in order, which is the same as {@link #yamlToProperties(String)}
+   */
+  public Map<String, Object> yamlToMap(String yamlContent) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    for (Object object : createYaml().loadAll(yamlContent)) {
+      if (object != null) {
+        result.putAll(asMap(object));
+      }
+    }
+    return result;
+  }
+
   /**
    * Create the {@link Yaml} instance to use.
    */
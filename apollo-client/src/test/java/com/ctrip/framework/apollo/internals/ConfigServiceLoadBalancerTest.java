@@ -0,0 +1,155 @@
+package com.ctrip.framework.apollo.internals;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConfigServiceLoadBalancerTest {
+  private static final String someDataCenter = "someDC";
+  private static final String anotherDataCenter = "anotherDC";
+
+  private FakeTicker ticker;
+  private ConfigServiceLoadBalancer loadBalancer;
+
+  @Before
+  public void setUp() throws Exception {
+    ticker = new FakeTicker();
+    loadBalancer = new ConfigServiceLoadBalancer(someDataCenter, ticker);
+  }
+
+  @Test
+  public void testPreferLocalDataCenter() throws Exception {
+    ServiceDTO someLocalService = assembleService("http://someLocal", someDataCenter);
+    ServiceDTO anotherLocalService = assembleService("http://anotherLocal", someDataCenter);
+    ServiceDTO someRemoteService = assembleService("http://someRemote", anotherDataCenter);
+    ServiceDTO anotherRemoteService = assembleService("http://anotherRemote", null);
+    List<ServiceDTO> services = Lists.newArrayList(someRemoteService, someLocalService, anotherRemoteService,
+        anotherLocalService);
+
+    for (int i = 0; i < 100; i++) {
+      ServiceDTO selected = loadBalancer.select(services);
+      assertTrue(selected == someLocalService || selected == anotherLocalService);
+    }
+    assertTrue(loadBalancer.getStats(someLocalService).getSelected() > 0);
+    assertTrue(loadBalancer.getStats(anotherLocalService).getSelected() > 0);
+
+    List<ServiceDTO> ordered = loadBalancer.order(services);
+
+    assertEquals(4, ordered.size());
+    assertTrue(ordered.subList(0, 2).contains(someLocalService));
+    assertTrue(ordered.subList(0, 2).contains(anotherLocalService));
+  }
+
+  @Test
+  public void testPreferLowerLatency() throws Exception {
+    ServiceDTO someService = assembleService("http://some", someDataCenter);
+    ServiceDTO anotherService = assembleService("http://another", someDataCenter);
+    List<ServiceDTO> services = Lists.newArrayList(someService, anotherService);
+
+    for (int i = 0; i < 10; i++) {
+      loadBalancer.onSuccess(someService, 10);
+      loadBalancer.onSuccess(anotherService, 500);
+    }
+
+    // with two candidates, power of two choices always compares both of them
+    for (int i = 0; i < 100; i++) {
+      assertEquals(someService, loadBalancer.select(services));
+    }
+  }
+
+  @Test
+  public void testEjectAndProbe() throws Exception {
+    ServiceDTO someService = assembleService("http://some", someDataCenter);
+    ServiceDTO anotherService = assembleService("http://another", anotherDataCenter);
+    List<ServiceDTO> services = Lists.newArrayList(someService, anotherService);
+
+    for (int i = 0; i < 3; i++) {
+      loadBalancer.onFailure(someService);
+    }
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(anotherService, loadBalancer.select(services));
+    }
+    assertEquals(someService, loadBalancer.order(services).get(1));
+
+    ticker.advance(10, TimeUnit.SECONDS);
+
+    assertEquals(someService, loadBalancer.select(services));
+
+    // failed probe doubles the ejection period
+    loadBalancer.onFailure(someService);
+    ticker.advance(10, TimeUnit.SECONDS);
+
+    assertEquals(anotherService, loadBalancer.select(services));
+
+    ticker.advance(10, TimeUnit.SECONDS);
+    loadBalancer.onSuccess(someService, 10);
+
+    assertEquals(someService, loadBalancer.select(services));
+
+    // one more failure does not eject the recovered service
+    loadBalancer.onFailure(someService);
+
+    assertEquals(someService, loadBalancer.select(services));
+  }
+
+  @Test
+  public void testAllEjected() throws Exception {
+    ServiceDTO someService = assembleService("http://some", someDataCenter);
+    List<ServiceDTO> services = Lists.newArrayList(someService);
+
+    for (int i = 0; i < 3; i++) {
+      loadBalancer.onFailure(someService);
+    }
+
+    assertEquals(someService, loadBalancer.select(services));
+    assertTrue(loadBalancer.getStats(someService).getErrorRate() > 0);
+  }
+
+  @Test
+  public void testRetain() throws Exception {
+    ServiceDTO someService = assembleService("http://some", someDataCenter);
+    ServiceDTO anotherService = assembleService("http://another", someDataCenter);
+
+    loadBalancer.onSuccess(someService, 10);
+    loadBalancer.onSuccess(anotherService, 10);
+
+    loadBalancer.retain(Lists.newArrayList(someService));
+
+    assertNotNull(loadBalancer.getStats(someService));
+    assertNull(loadBalancer.getStats(anotherService));
+  }
+
+  private ServiceDTO assembleService(String homepageUrl, String dataCenter) {
+    ServiceDTO service = new ServiceDTO();
+    service.setHomepageUrl(homepageUrl);
+    service.setInstanceId(homepageUrl);
+    if (dataCenter != null) {
+      service.setMetadata(ImmutableMap.of(ConfigServiceLoadBalancer.DATA_CENTER_METADATA_KEY, dataCenter));
+    }
+    return service;
+  }
+
+  private static class FakeTicker extends Ticker {
+    private long nanos;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long time, TimeUnit timeUnit) {
+      nanos += timeUnit.toNanos(time);
+    }
+  }
+}
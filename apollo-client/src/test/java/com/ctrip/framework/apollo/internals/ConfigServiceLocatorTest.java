@@ -2,16 +2,27 @@ package com.ctrip.framework.apollo.internals;
 
 import static org.junit.Assert.assertEquals;
 
+import com.ctrip.framework.apollo.build.MockInjector;
 import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.google.common.base.Ticker;
 import java.util.List;
 import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 public class ConfigServiceLocatorTest {
 
+  @Before
+  public void setUp() throws Exception {
+    MockInjector.reset();
+    MockInjector.setInstance(ConfigServiceLoadBalancer.class,
+        new ConfigServiceLoadBalancer(null, Ticker.systemTicker()));
+  }
+
   @After
   public void tearDown() throws Exception {
     System.clearProperty("apollo.configService");
+    MockInjector.reset();
   }
 
   @Test
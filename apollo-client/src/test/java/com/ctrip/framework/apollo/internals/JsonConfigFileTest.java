@@ -2,11 +2,15 @@ package com.ctrip.framework.apollo.internals;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
 import com.ctrip.framework.apollo.enums.ConfigSourceType;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.junit.Before;
@@ -130,4 +134,85 @@ public class JsonConfigFileTest {
     assertEquals(someValue, configFile.getContent());
     assertEquals(someSourceType, configFile.getSourceType());
   }
+
+  @Test
+  public void testGetValue() throws Exception {
+    String someContent = "{\"name\":\"someName\",\"servers\":[{\"host\":\"a\",\"port\":80},"
+        + "{\"host\":\"b\",\"port\":8080,\"tags\":[\"x\",\"y\"]}]}";
+    Properties someProperties = new Properties();
+    someProperties.setProperty(ConfigConsts.CONFIG_FILE_CONTENT_KEY, someContent);
+
+    when(configRepository.getConfig()).thenReturn(someProperties);
+
+    JsonConfigFile configFile = new JsonConfigFile(someNamespace, configRepository);
+
+    assertEquals("someName", configFile.getValue("name"));
+    assertEquals(8080, ((Number) configFile.getValue("servers[1].port")).intValue());
+    assertEquals("y", configFile.getValue("servers[1].tags[1]"));
+    assertEquals(2, ((List<?>) configFile.getValue("servers")).size());
+    assertTrue(configFile.getValue("") instanceof Map);
+    assertNull(configFile.getValue("servers[2].host"));
+    assertNull(configFile.getValue("name.first"));
+    assertNull(configFile.getValue("missing"));
+
+    Server server = configFile.getValue("servers[1]", Server.class);
+
+    assertEquals("b", server.host);
+    assertEquals(8080, server.port);
+    // bound objects are mutable, so they are not shared
+    assertNotSame(server, configFile.getValue("servers[1]", Server.class));
+    assertEquals(8080, configFile.getValue("servers[1]", Server.class).port);
+    assertEquals(2, configFile.asObject(Servers.class).servers.size());
+  }
+
+  @Test
+  public void testGetValueAfterChange() throws Exception {
+    String someContent = "{\"host\":\"a\",\"port\":80}";
+    String anotherContent = "{\"host\":\"b\",\"port\":8080}";
+    Properties someProperties = new Properties();
+    someProperties.setProperty(ConfigConsts.CONFIG_FILE_CONTENT_KEY, someContent);
+
+    when(configRepository.getConfig()).thenReturn(someProperties);
+
+    JsonConfigFile configFile = new JsonConfigFile(someNamespace, configRepository);
+    Server someServer = configFile.asObject(Server.class);
+    Object someRoot = configFile.getValue("");
+
+    Properties sameProperties = new Properties();
+    sameProperties.setProperty(ConfigConsts.CONFIG_FILE_CONTENT_KEY, new String(someContent));
+    sameProperties.setProperty("someOtherKey", "someOtherValue");
+    configFile.onRepositoryChange(someNamespace, sameProperties);
+
+    // same content is not parsed again
+    assertSame(someRoot, configFile.getValue(""));
+
+    Properties anotherProperties = new Properties();
+    anotherProperties.setProperty(ConfigConsts.CONFIG_FILE_CONTENT_KEY, anotherContent);
+    configFile.onRepositoryChange(someNamespace, anotherProperties);
+
+    Server anotherServer = configFile.asObject(Server.class);
+
+    assertNotSame(someServer, anotherServer);
+    assertEquals("b", anotherServer.host);
+    assertEquals("b", configFile.getValue("host"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetValueWithInvalidPath() throws Exception {
+    Properties someProperties = new Properties();
+    someProperties.setProperty(ConfigConsts.CONFIG_FILE_CONTENT_KEY, "{}");
+
+    when(configRepository.getConfig()).thenReturn(someProperties);
+
+    new JsonConfigFile(someNamespace, configRepository).getValue("servers[x]");
+  }
+
+  private static class Servers {
+    private List<Server> servers;
+  }
+
+  private static class Server {
+    private String host;
+    private int port;
+  }
 }
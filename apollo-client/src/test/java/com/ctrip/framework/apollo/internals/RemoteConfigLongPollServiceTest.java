@@ -1,6 +1,7 @@
 package com.ctrip.framework.apollo.internals;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -30,6 +31,7 @@ import org.mockito.stubbing.Answer;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.ctrip.framework.apollo.build.MockInjector;
+import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.dto.ApolloConfigNotification;
 import com.ctrip.framework.apollo.core.dto.ApolloNotificationMessages;
 import com.ctrip.framework.apollo.core.dto.ServiceDTO;
@@ -37,8 +39,10 @@ import com.ctrip.framework.apollo.util.ConfigUtil;
 import com.ctrip.framework.apollo.util.http.HttpRequest;
 import com.ctrip.framework.apollo.util.http.HttpResponse;
 import com.ctrip.framework.apollo.util.http.HttpUtil;
+import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.SettableFuture;
 
 /**
@@ -70,6 +74,7 @@ public class RemoteConfigLongPollServiceTest {
     when(serviceDTO.getHomepageUrl()).thenReturn(someServerUrl);
     when(configServiceLocator.getConfigServices()).thenReturn(Lists.newArrayList(serviceDTO));
     MockInjector.setInstance(ConfigServiceLocator.class, configServiceLocator);
+    MockInjector.setInstance(ConfigServiceLoadBalancer.class, new ConfigServiceLoadBalancer(null, Ticker.systemTicker()));
 
     MockInjector.setInstance(ConfigUtil.class, new MockConfigUtil());
 
@@ -120,6 +125,56 @@ public class RemoteConfigLongPollServiceTest {
     verify(someRepository, never()).onLongPollNotified(any(ServiceDTO.class), any(ApolloNotificationMessages.class));
   }
 
+  @Test
+  public void testSubmitLongPollNamespaceWithDrainResponse() throws Exception {
+    RemoteConfigRepository someRepository = mock(RemoteConfigRepository.class);
+    final String someNamespace = "someNamespace";
+    final String anotherServerUrl = "http://anotherServer";
+    ServiceDTO someService = new ServiceDTO();
+    someService.setHomepageUrl(someServerUrl);
+    ServiceDTO anotherService = new ServiceDTO();
+    anotherService.setHomepageUrl(anotherServerUrl);
+    when(configServiceLocator.getConfigServices()).thenReturn(Lists.newArrayList(someService, anotherService));
+
+    Map<String, String> drainHeaders = Maps.newHashMap();
+    drainHeaders.put(ConfigConsts.LONG_POLLING_HOLD_TIME_HEADER, "1000");
+    drainHeaders.put(ConfigConsts.LONG_POLLING_DRAIN_WINDOW_HEADER, "0");
+    final HttpResponse<List<ApolloConfigNotification>> drainResponse =
+        new HttpResponse<>(HttpServletResponse.SC_NOT_MODIFIED, null, drainHeaders);
+    final List<HttpRequest> requests = Lists.newCopyOnWriteArrayList();
+    final SettableFuture<Boolean> longPollFinished = SettableFuture.create();
+
+    doAnswer(new Answer<HttpResponse<List<ApolloConfigNotification>>>() {
+      @Override
+      public HttpResponse<List<ApolloConfigNotification>> answer(InvocationOnMock invocation)
+          throws Throwable {
+        try {
+          TimeUnit.MILLISECONDS.sleep(50);
+        } catch (InterruptedException e) {
+        }
+        requests.add(invocation.getArgumentAt(0, HttpRequest.class));
+        if (requests.size() == 1) {
+          return drainResponse;
+        }
+        longPollFinished.set(true);
+        return pollResponse;
+      }
+    }).when(httpUtil).doGet(any(HttpRequest.class), eq(responseType));
+    when(pollResponse.getStatusCode()).thenReturn(HttpServletResponse.SC_NOT_MODIFIED);
+
+    remoteConfigLongPollService.submit(someNamespace, someRepository);
+
+    longPollFinished.get(5000, TimeUnit.MILLISECONDS);
+
+    remoteConfigLongPollService.stopLongPollingRefresh();
+
+    String drainedServerUrl = requests.get(0).getUrl().startsWith(someServerUrl) ? someServerUrl : anotherServerUrl;
+
+    // moved to another config service with the read timeout adapted to the hold time
+    assertFalse(requests.get(1).getUrl().startsWith(drainedServerUrl));
+    assertEquals(1000 + 30 * 1000, requests.get(1).getReadTimeout());
+  }
+
   @Test
   public void testSubmitLongPollNamespaceWith200Response() throws Exception {
     RemoteConfigRepository someRepository = mock(RemoteConfigRepository.class);
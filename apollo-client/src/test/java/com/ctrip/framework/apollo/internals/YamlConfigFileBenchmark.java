@@ -0,0 +1,103 @@
+package com.ctrip.framework.apollo.internals;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.ctrip.framework.apollo.core.ConfigConsts;
+import com.ctrip.framework.apollo.util.yaml.YamlParser;
+import java.util.Properties;
+
+/**
+ * Measures the path access, the typed binding and the properties view of {@link YamlConfigFile} with documents of 1k,
+ * 10k and 100k entries. It is not run by the unit tests, run the main method to get the numbers.
+ */
+public class YamlConfigFileBenchmark {
+  private static final int[] ENTRIES = {1000, 10000, 100000};
+  private static final int WARM_UP_ROUNDS = 5;
+  private static final int ROUNDS = 20;
+  private static final int LOOKUPS = 10000;
+
+  public static void main(String[] args) {
+    for (int entries : ENTRIES) {
+      final String content = assembleContent(entries);
+      final String somePath = "hosts[" + (entries / 2) + "]";
+
+      run(entries, "parse and first lookup", 1, new Runnable() {
+        @Override
+        public void run() {
+          newConfigFile(content).getValue(somePath);
+        }
+      });
+      run(entries, "yamlToProperties", 1, new Runnable() {
+        @Override
+        public void run() {
+          new YamlParser().yamlToProperties(content);
+        }
+      });
+
+      final YamlConfigFile configFile = newConfigFile(content);
+      run(entries, "getValue", LOOKUPS, new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < LOOKUPS; i++) {
+            configFile.getValue(somePath + ".port");
+          }
+        }
+      });
+      run(entries, "getValue bound", LOOKUPS, new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < LOOKUPS; i++) {
+            configFile.getValue(somePath, Host.class);
+          }
+        }
+      });
+      run(entries, "asProperties", LOOKUPS, new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < LOOKUPS; i++) {
+            configFile.asProperties();
+          }
+        }
+      });
+    }
+  }
+
+  private static void run(int entries, String scenario, int operations, Runnable task) {
+    for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+      task.run();
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      task.run();
+    }
+    long elapsed = (System.nanoTime() - start) / ROUNDS / operations;
+
+    System.out.println(String.format("%7d entries, %-24s: %12d ns/op", entries, scenario, elapsed));
+  }
+
+  private static YamlConfigFile newConfigFile(String content) {
+    Properties properties = new Properties();
+    properties.setProperty(ConfigConsts.CONFIG_FILE_CONTENT_KEY, content);
+
+    ConfigRepository configRepository = mock(ConfigRepository.class);
+    when(configRepository.getConfig()).thenReturn(properties);
+
+    return new YamlConfigFile("someNamespace", configRepository);
+  }
+
+  private static String assembleContent(int entries) {
+    StringBuilder content = new StringBuilder("hosts:\n");
+    for (int i = 0; i < entries; i++) {
+      content.append("  - host: host").append(i).append('\n');
+      content.append("    port: ").append(i).append('\n');
+    }
+    return content.toString();
+  }
+
+  private static class Host {
+    private String host;
+    private int port;
+  }
+}
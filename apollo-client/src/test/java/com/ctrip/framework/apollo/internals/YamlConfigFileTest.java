@@ -1,6 +1,8 @@
 package com.ctrip.framework.apollo.internals;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ctrip.framework.apollo.build.MockInjector;
@@ -8,6 +10,8 @@ import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.enums.ConfigSourceType;
 import com.ctrip.framework.apollo.exceptions.ApolloConfigException;
 import com.ctrip.framework.apollo.util.yaml.YamlParser;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import org.junit.Before;
 import org.junit.Test;
@@ -54,6 +58,57 @@ public class YamlConfigFileTest {
     assertSame(yamlProperties, configFile.asProperties());
   }
 
+  @Test
+  public void testGetValue() throws Exception {
+    Properties someProperties = new Properties();
+    String someContent = "server:\n  hosts:\n    - host: a\n      port: 80\n    - host: b\n      port: 8080\n"
+        + "  timeout: 100\n";
+    someProperties.setProperty(ConfigConsts.CONFIG_FILE_CONTENT_KEY, someContent);
+
+    MockInjector.setInstance(YamlParser.class, new YamlParser());
+    when(configRepository.getConfig()).thenReturn(someProperties);
+
+    YamlConfigFile configFile = new YamlConfigFile(someNamespace, configRepository);
+
+    assertEquals(100, configFile.getValue("server.timeout"));
+    assertEquals("b", configFile.getValue("server.hosts[1].host"));
+    assertNull(configFile.getValue("server.hosts[2]"));
+    assertEquals(8080, configFile.getValue("server.hosts[1]", Host.class).port);
+    assertEquals("8080", configFile.asProperties().getProperty("server.hosts[1].port"));
+  }
+
+  @Test
+  public void testGetValueDoesNotShareMutableValues() throws Exception {
+    Properties someProperties = new Properties();
+    String someContent = "server:\n  hosts:\n    - host: a\n      port: 80\n";
+    someProperties.setProperty(ConfigConsts.CONFIG_FILE_CONTENT_KEY, someContent);
+
+    MockInjector.setInstance(YamlParser.class, new YamlParser());
+    when(configRepository.getConfig()).thenReturn(someProperties);
+
+    YamlConfigFile configFile = new YamlConfigFile(someNamespace, configRepository);
+
+    Map<?, ?> server = (Map<?, ?>) configFile.getValue("server");
+    try {
+      server.clear();
+      fail("should not be modifiable");
+    } catch (UnsupportedOperationException ex) {
+      // expected
+    }
+    try {
+      ((List<?>) server.get("hosts")).clear();
+      fail("should not be modifiable");
+    } catch (UnsupportedOperationException ex) {
+      // expected
+    }
+
+    Host someHost = configFile.getValue("server.hosts[0]", Host.class);
+    someHost.port = 8080;
+
+    assertNotSame(someHost, configFile.getValue("server.hosts[0]", Host.class));
+    assertEquals(80, configFile.getValue("server.hosts[0]", Host.class).port);
+  }
+
   @Test
   public void testWhenHasNoContent() throws Exception {
     when(configRepository.getConfig()).thenReturn(null);
@@ -180,4 +235,60 @@ public class YamlConfigFileTest {
     assertEquals(someSourceType, configFile.getSourceType());
     assertSame(someYamlProperties, configFile.asProperties());
   }
+
+  @Test
+  public void testWhenContentChangedToInvalid() throws Exception {
+    Properties someProperties = new Properties();
+    String key = ConfigConsts.CONFIG_FILE_CONTENT_KEY;
+    String someValue = "someKey: 'someValue'";
+    String someInvalidValue = "some invalid yaml";
+    someProperties.setProperty(key, someValue);
+
+    Properties someYamlProperties = new Properties();
+    someYamlProperties.setProperty("someKey", "someValue");
+
+    when(configRepository.getConfig()).thenReturn(someProperties);
+    when(yamlParser.yamlToProperties(someValue)).thenReturn(someYamlProperties);
+    when(yamlParser.yamlToProperties(someInvalidValue)).thenThrow(new RuntimeException("some exception"));
+
+    YamlConfigFile configFile = new YamlConfigFile(someNamespace, configRepository);
+
+    assertSame(someYamlProperties, configFile.asProperties());
+
+    Properties anotherProperties = new Properties();
+    anotherProperties.setProperty(key, someInvalidValue);
+    configFile.onRepositoryChange(someNamespace, anotherProperties);
+
+    assertEquals(someInvalidValue, configFile.getContent());
+    assertSame(someYamlProperties, configFile.asProperties());
+    assertSame(someYamlProperties, configFile.asProperties());
+    verify(yamlParser, times(1)).yamlToProperties(someInvalidValue);
+  }
+
+  @Test
+  public void testInvalidContentIsParsedOnce() throws Exception {
+    Properties someProperties = new Properties();
+    String someInvalidContent = "some invalid yaml";
+    someProperties.setProperty(ConfigConsts.CONFIG_FILE_CONTENT_KEY, someInvalidContent);
+
+    when(configRepository.getConfig()).thenReturn(someProperties);
+    when(yamlParser.yamlToProperties(someInvalidContent)).thenThrow(new RuntimeException("some exception"));
+
+    YamlConfigFile configFile = new YamlConfigFile(someNamespace, configRepository);
+
+    for (int i = 0; i < 3; i++) {
+      try {
+        configFile.asProperties();
+        fail("should throw");
+      } catch (ApolloConfigException ex) {
+        // expected
+      }
+    }
+    verify(yamlParser, times(1)).yamlToProperties(someInvalidContent);
+  }
+
+  private static class Host {
+    private String host;
+    private int port;
+  }
 }
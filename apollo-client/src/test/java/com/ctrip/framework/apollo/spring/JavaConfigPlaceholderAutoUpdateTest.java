@@ -2,6 +2,7 @@ package com.ctrip.framework.apollo.spring;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 import com.ctrip.framework.apollo.build.MockInjector;
@@ -30,6 +31,7 @@ import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.ImportResource;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 public class JavaConfigPlaceholderAutoUpdateTest extends AbstractSpringIntegrationTest {
@@ -969,6 +971,49 @@ public class JavaConfigPlaceholderAutoUpdateTest extends AbstractSpringIntegrati
     assertEquals(1, newJsonBean.getB());
   }
 
+  @Test
+  public void testAutoUpdateWithPrototypeBeans() throws Exception {
+    int initialTimeout = 1000;
+    int newTimeout = 1001;
+    String someValidValue = "{\"a\":\"someString\", \"b\":10}";
+    String anotherValidValue = "{\"a\":\"anotherString\", \"b\":20}";
+
+    Properties properties = assembleProperties(TIMEOUT_PROPERTY, String.valueOf(initialTimeout), "jsonProperty",
+        someValidValue);
+
+    SimpleConfig config = prepareConfig(ConfigConsts.NAMESPACE_APPLICATION, properties);
+
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AppConfig15.class);
+
+    TestJavaConfigBean someBean = context.getBean(TestJavaConfigBean.class);
+    TestJavaConfigBean anotherBean = context.getBean(TestJavaConfigBean.class);
+    TestApolloJsonValue someJsonValueBean = context.getBean(TestApolloJsonValue.class);
+    TestApolloJsonValue anotherJsonValueBean = context.getBean(TestApolloJsonValue.class);
+    TestStringBuilderBean someStringBuilderBean = context.getBean(TestStringBuilderBean.class);
+    TestStringBuilderBean anotherStringBuilderBean = context.getBean(TestStringBuilderBean.class);
+
+    assertNotSame(someBean, anotherBean);
+    assertEquals(initialTimeout, someBean.getTimeout());
+    assertEquals(initialTimeout, anotherBean.getTimeout());
+
+    Properties newProperties = assembleProperties(TIMEOUT_PROPERTY, String.valueOf(newTimeout), "jsonProperty",
+        anotherValidValue);
+
+    config.onRepositoryChange(ConfigConsts.NAMESPACE_APPLICATION, newProperties);
+
+    TimeUnit.MILLISECONDS.sleep(100);
+
+    assertEquals(newTimeout, someBean.getTimeout());
+    assertEquals(newTimeout, anotherBean.getTimeout());
+    assertEquals("anotherString", someJsonValueBean.getJsonBean().getA());
+    assertEquals("anotherString", anotherJsonValueBean.getJsonBean().getA());
+    assertEquals(String.valueOf(newTimeout), someStringBuilderBean.getTimeout().toString());
+    assertEquals(String.valueOf(newTimeout), anotherStringBuilderBean.getTimeout().toString());
+    // mutable values are not shared between beans
+    assertNotSame(someJsonValueBean.getJsonBean(), anotherJsonValueBean.getJsonBean());
+    assertNotSame(someStringBuilderBean.getTimeout(), anotherStringBuilderBean.getTimeout());
+  }
+
   @Configuration
   @EnableApolloConfig
   static class AppConfig1 {
@@ -1133,6 +1178,28 @@ public class JavaConfigPlaceholderAutoUpdateTest extends AbstractSpringIntegrati
     }
   }
 
+  @Configuration
+  @EnableApolloConfig
+  static class AppConfig15 {
+    @Bean
+    @Scope("prototype")
+    TestJavaConfigBean testJavaConfigBean() {
+      return new TestJavaConfigBean();
+    }
+
+    @Bean
+    @Scope("prototype")
+    TestApolloJsonValue testApolloJsonValue() {
+      return new TestApolloJsonValue();
+    }
+
+    @Bean
+    @Scope("prototype")
+    TestStringBuilderBean testStringBuilderBean() {
+      return new TestStringBuilderBean();
+    }
+  }
+
   static class TestJavaConfigBean {
 
     @Value("${timeout:100}")
@@ -1360,4 +1427,13 @@ public class JavaConfigPlaceholderAutoUpdateTest extends AbstractSpringIntegrati
     }
   }
 
+  static class TestStringBuilderBean {
+
+    @Value("${timeout:100}")
+    private StringBuilder timeout;
+
+    public StringBuilder getTimeout() {
+      return timeout;
+    }
+  }
 }
@@ -0,0 +1,76 @@
+package com.ctrip.framework.apollo.spring.property;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.BeanFactory;
+
+public class SpringValueRegistryTest {
+  private static final String SOME_KEY = "someKey";
+
+  private SpringValueRegistry springValueRegistry;
+  private BeanFactory beanFactory;
+  private Field field;
+
+  @Before
+  public void setUp() throws Exception {
+    springValueRegistry = new SpringValueRegistry();
+    beanFactory = mock(BeanFactory.class);
+    field = SomeBean.class.getDeclaredField("value");
+  }
+
+  @Test
+  public void testRegisterAndGet() throws Exception {
+    SomeBean someBean = new SomeBean();
+    SpringValue someValue = springValue(someBean);
+    SpringValue anotherValue = springValue(someBean);
+
+    springValueRegistry.register(beanFactory, SOME_KEY, someValue);
+    springValueRegistry.register(beanFactory, SOME_KEY, anotherValue);
+    springValueRegistry.register(beanFactory, SOME_KEY, anotherValue);
+
+    Collection<SpringValue> springValues = springValueRegistry.get(beanFactory, SOME_KEY);
+
+    assertEquals(2, springValues.size());
+    assertTrue(springValues.contains(someValue));
+    assertTrue(springValues.contains(anotherValue));
+    assertTrue(springValueRegistry.get(beanFactory, "anotherKey").isEmpty());
+    assertNull(springValueRegistry.get(mock(BeanFactory.class), SOME_KEY));
+    assertEquals(2, springValueRegistry.getRegisteredCount());
+  }
+
+  @Test
+  public void testPurgeCollectedBeans() throws Exception {
+    SomeBean someBean = new SomeBean();
+    springValueRegistry.register(beanFactory, SOME_KEY, springValue(someBean));
+    for (int i = 0; i < 10; i++) {
+      springValueRegistry.register(beanFactory, SOME_KEY, springValue(new SomeBean()));
+    }
+
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (springValueRegistry.getPurgedCount() < 10 && System.currentTimeMillis() < deadline) {
+      System.gc();
+      TimeUnit.MILLISECONDS.sleep(50);
+    }
+
+    assertEquals(11, springValueRegistry.getRegisteredCount());
+    assertEquals(10, springValueRegistry.getPurgedCount());
+    assertEquals(1, springValueRegistry.get(beanFactory, SOME_KEY).size());
+    assertTrue(someBean != null);
+  }
+
+  private SpringValue springValue(Object bean) {
+    return new SpringValue(SOME_KEY, "${someKey}", bean, "someBean", field, false);
+  }
+
+  private static class SomeBean {
+    private String value;
+  }
+}
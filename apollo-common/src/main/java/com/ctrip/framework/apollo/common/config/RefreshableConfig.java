@@ -2,6 +2,8 @@ package com.ctrip.framework.apollo.common.config;
 
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
 import com.ctrip.framework.apollo.tracer.Tracer;
@@ -13,6 +15,7 @@ import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.util.CollectionUtils;
 
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -35,6 +38,8 @@ public abstract class RefreshableConfig {
 
   private List<RefreshablePropertySource> propertySources;
 
+  private final List<ServerConfigChangeListener> changeListeners = Lists.newCopyOnWriteArrayList();
+
   /**
    * register refreshable property source.
    * Notice: The front property source has higher priority.
@@ -52,8 +57,10 @@ public abstract class RefreshableConfig {
     //add property source to environment
     for (RefreshablePropertySource propertySource : propertySources) {
       propertySource.refresh();
+      propertySource.getAndResetChangedKeys();
       environment.getPropertySources().addLast(propertySource);
     }
+    onRefreshed();
 
     //task to update configs
     ScheduledExecutorService
@@ -63,7 +70,7 @@ public abstract class RefreshableConfig {
     executorService
         .scheduleWithFixedDelay(() -> {
           try {
-            propertySources.forEach(RefreshablePropertySource::refresh);
+            refresh();
           } catch (Throwable t) {
             logger.error("Refresh configs failed.", t);
             Tracer.logError("Refresh configs failed.", t);
@@ -71,6 +78,41 @@ public abstract class RefreshableConfig {
         }, CONFIG_REFRESH_INTERVAL, CONFIG_REFRESH_INTERVAL, TimeUnit.SECONDS);
   }
 
+  private void refresh() {
+    Set<String> changedKeys = Sets.newHashSet();
+    for (RefreshablePropertySource propertySource : propertySources) {
+      propertySource.refresh();
+      changedKeys.addAll(propertySource.getAndResetChangedKeys());
+    }
+    if (changedKeys.isEmpty()) {
+      return;
+    }
+
+    onRefreshed();
+
+    for (ServerConfigChangeListener listener : changeListeners) {
+      try {
+        listener.onChange(changedKeys);
+      } catch (Throwable t) {
+        logger.error("Notify config change listener {} failed.", listener, t);
+        Tracer.logError("Notify config change listener failed.", t);
+      }
+    }
+  }
+
+  /**
+   * called after the property sources are loaded and whenever some of the configs are changed
+   */
+  protected void onRefreshed() {
+  }
+
+  /**
+   * the listener is notified after the configs are refreshed with some keys changed
+   */
+  public void addChangeListener(ServerConfigChangeListener listener) {
+    changeListeners.add(listener);
+  }
+
   public int getIntProperty(String key, int defaultValue) {
     try {
       String value = getValue(key);
@@ -1,11 +1,20 @@
 package com.ctrip.framework.apollo.common.config;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.env.MapPropertySource;
 
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 public abstract class RefreshablePropertySource extends MapPropertySource {
+  private static final Logger logger = LoggerFactory.getLogger(RefreshablePropertySource.class);
 
+  //the keys changed since the last refresh, collected by RefreshableConfig to notify the change listeners
+  private final Set<String> changedKeys = Sets.newConcurrentHashSet();
 
   public RefreshablePropertySource(String name, Map<String, Object> source) {
     super(name, source);
@@ -21,4 +30,37 @@ public abstract class RefreshablePropertySource extends MapPropertySource {
    */
   protected abstract void refresh();
 
+  /**
+   * put the loaded property and record the change if the value is changed
+   */
+  protected void updateProperty(String key, Object value) {
+    Object oldValue = this.source.put(key, value);
+    if (oldValue == null) {
+      logger.info("Load config from DB : {} = {}", key, value);
+    } else if (!Objects.equals(oldValue, value)) {
+      logger.info("Load config from DB : {} = {}. Old value = {}", key, value, oldValue);
+    } else {
+      return;
+    }
+    changedKeys.add(key);
+  }
+
+  /**
+   * remove the property deleted from DB and record the change
+   */
+  protected void removeProperty(String key) {
+    Object oldValue = this.source.remove(key);
+    if (oldValue == null) {
+      return;
+    }
+    logger.info("Remove config deleted from DB : {}. Old value = {}", key, oldValue);
+    changedKeys.add(key);
+  }
+
+  Set<String> getAndResetChangedKeys() {
+    Set<String> keys = ImmutableSet.copyOf(changedKeys);
+    changedKeys.removeAll(keys);
+    return keys;
+  }
+
 }
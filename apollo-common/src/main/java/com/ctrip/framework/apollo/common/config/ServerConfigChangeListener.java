@@ -0,0 +1,15 @@
+package com.ctrip.framework.apollo.common.config;
+
+import java.util.Set;
+
+/**
+ * Notified after the refreshable configs are refreshed with some keys changed, for the settings which need to take
+ * effect immediately.
+ */
+public interface ServerConfigChangeListener {
+
+  /**
+   * @param changedKeys the keys whose values are changed
+   */
+  void onChange(Set<String> changedKeys);
+}
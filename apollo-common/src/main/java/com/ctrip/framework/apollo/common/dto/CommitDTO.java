@@ -2,6 +2,8 @@ package com.ctrip.framework.apollo.common.dto;
 
 public class CommitDTO extends BaseDTO{
 
+  private long id;
+
   private String changeSets;
 
   private String appId;
@@ -12,6 +14,14 @@ public class CommitDTO extends BaseDTO{
 
   private String comment;
 
+  public long getId() {
+    return id;
+  }
+
+  public void setId(long id) {
+    this.id = id;
+  }
+
   public String getChangeSets() {
     return changeSets;
   }
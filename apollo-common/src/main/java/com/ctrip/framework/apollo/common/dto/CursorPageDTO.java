@@ -0,0 +1,55 @@
+package com.ctrip.framework.apollo.common.dto;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of a keyset (seek) pagination, the next page could be fetched with {@link #getNextCursor()}
+ * which is null when there is no more data.
+ */
+public class CursorPageDTO<T> {
+  public static final int MAX_SIZE = 500;
+
+  private final List<T> content;
+  private final int size;
+  private final Long nextCursor;
+
+  public CursorPageDTO(List<T> content, int size, Long nextCursor) {
+    this.content = content;
+    this.size = size;
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * @param cursorExtractor extracts the cursor from the last element, which is used as the next cursor when the page
+   *                        is full
+   */
+  public static <T> CursorPageDTO<T> of(List<T> content, int size, Function<T, Long> cursorExtractor) {
+    Long nextCursor = null;
+    if (content != null && !content.isEmpty() && content.size() >= size) {
+      nextCursor = cursorExtractor.apply(content.get(content.size() - 1));
+    }
+    return new CursorPageDTO<>(content, size, nextCursor);
+  }
+
+  public List<T> getContent() {
+    return content == null ? Collections.emptyList() : Collections.unmodifiableList(content);
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public Long getNextCursor() {
+    return nextCursor;
+  }
+
+  public boolean hasContent() {
+    return content != null && content.size() > 0;
+  }
+
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+}
@@ -0,0 +1,29 @@
+package com.ctrip.framework.apollo.common.dto;
+
+import java.util.List;
+
+/**
+ * The items of a namespace together with the namespace id, so that the portal could load both of them in one round
+ * trip when comparing or syncing items.
+ */
+public class NamespaceItemsDTO {
+  private long namespaceId;
+
+  private List<ItemDTO> items;
+
+  public long getNamespaceId() {
+    return namespaceId;
+  }
+
+  public void setNamespaceId(long namespaceId) {
+    this.namespaceId = namespaceId;
+  }
+
+  public List<ItemDTO> getItems() {
+    return items;
+  }
+
+  public void setItems(List<ItemDTO> items) {
+    this.items = items;
+  }
+}
@@ -0,0 +1,64 @@
+package com.ctrip.framework.apollo.common.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The changed keys from the base release to the release to compare, the unchanged keys are not included.
+ */
+public class ReleaseDiffDTO {
+
+  private String appId;
+
+  private String namespaceName;
+
+  private long baseReleaseId;
+
+  private long toCompareReleaseId;
+
+  private List<ReleaseItemChangeDTO> changes = new ArrayList<>();
+
+  public String getAppId() {
+    return appId;
+  }
+
+  public void setAppId(String appId) {
+    this.appId = appId;
+  }
+
+  public String getNamespaceName() {
+    return namespaceName;
+  }
+
+  public void setNamespaceName(String namespaceName) {
+    this.namespaceName = namespaceName;
+  }
+
+  public long getBaseReleaseId() {
+    return baseReleaseId;
+  }
+
+  public void setBaseReleaseId(long baseReleaseId) {
+    this.baseReleaseId = baseReleaseId;
+  }
+
+  public long getToCompareReleaseId() {
+    return toCompareReleaseId;
+  }
+
+  public void setToCompareReleaseId(long toCompareReleaseId) {
+    this.toCompareReleaseId = toCompareReleaseId;
+  }
+
+  public List<ReleaseItemChangeDTO> getChanges() {
+    return changes;
+  }
+
+  public void setChanges(List<ReleaseItemChangeDTO> changes) {
+    this.changes = changes;
+  }
+
+  public void addChange(ReleaseItemChangeDTO change) {
+    changes.add(change);
+  }
+}
@@ -23,6 +23,13 @@ public class ReleaseHistoryDTO extends BaseDTO{
 
   private Map<String, Object> operationContext;
 
+  /**
+   * only available in the summary listing, which doesn't load the release configurations
+   */
+  private String releaseTitle;
+
+  private String releaseComment;
+
   public ReleaseHistoryDTO(){}
 
   public long getId() {
@@ -96,4 +103,20 @@ public class ReleaseHistoryDTO extends BaseDTO{
   public void setOperationContext(Map<String, Object> operationContext) {
     this.operationContext = operationContext;
   }
+
+  public String getReleaseTitle() {
+    return releaseTitle;
+  }
+
+  public void setReleaseTitle(String releaseTitle) {
+    this.releaseTitle = releaseTitle;
+  }
+
+  public String getReleaseComment() {
+    return releaseComment;
+  }
+
+  public void setReleaseComment(String releaseComment) {
+    this.releaseComment = releaseComment;
+  }
 }
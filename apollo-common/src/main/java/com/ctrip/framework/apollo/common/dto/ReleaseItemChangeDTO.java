@@ -0,0 +1,60 @@
+package com.ctrip.framework.apollo.common.dto;
+
+/**
+ * The change of one key between two releases
+ */
+public class ReleaseItemChangeDTO {
+  public static final String ADDED = "ADDED";
+  public static final String MODIFIED = "MODIFIED";
+  public static final String DELETED = "DELETED";
+
+  private String type;
+
+  private String key;
+
+  private String oldValue;
+
+  private String newValue;
+
+  public ReleaseItemChangeDTO() {
+  }
+
+  public ReleaseItemChangeDTO(String type, String key, String oldValue, String newValue) {
+    this.type = type;
+    this.key = key;
+    this.oldValue = oldValue;
+    this.newValue = newValue;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public void setKey(String key) {
+    this.key = key;
+  }
+
+  public String getOldValue() {
+    return oldValue;
+  }
+
+  public void setOldValue(String oldValue) {
+    this.oldValue = oldValue;
+  }
+
+  public String getNewValue() {
+    return newValue;
+  }
+
+  public void setNewValue(String newValue) {
+    this.newValue = newValue;
+  }
+}
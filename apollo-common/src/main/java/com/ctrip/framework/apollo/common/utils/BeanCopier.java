@@ -0,0 +1,123 @@
+package com.ctrip.framework.apollo.common.utils;
+
+import com.ctrip.framework.apollo.common.exception.BeanUtilsException;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Copies the non-null properties from a source class to a target class, which is the same as
+ * {@link org.springframework.beans.BeanUtils#copyProperties} with the null source properties ignored.
+ *
+ * <p>The accessors are resolved once per (source class, target class) pair, copying is then plain method handle
+ * invocations without any introspection.</p>
+ */
+final class BeanCopier {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+  private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+  //source class -> (target class -> copier)
+  private static final ClassValue<ConcurrentMap<Class<?>, BeanCopier>> COPIERS =
+      new ClassValue<ConcurrentMap<Class<?>, BeanCopier>>() {
+        @Override
+        protected ConcurrentMap<Class<?>, BeanCopier> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private final Class<?> sourceClass;
+  private final Class<?> targetClass;
+  private final MethodHandle[] getters;
+  private final MethodHandle[] setters;
+  private volatile MethodHandle constructor;
+
+  private BeanCopier(Class<?> sourceClass, Class<?> targetClass) {
+    this.sourceClass = sourceClass;
+    this.targetClass = targetClass;
+
+    List<MethodHandle> getters = new ArrayList<>();
+    List<MethodHandle> setters = new ArrayList<>();
+    for (PropertyDescriptor targetPd : org.springframework.beans.BeanUtils.getPropertyDescriptors(targetClass)) {
+      Method writeMethod = targetPd.getWriteMethod();
+      if (writeMethod == null) {
+        continue;
+      }
+      PropertyDescriptor sourcePd =
+          org.springframework.beans.BeanUtils.getPropertyDescriptor(sourceClass, targetPd.getName());
+      if (sourcePd == null || sourcePd.getReadMethod() == null) {
+        continue;
+      }
+      Method readMethod = sourcePd.getReadMethod();
+      if (!ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType())) {
+        continue;
+      }
+      getters.add(unreflect(readMethod).asType(GETTER_TYPE));
+      setters.add(unreflect(writeMethod).asType(SETTER_TYPE));
+    }
+    this.getters = getters.toArray(new MethodHandle[0]);
+    this.setters = setters.toArray(new MethodHandle[0]);
+  }
+
+  static BeanCopier of(Class<?> sourceClass, Class<?> targetClass) {
+    ConcurrentMap<Class<?>, BeanCopier> copiers = COPIERS.get(sourceClass);
+    BeanCopier copier = copiers.get(targetClass);
+    if (copier == null) {
+      copier = copiers.computeIfAbsent(targetClass, clazz -> new BeanCopier(sourceClass, clazz));
+    }
+    return copier;
+  }
+
+  Class<?> sourceClass() {
+    return sourceClass;
+  }
+
+  /**
+   * Create an instance of the target class with the non-null properties of the source
+   */
+  Object transform(Object source) {
+    try {
+      Object target = constructor().invokeExact();
+      for (int i = 0; i < getters.length; i++) {
+        Object value = (Object) getters[i].invokeExact(source);
+        if (value != null) {
+          setters[i].invokeExact(target, value);
+        }
+      }
+      return target;
+    } catch (Throwable ex) {
+      throw new BeanUtilsException(ex);
+    }
+  }
+
+  //resolved lazily, so that the copiers of the classes without a default constructor are still usable
+  private MethodHandle constructor() throws ReflectiveOperationException {
+    MethodHandle handle = constructor;
+    if (handle == null) {
+      Constructor<?> defaultConstructor = targetClass.getDeclaredConstructor();
+      defaultConstructor.setAccessible(true);
+      handle = LOOKUP.unreflectConstructor(defaultConstructor).asType(CONSTRUCTOR_TYPE);
+      constructor = handle;
+    }
+    return handle;
+  }
+
+  private static MethodHandle unreflect(Method method) {
+    try {
+      method.setAccessible(true);
+      return LOOKUP.unreflect(method);
+    } catch (IllegalAccessException ex) {
+      throw new BeanUtilsException(ex);
+    }
+  }
+}
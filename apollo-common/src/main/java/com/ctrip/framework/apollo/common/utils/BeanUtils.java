@@ -2,11 +2,11 @@ package com.ctrip.framework.apollo.common.utils;
 
 import com.ctrip.framework.apollo.common.exception.BeanUtilsException;
 
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.util.CollectionUtils;
 
-import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -15,9 +15,21 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 public class BeanUtils {
+  private static final MethodType FIELD_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  //class -> (field name -> getter), so that the fields are not looked up for every list
+  private static final ClassValue<ConcurrentMap<String, MethodHandle>> FIELD_GETTERS =
+      new ClassValue<ConcurrentMap<String, MethodHandle>>() {
+        @Override
+        protected ConcurrentMap<String, MethodHandle> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
 
   /**
    * <pre>
@@ -31,8 +43,17 @@ public class BeanUtils {
     }
 
     List<T> result = new ArrayList<>(srcList.size());
+    BeanCopier copier = null;
     for (Object srcObject : srcList) {
-      result.add(transform(clazz, srcObject));
+      if (srcObject == null) {
+        result.add(null);
+        continue;
+      }
+      //the elements are of the same class mostly
+      if (copier == null || copier.sourceClass() != srcObject.getClass()) {
+        copier = BeanCopier.of(srcObject.getClass(), clazz);
+      }
+      result.add(clazz.cast(copier.transform(srcObject)));
     }
     return result;
   }
@@ -49,27 +70,7 @@ public class BeanUtils {
     if (src == null) {
       return null;
     }
-    T instance;
-    try {
-      instance = clazz.newInstance();
-    } catch (Exception e) {
-      throw new BeanUtilsException(e);
-    }
-    org.springframework.beans.BeanUtils.copyProperties(src, instance, getNullPropertyNames(src));
-    return instance;
-  }
-
-  private static String[] getNullPropertyNames(Object source) {
-    final BeanWrapper src = new BeanWrapperImpl(source);
-    PropertyDescriptor[] pds = src.getPropertyDescriptors();
-
-    Set<String> emptyNames = new HashSet<>();
-    for (PropertyDescriptor pd : pds) {
-      Object srcValue = src.getPropertyValue(pd.getName());
-      if (srcValue == null) emptyNames.add(pd.getName());
-    }
-    String[] result = new String[emptyNames.size()];
-    return emptyNames.toArray(result);
+    return clazz.cast(BeanCopier.of(src.getClass(), clazz).transform(src));
   }
 
   /**
@@ -89,14 +90,11 @@ public class BeanUtils {
       return map;
     }
     try {
-      Class<?> clazz = list.get(0).getClass();
-      Field field = deepFindField(clazz, key);
-      if (field == null) throw new IllegalArgumentException("Could not find the key");
-      field.setAccessible(true);
+      MethodHandle getter = fieldGetter(list.get(0).getClass(), key);
       for (Object o : list) {
-        map.put((K) field.get(o), (V) o);
+        map.put((K) (Object) getter.invokeExact(o), (V) o);
       }
-    } catch (Exception e) {
+    } catch (Throwable e) {
       throw new BeanUtilsException(e);
     }
     return map;
@@ -117,16 +115,13 @@ public class BeanUtils {
       return map;
     }
     try {
-      Class<?> clazz = list.get(0).getClass();
-      Field field = deepFindField(clazz, key);
-      if (field == null) throw new IllegalArgumentException("Could not find the key");
-      field.setAccessible(true);
+      MethodHandle getter = fieldGetter(list.get(0).getClass(), key);
       for (Object o : list) {
-        K k = (K) field.get(o);
+        K k = (K) (Object) getter.invokeExact(o);
         map.computeIfAbsent(k, k1 -> new ArrayList<>());
         map.get(k).add((V) o);
       }
-    } catch (Exception e) {
+    } catch (Throwable e) {
       throw new BeanUtilsException(e);
     }
     return map;
@@ -147,20 +142,36 @@ public class BeanUtils {
       return set;
     }
     try {
-      Class<?> clazz = list.get(0).getClass();
-      Field field = deepFindField(clazz, key);
-      if (field == null) throw new IllegalArgumentException("Could not find the key");
-      field.setAccessible(true);
+      MethodHandle getter = fieldGetter(list.get(0).getClass(), key);
       for (Object o : list) {
-        set.add((K)field.get(o));
+        set.add((K) (Object) getter.invokeExact(o));
       }
-    } catch (Exception e) {
+    } catch (Throwable e) {
       throw new BeanUtilsException(e);
     }
     return set;
   }
 
 
+  private static MethodHandle fieldGetter(Class<?> clazz, String key) {
+    ConcurrentMap<String, MethodHandle> getters = FIELD_GETTERS.get(clazz);
+    MethodHandle getter = getters.get(key);
+    if (getter != null) {
+      return getter;
+    }
+
+    Field field = deepFindField(clazz, key);
+    if (field == null) throw new IllegalArgumentException("Could not find the key");
+    field.setAccessible(true);
+    try {
+      getter = MethodHandles.lookup().unreflectGetter(field).asType(FIELD_GETTER_TYPE);
+    } catch (IllegalAccessException e) {
+      throw new BeanUtilsException(e);
+    }
+    getters.putIfAbsent(key, getter);
+    return getter;
+  }
+
   private static Field deepFindField(Class<?> clazz, String key) {
     Field field = null;
     while (!clazz.getName().equals(Object.class.getName())) {
@@ -1,6 +1,7 @@
 package com.ctrip.framework.apollo.common.utils;
 
 
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.core.utils.StringUtils;
 
@@ -11,6 +12,8 @@ public class RequestPrecondition {
 
   private static String ILLEGAL_MODEL = "request model is invalid";
 
+  private static String ILLEGAL_CURSOR_PAGE_SIZE = "size should be between 1 and " + CursorPageDTO.MAX_SIZE;
+
   public static void checkArgumentsNotEmpty(String... args) {
     checkArguments(!StringUtils.isContainEmpty(args), CONTAIN_EMPTY_ARGUMENT);
   }
@@ -19,6 +22,10 @@ public class RequestPrecondition {
     checkArguments(valid, ILLEGAL_MODEL);
   }
 
+  public static void checkCursorPageSize(int size) {
+    checkArguments(size > 0 && size <= CursorPageDTO.MAX_SIZE, ILLEGAL_CURSOR_PAGE_SIZE);
+  }
+
   public static void checkArguments(boolean expression, Object errorMessage) {
     if (!expression) {
       throw new BadRequestException(String.valueOf(errorMessage));
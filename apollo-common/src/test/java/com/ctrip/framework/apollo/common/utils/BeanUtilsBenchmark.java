@@ -0,0 +1,120 @@
+package com.ctrip.framework.apollo.common.utils;
+
+import com.ctrip.framework.apollo.common.dto.ItemDTO;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compares {@link BeanUtils} with the reflective implementation it replaced (Class.newInstance, a BeanWrapper to
+ * collect the null properties and Spring's copyProperties for each object, a field lookup for each call of
+ * mapByKey) with lists of 1k, 10k and 100k items. It is not run by the unit tests, run the main method to get the
+ * numbers.
+ */
+public class BeanUtilsBenchmark {
+  private static final int[] SIZES = {1000, 10000, 100000};
+  private static final int WARM_UP_ROUNDS = 5;
+  private static final int ROUNDS = 20;
+
+  public static void main(String[] args) {
+    for (int size : SIZES) {
+      List<ItemDTO> items = assembleItems(size);
+
+      run(size, "batchTransform reflective", items, list -> reflectiveBatchTransform(ItemDTO.class, list));
+      run(size, "batchTransform cached", items, list -> BeanUtils.batchTransform(ItemDTO.class, list));
+      run(size, "mapByKey reflective", items, list -> reflectiveMapByKey("id", list));
+      run(size, "mapByKey cached", items, list -> BeanUtils.mapByKey("id", list));
+    }
+  }
+
+  private static void run(int size, String scenario, List<ItemDTO> items, Consumer<List<ItemDTO>> task) {
+    for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+      task.accept(items);
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      task.accept(items);
+    }
+    long elapsed = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ROUNDS;
+
+    System.out.println(String.format("%7d items, %-26s: %10d us/op, %8d ns/item", size, scenario, elapsed,
+        elapsed * 1000 / size));
+  }
+
+  private static List<ItemDTO> assembleItems(int size) {
+    List<ItemDTO> items = new ArrayList<>(size);
+    Date now = new Date();
+    for (int i = 0; i < size; i++) {
+      ItemDTO item = new ItemDTO("key" + i, "value" + i, i % 2 == 0 ? null : "comment" + i, i);
+      item.setId(i + 1);
+      item.setNamespaceId(1);
+      item.setDataChangeCreatedBy("someOperator");
+      item.setDataChangeCreatedTime(now);
+      items.add(item);
+    }
+    return items;
+  }
+
+  private static <T> List<T> reflectiveBatchTransform(Class<T> clazz, List<?> srcList) {
+    List<T> result = new ArrayList<>(srcList.size());
+    for (Object src : srcList) {
+      T instance;
+      try {
+        instance = clazz.newInstance();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+      org.springframework.beans.BeanUtils.copyProperties(src, instance, getNullPropertyNames(src));
+      result.add(instance);
+    }
+    return result;
+  }
+
+  private static String[] getNullPropertyNames(Object source) {
+    BeanWrapper src = new BeanWrapperImpl(source);
+    Set<String> emptyNames = new HashSet<>();
+    for (PropertyDescriptor pd : src.getPropertyDescriptors()) {
+      if (src.getPropertyValue(pd.getName()) == null) {
+        emptyNames.add(pd.getName());
+      }
+    }
+    return emptyNames.toArray(new String[0]);
+  }
+
+  private static Map<Object, Object> reflectiveMapByKey(String key, List<?> list) {
+    Map<Object, Object> map = new HashMap<>();
+    try {
+      Field field = deepFindField(list.get(0).getClass(), key);
+      field.setAccessible(true);
+      for (Object o : list) {
+        map.put(field.get(o), o);
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    return map;
+  }
+
+  private static Field deepFindField(Class<?> clazz, String key) {
+    while (clazz != Object.class) {
+      try {
+        return clazz.getDeclaredField(key);
+      } catch (NoSuchFieldException e) {
+        clazz = clazz.getSuperclass();
+      }
+    }
+    throw new IllegalArgumentException("Could not find the key");
+  }
+}
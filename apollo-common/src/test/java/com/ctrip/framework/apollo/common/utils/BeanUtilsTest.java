@@ -0,0 +1,107 @@
+package com.ctrip.framework.apollo.common.utils;
+
+import com.ctrip.framework.apollo.common.dto.ItemDTO;
+import com.ctrip.framework.apollo.common.entity.App;
+import com.ctrip.framework.apollo.common.exception.BeanUtilsException;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BeanUtilsTest {
+
+  @Test
+  public void testTransform() throws Exception {
+    ItemDTO source = new ItemDTO("someKey", "someValue", "someComment", 3);
+    source.setId(1);
+    source.setNamespaceId(2);
+    source.setDataChangeCreatedTime(new Date());
+
+    ItemDTO target = BeanUtils.transform(ItemDTO.class, source);
+
+    assertEquals(source.getId(), target.getId());
+    assertEquals(source.getNamespaceId(), target.getNamespaceId());
+    assertEquals(source.getKey(), target.getKey());
+    assertEquals(source.getValue(), target.getValue());
+    assertEquals(source.getComment(), target.getComment());
+    assertEquals(source.getLineNum(), target.getLineNum());
+    assertEquals(source.getDataChangeCreatedTime(), target.getDataChangeCreatedTime());
+    assertNull(target.getDataChangeLastModifiedBy());
+  }
+
+  @Test
+  public void testTransformSkipsNullProperties() throws Exception {
+    App source = new App();
+    source.setAppId("someAppId");
+
+    NameDefaultedApp target = BeanUtils.transform(NameDefaultedApp.class, source);
+
+    assertEquals("someAppId", target.getAppId());
+    assertEquals(NameDefaultedApp.DEFAULT_NAME, target.getName());
+  }
+
+  @Test
+  public void testTransformWithNull() throws Exception {
+    assertNull(BeanUtils.transform(ItemDTO.class, null));
+    assertTrue(BeanUtils.batchTransform(ItemDTO.class, null).isEmpty());
+  }
+
+  @Test
+  public void testBatchTransform() throws Exception {
+    App someApp = new App();
+    someApp.setAppId("someAppId");
+    NameDefaultedApp anotherApp = new NameDefaultedApp();
+    anotherApp.setAppId("anotherAppId");
+
+    List<App> apps = BeanUtils.batchTransform(App.class, Lists.newArrayList(someApp, null, anotherApp));
+
+    assertEquals(3, apps.size());
+    assertEquals("someAppId", apps.get(0).getAppId());
+    assertNull(apps.get(1));
+    assertEquals("anotherAppId", apps.get(2).getAppId());
+    assertEquals(NameDefaultedApp.DEFAULT_NAME, apps.get(2).getName());
+  }
+
+  @Test
+  public void testMapByKey() throws Exception {
+    ItemDTO someItem = new ItemDTO("someKey", "someValue", "", 1);
+    ItemDTO anotherItem = new ItemDTO("anotherKey", "anotherValue", "", 2);
+
+    Map<String, ItemDTO> items = BeanUtils.mapByKey("key", Lists.newArrayList(someItem, anotherItem));
+
+    assertEquals(someItem, items.get("someKey"));
+    assertEquals(anotherItem, items.get("anotherKey"));
+  }
+
+  @Test
+  public void testAggByKeyToListAndToPropertySet() throws Exception {
+    ItemDTO someItem = new ItemDTO("someKey", "someValue", "", 1);
+    ItemDTO anotherItem = new ItemDTO("anotherKey", "anotherValue", "", 1);
+    List<ItemDTO> items = Lists.newArrayList(someItem, anotherItem);
+
+    Map<Integer, List<ItemDTO>> itemsByLineNum = BeanUtils.aggByKeyToList("lineNum", items);
+
+    assertEquals(Lists.newArrayList(someItem, anotherItem), itemsByLineNum.get(1));
+    assertEquals(Sets.newHashSet("someKey", "anotherKey"), BeanUtils.toPropertySet("key", items));
+  }
+
+  @Test(expected = BeanUtilsException.class)
+  public void testMapByKeyWithUnknownKey() throws Exception {
+    BeanUtils.mapByKey("unknown", Lists.newArrayList(new ItemDTO()));
+  }
+
+  public static class NameDefaultedApp extends App {
+    static final String DEFAULT_NAME = "defaultName";
+
+    public NameDefaultedApp() {
+      setName(DEFAULT_NAME);
+    }
+  }
+}
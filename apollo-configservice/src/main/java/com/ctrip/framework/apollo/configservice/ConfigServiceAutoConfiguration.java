@@ -9,21 +9,33 @@ import com.ctrip.framework.apollo.configservice.controller.NotificationControlle
 import com.ctrip.framework.apollo.configservice.service.ReleaseMessageServiceWithCache;
 import com.ctrip.framework.apollo.configservice.service.config.ConfigService;
 import com.ctrip.framework.apollo.configservice.service.config.ConfigServiceWithCache;
+import com.ctrip.framework.apollo.configservice.service.config.ConfigSnapshotStore;
 import com.ctrip.framework.apollo.configservice.service.config.DefaultConfigService;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
 /**
  * @author Jason Song(song_s@ctrip.com)
  */
 @Configuration
 public class ConfigServiceAutoConfiguration {
+  private static final Logger logger = LoggerFactory.getLogger(ConfigServiceAutoConfiguration.class);
 
   private final BizConfig bizConfig;
+  private final Environment environment;
 
-  public ConfigServiceAutoConfiguration(final BizConfig bizConfig) {
+  public ConfigServiceAutoConfiguration(final BizConfig bizConfig, final Environment environment) {
     this.bizConfig = bizConfig;
+    this.environment = environment;
   }
 
   @Bean
@@ -34,11 +46,28 @@ public class ConfigServiceAutoConfiguration {
   @Bean
   public ConfigService configService() {
     if (bizConfig.isConfigServiceCacheEnabled()) {
-      return new ConfigServiceWithCache();
+      return new ConfigServiceWithCache(configSnapshotStore());
     }
     return new DefaultConfigService();
   }
 
+  private ConfigSnapshotStore configSnapshotStore() {
+    if (!bizConfig.isConfigServiceSnapshotEnabled()) {
+      return null;
+    }
+    //each config database has its own snapshot, e.g. when config services of several environments share a host
+    String identity = environment.getProperty("spring.datasource.url", "");
+    String path = Paths.get(bizConfig.configServiceSnapshotPath(),
+        Hashing.sha256().hashString(identity, StandardCharsets.UTF_8).toString().substring(0, 16)).toString();
+    try {
+      return new ConfigSnapshotStore(Paths.get(path), identity);
+    } catch (Throwable ex) {
+      logger.error("Open config snapshot {} failed, the snapshot is disabled", path, ex);
+      Tracer.logError(ex);
+      return null;
+    }
+  }
+
   @Bean
   public static NoOpPasswordEncoder passwordEncoder() {
     return (NoOpPasswordEncoder) NoOpPasswordEncoder.getInstance();
@@ -1,6 +1,7 @@
 package com.ctrip.framework.apollo.configservice;
 
 import com.ctrip.framework.apollo.biz.service.AppService;
+import com.ctrip.framework.apollo.configservice.service.config.ConfigServiceWarmUp;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.data.domain.PageRequest;
@@ -10,13 +11,19 @@ import org.springframework.stereotype.Component;
 public class ConfigServiceHealthIndicator implements HealthIndicator {
 
   private final AppService appService;
+  private final ConfigServiceWarmUp configServiceWarmUp;
 
-  public ConfigServiceHealthIndicator(final AppService appService) {
+  public ConfigServiceHealthIndicator(final AppService appService, final ConfigServiceWarmUp configServiceWarmUp) {
     this.appService = appService;
+    this.configServiceWarmUp = configServiceWarmUp;
   }
 
   @Override
   public Health health() {
+    if (!configServiceWarmUp.isFinished()) {
+      return Health.outOfService().withDetail("Warmed Up", configServiceWarmUp.getWarmedUp())
+          .withDetail("Total", configServiceWarmUp.getTotal()).build();
+    }
     int errorCode = check();
     if (errorCode != 0) {
       return Health.down().withDetail("Error Code", errorCode).build();
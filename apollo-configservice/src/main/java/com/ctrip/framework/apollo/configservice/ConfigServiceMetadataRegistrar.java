@@ -0,0 +1,35 @@
+package com.ctrip.framework.apollo.configservice;
+
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.ctrip.framework.foundation.Foundation;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.netflix.appinfo.ApplicationInfoManager;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the data center of this config service to eureka, which is returned to the clients as
+ * {@link ServiceDTO#getMetadata()} so that they could prefer the config services in their own data center.
+ */
+@Component
+public class ConfigServiceMetadataRegistrar implements InitializingBean {
+  public static final String DATA_CENTER_METADATA_KEY = "dataCenter";
+
+  private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+  public ConfigServiceMetadataRegistrar(final ObjectProvider<ApplicationInfoManager> applicationInfoManager) {
+    this.applicationInfoManager = applicationInfoManager;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    String dataCenter = Foundation.server().getDataCenter();
+    ApplicationInfoManager manager = applicationInfoManager.getIfAvailable();
+    if (Strings.isNullOrEmpty(dataCenter) || manager == null) {
+      return;
+    }
+    manager.registerAppMetadata(ImmutableMap.of(DATA_CENTER_METADATA_KEY, dataCenter));
+  }
+}
@@ -27,6 +27,9 @@ import com.google.gson.reflect.TypeToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -44,6 +47,7 @@ import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 /**
@@ -62,6 +66,7 @@ public class NotificationControllerV2 implements ReleaseMessageListener {
       }.getType();
 
   private final ExecutorService largeNotificationBatchExecutorService;
+  private final AtomicBoolean draining = new AtomicBoolean(false);
 
   private final WatchKeysUtil watchKeysUtil;
   private final ReleaseMessageServiceWithCache releaseMessageService;
@@ -108,7 +113,8 @@ public class NotificationControllerV2 implements ReleaseMessageListener {
       throw new BadRequestException("Invalid format of notifications: " + notificationsAsString);
     }
 
-    DeferredResultWrapper deferredResultWrapper = new DeferredResultWrapper();
+    DeferredResultWrapper deferredResultWrapper =
+        new DeferredResultWrapper(bizConfig.longPollingHoldTimeInMilli(), assembleLongPollingHeaders());
     Set<String> namespaces = Sets.newHashSet();
     Map<String, Long> clientSideNotifications = Maps.newHashMap();
     Map<String, ApolloConfigNotification> filteredNotifications = filterNotifications(appId, notifications);
@@ -127,6 +133,11 @@ public class NotificationControllerV2 implements ReleaseMessageListener {
       throw new BadRequestException("Invalid format of notifications: " + notificationsAsString);
     }
 
+    if (draining.get()) {
+      deferredResultWrapper.setDrainResult(bizConfig.longPollingDrainWindowInMilli());
+      return deferredResultWrapper.getResult();
+    }
+
     Multimap<String, String> watchedKeysMap =
         watchKeysUtil.assembleAllWatchKeys(appId, cluster, namespaces, dataCenter);
 
@@ -166,6 +177,13 @@ public class NotificationControllerV2 implements ReleaseMessageListener {
         this.deferredResults.put(key, deferredResultWrapper);
       }
 
+      //the drain started after the check above doesn't see this request if it collected the results before the
+      //registration, setting the result twice is harmless
+      if (draining.get()) {
+        deferredResultWrapper.setDrainResult(bizConfig.longPollingDrainWindowInMilli());
+        return deferredResultWrapper.getResult();
+      }
+
       logWatchedKeys(watchedKeys, "Apollo.LongPoll.RegisteredKeys");
       logger.debug("Listening {} from appId: {}, cluster: {}, namespace: {}, datacenter: {}",
           watchedKeys, appId, cluster, namespaces, dataCenter);
@@ -174,6 +192,42 @@ public class NotificationControllerV2 implements ReleaseMessageListener {
     return deferredResultWrapper.getResult();
   }
 
+  private HttpHeaders assembleLongPollingHeaders() {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(ConfigConsts.LONG_POLLING_HOLD_TIME_HEADER, String.valueOf(bizConfig.longPollingHoldTimeInMilli()));
+    headers.set(ConfigConsts.LONG_POLLING_RECONNECT_JITTER_HEADER,
+        String.valueOf(bizConfig.longPollingReconnectJitterInMilli()));
+    return headers;
+  }
+
+  /**
+   * Drain the held long polling requests, the clients would move to other config services within the drain window
+   * instead of reconnecting all at once when this config service is gone.
+   */
+  public void drain() {
+    if (!draining.compareAndSet(false, true)) {
+      return;
+    }
+    List<DeferredResultWrapper> results;
+    synchronized (deferredResults) {
+      results = Lists.newArrayList(Sets.newHashSet(deferredResults.values()));
+    }
+    int drainWindow = bizConfig.longPollingDrainWindowInMilli();
+    for (DeferredResultWrapper result : results) {
+      result.setDrainResult(drainWindow);
+    }
+    Tracer.logEvent("Apollo.LongPoll.Drain", String.valueOf(results.size()));
+    logger.info("Drained {} long polling clients with drain window {} ms", results.size(), drainWindow);
+  }
+
+  @EventListener
+  public void onContextClosed(ContextClosedEvent event) {
+    // the events of the child contexts are also published here
+    if (event.getApplicationContext().getBeanNamesForType(NotificationControllerV2.class).length > 0) {
+      drain();
+    }
+  }
+
   private Map<String, ApolloConfigNotification> filterNotifications(String appId,
                                                                     List<ApolloConfigNotification> notifications) {
     Map<String, ApolloConfigNotification> filteredNotifications = Maps.newHashMap();
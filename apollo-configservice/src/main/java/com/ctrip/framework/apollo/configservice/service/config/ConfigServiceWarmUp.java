@@ -0,0 +1,166 @@
+package com.ctrip.framework.apollo.configservice.service.config;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
+import com.ctrip.framework.apollo.biz.repository.ReleaseMessageRepository;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.google.common.base.Strings;
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the hottest namespaces into {@link ConfigServiceWithCache} on startup, so that the first wave of client
+ * requests after a deployment doesn't query the database all at once.
+ *
+ * <p>The namespaces served before restart, which are kept in the snapshot, come first, then the most recently
+ * released ones. They are loaded in parallel with a bounded thread pool, and the warm up stops when the size or time
+ * budget is used up. {@link com.ctrip.framework.apollo.configservice.ConfigServiceHealthIndicator} reports out of
+ * service until the warm up finishes, which keeps the node out of eureka, with the eureka health check enabled, and
+ * delays its registration to the database, see
+ * {@link com.ctrip.framework.apollo.biz.registry.DatabaseServiceRegistrar}.</p>
+ */
+@Component
+public class ConfigServiceWarmUp implements InitializingBean, DisposableBean {
+  private static final Logger logger = LoggerFactory.getLogger(ConfigServiceWarmUp.class);
+  private static final int MAX_RELEASE_MESSAGE_PAGES = 10;
+
+  private final ConfigService configService;
+  private final ReleaseMessageRepository releaseMessageRepository;
+  private final BizConfig bizConfig;
+
+  private final AtomicInteger warmedUp = new AtomicInteger();
+  private volatile boolean finished;
+  private volatile int total;
+  private ExecutorService coordinator;
+  private ExecutorService loaders;
+
+  public ConfigServiceWarmUp(
+      final ConfigService configService,
+      final ReleaseMessageRepository releaseMessageRepository,
+      final BizConfig bizConfig) {
+    this.configService = configService;
+    this.releaseMessageRepository = releaseMessageRepository;
+    this.bizConfig = bizConfig;
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    if (!(configService instanceof ConfigServiceWithCache) || bizConfig.configServiceWarmUpSize() <= 0) {
+      finished = true;
+      return;
+    }
+    loaders = Executors.newFixedThreadPool(bizConfig.configServiceWarmUpThreads(),
+        ApolloThreadFactory.create("ConfigServiceWarmUp", true));
+    coordinator = Executors.newSingleThreadExecutor(ApolloThreadFactory.create("ConfigServiceWarmUpCoordinator",
+        true));
+    coordinator.submit(() -> warmUp((ConfigServiceWithCache) configService));
+  }
+
+  public boolean isFinished() {
+    return finished;
+  }
+
+  public int getWarmedUp() {
+    return warmedUp.get();
+  }
+
+  public int getTotal() {
+    return total;
+  }
+
+  void warmUp(ConfigServiceWithCache configServiceWithCache) {
+    long timeout = bizConfig.configServiceWarmUpTimeoutTimeUnit().toMillis(bizConfig.configServiceWarmUpTimeout());
+    long deadline = System.currentTimeMillis() + timeout;
+    Transaction transaction = Tracer.newTransaction("Apollo.ConfigService", "warmUp");
+    try {
+      Set<String> keys = findHotKeys(configServiceWithCache, bizConfig.configServiceWarmUpSize(), deadline);
+      total = keys.size();
+
+      for (String key : keys) {
+        loaders.submit(() -> {
+          if (System.currentTimeMillis() >= deadline || Thread.currentThread().isInterrupted()) {
+            return;
+          }
+          try {
+            configServiceWithCache.warmUp(key);
+            warmedUp.incrementAndGet();
+          } catch (Throwable ex) {
+            logger.warn("Warm up config {} failed", key, ex);
+          }
+        });
+      }
+      loaders.shutdown();
+      if (!loaders.awaitTermination(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS)) {
+        loaders.shutdownNow();
+        logger.warn("Warm up config service timed out after {} ms", timeout);
+      }
+
+      logger.info("Warmed up {} of {} namespaces", warmedUp.get(), total);
+      transaction.addData("warmedUp", warmedUp.get());
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      transaction.setStatus(ex);
+    } catch (Throwable ex) {
+      logger.error("Warm up config service failed", ex);
+      transaction.setStatus(ex);
+    } finally {
+      transaction.complete();
+      //never keep the node out of service because of the warm up
+      finished = true;
+    }
+  }
+
+  private Set<String> findHotKeys(ConfigServiceWithCache configServiceWithCache, int size, long deadline) {
+    Set<String> keys = Sets.newLinkedHashSet();
+    for (String key : configServiceWithCache.findSnapshotKeys()) {
+      if (keys.size() >= size) {
+        return keys;
+      }
+      keys.add(key);
+    }
+
+    for (int page = 0; page < MAX_RELEASE_MESSAGE_PAGES && keys.size() < size
+        && System.currentTimeMillis() < deadline; page++) {
+      Page<ReleaseMessage> releaseMessages = releaseMessageRepository.findAll(PageRequest.of(page, size,
+          Sort.Direction.DESC, "id"));
+      for (ReleaseMessage releaseMessage : releaseMessages) {
+        if (keys.size() >= size) {
+          break;
+        }
+        if (!Strings.isNullOrEmpty(releaseMessage.getMessage())) {
+          keys.add(releaseMessage.getMessage());
+        }
+      }
+      if (!releaseMessages.hasNext()) {
+        break;
+      }
+    }
+    return keys;
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    if (coordinator != null) {
+      coordinator.shutdownNow();
+    }
+    if (loaders != null) {
+      loaders.shutdownNow();
+    }
+  }
+}
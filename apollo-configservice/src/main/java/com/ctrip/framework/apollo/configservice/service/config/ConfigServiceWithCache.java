@@ -18,19 +18,23 @@ import com.ctrip.framework.apollo.core.dto.ApolloNotificationMessages;
 import com.ctrip.framework.apollo.tracer.Tracer;
 import com.ctrip.framework.apollo.tracer.spi.Transaction;
 
+import java.io.IOException;
+import java.util.Objects;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 /**
- * config service with guava cache
+ * config service with guava cache, the latest releases are also kept in the {@link ConfigSnapshotStore} if enabled
  *
  * @author Jason Song(song_s@ctrip.com)
  */
@@ -40,6 +44,8 @@ public class ConfigServiceWithCache extends AbstractConfigService {
   private static final String TRACER_EVENT_CACHE_INVALIDATE = "ConfigCache.Invalidate";
   private static final String TRACER_EVENT_CACHE_LOAD = "ConfigCache.LoadFromDB";
   private static final String TRACER_EVENT_CACHE_LOAD_ID = "ConfigCache.LoadFromDBById";
+  private static final String TRACER_EVENT_CACHE_LOAD_SNAPSHOT = "ConfigCache.LoadFromSnapshot";
+  private static final String TRACER_EVENT_CACHE_LOAD_SNAPSHOT_FALLBACK = "ConfigCache.LoadFromSnapshotOnError";
   private static final String TRACER_EVENT_CACHE_GET = "ConfigCache.Get";
   private static final String TRACER_EVENT_CACHE_GET_ID = "ConfigCache.GetById";
   private static final Splitter STRING_SPLITTER =
@@ -57,7 +63,17 @@ public class ConfigServiceWithCache extends AbstractConfigService {
 
   private ConfigCacheEntry nullConfigCacheEntry;
 
+  private final ConfigSnapshotStore snapshotStore;
+
   public ConfigServiceWithCache() {
+    this(null);
+  }
+
+  /**
+   * @param snapshotStore the local snapshot of the latest releases, null if disabled
+   */
+  public ConfigServiceWithCache(ConfigSnapshotStore snapshotStore) {
+    this.snapshotStore = snapshotStore;
     nullConfigCacheEntry = new ConfigCacheEntry(ConfigConsts.NOTIFICATION_ID_PLACEHOLDER, null);
   }
 
@@ -79,14 +95,21 @@ public class ConfigServiceWithCache extends AbstractConfigService {
             try {
               ReleaseMessage latestReleaseMessage = releaseMessageService.findLatestReleaseMessageForMessages(Lists
                   .newArrayList(key));
-              Release latestRelease = releaseService.findLatestActiveRelease(namespaceInfo.get(0), namespaceInfo.get(1),
-                  namespaceInfo.get(2));
-
-              transaction.setStatus(Transaction.SUCCESS);
 
               long notificationId = latestReleaseMessage == null ? ConfigConsts.NOTIFICATION_ID_PLACEHOLDER : latestReleaseMessage
                   .getId();
 
+              //the snapshot is up to date if it has seen the latest release message
+              Release latestRelease = notificationId == ConfigConsts.NOTIFICATION_ID_PLACEHOLDER ? null :
+                                      loadFromSnapshot(key, notificationId);
+              if (latestRelease == null) {
+                latestRelease = releaseService.findLatestActiveRelease(namespaceInfo.get(0), namespaceInfo.get(1),
+                    namespaceInfo.get(2));
+                saveToSnapshot(key, notificationId, latestRelease);
+              }
+
+              transaction.setStatus(Transaction.SUCCESS);
+
               if (notificationId == ConfigConsts.NOTIFICATION_ID_PLACEHOLDER && latestRelease == null) {
                 return nullConfigCacheEntry;
               }
@@ -94,6 +117,10 @@ public class ConfigServiceWithCache extends AbstractConfigService {
               return new ConfigCacheEntry(notificationId, latestRelease);
             } catch (Throwable ex) {
               transaction.setStatus(ex);
+              ConfigCacheEntry snapshotEntry = loadFromSnapshotOnError(key, ex);
+              if (snapshotEntry != null) {
+                return snapshotEntry;
+              }
               throw ex;
             } finally {
               transaction.complete();
@@ -148,6 +175,61 @@ public class ConfigServiceWithCache extends AbstractConfigService {
     return cacheEntry.getRelease();
   }
 
+  /**
+   * load the namespace into the cache if it is not cached yet
+   */
+  void warmUp(String key) {
+    configCache.getUnchecked(key);
+  }
+
+  /**
+   * @return the namespaces this node has served before restart, empty if the snapshot is disabled
+   */
+  List<String> findSnapshotKeys() {
+    return snapshotStore == null ? Collections.emptyList() : snapshotStore.keys();
+  }
+
+  private Release loadFromSnapshot(String key, long notificationId) {
+    if (snapshotStore == null || !Objects.equals(snapshotStore.getNotificationId(key), notificationId)) {
+      return null;
+    }
+    Release release = snapshotStore.getRelease(key);
+    if (release != null) {
+      Tracer.logEvent(TRACER_EVENT_CACHE_LOAD_SNAPSHOT, key);
+    }
+    return release;
+  }
+
+  private void saveToSnapshot(String key, long notificationId, Release release) {
+    if (snapshotStore != null) {
+      snapshotStore.put(key, notificationId, release);
+    }
+  }
+
+  /**
+   * keep serving the last known release when the database is not available
+   */
+  private ConfigCacheEntry loadFromSnapshotOnError(String key, Throwable ex) {
+    if (snapshotStore == null) {
+      return null;
+    }
+    Long notificationId = snapshotStore.getNotificationId(key);
+    Release release = notificationId == null ? null : snapshotStore.getRelease(key);
+    if (release == null) {
+      return null;
+    }
+    logger.warn("Load config {} from database failed, serving the release from snapshot", key, ex);
+    Tracer.logEvent(TRACER_EVENT_CACHE_LOAD_SNAPSHOT_FALLBACK, key);
+    return new ConfigCacheEntry(notificationId, release);
+  }
+
+  @PreDestroy
+  void destroy() throws IOException {
+    if (snapshotStore != null) {
+      snapshotStore.close();
+    }
+  }
+
   private void invalidate(String key) {
     configCache.invalidate(key);
     Tracer.logEvent(TRACER_EVENT_CACHE_INVALIDATE, key);
@@ -0,0 +1,395 @@
+package com.ctrip.framework.apollo.configservice.service.config;
+
+import com.ctrip.framework.apollo.biz.entity.Release;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the latest release and release message id of each namespace in a local append-only log, so that the config
+ * service could restart without reloading the releases and keep serving when the database is not available.
+ *
+ * <p>Each record is {@code [payload length][crc32 of payload][payload]}, the payload holds the namespace key, the
+ * notification id and the release, a record without release removes the namespace. Only the offsets are kept in
+ * memory, the releases are read from the file on demand. The records written partially before a crash are dropped
+ * when the log is loaded, and the log is compacted once most of its records are overwritten.</p>
+ *
+ * <p>The directory is locked exclusively while the store is open, and it is bound to the identity of the config
+ * database, e.g. the jdbc url, so the releases of another database are never served. The log is discarded if it was
+ * written for another identity.</p>
+ */
+public class ConfigSnapshotStore {
+  private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshotStore.class);
+  private static final String LOG_FILE_NAME = "releases.log";
+  private static final String COMPACT_FILE_NAME = "releases.log.compact";
+  private static final String LOCK_FILE_NAME = "releases.lock";
+  private static final String IDENTITY_FILE_NAME = "releases.identity";
+  private static final int HEADER_SIZE = 8;
+  private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024; //64MB
+  private static final int MIN_RECORDS_TO_COMPACT = 1000;
+
+  private final Path logFile;
+  private final Path compactFile;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Position> positions = Maps.newHashMap();
+  private final FileChannel lockChannel;
+  private FileChannel channel;
+  private long records;
+  private long minRecordsToCompact = MIN_RECORDS_TO_COMPACT;
+
+  /**
+   * @param identity the identity of the config database the releases are loaded from
+   * @throws IOException if the directory is used by another process or could not be opened
+   */
+  public ConfigSnapshotStore(Path directory, String identity) throws IOException {
+    Files.createDirectories(directory);
+    this.logFile = directory.resolve(LOG_FILE_NAME);
+    this.compactFile = directory.resolve(COMPACT_FILE_NAME);
+    this.lockChannel = lock(directory.resolve(LOCK_FILE_NAME));
+    try {
+      this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      checkIdentity(directory.resolve(IDENTITY_FILE_NAME), identity);
+      load();
+    } catch (IOException ex) {
+      close();
+      throw ex;
+    }
+  }
+
+  private static FileChannel lock(Path lockFile) throws IOException {
+    FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    FileLock fileLock;
+    try {
+      fileLock = lockChannel.tryLock();
+    } catch (OverlappingFileLockException ex) {
+      fileLock = null;
+    }
+    if (fileLock == null) {
+      lockChannel.close();
+      throw new IOException(String.format("Snapshot %s is used by another config service", lockFile.getParent()));
+    }
+    return lockChannel;
+  }
+
+  private void checkIdentity(Path identityFile, String identity) throws IOException {
+    byte[] expected = identity.getBytes(StandardCharsets.UTF_8);
+    if (Files.exists(identityFile) && Arrays.equals(Files.readAllBytes(identityFile), expected)) {
+      return;
+    }
+    if (channel.size() > 0) {
+      logger.warn("Snapshot {} was written for another config database, it is discarded", logFile);
+      channel.truncate(0);
+      channel.force(true);
+    }
+    Files.write(identityFile, expected);
+  }
+
+  /**
+   * @return the notification id of the namespace, or null if the namespace is not in the snapshot
+   */
+  public Long getNotificationId(String key) {
+    lock.readLock().lock();
+    try {
+      Position position = positions.get(key);
+      return position == null ? null : position.notificationId;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the release of the namespace, or null if the namespace is not in the snapshot or could not be read
+   */
+  public Release getRelease(String key) {
+    lock.readLock().lock();
+    try {
+      Position position = positions.get(key);
+      if (position == null) {
+        return null;
+      }
+      ByteBuffer payload = ByteBuffer.allocate(position.length);
+      readFully(channel, payload, position.offset + HEADER_SIZE);
+      return readRecord(payload.array()).release;
+    } catch (IOException ex) {
+      logger.warn("Read release of {} from snapshot failed", key, ex);
+      return null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Save the latest release of the namespace, the release is not written again if the snapshot has it already
+   *
+   * @param release the latest release, null means the namespace has no release
+   */
+  public void put(String key, long notificationId, Release release) {
+    lock.writeLock().lock();
+    try {
+      Position position = positions.get(key);
+      long releaseId = release == null ? 0 : release.getId();
+      if (position == null ? release == null :
+          position.notificationId == notificationId && position.releaseId == releaseId) {
+        return;
+      }
+      byte[] payload = writeRecord(key, notificationId, release);
+      long offset = channel.size();
+      appendRecord(channel, payload, offset);
+      records++;
+
+      if (release == null) {
+        positions.remove(key);
+      } else {
+        positions.put(key, new Position(offset, payload.length, notificationId, releaseId));
+      }
+
+      if (records >= minRecordsToCompact && records > positions.size() * 2L) {
+        compact();
+      }
+    } catch (IOException ex) {
+      logger.warn("Write release of {} to snapshot failed", key, ex);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return the namespace keys in the snapshot, the most recently released first
+   */
+  public List<String> keys() {
+    lock.readLock().lock();
+    try {
+      List<Map.Entry<String, Position>> entries = Lists.newArrayList(positions.entrySet());
+      entries.sort((e1, e2) -> Long.compare(e2.getValue().notificationId, e1.getValue().notificationId));
+      return entries.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return positions.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public void close() throws IOException {
+    lock.writeLock().lock();
+    try {
+      if (channel != null) {
+        channel.close();
+      }
+    } finally {
+      //closing the channel releases the lock
+      lockChannel.close();
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void load() throws IOException {
+    long fileSize = channel.size();
+    long offset = 0;
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    while (offset + HEADER_SIZE <= fileSize) {
+      header.clear();
+      readFully(channel, header, offset);
+      header.flip();
+      int length = header.getInt();
+      int crc = header.getInt();
+      if (length <= 0 || length > MAX_RECORD_SIZE || offset + HEADER_SIZE + length > fileSize) {
+        break;
+      }
+      ByteBuffer payload = ByteBuffer.allocate(length);
+      readFully(channel, payload, offset + HEADER_SIZE);
+      if (crc(payload.array()) != crc) {
+        break;
+      }
+      Record record = readRecord(payload.array());
+      if (record.release == null) {
+        positions.remove(record.key);
+      } else {
+        positions.put(record.key, new Position(offset, length, record.notificationId, record.release.getId()));
+      }
+      records++;
+      offset += HEADER_SIZE + length;
+    }
+
+    if (offset < fileSize) {
+      logger.warn("Snapshot {} is corrupted at offset {}, the records after it are dropped", logFile, offset);
+      channel.truncate(offset);
+    }
+    logger.info("Loaded {} namespaces from snapshot {}", positions.size(), logFile);
+  }
+
+  private void compact() throws IOException {
+    Map<String, Position> compacted = Maps.newHashMapWithExpectedSize(positions.size());
+    try (FileChannel compactChannel = FileChannel.open(compactFile, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      long offset = 0;
+      for (Map.Entry<String, Position> entry : positions.entrySet()) {
+        Position position = entry.getValue();
+        int size = HEADER_SIZE + position.length;
+        ByteBuffer record = ByteBuffer.allocate(size);
+        readFully(channel, record, position.offset);
+        record.flip();
+        writeFully(compactChannel, record, offset);
+        compacted.put(entry.getKey(), new Position(offset, position.length, position.notificationId,
+            position.releaseId));
+        offset += size;
+      }
+      compactChannel.force(true);
+    }
+
+    //the current log is kept open until the compacted one is in place, so a failed compaction leaves it intact
+    try {
+      Files.move(compactFile, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      Files.deleteIfExists(compactFile);
+      //don't retry on every write
+      minRecordsToCompact = records * 2;
+      throw ex;
+    }
+    FileChannel compactedChannel = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    channel.close();
+    channel = compactedChannel;
+    positions.clear();
+    positions.putAll(compacted);
+    records = positions.size();
+    minRecordsToCompact = MIN_RECORDS_TO_COMPACT;
+    logger.info("Compacted snapshot {} to {} namespaces", logFile, records);
+  }
+
+  private static void appendRecord(FileChannel channel, byte[] payload, long offset) throws IOException {
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+    record.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+    writeFully(channel, record, offset);
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+    while (buffer.hasRemaining()) {
+      offset += channel.write(buffer, offset);
+    }
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, offset + buffer.position()) < 0) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  private static int crc(byte[] bytes) {
+    CRC32 crc32 = new CRC32();
+    crc32.update(bytes);
+    return (int) crc32.getValue();
+  }
+
+  private static byte[] writeRecord(String key, long notificationId, Release release) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    writeString(out, key);
+    out.writeLong(notificationId);
+    out.writeBoolean(release != null);
+    if (release != null) {
+      out.writeLong(release.getId());
+      writeString(out, release.getReleaseKey());
+      writeString(out, release.getName());
+      writeString(out, release.getAppId());
+      writeString(out, release.getClusterName());
+      writeString(out, release.getNamespaceName());
+      writeString(out, release.getConfigurations());
+      writeString(out, release.getComment());
+    }
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  private static Record readRecord(byte[] payload) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+    Record record = new Record();
+    record.key = readString(in);
+    record.notificationId = in.readLong();
+    if (in.readBoolean()) {
+      Release release = new Release();
+      release.setId(in.readLong());
+      release.setReleaseKey(readString(in));
+      release.setName(readString(in));
+      release.setAppId(readString(in));
+      release.setClusterName(readString(in));
+      release.setNamespaceName(readString(in));
+      release.setConfigurations(readString(in));
+      release.setComment(readString(in));
+      record.release = release;
+    }
+    return record;
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static class Record {
+    private String key;
+    private long notificationId;
+    private Release release;
+  }
+
+  private static class Position {
+    private final long offset;
+    private final int length;
+    private final long notificationId;
+    private final long releaseId;
+
+    private Position(long offset, int length, long notificationId, long releaseId) {
+      this.offset = offset;
+      this.length = length;
+      this.notificationId = notificationId;
+      this.releaseId = releaseId;
+    }
+  }
+}
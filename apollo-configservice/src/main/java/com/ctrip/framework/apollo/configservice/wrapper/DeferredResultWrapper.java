@@ -3,8 +3,10 @@ package com.ctrip.framework.apollo.configservice.wrapper;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.dto.ApolloConfigNotification;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.async.DeferredResult;
@@ -17,15 +19,23 @@ import java.util.Map;
  */
 public class DeferredResultWrapper {
   private static final long TIMEOUT = 60 * 1000;//60 seconds
-  private static final ResponseEntity<List<ApolloConfigNotification>>
-      NOT_MODIFIED_RESPONSE_LIST = new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
 
   private Map<String, String> normalizedNamespaceNameToOriginalNamespaceName;
+  private final HttpHeaders headers;
   private DeferredResult<ResponseEntity<List<ApolloConfigNotification>>> result;
 
 
   public DeferredResultWrapper() {
-    result = new DeferredResult<>(TIMEOUT, NOT_MODIFIED_RESPONSE_LIST);
+    this(TIMEOUT, new HttpHeaders());
+  }
+
+  /**
+   * @param timeoutInMilli how long the request is held
+   * @param headers the headers of the response, e.g. the long polling schedule advertised to the clients
+   */
+  public DeferredResultWrapper(long timeoutInMilli, HttpHeaders headers) {
+    this.headers = headers;
+    result = new DeferredResult<>(timeoutInMilli, new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED));
   }
 
   public void recordNamespaceNameNormalizedResult(String originalNamespaceName, String normalizedNamespaceName) {
@@ -59,7 +69,17 @@ public class DeferredResultWrapper {
               normalizedNamespaceNameToOriginalNamespaceName.get(notification.getNamespaceName())));
     }
 
-    result.setResult(new ResponseEntity<>(notifications, HttpStatus.OK));
+    result.setResult(new ResponseEntity<>(notifications, headers, HttpStatus.OK));
+  }
+
+  /**
+   * Complete the request with 304 and ask the client to move to other config services within the drain window
+   */
+  public void setDrainResult(long drainWindowInMilli) {
+    HttpHeaders drainHeaders = new HttpHeaders();
+    drainHeaders.putAll(headers);
+    drainHeaders.set(ConfigConsts.LONG_POLLING_DRAIN_WINDOW_HEADER, String.valueOf(drainWindowInMilli));
+    result.setResult(new ResponseEntity<>(drainHeaders, HttpStatus.NOT_MODIFIED));
   }
 
   public DeferredResult<ResponseEntity<List<ApolloConfigNotification>>> getResult() {
@@ -0,0 +1,17 @@
+package com.ctrip.framework.apollo.metaservice;
+
+import com.ctrip.framework.apollo.biz.registry.DatabaseServiceRegistrar;
+import com.ctrip.framework.apollo.common.condition.ConditionalOnMissingProfile;
+import com.ctrip.framework.apollo.metaservice.service.KubernetesDiscoveryService;
+import org.springframework.cloud.netflix.eureka.server.EnableEurekaServer;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The embedded eureka server is only needed when the services are discovered by eureka.
+ */
+@Configuration
+@EnableEurekaServer
+@ConditionalOnMissingProfile({DatabaseServiceRegistrar.DATABASE_DISCOVERY_PROFILE,
+    KubernetesDiscoveryService.KUBERNETES_PROFILE})
+public class ApolloEurekaServerConfig {
+}
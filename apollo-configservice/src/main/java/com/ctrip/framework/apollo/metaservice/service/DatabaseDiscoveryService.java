@@ -0,0 +1,106 @@
+package com.ctrip.framework.apollo.metaservice.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.ServiceRegistry;
+import com.ctrip.framework.apollo.biz.registry.DatabaseServiceRegistrar;
+import com.ctrip.framework.apollo.biz.service.ServiceRegistryService;
+import com.ctrip.framework.apollo.common.condition.ConditionalOnProfile;
+import com.ctrip.framework.apollo.configservice.ConfigServiceMetadataRegistrar;
+import com.ctrip.framework.apollo.core.ServiceNameConsts;
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.base.Strings;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Discovers the services registered to the database by {@link DatabaseServiceRegistrar}. The instances are cached for
+ * one second, so a new instance is discovered within seconds after it is ready.
+ *
+ * <p>The meta service runs with the config service, so the config service instances are returned as the meta service
+ * instances.</p>
+ */
+@Service
+@ConditionalOnProfile(DatabaseServiceRegistrar.DATABASE_DISCOVERY_PROFILE)
+public class DatabaseDiscoveryService implements DiscoveryService, DisposableBean {
+  private static final Logger logger = LoggerFactory.getLogger(DatabaseDiscoveryService.class);
+  private static final long CACHE_EXPIRE_IN_MILLI = 1000;
+  //the registrations not refreshed for a long time are removed, they are filtered out long before anyway
+  private static final long REGISTRY_RETENTION_IN_HOURS = 24;
+
+  private final ServiceRegistryService serviceRegistryService;
+  private final BizConfig bizConfig;
+  private final LoadingCache<String, List<ServiceDTO>> instancesCache;
+  private final ScheduledExecutorService cleanService;
+
+  public DatabaseDiscoveryService(final ServiceRegistryService serviceRegistryService, final BizConfig bizConfig) {
+    this.serviceRegistryService = serviceRegistryService;
+    this.bizConfig = bizConfig;
+    this.instancesCache = CacheBuilder.newBuilder()
+        .expireAfterWrite(CACHE_EXPIRE_IN_MILLI, TimeUnit.MILLISECONDS)
+        .build(new CacheLoader<String, List<ServiceDTO>>() {
+          @Override
+          public List<ServiceDTO> load(String serviceId) {
+            return findAliveInstances(serviceId);
+          }
+        });
+    this.cleanService = Executors.newSingleThreadScheduledExecutor(
+        ApolloThreadFactory.create("DatabaseDiscoveryService", true));
+    this.cleanService.scheduleWithFixedDelay(this::deleteExpiredRegistries, 1, 1, TimeUnit.HOURS);
+  }
+
+  @Override
+  public List<ServiceDTO> getServiceInstances(String serviceId) {
+    String registeredServiceId = ServiceNameConsts.APOLLO_METASERVICE.equals(serviceId) ?
+        ServiceNameConsts.APOLLO_CONFIGSERVICE : serviceId;
+    List<ServiceDTO> instances = instancesCache.getUnchecked(registeredServiceId);
+    if (instances.isEmpty()) {
+      Tracer.logEvent("Apollo.DatabaseDiscovery.NotFound", serviceId);
+    }
+    return instances;
+  }
+
+  private List<ServiceDTO> findAliveInstances(String serviceId) {
+    List<ServiceRegistry> registries = serviceRegistryService.findAliveInstances(serviceId,
+        bizConfig.serviceRegistryExpireInMilli());
+    return Collections.unmodifiableList(
+        registries.stream().map(this::transformToServiceDTO).collect(Collectors.toList()));
+  }
+
+  private ServiceDTO transformToServiceDTO(ServiceRegistry registry) {
+    ServiceDTO service = new ServiceDTO();
+    service.setAppName(registry.getServiceName());
+    service.setInstanceId(registry.getUri());
+    service.setHomepageUrl(registry.getUri());
+    service.setMetadata(Strings.isNullOrEmpty(registry.getDataCenter()) ? Collections.emptyMap() :
+        ImmutableMap.of(ConfigServiceMetadataRegistrar.DATA_CENTER_METADATA_KEY, registry.getDataCenter()));
+    return service;
+  }
+
+  private void deleteExpiredRegistries() {
+    try {
+      serviceRegistryService.deleteExpired(TimeUnit.HOURS.toMillis(REGISTRY_RETENTION_IN_HOURS));
+    } catch (Throwable ex) {
+      logger.warn("Delete expired service registries failed", ex);
+    }
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    cleanService.shutdownNow();
+  }
+}
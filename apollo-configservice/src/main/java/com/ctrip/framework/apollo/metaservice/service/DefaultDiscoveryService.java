@@ -0,0 +1,51 @@
+package com.ctrip.framework.apollo.metaservice.service;
+
+import com.ctrip.framework.apollo.biz.registry.DatabaseServiceRegistrar;
+import com.ctrip.framework.apollo.common.condition.ConditionalOnMissingProfile;
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Discovers the services registered to eureka.
+ */
+@Service
+@ConditionalOnMissingProfile({DatabaseServiceRegistrar.DATABASE_DISCOVERY_PROFILE,
+    KubernetesDiscoveryService.KUBERNETES_PROFILE})
+public class DefaultDiscoveryService implements DiscoveryService {
+
+  private final EurekaClient eurekaClient;
+
+  public DefaultDiscoveryService(final EurekaClient eurekaClient) {
+    this.eurekaClient = eurekaClient;
+  }
+
+  @Override
+  public List<ServiceDTO> getServiceInstances(String serviceId) {
+    Application application = eurekaClient.getApplication(serviceId);
+    if (application == null) {
+      Tracer.logEvent("Apollo.EurekaDiscovery.NotFound", serviceId);
+      return Collections.emptyList();
+    }
+    //the instances out of service, e.g. still warming up, are not returned even if eureka doesn't filter them
+    return application.getInstances().stream().filter(instance -> instance.getStatus() == InstanceStatus.UP)
+        .map(this::transformToServiceDTO).collect(Collectors.toList());
+  }
+
+  private ServiceDTO transformToServiceDTO(InstanceInfo instance) {
+    ServiceDTO service = new ServiceDTO();
+    service.setAppName(instance.getAppName());
+    service.setInstanceId(instance.getInstanceId());
+    service.setHomepageUrl(instance.getHomePageUrl());
+    service.setMetadata(instance.getMetadata());
+    return service;
+  }
+}
@@ -1,45 +1,19 @@
 package com.ctrip.framework.apollo.metaservice.service;
 
-import com.ctrip.framework.apollo.core.ServiceNameConsts;
-import com.ctrip.framework.apollo.tracer.Tracer;
-import com.netflix.appinfo.InstanceInfo;
-import com.netflix.discovery.EurekaClient;
-import com.netflix.discovery.shared.Application;
-import org.springframework.stereotype.Service;
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
 
-import java.util.Collections;
 import java.util.List;
 
-@Service
-public class DiscoveryService {
-
-  private final EurekaClient eurekaClient;
-
-  public DiscoveryService(final EurekaClient eurekaClient) {
-    this.eurekaClient = eurekaClient;
-  }
-
-  public List<InstanceInfo> getConfigServiceInstances() {
-    Application application = eurekaClient.getApplication(ServiceNameConsts.APOLLO_CONFIGSERVICE);
-    if (application == null) {
-      Tracer.logEvent("Apollo.EurekaDiscovery.NotFound", ServiceNameConsts.APOLLO_CONFIGSERVICE);
-    }
-    return application != null ? application.getInstances() : Collections.emptyList();
-  }
-
-  public List<InstanceInfo> getMetaServiceInstances() {
-    Application application = eurekaClient.getApplication(ServiceNameConsts.APOLLO_METASERVICE);
-    if (application == null) {
-      Tracer.logEvent("Apollo.EurekaDiscovery.NotFound", ServiceNameConsts.APOLLO_METASERVICE);
-    }
-    return application != null ? application.getInstances() : Collections.emptyList();
-  }
-
-  public List<InstanceInfo> getAdminServiceInstances() {
-    Application application = eurekaClient.getApplication(ServiceNameConsts.APOLLO_ADMINSERVICE);
-    if (application == null) {
-      Tracer.logEvent("Apollo.EurekaDiscovery.NotFound", ServiceNameConsts.APOLLO_ADMINSERVICE);
-    }
-    return application != null ? application.getInstances() : Collections.emptyList();
-  }
+/**
+ * The SPI to discover the meta services, config services and admin services. The eureka based
+ * {@link DefaultDiscoveryService} is used by default, {@link DatabaseDiscoveryService} is used with the
+ * database-discovery profile and {@link KubernetesDiscoveryService} is used with the kubernetes profile.
+ */
+public interface DiscoveryService {
+
+  /**
+   * @param serviceId the service id, e.g. {@link com.ctrip.framework.apollo.core.ServiceNameConsts#APOLLO_CONFIGSERVICE}
+   * @return the service instances, or empty list if none
+   */
+  List<ServiceDTO> getServiceInstances(String serviceId);
 }
@@ -0,0 +1,104 @@
+package com.ctrip.framework.apollo.metaservice.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.common.condition.ConditionalOnProfile;
+import com.ctrip.framework.apollo.core.ServiceNameConsts;
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Returns the config service and admin service urls configured by apollo.config-service.url and
+ * apollo.admin-service.url, which are usually the kubernetes services in front of the pods.
+ *
+ * <p>If apollo.kubernetes.headless-service.enabled is true, the hosts of the urls are headless services and are
+ * resolved to the addresses of the pods, one instance per pod. The addresses are cached for one second here, and the
+ * jvm dns cache should be shortened accordingly, e.g. with -Dsun.net.inetaddr.ttl=1.</p>
+ */
+@Service
+@ConditionalOnProfile(KubernetesDiscoveryService.KUBERNETES_PROFILE)
+public class KubernetesDiscoveryService implements DiscoveryService {
+  public static final String KUBERNETES_PROFILE = "kubernetes";
+  private static final Logger logger = LoggerFactory.getLogger(KubernetesDiscoveryService.class);
+  private static final long DNS_CACHE_EXPIRE_IN_MILLI = 1000;
+
+  private final BizConfig bizConfig;
+  //url -> urls of the pods
+  private final LoadingCache<String, List<String>> resolvedUrlsCache;
+
+  public KubernetesDiscoveryService(final BizConfig bizConfig) {
+    this.bizConfig = bizConfig;
+    this.resolvedUrlsCache = CacheBuilder.newBuilder()
+        .expireAfterWrite(DNS_CACHE_EXPIRE_IN_MILLI, TimeUnit.MILLISECONDS)
+        .build(new CacheLoader<String, List<String>>() {
+          @Override
+          public List<String> load(String url) {
+            return resolve(url);
+          }
+        });
+  }
+
+  @Override
+  public List<ServiceDTO> getServiceInstances(String serviceId) {
+    List<String> urls;
+    if (ServiceNameConsts.APOLLO_CONFIGSERVICE.equals(serviceId)
+        || ServiceNameConsts.APOLLO_METASERVICE.equals(serviceId)) {
+      urls = bizConfig.configServiceUrls();
+    } else if (ServiceNameConsts.APOLLO_ADMINSERVICE.equals(serviceId)) {
+      urls = bizConfig.adminServiceUrls();
+    } else {
+      urls = Collections.emptyList();
+    }
+
+    if (urls.isEmpty()) {
+      Tracer.logEvent("Apollo.KubernetesDiscovery.NotFound", serviceId);
+      return Collections.emptyList();
+    }
+
+    boolean headless = bizConfig.isKubernetesHeadlessServiceEnabled();
+    List<ServiceDTO> instances = Lists.newArrayList();
+    for (String url : urls) {
+      for (String instanceUrl : headless ? resolvedUrlsCache.getUnchecked(url) : Collections.singletonList(url)) {
+        ServiceDTO service = new ServiceDTO();
+        service.setAppName(serviceId);
+        service.setInstanceId(instanceUrl);
+        service.setHomepageUrl(instanceUrl);
+        instances.add(service);
+      }
+    }
+    return instances;
+  }
+
+  private List<String> resolve(String url) {
+    try {
+      URI uri = URI.create(url);
+      List<String> urls = Lists.newArrayList();
+      for (InetAddress address : InetAddress.getAllByName(uri.getHost())) {
+        urls.add(new URI(uri.getScheme(), uri.getUserInfo(), address.getHostAddress(), uri.getPort(), uri.getPath(),
+            uri.getQuery(), uri.getFragment()).toString());
+      }
+      return urls;
+    } catch (UnknownHostException ex) {
+      logger.warn("Resolve {} failed", url, ex);
+      Tracer.logError(ex);
+      return Collections.emptyList();
+    } catch (Throwable ex) {
+      //not a valid url, return it as is
+      logger.warn("Resolve {} failed", url, ex);
+      return Collections.singletonList(url);
+    }
+  }
+}
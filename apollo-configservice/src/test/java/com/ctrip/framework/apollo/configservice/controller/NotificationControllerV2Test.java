@@ -118,6 +118,89 @@ public class NotificationControllerV2Test {
     assertWatchKeys(watchKeysMap, deferredResult);
   }
 
+  @Test
+  public void testPollNotificationAndDrain() throws Exception {
+    String someWatchKey = "someKey";
+    int someHoldTime = 30000;
+    int someDrainWindow = 10000;
+
+    Multimap<String, String> watchKeysMap =
+        assembleMultiMap(defaultNamespace, Lists.newArrayList(someWatchKey));
+
+    String notificationAsString =
+        transformApolloConfigNotificationsToString(defaultNamespace, someNotificationId);
+
+    when(bizConfig.longPollingHoldTimeInMilli()).thenReturn(someHoldTime);
+    when(bizConfig.longPollingDrainWindowInMilli()).thenReturn(someDrainWindow);
+    when(watchKeysUtil
+        .assembleAllWatchKeys(someAppId, someCluster, Sets.newHashSet(defaultNamespace),
+            someDataCenter)).thenReturn(
+        watchKeysMap);
+
+    DeferredResult<ResponseEntity<List<ApolloConfigNotification>>>
+        deferredResult = controller
+        .pollNotification(someAppId, someCluster, notificationAsString, someDataCenter,
+            someClientIp);
+
+    assertFalse(deferredResult.hasResult());
+
+    controller.drain();
+
+    ResponseEntity<List<ApolloConfigNotification>> response =
+        (ResponseEntity<List<ApolloConfigNotification>>) deferredResult.getResult();
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals(String.valueOf(someHoldTime),
+        response.getHeaders().getFirst(ConfigConsts.LONG_POLLING_HOLD_TIME_HEADER));
+    assertEquals(String.valueOf(someDrainWindow),
+        response.getHeaders().getFirst(ConfigConsts.LONG_POLLING_DRAIN_WINDOW_HEADER));
+
+    DeferredResult<ResponseEntity<List<ApolloConfigNotification>>>
+        anotherDeferredResult = controller
+        .pollNotification(someAppId, someCluster, notificationAsString, someDataCenter,
+            someClientIp);
+
+    ResponseEntity<List<ApolloConfigNotification>> anotherResponse =
+        (ResponseEntity<List<ApolloConfigNotification>>) anotherDeferredResult.getResult();
+
+    assertEquals(HttpStatus.NOT_MODIFIED, anotherResponse.getStatusCode());
+    assertEquals(String.valueOf(someDrainWindow),
+        anotherResponse.getHeaders().getFirst(ConfigConsts.LONG_POLLING_DRAIN_WINDOW_HEADER));
+  }
+
+  @Test
+  public void testPollNotificationWhileDrainStarts() throws Exception {
+    String someWatchKey = "someKey";
+    int someDrainWindow = 10000;
+
+    Multimap<String, String> watchKeysMap =
+        assembleMultiMap(defaultNamespace, Lists.newArrayList(someWatchKey));
+
+    String notificationAsString =
+        transformApolloConfigNotificationsToString(defaultNamespace, someNotificationId);
+
+    when(bizConfig.longPollingDrainWindowInMilli()).thenReturn(someDrainWindow);
+    //the drain starts after the request passes the draining check, but before it is registered
+    when(watchKeysUtil
+        .assembleAllWatchKeys(someAppId, someCluster, Sets.newHashSet(defaultNamespace),
+            someDataCenter)).thenAnswer(invocation -> {
+      controller.drain();
+      return watchKeysMap;
+    });
+
+    DeferredResult<ResponseEntity<List<ApolloConfigNotification>>>
+        deferredResult = controller
+        .pollNotification(someAppId, someCluster, notificationAsString, someDataCenter,
+            someClientIp);
+
+    ResponseEntity<List<ApolloConfigNotification>> response =
+        (ResponseEntity<List<ApolloConfigNotification>>) deferredResult.getResult();
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals(String.valueOf(someDrainWindow),
+        response.getHeaders().getFirst(ConfigConsts.LONG_POLLING_DRAIN_WINDOW_HEADER));
+  }
+
   @Test
   public void testPollNotificationWithDefaultNamespaceAsFile() throws Exception {
     String namespace = String.format("%s.%s", defaultNamespace, "properties");
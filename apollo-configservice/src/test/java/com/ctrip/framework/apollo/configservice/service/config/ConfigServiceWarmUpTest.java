@@ -0,0 +1,106 @@
+package com.ctrip.framework.apollo.configservice.service.config;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.ReleaseMessage;
+import com.ctrip.framework.apollo.biz.repository.ReleaseMessageRepository;
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ConfigServiceWarmUpTest {
+  @Mock
+  private ConfigServiceWithCache configServiceWithCache;
+  @Mock
+  private DefaultConfigService defaultConfigService;
+  @Mock
+  private ReleaseMessageRepository releaseMessageRepository;
+  @Mock
+  private BizConfig bizConfig;
+
+  private ConfigServiceWarmUp configServiceWarmUp;
+
+  @Before
+  public void setUp() throws Exception {
+    when(bizConfig.configServiceWarmUpSize()).thenReturn(3);
+    when(bizConfig.configServiceWarmUpThreads()).thenReturn(2);
+    when(bizConfig.configServiceWarmUpTimeout()).thenReturn(10);
+    when(bizConfig.configServiceWarmUpTimeoutTimeUnit()).thenReturn(TimeUnit.SECONDS);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (configServiceWarmUp != null) {
+      configServiceWarmUp.destroy();
+    }
+  }
+
+  @Test
+  public void testWarmUp() throws Exception {
+    when(configServiceWithCache.findSnapshotKeys()).thenReturn(Lists.newArrayList("someKey"));
+    when(releaseMessageRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Lists.newArrayList(
+        assembleReleaseMessage(3, "anotherKey"), assembleReleaseMessage(2, "someKey"),
+        assembleReleaseMessage(1, "yetAnotherKey"), assembleReleaseMessage(0, "ignoredKey"))));
+    doThrow(new IllegalStateException("load failed")).when(configServiceWithCache).warmUp("yetAnotherKey");
+
+    configServiceWarmUp = new ConfigServiceWarmUp(configServiceWithCache, releaseMessageRepository, bizConfig);
+    configServiceWarmUp.afterPropertiesSet();
+
+    waitForFinished();
+
+    assertEquals(3, configServiceWarmUp.getTotal());
+    assertEquals(2, configServiceWarmUp.getWarmedUp());
+    verify(configServiceWithCache).warmUp("someKey");
+    verify(configServiceWithCache).warmUp("anotherKey");
+    verify(configServiceWithCache, never()).warmUp("ignoredKey");
+  }
+
+  @Test
+  public void testWarmUpDisabled() throws Exception {
+    when(bizConfig.configServiceWarmUpSize()).thenReturn(0);
+
+    configServiceWarmUp = new ConfigServiceWarmUp(configServiceWithCache, releaseMessageRepository, bizConfig);
+    configServiceWarmUp.afterPropertiesSet();
+
+    assertTrue(configServiceWarmUp.isFinished());
+    verify(configServiceWithCache, never()).findSnapshotKeys();
+  }
+
+  @Test
+  public void testWarmUpWithoutCache() throws Exception {
+    configServiceWarmUp = new ConfigServiceWarmUp(defaultConfigService, releaseMessageRepository, bizConfig);
+    configServiceWarmUp.afterPropertiesSet();
+
+    assertTrue(configServiceWarmUp.isFinished());
+  }
+
+  private void waitForFinished() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!configServiceWarmUp.isFinished() && System.currentTimeMillis() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    assertTrue(configServiceWarmUp.isFinished());
+  }
+
+  private ReleaseMessage assembleReleaseMessage(long id, String message) {
+    ReleaseMessage releaseMessage = new ReleaseMessage(message);
+    releaseMessage.setId(id);
+    return releaseMessage;
+  }
+}
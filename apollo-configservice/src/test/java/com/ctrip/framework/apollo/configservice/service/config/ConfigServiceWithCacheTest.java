@@ -20,6 +20,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -276,4 +277,66 @@ public class ConfigServiceWithCacheTest {
     verify(releaseMessageService, times(1)).findLatestReleaseMessageForMessages(Lists.newArrayList(someKey));
     verify(releaseService, times(1)).findLatestActiveRelease(someAppId, someClusterName, someNamespaceName);
   }
+
+  @Test
+  public void testFindLatestActiveReleaseFromSnapshot() throws Exception {
+    ConfigSnapshotStore snapshotStore = mock(ConfigSnapshotStore.class);
+    configServiceWithCache = assembleConfigServiceWithCache(snapshotStore);
+
+    when(releaseMessageService.findLatestReleaseMessageForMessages(Lists.newArrayList(someKey))).thenReturn
+        (someReleaseMessage);
+    when(someReleaseMessage.getId()).thenReturn(someNotificationId);
+    when(snapshotStore.getNotificationId(someKey)).thenReturn(someNotificationId);
+    when(snapshotStore.getRelease(someKey)).thenReturn(someRelease);
+
+    Release release = configServiceWithCache.findLatestActiveRelease(someAppId, someClusterName, someNamespaceName,
+        someNotificationMessages);
+
+    assertEquals(someRelease, release);
+    verify(releaseService, never()).findLatestActiveRelease(someAppId, someClusterName, someNamespaceName);
+  }
+
+  @Test
+  public void testFindLatestActiveReleaseWithOutdatedSnapshot() throws Exception {
+    ConfigSnapshotStore snapshotStore = mock(ConfigSnapshotStore.class);
+    configServiceWithCache = assembleConfigServiceWithCache(snapshotStore);
+
+    when(releaseMessageService.findLatestReleaseMessageForMessages(Lists.newArrayList(someKey))).thenReturn
+        (someReleaseMessage);
+    when(someReleaseMessage.getId()).thenReturn(someNotificationId);
+    when(snapshotStore.getNotificationId(someKey)).thenReturn(someNotificationId - 1);
+    when(releaseService.findLatestActiveRelease(someAppId, someClusterName, someNamespaceName)).thenReturn
+        (someRelease);
+
+    Release release = configServiceWithCache.findLatestActiveRelease(someAppId, someClusterName, someNamespaceName,
+        someNotificationMessages);
+
+    assertEquals(someRelease, release);
+    verify(snapshotStore, never()).getRelease(someKey);
+    verify(snapshotStore, times(1)).put(someKey, someNotificationId, someRelease);
+  }
+
+  @Test
+  public void testFindLatestActiveReleaseFromSnapshotWhenDatabaseFailed() throws Exception {
+    ConfigSnapshotStore snapshotStore = mock(ConfigSnapshotStore.class);
+    configServiceWithCache = assembleConfigServiceWithCache(snapshotStore);
+
+    when(releaseMessageService.findLatestReleaseMessageForMessages(Lists.newArrayList(someKey))).thenThrow(
+        new IllegalStateException("database is down"));
+    when(snapshotStore.getNotificationId(someKey)).thenReturn(someNotificationId);
+    when(snapshotStore.getRelease(someKey)).thenReturn(someRelease);
+
+    Release release = configServiceWithCache.findLatestActiveRelease(someAppId, someClusterName, someNamespaceName,
+        someNotificationMessages);
+
+    assertEquals(someRelease, release);
+  }
+
+  private ConfigServiceWithCache assembleConfigServiceWithCache(ConfigSnapshotStore snapshotStore) {
+    ConfigServiceWithCache configService = new ConfigServiceWithCache(snapshotStore);
+    ReflectionTestUtils.setField(configService, "releaseService", releaseService);
+    ReflectionTestUtils.setField(configService, "releaseMessageService", releaseMessageService);
+    configService.initialize();
+    return configService;
+  }
 }
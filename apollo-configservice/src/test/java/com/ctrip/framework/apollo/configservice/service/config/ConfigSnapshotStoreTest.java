@@ -0,0 +1,152 @@
+package com.ctrip.framework.apollo.configservice.service.config;
+
+import com.ctrip.framework.apollo.biz.entity.Release;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ConfigSnapshotStoreTest {
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final String SOME_IDENTITY = "jdbc:mysql://localhost:3306/ApolloConfigDB";
+
+  private Path directory;
+  private ConfigSnapshotStore snapshotStore;
+
+  @Before
+  public void setUp() throws Exception {
+    directory = temporaryFolder.getRoot().toPath();
+    snapshotStore = new ConfigSnapshotStore(directory, SOME_IDENTITY);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    snapshotStore.close();
+  }
+
+  @Test
+  public void testPutAndGet() throws Exception {
+    snapshotStore.put("someKey", 1, assembleRelease(1, "{\"k\":\"v1\"}"));
+    snapshotStore.put("anotherKey", 2, assembleRelease(2, "{\"k\":\"v2\"}"));
+    snapshotStore.put("someKey", 3, assembleRelease(3, "{\"k\":\"v3\"}"));
+
+    assertEquals(3L, snapshotStore.getNotificationId("someKey").longValue());
+    assertRelease(3, "{\"k\":\"v3\"}", snapshotStore.getRelease("someKey"));
+    assertRelease(2, "{\"k\":\"v2\"}", snapshotStore.getRelease("anotherKey"));
+    assertNull(snapshotStore.getNotificationId("someNotExistedKey"));
+    assertNull(snapshotStore.getRelease("someNotExistedKey"));
+
+    snapshotStore.put("anotherKey", 4, null);
+
+    assertNull(snapshotStore.getRelease("anotherKey"));
+    assertEquals(1, snapshotStore.size());
+  }
+
+  @Test
+  public void testReload() throws Exception {
+    snapshotStore.put("someKey", 1, assembleRelease(1, "{\"k\":\"v1\"}"));
+    snapshotStore.put("anotherKey", 2, assembleRelease(2, "{\"k\":\"v2\"}"));
+    snapshotStore.put("anotherKey", 3, null);
+    snapshotStore.close();
+
+    snapshotStore = new ConfigSnapshotStore(directory, SOME_IDENTITY);
+
+    assertEquals(1, snapshotStore.size());
+    assertEquals(1L, snapshotStore.getNotificationId("someKey").longValue());
+    assertRelease(1, "{\"k\":\"v1\"}", snapshotStore.getRelease("someKey"));
+    assertNull(snapshotStore.getRelease("anotherKey"));
+  }
+
+  @Test
+  public void testReloadWithPartiallyWrittenRecord() throws Exception {
+    snapshotStore.put("someKey", 1, assembleRelease(1, "{\"k\":\"v1\"}"));
+    snapshotStore.put("anotherKey", 2, assembleRelease(2, "{\"k\":\"v2\"}"));
+    snapshotStore.close();
+
+    Path logFile = directory.resolve("releases.log");
+    try (RandomAccessFile file = new RandomAccessFile(logFile.toFile(), "rw")) {
+      file.setLength(file.length() - 3);
+    }
+
+    snapshotStore = new ConfigSnapshotStore(directory, SOME_IDENTITY);
+
+    assertEquals(1, snapshotStore.size());
+    assertRelease(1, "{\"k\":\"v1\"}", snapshotStore.getRelease("someKey"));
+
+    //the log is writable after the broken record is dropped
+    snapshotStore.put("anotherKey", 3, assembleRelease(3, "{\"k\":\"v3\"}"));
+    snapshotStore.close();
+    snapshotStore = new ConfigSnapshotStore(directory, SOME_IDENTITY);
+
+    assertRelease(3, "{\"k\":\"v3\"}", snapshotStore.getRelease("anotherKey"));
+  }
+
+  @Test
+  public void testCompact() throws Exception {
+    int rounds = 3000;
+    for (int i = 1; i <= rounds; i++) {
+      snapshotStore.put("someKey", i, assembleRelease(i, "{\"k\":\"v" + i + "\"}"));
+      snapshotStore.put("anotherKey", i, assembleRelease(i, "{\"k\":\"v" + i + "\"}"));
+    }
+
+    assertEquals(2, snapshotStore.size());
+    assertRelease(rounds, "{\"k\":\"v" + rounds + "\"}", snapshotStore.getRelease("someKey"));
+    snapshotStore.close();
+
+    snapshotStore = new ConfigSnapshotStore(directory, SOME_IDENTITY);
+
+    assertRelease(rounds, "{\"k\":\"v" + rounds + "\"}", snapshotStore.getRelease("anotherKey"));
+    assertEquals(true, directory.resolve("releases.log").toFile().length() < 1000 * 100);
+  }
+
+  @Test(expected = IOException.class)
+  public void testOpenLockedSnapshot() throws Exception {
+    new ConfigSnapshotStore(directory, SOME_IDENTITY);
+  }
+
+  @Test
+  public void testReloadWithAnotherIdentity() throws Exception {
+    snapshotStore.put("someKey", 1, assembleRelease(1, "{\"k\":\"v1\"}"));
+    snapshotStore.close();
+
+    snapshotStore = new ConfigSnapshotStore(directory, "jdbc:mysql://localhost:3306/AnotherConfigDB");
+
+    assertEquals(0, snapshotStore.size());
+    assertNull(snapshotStore.getRelease("someKey"));
+    snapshotStore.close();
+
+    //the original identity doesn't get the discarded releases back
+    snapshotStore = new ConfigSnapshotStore(directory, SOME_IDENTITY);
+
+    assertEquals(0, snapshotStore.size());
+  }
+
+  private Release assembleRelease(long id, String configurations) {
+    Release release = new Release();
+    release.setId(id);
+    release.setReleaseKey("someReleaseKey" + id);
+    release.setAppId("someAppId");
+    release.setClusterName("someCluster");
+    release.setNamespaceName("someNamespace");
+    release.setConfigurations(configurations);
+    return release;
+  }
+
+  private void assertRelease(long id, String configurations, Release release) {
+    assertEquals(id, release.getId());
+    assertEquals("someReleaseKey" + id, release.getReleaseKey());
+    assertEquals("someAppId", release.getAppId());
+    assertEquals(configurations, release.getConfigurations());
+    assertNull(release.getComment());
+  }
+}
@@ -0,0 +1,84 @@
+package com.ctrip.framework.apollo.metaservice.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.biz.entity.ServiceRegistry;
+import com.ctrip.framework.apollo.biz.service.ServiceRegistryService;
+import com.ctrip.framework.apollo.configservice.ConfigServiceMetadataRegistrar;
+import com.ctrip.framework.apollo.core.ServiceNameConsts;
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DatabaseDiscoveryServiceTest {
+  @Mock
+  private ServiceRegistryService serviceRegistryService;
+  @Mock
+  private BizConfig bizConfig;
+
+  private DatabaseDiscoveryService discoveryService;
+
+  @Before
+  public void setUp() throws Exception {
+    when(bizConfig.serviceRegistryExpireInMilli()).thenReturn(3000);
+    discoveryService = new DatabaseDiscoveryService(serviceRegistryService, bizConfig);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    discoveryService.destroy();
+  }
+
+  @Test
+  public void testGetServiceInstances() throws Exception {
+    ServiceRegistry someRegistry = assembleRegistry(ServiceNameConsts.APOLLO_CONFIGSERVICE, "http://someUri/", "someDC");
+    ServiceRegistry anotherRegistry = assembleRegistry(ServiceNameConsts.APOLLO_CONFIGSERVICE, "http://anotherUri/",
+        null);
+    when(serviceRegistryService.findAliveInstances(eq(ServiceNameConsts.APOLLO_CONFIGSERVICE), anyLong()))
+        .thenReturn(Lists.newArrayList(someRegistry, anotherRegistry));
+
+    List<ServiceDTO> instances = discoveryService.getServiceInstances(ServiceNameConsts.APOLLO_CONFIGSERVICE);
+
+    assertEquals(2, instances.size());
+    assertEquals("http://someUri/", instances.get(0).getHomepageUrl());
+    assertEquals("someDC", instances.get(0).getMetadata().get(ConfigServiceMetadataRegistrar.DATA_CENTER_METADATA_KEY));
+    assertTrue(instances.get(1).getMetadata().isEmpty());
+
+    //meta services are the config services, and the instances are cached
+    assertEquals(instances, discoveryService.getServiceInstances(ServiceNameConsts.APOLLO_METASERVICE));
+    verify(serviceRegistryService, times(1)).findAliveInstances(eq(ServiceNameConsts.APOLLO_CONFIGSERVICE),
+        anyLong());
+  }
+
+  @Test
+  public void testGetServiceInstancesNotFound() throws Exception {
+    when(serviceRegistryService.findAliveInstances(eq(ServiceNameConsts.APOLLO_ADMINSERVICE), anyLong()))
+        .thenReturn(Collections.emptyList());
+
+    assertTrue(discoveryService.getServiceInstances(ServiceNameConsts.APOLLO_ADMINSERVICE).isEmpty());
+  }
+
+  private ServiceRegistry assembleRegistry(String serviceName, String uri, String dataCenter) {
+    ServiceRegistry registry = new ServiceRegistry();
+    registry.setServiceName(serviceName);
+    registry.setUri(uri);
+    registry.setDataCenter(dataCenter);
+    return registry;
+  }
+}
@@ -0,0 +1,76 @@
+package com.ctrip.framework.apollo.metaservice.service;
+
+import com.ctrip.framework.apollo.biz.config.BizConfig;
+import com.ctrip.framework.apollo.core.ServiceNameConsts;
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class KubernetesDiscoveryServiceTest {
+  private static final String SOME_CONFIG_SERVICE_URL = "http://apollo-configservice:8080";
+  private static final String SOME_ADMIN_SERVICE_URL = "http://apollo-adminservice:8090";
+
+  @Mock
+  private BizConfig bizConfig;
+
+  private KubernetesDiscoveryService discoveryService;
+
+  @Before
+  public void setUp() throws Exception {
+    when(bizConfig.configServiceUrls()).thenReturn(Lists.newArrayList(SOME_CONFIG_SERVICE_URL));
+    when(bizConfig.adminServiceUrls()).thenReturn(Lists.newArrayList(SOME_ADMIN_SERVICE_URL));
+    discoveryService = new KubernetesDiscoveryService(bizConfig);
+  }
+
+  @Test
+  public void testGetServiceInstances() throws Exception {
+    List<ServiceDTO> configServices = discoveryService.getServiceInstances(ServiceNameConsts.APOLLO_CONFIGSERVICE);
+    List<ServiceDTO> metaServices = discoveryService.getServiceInstances(ServiceNameConsts.APOLLO_METASERVICE);
+    List<ServiceDTO> adminServices = discoveryService.getServiceInstances(ServiceNameConsts.APOLLO_ADMINSERVICE);
+
+    assertEquals(1, configServices.size());
+    assertEquals(SOME_CONFIG_SERVICE_URL, configServices.get(0).getHomepageUrl());
+    assertEquals(SOME_CONFIG_SERVICE_URL, metaServices.get(0).getHomepageUrl());
+    assertEquals(SOME_ADMIN_SERVICE_URL, adminServices.get(0).getHomepageUrl());
+  }
+
+  @Test
+  public void testGetServiceInstancesNotConfigured() throws Exception {
+    when(bizConfig.adminServiceUrls()).thenReturn(Collections.emptyList());
+
+    assertTrue(discoveryService.getServiceInstances(ServiceNameConsts.APOLLO_ADMINSERVICE).isEmpty());
+    assertTrue(discoveryService.getServiceInstances("someService").isEmpty());
+  }
+
+  @Test
+  public void testResolveHeadlessService() throws Exception {
+    when(bizConfig.isKubernetesHeadlessServiceEnabled()).thenReturn(true);
+    when(bizConfig.configServiceUrls()).thenReturn(Lists.newArrayList("http://127.0.0.1:8080/"));
+
+    List<ServiceDTO> configServices = discoveryService.getServiceInstances(ServiceNameConsts.APOLLO_CONFIGSERVICE);
+
+    assertEquals(1, configServices.size());
+    assertEquals("http://127.0.0.1:8080/", configServices.get(0).getHomepageUrl());
+  }
+
+  @Test
+  public void testResolveUnknownHeadlessService() throws Exception {
+    when(bizConfig.isKubernetesHeadlessServiceEnabled()).thenReturn(true);
+    when(bizConfig.configServiceUrls()).thenReturn(Lists.newArrayList("http://some-unknown-host.invalid:8080/"));
+
+    assertFalse(discoveryService.getServiceInstances(ServiceNameConsts.APOLLO_CONFIGSERVICE).iterator().hasNext());
+  }
+}
@@ -9,4 +9,16 @@ public interface ConfigConsts {
   String CONFIG_FILE_CONTENT_KEY = "content";
   String NO_APPID_PLACEHOLDER = "ApolloNoAppIdPlaceHolder";
   long NOTIFICATION_ID_PLACEHOLDER = -1;
+  /**
+   * how long the config service holds a long polling request, in milliseconds
+   */
+  String LONG_POLLING_HOLD_TIME_HEADER = "Apollo-Long-Polling-Hold-Time";
+  /**
+   * the window in milliseconds within which the clients should spread their reconnects after failures
+   */
+  String LONG_POLLING_RECONNECT_JITTER_HEADER = "Apollo-Long-Polling-Reconnect-Jitter";
+  /**
+   * the config service is draining, clients should move to other config services within the window in milliseconds
+   */
+  String LONG_POLLING_DRAIN_WINDOW_HEADER = "Apollo-Long-Polling-Drain-Window";
 }
@@ -23,6 +23,8 @@ import com.ctrip.framework.foundation.internals.ServiceBootstrap;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Set;
 
 /**
  * The meta domain will try to load the meta server address from MetaServerProviders, the default ones are:
@@ -49,7 +51,13 @@ public class MetaDomainConsts {
   private static final Logger logger = LoggerFactory.getLogger(MetaDomainConsts.class);
   // comma separated meta server address -> selected single meta server address cache
   private static final Map<String, String> selectedMetaServerAddressCache = Maps.newConcurrentMap();
+  // comma separated meta server address -> available meta server addresses ordered by response time
+  private static final Map<String, List<String>> rankedMetaServerAddressCache = Maps.newConcurrentMap();
+  private static final Set<String> pendingRefreshMetaServerAddresses = Sets.newConcurrentHashSet();
   private static final AtomicBoolean periodicRefreshStarted = new AtomicBoolean(false);
+  private static final int PROBE_DEADLINE_IN_MILLIS = 5000;
+  private static final ScheduledExecutorService refreshExecutorService =
+      Executors.newScheduledThreadPool(1, ApolloThreadFactory.create("MetaServiceLocator", true));
 
   private static final Object LOCK = new Object();
 
@@ -146,6 +154,61 @@ public class MetaDomainConsts {
     return metaAddressSelected;
   }
 
+  /**
+   * Switch to the next available meta server immediately when the selected one fails, instead of waiting for the next
+   * periodic refresh. The meta server addresses are probed again in background.
+   *
+   * @param env the env of the meta server
+   * @param failedMetaServerAddress the failed meta server address, which is returned by {@link #getDomain(Env)}
+   */
+  public static void failover(Env env, String failedMetaServerAddress) {
+    final String metaServerAddresses = metaServerAddressCache.get(env);
+    // nothing to switch to if there is only one meta server address
+    if (metaServerAddresses == null || !metaServerAddresses.contains(",")) {
+      return;
+    }
+
+    List<String> candidates = rankedMetaServerAddressCache.get(metaServerAddresses);
+    if (candidates == null || candidates.isEmpty()) {
+      candidates = splitMetaServerAddresses(metaServerAddresses);
+    }
+
+    // move the failed one to the end, so that continuous failures would go through all the meta servers
+    List<String> rotated = Lists.newArrayList(candidates);
+    if (rotated.remove(failedMetaServerAddress)) {
+      rotated.add(failedMetaServerAddress);
+    }
+    rankedMetaServerAddressCache.put(metaServerAddresses, rotated);
+
+    String selected = rotated.get(0);
+    if (!selected.equals(selectedMetaServerAddressCache.put(metaServerAddresses, selected))) {
+      Tracer.logEvent("Apollo.MetaService.Failover", selected);
+      logger.warn("Meta server {} failed, switched to {}", failedMetaServerAddress, selected);
+    }
+
+    if (pendingRefreshMetaServerAddresses.add(metaServerAddresses)) {
+      refreshExecutorService.submit(new Runnable() {
+        @Override
+        public void run() {
+          pendingRefreshMetaServerAddresses.remove(metaServerAddresses);
+          try {
+            updateMetaServerAddresses(metaServerAddresses);
+          } catch (Throwable ex) {
+            logger.warn("Refreshing meta server address failed for {}", metaServerAddresses, ex);
+          }
+        }
+      });
+    }
+  }
+
+  private static List<String> splitMetaServerAddresses(String metaServerAddresses) {
+    List<String> metaServers = Lists.newArrayList();
+    for (String address : metaServerAddresses.split(",")) {
+      metaServers.add(address.trim());
+    }
+    return metaServers;
+  }
+
   private static void updateMetaServerAddresses(String metaServerAddresses) {
     logger.debug("Selecting meta server address for: {}", metaServerAddresses);
 
@@ -153,27 +216,32 @@ public class MetaDomainConsts {
     transaction.addData("Url", metaServerAddresses);
 
     try {
-      List<String> metaServers = Lists.newArrayList(metaServerAddresses.split(","));
-      // random load balancing
+      List<String> metaServers = splitMetaServerAddresses(metaServerAddresses);
+      // random load balancing among the ones responding equally fast
       Collections.shuffle(metaServers);
 
-      boolean serverAvailable = false;
-
+      //check whether /services/config is accessible, all the meta servers are probed concurrently
+      Map<String, String> pingUrls = Maps.newLinkedHashMap();
       for (String address : metaServers) {
-        address = address.trim();
-        //check whether /services/config is accessible
-        if (NetUtil.pingUrl(address + "/services/config")) {
-          // select the first available meta server
-          selectedMetaServerAddressCache.put(metaServerAddresses, address);
-          serverAvailable = true;
-          logger.debug("Selected meta server address {} for {}", address, metaServerAddresses);
-          break;
-        }
+        pingUrls.put(address + "/services/config", address);
+      }
+      List<String> availableMetaServers = Lists.newArrayList();
+      for (String pingUrl : NetUtil.pingUrls(pingUrls.keySet(), PROBE_DEADLINE_IN_MILLIS)) {
+        availableMetaServers.add(pingUrls.get(pingUrl));
+      }
+
+      boolean serverAvailable = !availableMetaServers.isEmpty();
+
+      if (serverAvailable) {
+        // select the fastest available meta server
+        rankedMetaServerAddressCache.put(metaServerAddresses, availableMetaServers);
+        selectedMetaServerAddressCache.put(metaServerAddresses, availableMetaServers.get(0));
+        logger.debug("Selected meta server address {} for {}", availableMetaServers.get(0), metaServerAddresses);
       }
 
       // we need to make sure the map is not empty, e.g. the first update might be failed
       if (!selectedMetaServerAddressCache.containsKey(metaServerAddresses)) {
-        selectedMetaServerAddressCache.put(metaServerAddresses, metaServers.get(0).trim());
+        selectedMetaServerAddressCache.put(metaServerAddresses, metaServers.get(0));
       }
 
       if (!serverAvailable) {
@@ -191,10 +259,7 @@ public class MetaDomainConsts {
   }
 
   private static void schedulePeriodicRefresh() {
-    ScheduledExecutorService scheduledExecutorService =
-        Executors.newScheduledThreadPool(1, ApolloThreadFactory.create("MetaServiceLocator", true));
-
-    scheduledExecutorService.scheduleAtFixedRate(new Runnable() {
+    refreshExecutorService.scheduleAtFixedRate(new Runnable() {
       @Override
       public void run() {
         try {
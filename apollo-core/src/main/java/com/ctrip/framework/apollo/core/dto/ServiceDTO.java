@@ -1,5 +1,7 @@
 package com.ctrip.framework.apollo.core.dto;
 
+import java.util.Map;
+
 public class ServiceDTO {
 
   private String appName;
@@ -8,6 +10,8 @@ public class ServiceDTO {
 
   private String homepageUrl;
 
+  private Map<String, String> metadata;
+
   public String getAppName() {
     return appName;
   }
@@ -20,6 +24,10 @@ public class ServiceDTO {
     return instanceId;
   }
 
+  public Map<String, String> getMetadata() {
+    return metadata;
+  }
+
   public void setAppName(String appName) {
     this.appName = appName;
   }
@@ -32,12 +40,17 @@ public class ServiceDTO {
     this.instanceId = instanceId;
   }
 
+  public void setMetadata(Map<String, String> metadata) {
+    this.metadata = metadata;
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder("ServiceDTO{");
     sb.append("appName='").append(appName).append('\'');
     sb.append(", instanceId='").append(instanceId).append('\'');
     sb.append(", homepageUrl='").append(homepageUrl).append('\'');
+    sb.append(", metadata=").append(metadata);
     sb.append('}');
     return sb.toString();
   }
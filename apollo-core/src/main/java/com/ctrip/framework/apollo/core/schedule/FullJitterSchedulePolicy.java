@@ -0,0 +1,25 @@
+package com.ctrip.framework.apollo.core.schedule;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter, the delay time is randomly picked between 0 and the exponential delay time, so
+ * that the clients failed at the same time won't retry in lockstep.
+ */
+public class FullJitterSchedulePolicy implements SchedulePolicy {
+  private final ExponentialSchedulePolicy exponentialSchedulePolicy;
+
+  public FullJitterSchedulePolicy(long delayTimeLowerBound, long delayTimeUpperBound) {
+    this.exponentialSchedulePolicy = new ExponentialSchedulePolicy(delayTimeLowerBound, delayTimeUpperBound);
+  }
+
+  @Override
+  public long fail() {
+    return ThreadLocalRandom.current().nextLong(exponentialSchedulePolicy.fail() + 1);
+  }
+
+  @Override
+  public void success() {
+    exponentialSchedulePolicy.success();
+  }
+}
@@ -1,5 +1,6 @@
 package com.ctrip.framework.apollo.core.utils;
 
+import com.google.common.collect.Lists;
 import com.google.common.io.CharStreams;
 import java.io.IOException;
 import java.io.InputStream;
@@ -7,6 +8,15 @@ import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created by gl49 on 2018/6/8.
@@ -14,18 +24,70 @@ import java.nio.charset.StandardCharsets;
 public class NetUtil {
 
   private static final int DEFAULT_TIMEOUT_IN_SECONDS = 5000;
+  private static final ExecutorService pingExecutorService = Executors
+      .newCachedThreadPool(ApolloThreadFactory.create("NetUtil", true));
 
   /**
    * ping the url, return true if ping ok, false otherwise
    */
   public static boolean pingUrl(String address) {
+    return pingUrl(address, DEFAULT_TIMEOUT_IN_SECONDS);
+  }
+
+  /**
+   * ping the urls concurrently, return the available ones ordered by their response time. The urls which could not
+   * respond within the deadline are regarded as unavailable, so the time spent is bounded by the deadline no matter how
+   * many urls are not reachable.
+   */
+  public static List<String> pingUrls(Collection<String> addresses, final int deadlineInMillis) {
+    List<String> available = Lists.newArrayListWithCapacity(addresses.size());
+    if (addresses.isEmpty()) {
+      return available;
+    }
+
+    CompletionService<String> completionService = new ExecutorCompletionService<>(pingExecutorService);
+    List<Future<String>> futures = Lists.newArrayListWithCapacity(addresses.size());
+    for (final String address : addresses) {
+      futures.add(completionService.submit(new Callable<String>() {
+        @Override
+        public String call() throws Exception {
+          return pingUrl(address, deadlineInMillis) ? address : null;
+        }
+      }));
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineInMillis);
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        Future<String> future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        if (future == null) {
+          break;
+        }
+        String address = future.get();
+        if (address != null) {
+          available.add(address);
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (Throwable ex) {
+      //ignore, pingUrl never throws
+    } finally {
+      for (Future<String> future : futures) {
+        future.cancel(true);
+      }
+    }
+    return available;
+  }
+
+  private static boolean pingUrl(String address, int timeoutInMillis) {
     try {
       URL urlObj = new URL(address);
       HttpURLConnection connection = (HttpURLConnection) urlObj.openConnection();
       connection.setRequestMethod("GET");
       connection.setUseCaches(false);
-      connection.setConnectTimeout(DEFAULT_TIMEOUT_IN_SECONDS);
-      connection.setReadTimeout(DEFAULT_TIMEOUT_IN_SECONDS);
+      connection.setConnectTimeout(timeoutInMillis);
+      connection.setReadTimeout(timeoutInMillis);
       int statusCode = connection.getResponseCode();
       cleanUpConnection(connection);
       return (200 <= statusCode && statusCode <= 399);
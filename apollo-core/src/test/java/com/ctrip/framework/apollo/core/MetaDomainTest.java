@@ -56,6 +56,32 @@ public class MetaDomainTest extends BaseIntegrationTest {
     assertTrue(metaServer.equals(invalidServer.trim()) || metaServer.equals(anotherInvalidServer.trim()));
   }
 
+  @Test
+  public void testFailover() throws Exception {
+    String someInvalidServer = "http://localhost:" + findFreePort();
+    String anotherInvalidServer = "http://localhost:" + findFreePort();
+
+    MockMetaServerProvider.mock(Env.FWS, someInvalidServer + "," + anotherInvalidServer);
+
+    String metaServer = MetaDomainConsts.getDomain(Env.FWS);
+    String anotherMetaServer = metaServer.equals(someInvalidServer) ? anotherInvalidServer : someInvalidServer;
+
+    MetaDomainConsts.failover(Env.FWS, metaServer);
+
+    assertEquals(anotherMetaServer, MetaDomainConsts.getDomain(Env.FWS));
+
+    MetaDomainConsts.failover(Env.FWS, anotherMetaServer);
+
+    assertEquals(metaServer, MetaDomainConsts.getDomain(Env.FWS));
+  }
+
+  @Test
+  public void testFailoverWithSingleAddress() throws Exception {
+    MetaDomainConsts.failover(Env.DEV, "http://dev:8080");
+
+    assertEquals("http://dev:8080", MetaDomainConsts.getDomain(Env.DEV));
+  }
+
   public static class MockMetaServerProvider implements MetaServerProvider {
 
     private static Map<Env, String> mockMetaServerAddress = Maps.newHashMap();
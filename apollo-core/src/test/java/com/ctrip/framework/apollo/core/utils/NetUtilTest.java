@@ -1,9 +1,12 @@
 package com.ctrip.framework.apollo.core.utils;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import com.ctrip.framework.apollo.BaseIntegrationTest;
+import com.google.common.collect.Lists;
+import java.util.Collections;
 import javax.servlet.http.HttpServletResponse;
 import org.eclipse.jetty.server.handler.ContextHandler;
 import org.junit.Test;
@@ -34,4 +37,18 @@ public class NetUtilTest extends BaseIntegrationTest {
   public void testPingUrlWithServerNotStarted() throws Exception {
     assertFalse(NetUtil.pingUrl("http://localhost:" + PORT));
   }
+
+  @Test
+  public void testPingUrls() throws Exception {
+    startServerWithHandlers(mockServerHandler(HttpServletResponse.SC_OK, "some response"));
+
+    String validUrl = "http://localhost:" + PORT;
+    String invalidUrl = "http://localhost:" + findFreePort();
+    String anotherInvalidUrl = "http://localhost:" + findFreePort();
+
+    assertEquals(Collections.singletonList(validUrl),
+        NetUtil.pingUrls(Lists.newArrayList(invalidUrl, validUrl, anotherInvalidUrl), 5000));
+    assertTrue(NetUtil.pingUrls(Lists.newArrayList(invalidUrl, anotherInvalidUrl), 5000).isEmpty());
+    assertTrue(NetUtil.pingUrls(Collections.<String>emptyList(), 5000).isEmpty());
+  }
 }
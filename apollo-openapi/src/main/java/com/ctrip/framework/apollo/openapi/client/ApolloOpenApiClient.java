@@ -5,6 +5,7 @@ import com.ctrip.framework.apollo.openapi.client.service.AppOpenApiService;
 import com.ctrip.framework.apollo.openapi.client.service.ItemOpenApiService;
 import com.ctrip.framework.apollo.openapi.client.service.NamespaceOpenApiService;
 import com.ctrip.framework.apollo.openapi.client.service.ReleaseOpenApiService;
+import com.ctrip.framework.apollo.openapi.dto.NamespaceBatchReleaseDTO;
 import com.ctrip.framework.apollo.openapi.dto.NamespaceReleaseDTO;
 import com.ctrip.framework.apollo.openapi.dto.OpenAppDTO;
 import com.ctrip.framework.apollo.openapi.dto.OpenAppNamespaceDTO;
@@ -13,6 +14,8 @@ import com.ctrip.framework.apollo.openapi.dto.OpenItemDTO;
 import com.ctrip.framework.apollo.openapi.dto.OpenNamespaceDTO;
 import com.ctrip.framework.apollo.openapi.dto.OpenNamespaceLockDTO;
 import com.ctrip.framework.apollo.openapi.dto.OpenReleaseDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseDiffDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseTargetResultDTO;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
@@ -155,6 +158,15 @@ public class ApolloOpenApiClient {
     return releaseService.publishNamespace(appId, env, clusterName, namespaceName, releaseDTO);
   }
 
+  /**
+   * publish namespace to several envs and clusters concurrently
+   * @return the result of each target, in the same order as the targets
+   */
+  public List<OpenReleaseTargetResultDTO> batchPublishNamespace(String appId, String namespaceName,
+      NamespaceBatchReleaseDTO releaseDTO) {
+    return releaseService.batchPublishNamespace(appId, namespaceName, releaseDTO);
+  }
+
   /**
    * @return the latest active release information or <code>null</code> if not found
    */
@@ -162,6 +174,17 @@ public class ApolloOpenApiClient {
     return releaseService.getLatestActiveRelease(appId, env, clusterName, namespaceName);
   }
 
+  /**
+   * compare two releases of the namespace, only the changed keys are returned
+   *
+   * @param baseReleaseId      0 means an empty release
+   * @param toCompareReleaseId 0 means an empty release
+   */
+  public OpenReleaseDiffDTO compareReleases(String appId, String env, String clusterName, String namespaceName,
+      long baseReleaseId, long toCompareReleaseId) {
+    return releaseService.compareReleases(appId, env, clusterName, namespaceName, baseReleaseId, toCompareReleaseId);
+  }
+
 
   public String getPortalUrl() {
     return portalUrl;
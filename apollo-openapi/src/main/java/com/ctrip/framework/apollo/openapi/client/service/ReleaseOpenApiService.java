@@ -1,15 +1,25 @@
 package com.ctrip.framework.apollo.openapi.client.service;
 
 import com.ctrip.framework.apollo.core.ConfigConsts;
+import com.ctrip.framework.apollo.openapi.dto.NamespaceBatchReleaseDTO;
 import com.ctrip.framework.apollo.openapi.dto.NamespaceReleaseDTO;
 import com.ctrip.framework.apollo.openapi.dto.OpenReleaseDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseDiffDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseTargetResultDTO;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.util.List;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.util.EntityUtils;
 
 public class ReleaseOpenApiService extends AbstractOpenApiService {
+  private static final Type OPEN_RELEASE_TARGET_RESULT_DTO_LIST_TYPE =
+      new TypeToken<List<OpenReleaseTargetResultDTO>>() {
+      }.getType();
 
   public ReleaseOpenApiService(CloseableHttpClient client, String baseUrl, Gson gson) {
     super(client, baseUrl, gson);
@@ -41,6 +51,30 @@ public class ReleaseOpenApiService extends AbstractOpenApiService {
     }
   }
 
+  public List<OpenReleaseTargetResultDTO> batchPublishNamespace(String appId, String namespaceName,
+      NamespaceBatchReleaseDTO releaseDTO) {
+    if (Strings.isNullOrEmpty(namespaceName)) {
+      namespaceName = ConfigConsts.NAMESPACE_APPLICATION;
+    }
+
+    checkNotEmpty(appId, "App id");
+    checkNotEmpty(releaseDTO.getReleaseTitle(), "Release title");
+    checkNotEmpty(releaseDTO.getReleasedBy(), "Released by");
+    Preconditions.checkArgument(releaseDTO.getTargets() != null && !releaseDTO.getTargets().isEmpty(),
+        "Targets should not be empty");
+
+    String path = String.format("apps/%s/namespaces/%s/releases/batch", escapePath(appId),
+        escapePath(namespaceName));
+
+    try (CloseableHttpResponse response = post(path, releaseDTO)) {
+      return gson.fromJson(EntityUtils.toString(response.getEntity()), OPEN_RELEASE_TARGET_RESULT_DTO_LIST_TYPE);
+    } catch (Throwable ex) {
+      throw new RuntimeException(String
+          .format("Batch release namespace: %s for appId: %s to %d targets failed", namespaceName, appId,
+              releaseDTO.getTargets().size()), ex);
+    }
+  }
+
   public OpenReleaseDTO getLatestActiveRelease(String appId, String env, String clusterName, String namespaceName) {
     if (Strings.isNullOrEmpty(clusterName)) {
       clusterName = ConfigConsts.CLUSTER_NAME_DEFAULT;
@@ -64,4 +98,35 @@ public class ReleaseOpenApiService extends AbstractOpenApiService {
     }
   }
 
+  /**
+   * @param baseReleaseId      0 means an empty release
+   * @param toCompareReleaseId 0 means an empty release
+   */
+  public OpenReleaseDiffDTO compareReleases(String appId, String env, String clusterName, String namespaceName,
+      long baseReleaseId, long toCompareReleaseId) {
+    if (Strings.isNullOrEmpty(clusterName)) {
+      clusterName = ConfigConsts.CLUSTER_NAME_DEFAULT;
+    }
+    if (Strings.isNullOrEmpty(namespaceName)) {
+      namespaceName = ConfigConsts.NAMESPACE_APPLICATION;
+    }
+
+    checkNotEmpty(appId, "App id");
+    checkNotEmpty(env, "Env");
+    Preconditions.checkArgument(baseReleaseId != 0 || toCompareReleaseId != 0,
+        "Base release id and to compare release id should not be both 0");
+
+    String path = String.format("envs/%s/apps/%s/clusters/%s/namespaces/%s/releases/compare?baseReleaseId=%d"
+            + "&toCompareReleaseId=%d", escapePath(env), escapePath(appId), escapePath(clusterName),
+        escapePath(namespaceName), baseReleaseId, toCompareReleaseId);
+
+    try (CloseableHttpResponse response = get(path)) {
+      return gson.fromJson(EntityUtils.toString(response.getEntity()), OpenReleaseDiffDTO.class);
+    } catch (Throwable ex) {
+      throw new RuntimeException(String
+          .format("Compare releases %d and %d for appId: %s, cluster: %s, namespace: %s in env: %s failed",
+              baseReleaseId, toCompareReleaseId, appId, clusterName, namespaceName, env), ex);
+    }
+  }
+
 }
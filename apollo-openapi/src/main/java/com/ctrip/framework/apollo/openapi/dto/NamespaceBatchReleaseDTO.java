@@ -0,0 +1,16 @@
+package com.ctrip.framework.apollo.openapi.dto;
+
+import java.util.List;
+
+public class NamespaceBatchReleaseDTO extends NamespaceReleaseDTO {
+
+  private List<OpenReleaseTargetDTO> targets;
+
+  public List<OpenReleaseTargetDTO> getTargets() {
+    return targets;
+  }
+
+  public void setTargets(List<OpenReleaseTargetDTO> targets) {
+    this.targets = targets;
+  }
+}
@@ -0,0 +1,56 @@
+package com.ctrip.framework.apollo.openapi.dto;
+
+import java.util.List;
+
+public class OpenReleaseDiffDTO {
+
+  private String appId;
+
+  private String namespaceName;
+
+  private long baseReleaseId;
+
+  private long toCompareReleaseId;
+
+  private List<OpenReleaseItemChangeDTO> changes;
+
+  public String getAppId() {
+    return appId;
+  }
+
+  public void setAppId(String appId) {
+    this.appId = appId;
+  }
+
+  public String getNamespaceName() {
+    return namespaceName;
+  }
+
+  public void setNamespaceName(String namespaceName) {
+    this.namespaceName = namespaceName;
+  }
+
+  public long getBaseReleaseId() {
+    return baseReleaseId;
+  }
+
+  public void setBaseReleaseId(long baseReleaseId) {
+    this.baseReleaseId = baseReleaseId;
+  }
+
+  public long getToCompareReleaseId() {
+    return toCompareReleaseId;
+  }
+
+  public void setToCompareReleaseId(long toCompareReleaseId) {
+    this.toCompareReleaseId = toCompareReleaseId;
+  }
+
+  public List<OpenReleaseItemChangeDTO> getChanges() {
+    return changes;
+  }
+
+  public void setChanges(List<OpenReleaseItemChangeDTO> changes) {
+    this.changes = changes;
+  }
+}
@@ -0,0 +1,47 @@
+package com.ctrip.framework.apollo.openapi.dto;
+
+public class OpenReleaseItemChangeDTO {
+
+  /**
+   * ADDED, MODIFIED or DELETED
+   */
+  private String type;
+
+  private String key;
+
+  private String oldValue;
+
+  private String newValue;
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public void setKey(String key) {
+    this.key = key;
+  }
+
+  public String getOldValue() {
+    return oldValue;
+  }
+
+  public void setOldValue(String oldValue) {
+    this.oldValue = oldValue;
+  }
+
+  public String getNewValue() {
+    return newValue;
+  }
+
+  public void setNewValue(String newValue) {
+    this.newValue = newValue;
+  }
+}
@@ -0,0 +1,32 @@
+package com.ctrip.framework.apollo.openapi.dto;
+
+public class OpenReleaseTargetDTO {
+
+  private String env;
+
+  private String clusterName;
+
+  public OpenReleaseTargetDTO() {
+  }
+
+  public OpenReleaseTargetDTO(String env, String clusterName) {
+    this.env = env;
+    this.clusterName = clusterName;
+  }
+
+  public String getEnv() {
+    return env;
+  }
+
+  public void setEnv(String env) {
+    this.env = env;
+  }
+
+  public String getClusterName() {
+    return clusterName;
+  }
+
+  public void setClusterName(String clusterName) {
+    this.clusterName = clusterName;
+  }
+}
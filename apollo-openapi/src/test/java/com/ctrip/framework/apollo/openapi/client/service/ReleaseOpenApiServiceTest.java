@@ -5,7 +5,12 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.ctrip.framework.apollo.openapi.dto.NamespaceBatchReleaseDTO;
 import com.ctrip.framework.apollo.openapi.dto.NamespaceReleaseDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseTargetDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseTargetResultDTO;
+import com.google.common.collect.Lists;
+import java.util.List;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
@@ -74,6 +79,42 @@ public class ReleaseOpenApiServiceTest extends AbstractOpenApiServiceTest {
     releaseOpenApiService.publishNamespace(someAppId, someEnv, someCluster, someNamespace, namespaceReleaseDTO);
   }
 
+  @Test
+  public void testBatchPublishNamespace() throws Exception {
+    NamespaceBatchReleaseDTO namespaceBatchReleaseDTO = new NamespaceBatchReleaseDTO();
+    namespaceBatchReleaseDTO.setReleaseTitle("someReleaseTitle");
+    namespaceBatchReleaseDTO.setReleasedBy("someReleasedBy");
+    namespaceBatchReleaseDTO.setTargets(Lists.newArrayList(new OpenReleaseTargetDTO(someEnv, someCluster)));
+
+    when(someHttpResponse.getEntity()).thenReturn(new StringEntity("[{\"env\":\"someEnv\",\"success\":true,"
+        + "\"releaseId\":1}]"));
+
+    final ArgumentCaptor<HttpPost> request = ArgumentCaptor.forClass(HttpPost.class);
+
+    List<OpenReleaseTargetResultDTO> results = releaseOpenApiService
+        .batchPublishNamespace(someAppId, someNamespace, namespaceBatchReleaseDTO);
+
+    verify(httpClient, times(1)).execute(request.capture());
+
+    HttpPost post = request.getValue();
+
+    assertEquals(String
+        .format("%s/apps/%s/namespaces/%s/releases/batch", someBaseUrl, someAppId, someNamespace),
+        post.getURI().toString());
+    assertEquals(1, results.size());
+    assertTrue(results.get(0).isSuccess());
+    assertEquals(1, results.get(0).getReleaseId());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBatchPublishNamespaceWithoutTargets() throws Exception {
+    NamespaceBatchReleaseDTO namespaceBatchReleaseDTO = new NamespaceBatchReleaseDTO();
+    namespaceBatchReleaseDTO.setReleaseTitle("someReleaseTitle");
+    namespaceBatchReleaseDTO.setReleasedBy("someReleasedBy");
+
+    releaseOpenApiService.batchPublishNamespace(someAppId, someNamespace, namespaceBatchReleaseDTO);
+  }
+
   @Test
   public void testGetLatestActiveRelease() throws Exception {
     final ArgumentCaptor<HttpGet> request = ArgumentCaptor.forClass(HttpGet.class);
@@ -95,4 +136,28 @@ public class ReleaseOpenApiServiceTest extends AbstractOpenApiServiceTest {
 
     releaseOpenApiService.getLatestActiveRelease(someAppId, someEnv, someCluster, someNamespace);
   }
+
+  @Test
+  public void testCompareReleases() throws Exception {
+    long someBaseReleaseId = 1;
+    long someToCompareReleaseId = 2;
+    final ArgumentCaptor<HttpGet> request = ArgumentCaptor.forClass(HttpGet.class);
+
+    releaseOpenApiService.compareReleases(someAppId, someEnv, someCluster, someNamespace, someBaseReleaseId,
+        someToCompareReleaseId);
+
+    verify(httpClient, times(1)).execute(request.capture());
+
+    HttpGet get = request.getValue();
+
+    assertEquals(String
+        .format("%s/envs/%s/apps/%s/clusters/%s/namespaces/%s/releases/compare?baseReleaseId=%d&toCompareReleaseId=%d",
+            someBaseUrl, someEnv, someAppId, someCluster, someNamespace, someBaseReleaseId, someToCompareReleaseId),
+        get.getURI().toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCompareReleasesWithoutReleaseIds() throws Exception {
+    releaseOpenApiService.compareReleases(someAppId, someEnv, someCluster, someNamespace, 0, 0);
+  }
 }
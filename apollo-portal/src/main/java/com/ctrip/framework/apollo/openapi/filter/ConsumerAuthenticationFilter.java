@@ -2,6 +2,9 @@ package com.ctrip.framework.apollo.openapi.filter;
 
 import com.ctrip.framework.apollo.openapi.util.ConsumerAuditUtil;
 import com.ctrip.framework.apollo.openapi.util.ConsumerAuthUtil;
+import com.ctrip.framework.apollo.openapi.util.ConsumerRateLimiter;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
 
@@ -20,10 +23,13 @@ import javax.servlet.http.HttpServletResponse;
 public class ConsumerAuthenticationFilter implements Filter {
   private ConsumerAuthUtil consumerAuthUtil;
   private ConsumerAuditUtil consumerAuditUtil;
+  private ConsumerRateLimiter consumerRateLimiter;
 
-  public ConsumerAuthenticationFilter(ConsumerAuthUtil consumerAuthUtil, ConsumerAuditUtil consumerAuditUtil) {
+  public ConsumerAuthenticationFilter(ConsumerAuthUtil consumerAuthUtil, ConsumerAuditUtil consumerAuditUtil,
+                                      ConsumerRateLimiter consumerRateLimiter) {
     this.consumerAuthUtil = consumerAuthUtil;
     this.consumerAuditUtil = consumerAuditUtil;
+    this.consumerRateLimiter = consumerRateLimiter;
   }
 
   @Override
@@ -46,6 +52,13 @@ public class ConsumerAuthenticationFilter implements Filter {
       return;
     }
 
+    Tracer.logEvent("Apollo.OpenApi.Consumer", String.valueOf(consumerId));
+    if (!consumerRateLimiter.tryAcquire(consumerId)) {
+      Tracer.logEvent("Apollo.OpenApi.Throttled", String.valueOf(consumerId));
+      response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests");
+      return;
+    }
+
     consumerAuthUtil.storeConsumerId(request, consumerId);
     consumerAuditUtil.audit(request, consumerId);
 
@@ -16,10 +16,13 @@ import com.ctrip.framework.apollo.portal.service.RolePermissionService;
 import com.ctrip.framework.apollo.portal.spi.UserInfoHolder;
 import com.ctrip.framework.apollo.portal.spi.UserService;
 import com.ctrip.framework.apollo.portal.util.RoleUtils;
+import com.ctrip.framework.apollo.tracer.Tracer;
 import com.google.common.base.Charsets;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.hash.Hashing;
 import org.apache.commons.lang.time.FastDateFormat;
 import org.springframework.stereotype.Service;
@@ -28,6 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Jason Song(song_s@ctrip.com)
@@ -37,6 +41,7 @@ public class ConsumerService {
 
   private static final FastDateFormat TIMESTAMP_FORMAT = FastDateFormat.getInstance("yyyyMMddHHmmss");
   private static final Joiner KEY_JOINER = Joiner.on("|");
+  private static final String TOKEN_CACHE = "Apollo.ConsumerToken";
 
   private final UserInfoHolder userInfoHolder;
   private final ConsumerTokenRepository consumerTokenRepository;
@@ -46,6 +51,9 @@ public class ConsumerService {
   private final PortalConfig portalConfig;
   private final RolePermissionService rolePermissionService;
   private final UserService userService;
+  private final Cache<String, CachedConsumerId> consumerIdCache;
+  //invalid token -> the time until which it is rejected without checking database
+  private final Cache<String, Long> invalidTokenCache;
 
   public ConsumerService(
       final UserInfoHolder userInfoHolder,
@@ -64,6 +72,12 @@ public class ConsumerService {
     this.portalConfig = portalConfig;
     this.rolePermissionService = rolePermissionService;
     this.userService = userService;
+    this.consumerIdCache = CacheBuilder.newBuilder()
+        .maximumSize(Math.max(0, portalConfig.consumerTokenCacheSize()))
+        .build();
+    this.invalidTokenCache = CacheBuilder.newBuilder()
+        .maximumSize(Math.max(0, portalConfig.consumerTokenNegativeCacheSize()))
+        .build();
   }
 
 
@@ -95,7 +109,9 @@ public class ConsumerService {
     ConsumerToken consumerToken = generateConsumerToken(consumer, expires);
     consumerToken.setId(0);
 
-    return consumerTokenRepository.save(consumerToken);
+    ConsumerToken saved = consumerTokenRepository.save(consumerToken);
+    invalidateConsumerToken(saved.getToken());
+    return saved;
   }
 
   public ConsumerToken getConsumerTokenByAppId(String appId) {
@@ -111,9 +127,44 @@ public class ConsumerService {
     if (Strings.isNullOrEmpty(token)) {
       return null;
     }
+
+    long now = System.currentTimeMillis();
+    CachedConsumerId cached = consumerIdCache.getIfPresent(token);
+    if (cached != null && cached.validUntil > now) {
+      Tracer.logEvent(TOKEN_CACHE, "Hit");
+      return cached.consumerId;
+    }
+    Long invalidUntil = invalidTokenCache.getIfPresent(token);
+    if (invalidUntil != null && invalidUntil > now) {
+      Tracer.logEvent(TOKEN_CACHE, "NegativeHit");
+      return null;
+    }
+
+    Tracer.logEvent(TOKEN_CACHE, "Miss");
     ConsumerToken consumerToken = consumerTokenRepository.findTopByTokenAndExpiresAfter(token,
-                                                                                        new Date());
-    return consumerToken == null ? null : consumerToken.getConsumerId();
+                                                                                        new Date(now));
+    if (consumerToken == null) {
+      invalidTokenCache.put(token,
+          now + TimeUnit.SECONDS.toMillis(portalConfig.consumerTokenNegativeCacheExpireInSeconds()));
+      return null;
+    }
+
+    long validUntil = now + TimeUnit.SECONDS.toMillis(portalConfig.consumerTokenCacheExpireInSeconds());
+    if (consumerToken.getExpires() != null) {
+      validUntil = Math.min(validUntil, consumerToken.getExpires().getTime());
+    }
+    consumerIdCache.put(token, new CachedConsumerId(consumerToken.getConsumerId(), validUntil));
+    return consumerToken.getConsumerId();
+  }
+
+  /**
+   * Drop the cached verification result of the token, should be called when the token is created or revoked
+   */
+  public void invalidateConsumerToken(String token) {
+    if (!Strings.isNullOrEmpty(token)) {
+      consumerIdCache.invalidate(token);
+      invalidTokenCache.invalidate(token);
+    }
   }
 
   public Consumer getConsumerByConsumerId(long consumerId) {
@@ -192,7 +243,9 @@ public class ConsumerService {
   public ConsumerToken createConsumerToken(ConsumerToken entity) {
     entity.setId(0); //for protection
 
-    return consumerTokenRepository.save(entity);
+    ConsumerToken saved = consumerTokenRepository.save(entity);
+    invalidateConsumerToken(saved.getToken());
+    return saved;
   }
 
   private ConsumerToken generateConsumerToken(Consumer consumer, Date expires) {
@@ -241,4 +294,13 @@ public class ConsumerService {
     return consumerRole;
   }
 
+  private static class CachedConsumerId {
+    private final long consumerId;
+    private final long validUntil;
+
+    CachedConsumerId(long consumerId, long validUntil) {
+      this.consumerId = consumerId;
+      this.validUntil = validUntil;
+    }
+  }
 }
@@ -0,0 +1,48 @@
+package com.ctrip.framework.apollo.openapi.util;
+
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.RateLimiter;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the open api requests of each consumer, so that one noisy consumer won't starve the portal
+ */
+@Service
+public class ConsumerRateLimiter {
+  private final PortalConfig portalConfig;
+  private final LoadingCache<Long, RateLimiter> rateLimiters;
+
+  public ConsumerRateLimiter(final PortalConfig portalConfig) {
+    this.portalConfig = portalConfig;
+    this.rateLimiters = CacheBuilder.newBuilder()
+        .expireAfterAccess(1, TimeUnit.HOURS)
+        .build(new CacheLoader<Long, RateLimiter>() {
+          @Override
+          public RateLimiter load(Long consumerId) {
+            return RateLimiter.create(portalConfig.consumerRateLimitQps());
+          }
+        });
+  }
+
+  /**
+   * @return whether the request of the consumer is allowed
+   */
+  public boolean tryAcquire(long consumerId) {
+    int qps = portalConfig.consumerRateLimitQps();
+    if (qps <= 0) {
+      return true;
+    }
+
+    RateLimiter rateLimiter = rateLimiters.getUnchecked(consumerId);
+    //the limit is changed at runtime
+    if (rateLimiter.getRate() != qps) {
+      rateLimiter.setRate(qps);
+    }
+    return rateLimiter.tryAcquire();
+  }
+}
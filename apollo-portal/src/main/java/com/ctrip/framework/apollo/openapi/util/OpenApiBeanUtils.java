@@ -5,6 +5,7 @@ import com.ctrip.framework.apollo.common.dto.GrayReleaseRuleItemDTO;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.dto.NamespaceLockDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseDiffDTO;
 import com.ctrip.framework.apollo.common.entity.App;
 import com.ctrip.framework.apollo.common.entity.AppNamespace;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
@@ -16,8 +17,12 @@ import com.ctrip.framework.apollo.openapi.dto.OpenItemDTO;
 import com.ctrip.framework.apollo.openapi.dto.OpenNamespaceDTO;
 import com.ctrip.framework.apollo.openapi.dto.OpenNamespaceLockDTO;
 import com.ctrip.framework.apollo.openapi.dto.OpenReleaseDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseDiffDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseItemChangeDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseTargetResultDTO;
 import com.ctrip.framework.apollo.portal.entity.bo.ItemBO;
 import com.ctrip.framework.apollo.portal.entity.bo.NamespaceBO;
+import com.ctrip.framework.apollo.portal.entity.vo.ReleaseTargetResult;
 import com.google.common.base.Preconditions;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
@@ -57,6 +62,21 @@ public class OpenApiBeanUtils {
     return BeanUtils.transform(AppNamespace.class, openAppNamespaceDTO);
   }
 
+  public static OpenReleaseTargetResultDTO transformFromReleaseTargetResult(ReleaseTargetResult result) {
+    Preconditions.checkArgument(result != null);
+    OpenReleaseTargetResultDTO resultDTO = new OpenReleaseTargetResultDTO();
+    resultDTO.setEnv(result.getTarget().getEnv().toString());
+    resultDTO.setClusterName(result.getTarget().getClusterName());
+    resultDTO.setNamespaceName(result.getTarget().getNamespaceName());
+    resultDTO.setSuccess(result.isSuccess());
+    resultDTO.setMessage(result.getMessage());
+    if (result.isSuccess()) {
+      resultDTO.setReleaseId(result.getRelease().getId());
+      resultDTO.setReleaseName(result.getRelease().getName());
+    }
+    return resultDTO;
+  }
+
   public static OpenReleaseDTO transformFromReleaseDTO(ReleaseDTO release) {
     Preconditions.checkArgument(release != null);
 
@@ -68,6 +88,14 @@ public class OpenApiBeanUtils {
     return openReleaseDTO;
   }
 
+  public static OpenReleaseDiffDTO transformFromReleaseDiffDTO(ReleaseDiffDTO releaseDiff) {
+    Preconditions.checkArgument(releaseDiff != null);
+
+    OpenReleaseDiffDTO openReleaseDiffDTO = BeanUtils.transform(OpenReleaseDiffDTO.class, releaseDiff);
+    openReleaseDiffDTO.setChanges(BeanUtils.batchTransform(OpenReleaseItemChangeDTO.class, releaseDiff.getChanges()));
+    return openReleaseDiffDTO;
+  }
+
   public static OpenNamespaceDTO transformFromNamespaceBO(NamespaceBO namespaceBO) {
     Preconditions.checkArgument(namespaceBO != null);
 
@@ -0,0 +1,104 @@
+package com.ctrip.framework.apollo.openapi.v1.controller;
+
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
+import com.ctrip.framework.apollo.common.utils.BeanUtils;
+import com.ctrip.framework.apollo.common.utils.RequestPrecondition;
+import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.core.utils.StringUtils;
+import com.ctrip.framework.apollo.openapi.auth.ConsumerPermissionValidator;
+import com.ctrip.framework.apollo.openapi.dto.NamespaceBatchReleaseDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseTargetDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseTargetResultDTO;
+import com.ctrip.framework.apollo.openapi.util.OpenApiBeanUtils;
+import com.ctrip.framework.apollo.portal.entity.model.NamespaceReleaseModel;
+import com.ctrip.framework.apollo.portal.entity.vo.NamespaceIdentifier;
+import com.ctrip.framework.apollo.portal.service.BatchReleaseService;
+import com.ctrip.framework.apollo.portal.spi.UserService;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController("openapiBatchReleaseController")
+@RequestMapping("/openapi/v1")
+public class BatchReleaseController {
+  private static final int MAX_TARGETS = 100;
+
+  private final BatchReleaseService batchReleaseService;
+  private final UserService userService;
+  private final ConsumerPermissionValidator consumerPermissionValidator;
+
+  public BatchReleaseController(
+      final BatchReleaseService batchReleaseService,
+      final UserService userService,
+      final ConsumerPermissionValidator consumerPermissionValidator) {
+    this.batchReleaseService = batchReleaseService;
+    this.userService = userService;
+    this.consumerPermissionValidator = consumerPermissionValidator;
+  }
+
+  /**
+   * Publish the namespace to several envs and clusters concurrently, the result of each target is returned in the
+   * same order as the targets and a failed target doesn't affect the others.
+   */
+  @PostMapping(value = "/apps/{appId}/namespaces/{namespaceName}/releases/batch")
+  public List<OpenReleaseTargetResultDTO> createReleases(@PathVariable String appId,
+                                                         @PathVariable String namespaceName,
+                                                         @RequestBody NamespaceBatchReleaseDTO model,
+                                                         HttpServletRequest request) {
+    RequestPrecondition.checkArguments(!StringUtils.isContainEmpty(model.getReleasedBy(), model
+            .getReleaseTitle()),
+        "Params(releaseTitle and releasedBy) can not be empty");
+    RequestPrecondition.checkArguments(!CollectionUtils.isEmpty(model.getTargets()),
+        "Params(targets) can not be empty");
+    RequestPrecondition.checkArguments(model.getTargets().size() <= MAX_TARGETS,
+        String.format("Params(targets) can not be more than %d", MAX_TARGETS));
+
+    if (userService.findByUserId(model.getReleasedBy()) == null) {
+      throw new BadRequestException("user(releaseBy) not exists");
+    }
+
+    List<NamespaceIdentifier> targets = model.getTargets().stream()
+        .map(target -> transformToNamespaceIdentifier(appId, namespaceName, target))
+        .collect(Collectors.toList());
+
+    Set<String> envsNoPermission = new LinkedHashSet<>();
+    for (NamespaceIdentifier target : targets) {
+      String env = target.getEnv().toString();
+      if (!consumerPermissionValidator.hasReleaseNamespacePermission(request, appId, namespaceName, env)) {
+        envsNoPermission.add(env);
+      }
+    }
+    if (!envsNoPermission.isEmpty()) {
+      throw new AccessDeniedException(String.format("No release permission in env: %s", envsNoPermission));
+    }
+
+    NamespaceReleaseModel releaseModel = BeanUtils.transform(NamespaceReleaseModel.class, model);
+
+    return batchReleaseService.publish(releaseModel, targets).stream()
+        .map(OpenApiBeanUtils::transformFromReleaseTargetResult)
+        .collect(Collectors.toList());
+  }
+
+  private NamespaceIdentifier transformToNamespaceIdentifier(String appId, String namespaceName,
+                                                             OpenReleaseTargetDTO target) {
+    RequestPrecondition.checkArguments(target != null && !StringUtils.isContainEmpty(target.getEnv(),
+        target.getClusterName()), "Params(env and clusterName) of targets can not be empty");
+
+    NamespaceIdentifier namespaceIdentifier = new NamespaceIdentifier();
+    namespaceIdentifier.setAppId(appId);
+    namespaceIdentifier.setEnv(Env.fromString(target.getEnv()).toString());
+    namespaceIdentifier.setClusterName(target.getClusterName());
+    namespaceIdentifier.setNamespaceName(namespaceName);
+    return namespaceIdentifier;
+  }
+}
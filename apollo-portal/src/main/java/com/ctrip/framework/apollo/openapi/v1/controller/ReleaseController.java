@@ -1,6 +1,7 @@
 package com.ctrip.framework.apollo.openapi.v1.controller;
 
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseDiffDTO;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
 import com.ctrip.framework.apollo.common.utils.RequestPrecondition;
@@ -9,6 +10,7 @@ import com.ctrip.framework.apollo.core.utils.StringUtils;
 import com.ctrip.framework.apollo.openapi.dto.NamespaceGrayDelReleaseDTO;
 import com.ctrip.framework.apollo.openapi.dto.NamespaceReleaseDTO;
 import com.ctrip.framework.apollo.openapi.dto.OpenReleaseDTO;
+import com.ctrip.framework.apollo.openapi.dto.OpenReleaseDiffDTO;
 import com.ctrip.framework.apollo.openapi.util.OpenApiBeanUtils;
 import com.ctrip.framework.apollo.portal.entity.model.NamespaceGrayDelReleaseModel;
 import com.ctrip.framework.apollo.portal.entity.model.NamespaceReleaseModel;
@@ -83,6 +85,28 @@ public class ReleaseController {
     return OpenApiBeanUtils.transformFromReleaseDTO(releaseDTO);
   }
 
+  /**
+   * @param baseReleaseId      0 means an empty release
+   * @param toCompareReleaseId 0 means an empty release
+   */
+  @GetMapping(value = "/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/compare")
+  public OpenReleaseDiffDTO compareReleases(@PathVariable String appId, @PathVariable String env,
+                                            @PathVariable String clusterName, @PathVariable String namespaceName,
+                                            @RequestParam long baseReleaseId,
+                                            @RequestParam long toCompareReleaseId) {
+    RequestPrecondition.checkArguments(baseReleaseId != 0 || toCompareReleaseId != 0,
+        "Params(baseReleaseId and toCompareReleaseId) can not be both 0");
+
+    ReleaseDiffDTO releaseDiff = releaseService.findReleaseDiff(Env.fromString(env), baseReleaseId,
+        toCompareReleaseId);
+    if (!appId.equals(releaseDiff.getAppId()) || !namespaceName.equals(releaseDiff.getNamespaceName())) {
+      throw new BadRequestException(String.format("releases don't belong to appId:%s, namespaceName:%s", appId,
+          namespaceName));
+    }
+
+    return OpenApiBeanUtils.transformFromReleaseDiffDTO(releaseDiff);
+  }
+
     @PreAuthorize(value = "@consumerPermissionValidator.hasReleaseNamespacePermission(#request, #appId, #namespaceName, #env)")
     @PostMapping(value = "/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/branches/{branchName}/merge")
     public OpenReleaseDTO merge(@PathVariable String appId, @PathVariable String env,
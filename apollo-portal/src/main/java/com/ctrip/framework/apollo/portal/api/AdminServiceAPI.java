@@ -5,14 +5,17 @@ import com.ctrip.framework.apollo.common.dto.AppDTO;
 import com.ctrip.framework.apollo.common.dto.AppNamespaceDTO;
 import com.ctrip.framework.apollo.common.dto.ClusterDTO;
 import com.ctrip.framework.apollo.common.dto.CommitDTO;
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.common.dto.GrayReleaseRuleDTO;
 import com.ctrip.framework.apollo.common.dto.InstanceDTO;
 import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.dto.NamespaceDTO;
+import com.ctrip.framework.apollo.common.dto.NamespaceItemsDTO;
 import com.ctrip.framework.apollo.common.dto.NamespaceLockDTO;
 import com.ctrip.framework.apollo.common.dto.PageDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseDiffDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseHistoryDTO;
 import com.ctrip.framework.apollo.core.enums.Env;
 import com.google.common.base.Joiner;
@@ -159,6 +162,12 @@ public class AdminServiceAPI {
       return Arrays.asList(itemDTOs);
     }
 
+    public NamespaceItemsDTO findNamespaceItems(String appId, Env env, String clusterName, String namespaceName) {
+      return restTemplate.get(env,
+          "apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/items-with-namespace",
+          NamespaceItemsDTO.class, appId, clusterName, namespaceName);
+    }
+
     public ItemDTO loadItem(Env env, String appId, String clusterName, String namespaceName, String key) {
       return restTemplate.get(env, "apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/items/{key}",
           ItemDTO.class, appId, clusterName, namespaceName, key);
@@ -224,10 +233,22 @@ public class AdminServiceAPI {
 
     private static final Joiner JOINER = Joiner.on(",");
 
+    private ParameterizedTypeReference<CursorPageDTO<ReleaseDTO>> cursorPageReleaseDtoType =
+        new ParameterizedTypeReference<CursorPageDTO<ReleaseDTO>>() {
+        };
+
     public ReleaseDTO loadRelease(Env env, long releaseId) {
       return restTemplate.get(env, "releases/{releaseId}", ReleaseDTO.class, releaseId);
     }
 
+    /**
+     * the diff is computed and cached in admin service, so the configurations of the releases are not transferred
+     */
+    public ReleaseDiffDTO compareReleases(Env env, long baseReleaseId, long toCompareReleaseId) {
+      return restTemplate.get(env, "releases/compare?baseReleaseId={baseReleaseId}&toCompareReleaseId={toCompareReleaseId}",
+          ReleaseDiffDTO.class, baseReleaseId, toCompareReleaseId);
+    }
+
     public List<ReleaseDTO> findReleaseByIds(Env env, Set<Long> releaseIds) {
       if (CollectionUtils.isEmpty(releaseIds)) {
         return Collections.emptyList();
@@ -259,6 +280,26 @@ public class AdminServiceAPI {
       return Arrays.asList(releaseDTOs);
     }
 
+    /**
+     * @param cursor the id of the last release in the previous page, null for the first page
+     */
+    public CursorPageDTO<ReleaseDTO> findAllReleasesByCursor(String appId, Env env, String clusterName,
+        String namespaceName, Long cursor, int size) {
+      return restTemplate.get(env,
+          "apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/all/cursor?cursor={cursor}&size={size}",
+          cursorPageReleaseDtoType, appId, clusterName, namespaceName, cursor, size).getBody();
+    }
+
+    /**
+     * @param cursor the id of the last release in the previous page, null for the first page
+     */
+    public CursorPageDTO<ReleaseDTO> findActiveReleasesByCursor(String appId, Env env, String clusterName,
+        String namespaceName, Long cursor, int size) {
+      return restTemplate.get(env,
+          "apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/active/cursor?cursor={cursor}&size={size}",
+          cursorPageReleaseDtoType, appId, clusterName, namespaceName, cursor, size).getBody();
+    }
+
     public ReleaseDTO loadLatestRelease(String appId, Env env, String clusterName,
         String namespace) {
       ReleaseDTO releaseDTO = restTemplate
@@ -327,6 +368,10 @@ public class AdminServiceAPI {
   @Service
   public static class CommitAPI extends API {
 
+    private ParameterizedTypeReference<CursorPageDTO<CommitDTO>> cursorPageCommitDtoType =
+        new ParameterizedTypeReference<CursorPageDTO<CommitDTO>>() {
+        };
+
     public List<CommitDTO> find(String appId, Env env, String clusterName, String namespaceName, int page, int size) {
 
       CommitDTO[] commitDTOs = restTemplate.get(env,
@@ -336,6 +381,16 @@ public class AdminServiceAPI {
 
       return Arrays.asList(commitDTOs);
     }
+
+    /**
+     * @param cursor the id of the last commit in the previous page, null for the first page
+     */
+    public CursorPageDTO<CommitDTO> findByCursor(String appId, Env env, String clusterName, String namespaceName,
+        Long cursor, int size) {
+      return restTemplate.get(env,
+          "apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/commit/cursor?cursor={cursor}&size={size}",
+          cursorPageCommitDtoType, appId, clusterName, namespaceName, cursor, size).getBody();
+    }
   }
 
   @Service
@@ -453,6 +508,10 @@ public class AdminServiceAPI {
         new ParameterizedTypeReference<PageDTO<ReleaseHistoryDTO>>() {
         };
 
+    private ParameterizedTypeReference<CursorPageDTO<ReleaseHistoryDTO>> cursorPageType =
+        new ParameterizedTypeReference<CursorPageDTO<ReleaseHistoryDTO>>() {
+        };
+
 
     public PageDTO<ReleaseHistoryDTO> findReleaseHistoriesByNamespace(String appId, Env env, String clusterName,
         String namespaceName, int page, int size) {
@@ -461,6 +520,38 @@ public class AdminServiceAPI {
           type, appId, clusterName, namespaceName, page, size).getBody();
     }
 
+    /**
+     * the release histories with the title and comment of their releases, but without the release configurations
+     */
+    public PageDTO<ReleaseHistoryDTO> findReleaseHistorySummariesByNamespace(String appId, Env env,
+        String clusterName, String namespaceName, int page, int size) {
+      return restTemplate.get(env,
+          "/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories/summaries?page={page}&size={size}",
+          type, appId, clusterName, namespaceName, page, size).getBody();
+    }
+
+    /**
+     * @param cursor the id of the last release history in the previous page, null for the first page
+     */
+    public CursorPageDTO<ReleaseHistoryDTO> findReleaseHistoriesByNamespaceAndCursor(String appId, Env env,
+        String clusterName, String namespaceName, Long cursor, int size) {
+      return restTemplate.get(env,
+          "/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories/cursor?cursor={cursor}&size={size}",
+          cursorPageType, appId, clusterName, namespaceName, cursor, size).getBody();
+    }
+
+    /**
+     * the cursor variant of {@link #findReleaseHistorySummariesByNamespace}
+     *
+     * @param cursor the id of the last release history in the previous page, null for the first page
+     */
+    public CursorPageDTO<ReleaseHistoryDTO> findReleaseHistorySummariesByNamespaceAndCursor(String appId, Env env,
+        String clusterName, String namespaceName, Long cursor, int size) {
+      return restTemplate.get(env,
+          "/apps/{appId}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories/summaries/cursor?cursor={cursor}&size={size}",
+          cursorPageType, appId, clusterName, namespaceName, cursor, size).getBody();
+    }
+
     public PageDTO<ReleaseHistoryDTO> findByReleaseIdAndOperation(Env env, long releaseId, int operation, int page,
         int size) {
       return restTemplate.get(env,
@@ -18,7 +18,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -33,6 +35,7 @@ public class AdminServiceAddressLocator {
   private static final Logger logger = LoggerFactory.getLogger(AdminServiceAddressLocator.class);
 
   private ScheduledExecutorService refreshServiceAddressService;
+  private ExecutorService refreshEnvService;
   private RestTemplate restTemplate;
   private List<Env> allEnvs;
   private Map<Env, List<ServiceDTO>> cache = new ConcurrentHashMap<>();
@@ -57,6 +60,8 @@ public class AdminServiceAddressLocator {
 
     refreshServiceAddressService =
         Executors.newScheduledThreadPool(1, ApolloThreadFactory.create("ServiceLocator", true));
+    refreshEnvService = Executors.newFixedThreadPool(Math.max(1, allEnvs.size()),
+        ApolloThreadFactory.create("ServiceLocatorRefresh", true));
 
     refreshServiceAddressService.schedule(new RefreshAdminServerAddressTask(), 1, TimeUnit.MILLISECONDS);
   }
@@ -76,10 +81,16 @@ public class AdminServiceAddressLocator {
 
     @Override
     public void run() {
+      //refresh envs concurrently, so one slow meta server doesn't delay the others
+      List<CompletableFuture<Boolean>> futures = Lists.newArrayListWithCapacity(allEnvs.size());
+      for (Env env : allEnvs) {
+        futures.add(CompletableFuture.supplyAsync(() -> refreshServerAddressCache(env), refreshEnvService));
+      }
+
       boolean refreshSuccess = true;
       //refresh fail if get any env address fail
-      for (Env env : allEnvs) {
-        boolean currentEnvRefreshResult = refreshServerAddressCache(env);
+      for (CompletableFuture<Boolean> future : futures) {
+        boolean currentEnvRefreshResult = future.join();
         refreshSuccess = refreshSuccess && currentEnvRefreshResult;
       }
 
@@ -96,9 +107,9 @@ public class AdminServiceAddressLocator {
   private boolean refreshServerAddressCache(Env env) {
 
     for (int i = 0; i < RETRY_TIMES; i++) {
-
+      String domainName = MetaDomainConsts.getDomain(env);
       try {
-        ServiceDTO[] services = getAdminServerAddress(env);
+        ServiceDTO[] services = getAdminServerAddress(domainName);
         if (services == null || services.length == 0) {
           continue;
         }
@@ -106,17 +117,18 @@ public class AdminServiceAddressLocator {
         return true;
       } catch (Throwable e) {
         logger.error(String.format("Get admin server address from meta server failed. env: %s, meta server address:%s",
-                                   env, MetaDomainConsts.getDomain(env)), e);
+                                   env, domainName), e);
         Tracer
             .logError(String.format("Get admin server address from meta server failed. env: %s, meta server address:%s",
-                                    env, MetaDomainConsts.getDomain(env)), e);
+                                    env, domainName), e);
+        //retry with another meta server if there are multiple ones
+        MetaDomainConsts.failover(env, domainName);
       }
     }
     return false;
   }
 
-  private ServiceDTO[] getAdminServerAddress(Env env) {
-    String domainName = MetaDomainConsts.getDomain(env);
+  private ServiceDTO[] getAdminServerAddress(String domainName) {
     String url = domainName + ADMIN_SERVICE_URL_PATH;
     return restTemplate.getForObject(url, ServiceDTO[].class);
   }
@@ -0,0 +1,190 @@
+package com.ctrip.framework.apollo.portal.component;
+
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.ctrip.framework.apollo.portal.constant.TracerEventType;
+import com.ctrip.framework.apollo.portal.entity.vo.AdminServiceLatencyInfo;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.collect.Lists;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the response time and failures of each admin service, which are used to prefer the fast admin services and
+ * to eject the unhealthy ones for a while.
+ */
+@Component
+public class AdminServiceLatencyTracker {
+
+  private static final double EWMA_ALPHA = 0.3;
+  private static final int MAX_SAMPLES = 100;
+  private static final int MIN_SAMPLES_FOR_HEDGE = 10;
+  private static final int EJECT_AFTER_CONSECUTIVE_FAILURES = 3;
+  private static final long EJECT_DURATION = TimeUnit.SECONDS.toMillis(30);
+  private static final double OUTLIER_FACTOR = 3;
+  private static final long OUTLIER_MIN_LATENCY = 500;
+  private static final long MIN_HEDGE_DELAY = 50;
+
+  //homepage url -> stats
+  private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+  /**
+   * Order the admin services for the next request: the faster one of the first two healthy services goes first (power
+   * of two choices, so the load is still spread), and the ejected or latency outlier services go last, which are only
+   * used when all the others fail.
+   */
+  public List<ServiceDTO> prioritize(List<ServiceDTO> services) {
+    long now = System.currentTimeMillis();
+
+    double bestLatency = Double.MAX_VALUE;
+    for (ServiceDTO service : services) {
+      EndpointStats endpointStats = stats.get(service.getHomepageUrl());
+      if (endpointStats != null && endpointStats.hasSamples() && !endpointStats.isEjected(now)) {
+        bestLatency = Math.min(bestLatency, endpointStats.getEwma());
+      }
+    }
+
+    List<ServiceDTO> healthy = Lists.newArrayListWithCapacity(services.size());
+    List<ServiceDTO> unhealthy = Lists.newArrayList();
+    for (ServiceDTO service : services) {
+      EndpointStats endpointStats = stats.get(service.getHomepageUrl());
+      if (endpointStats != null && (endpointStats.isEjected(now) || isLatencyOutlier(endpointStats, bestLatency))) {
+        unhealthy.add(service);
+      } else {
+        healthy.add(service);
+      }
+    }
+
+    if (healthy.isEmpty()) {
+      return services;
+    }
+
+    if (healthy.size() >= 2 && ewma(healthy.get(1)) < ewma(healthy.get(0))) {
+      Collections.swap(healthy, 0, 1);
+    }
+
+    healthy.addAll(unhealthy);
+    return healthy;
+  }
+
+  public void recordSuccess(ServiceDTO service, long latency) {
+    getOrCreate(service).recordSuccess(latency);
+  }
+
+  public void recordFailure(ServiceDTO service) {
+    if (getOrCreate(service).recordFailure(System.currentTimeMillis())) {
+      Tracer.logEvent(TracerEventType.API_EJECT, service.getHomepageUrl());
+    }
+  }
+
+  /**
+   * @return the delay before sending a hedged request, which is the p95 latency of the service, or the max delay if
+   * there are not enough samples yet
+   */
+  public long hedgeDelay(ServiceDTO service, long maxDelay) {
+    EndpointStats endpointStats = stats.get(service.getHomepageUrl());
+    if (endpointStats == null || endpointStats.getSampleCount() < MIN_SAMPLES_FOR_HEDGE) {
+      return maxDelay;
+    }
+    return Math.min(maxDelay, Math.max(MIN_HEDGE_DELAY, endpointStats.percentile(0.95)));
+  }
+
+  public List<AdminServiceLatencyInfo> getLatencyInfos() {
+    long now = System.currentTimeMillis();
+    List<AdminServiceLatencyInfo> infos = Lists.newArrayListWithCapacity(stats.size());
+    for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+      EndpointStats endpointStats = entry.getValue();
+      AdminServiceLatencyInfo info = new AdminServiceLatencyInfo();
+      info.setHomepageUrl(entry.getKey());
+      info.setEwmaLatency(Math.round(endpointStats.getEwma()));
+      info.setP95Latency(endpointStats.percentile(0.95));
+      info.setConsecutiveFailures(endpointStats.getConsecutiveFailures());
+      info.setEjected(endpointStats.isEjected(now));
+      infos.add(info);
+    }
+    return infos;
+  }
+
+  private boolean isLatencyOutlier(EndpointStats endpointStats, double bestLatency) {
+    if (!endpointStats.hasSamples() || bestLatency == Double.MAX_VALUE) {
+      return false;
+    }
+    double latency = endpointStats.getEwma();
+    return latency > OUTLIER_MIN_LATENCY && latency > bestLatency * OUTLIER_FACTOR;
+  }
+
+  private double ewma(ServiceDTO service) {
+    EndpointStats endpointStats = stats.get(service.getHomepageUrl());
+    //the services without samples are preferred, so that they are probed
+    return endpointStats == null ? 0 : endpointStats.getEwma();
+  }
+
+  private EndpointStats getOrCreate(ServiceDTO service) {
+    return stats.computeIfAbsent(service.getHomepageUrl(), url -> new EndpointStats());
+  }
+
+  private static class EndpointStats {
+    private final long[] samples = new long[MAX_SAMPLES];
+    private int sampleCount;
+    private int nextSample;
+    private double ewma;
+    private int consecutiveFailures;
+    private long ejectedUntil;
+
+    synchronized void recordSuccess(long latency) {
+      ewma = sampleCount == 0 ? latency : EWMA_ALPHA * latency + (1 - EWMA_ALPHA) * ewma;
+      samples[nextSample] = latency;
+      nextSample = (nextSample + 1) % MAX_SAMPLES;
+      sampleCount = Math.min(sampleCount + 1, MAX_SAMPLES);
+      consecutiveFailures = 0;
+    }
+
+    /**
+     * @return whether the endpoint is ejected because of this failure
+     */
+    synchronized boolean recordFailure(long now) {
+      consecutiveFailures++;
+      if (consecutiveFailures >= EJECT_AFTER_CONSECUTIVE_FAILURES) {
+        consecutiveFailures = 0;
+        ejectedUntil = now + EJECT_DURATION;
+        return true;
+      }
+      return false;
+    }
+
+    synchronized boolean isEjected(long now) {
+      return now < ejectedUntil;
+    }
+
+    synchronized boolean hasSamples() {
+      return sampleCount > 0;
+    }
+
+    synchronized int getSampleCount() {
+      return sampleCount;
+    }
+
+    synchronized double getEwma() {
+      return ewma;
+    }
+
+    synchronized int getConsecutiveFailures() {
+      return consecutiveFailures;
+    }
+
+    synchronized long percentile(double percentile) {
+      if (sampleCount == 0) {
+        return 0;
+      }
+      long[] sorted = Arrays.copyOf(samples, sampleCount);
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile * sampleCount) - 1;
+      return sorted[Math.max(0, index)];
+    }
+  }
+}
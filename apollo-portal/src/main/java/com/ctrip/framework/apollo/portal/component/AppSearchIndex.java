@@ -0,0 +1,370 @@
+package com.ctrip.framework.apollo.portal.component;
+
+import com.ctrip.framework.apollo.common.dto.PageDTO;
+import com.ctrip.framework.apollo.common.entity.App;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
+import com.ctrip.framework.apollo.portal.listener.AppCreationEvent;
+import com.ctrip.framework.apollo.portal.listener.AppDeletionEvent;
+import com.ctrip.framework.apollo.portal.listener.AppInfoChangedEvent;
+import com.ctrip.framework.apollo.portal.repository.AppRepository;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory trigram index over app id, name, org and owner of all apps, so that the portal doesn't need to ship the
+ * whole app table to the browser to search an app.
+ *
+ * <p>The index is an immutable snapshot replaced on every change: app changes of this portal instance are kept as
+ * pending changes on top of the indexed apps, and folded into the index when there are too many of them or when the
+ * index is rebuilt periodically, which also picks up the changes of other portal instances.</p>
+ */
+@Component
+public class AppSearchIndex implements InitializingBean, DisposableBean {
+  private static final Logger logger = LoggerFactory.getLogger(AppSearchIndex.class);
+  private static final int GRAM_SIZE = 3;
+  private static final int MAX_PENDING_CHANGES = 256;
+  private static final char FIELD_SEPARATOR = '\n';
+
+  private final AppRepository appRepository;
+  private final PortalConfig portalConfig;
+  private final ScheduledExecutorService executorService;
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+  private long changeSequence;
+
+  public AppSearchIndex(final AppRepository appRepository, final PortalConfig portalConfig) {
+    this.appRepository = appRepository;
+    this.portalConfig = portalConfig;
+    this.executorService = Executors.newSingleThreadScheduledExecutor(
+        ApolloThreadFactory.create("AppSearchIndex", true));
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    int interval = portalConfig.appSearchIndexRebuildInterval();
+    executorService.scheduleWithFixedDelay(this::rebuildSafely, 0, interval, TimeUnit.SECONDS);
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    executorService.shutdownNow();
+  }
+
+  @EventListener
+  public void onAppCreation(AppCreationEvent event) {
+    put(event.getApp());
+  }
+
+  @EventListener
+  public void onAppInfoChange(AppInfoChangedEvent event) {
+    put(event.getApp());
+  }
+
+  @EventListener
+  public void onAppDeletion(AppDeletionEvent event) {
+    remove(event.getApp().getAppId());
+  }
+
+  public synchronized void put(App app) {
+    applyChange(app.getAppId(), new IndexedApp(app));
+  }
+
+  public synchronized void remove(String appId) {
+    applyChange(appId, null);
+  }
+
+  /**
+   * Search the apps whose app id, name, org or owner contains the query, ignoring case. The apps whose app id or name
+   * starts with the query come first, and at most {@link PortalConfig#appSearchResultCap()} apps are matched.
+   */
+  public PageDTO<App> search(String query, Pageable pageable) {
+    String keyword = Strings.nullToEmpty(query).trim().toLowerCase(Locale.ROOT);
+    Snapshot current = snapshot;
+
+    List<IndexedApp> matches = new ArrayList<>();
+    for (IndexedApp app : current.candidates(keyword)) {
+      if (!current.changes.containsKey(app.appId) && app.matches(keyword)) {
+        matches.add(app);
+      }
+    }
+    for (PendingChange change : current.changes.values()) {
+      if (change.app != null && change.app.matches(keyword)) {
+        matches.add(change.app);
+      }
+    }
+
+    matches.sort(Comparator.comparingInt((IndexedApp app) -> app.rank(keyword))
+        .thenComparing(app -> app.appId));
+
+    int total = Math.min(matches.size(), Math.max(0, portalConfig.appSearchResultCap()));
+    int from = (int) Math.min(pageable.getOffset(), total);
+    int to = Math.min(from + pageable.getPageSize(), total);
+
+    List<App> content = new ArrayList<>(to - from);
+    for (IndexedApp app : matches.subList(from, to)) {
+      content.add(app.app);
+    }
+    return new PageDTO<>(content, pageable, total);
+  }
+
+  public int size() {
+    Snapshot current = snapshot;
+    int size = current.apps.size();
+    for (Map.Entry<String, PendingChange> change : current.changes.entrySet()) {
+      boolean indexed = current.positions.containsKey(change.getKey());
+      if (indexed && change.getValue().app == null) {
+        size--;
+      } else if (!indexed && change.getValue().app != null) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  void rebuild() {
+    Transaction transaction = Tracer.newTransaction("Apollo.AppSearchIndex", "rebuild");
+    try {
+      long startSequence;
+      synchronized (this) {
+        startSequence = changeSequence;
+      }
+
+      List<IndexedApp> apps = new ArrayList<>();
+      for (App app : appRepository.findAll()) {
+        apps.add(new IndexedApp(app));
+      }
+
+      synchronized (this) {
+        //keep the changes happened during loading, they might not be seen by the query
+        Map<String, PendingChange> changes = new HashMap<>();
+        for (Map.Entry<String, PendingChange> change : snapshot.changes.entrySet()) {
+          if (change.getValue().sequence > startSequence) {
+            changes.put(change.getKey(), change.getValue());
+          }
+        }
+        snapshot = Snapshot.build(apps, changes);
+      }
+
+      Tracer.logEvent("Apollo.AppSearchIndex.Size", String.valueOf(apps.size()));
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      throw ex;
+    } finally {
+      transaction.complete();
+    }
+  }
+
+  private void rebuildSafely() {
+    try {
+      rebuild();
+    } catch (Throwable ex) {
+      logger.error("Rebuild app search index failed", ex);
+      Tracer.logError(ex);
+    }
+  }
+
+  private void applyChange(String appId, IndexedApp app) {
+    Map<String, PendingChange> changes = new HashMap<>(snapshot.changes);
+    changes.put(appId, new PendingChange(app, ++changeSequence));
+
+    if (changes.size() <= MAX_PENDING_CHANGES) {
+      snapshot = new Snapshot(snapshot.apps, snapshot.positions, snapshot.postings, changes);
+      return;
+    }
+
+    //fold the pending changes into the index
+    Map<String, IndexedApp> merged = new HashMap<>();
+    for (IndexedApp indexed : snapshot.apps) {
+      merged.put(indexed.appId, indexed);
+    }
+    for (Map.Entry<String, PendingChange> change : changes.entrySet()) {
+      if (change.getValue().app == null) {
+        merged.remove(change.getKey());
+      } else {
+        merged.put(change.getKey(), change.getValue().app);
+      }
+    }
+    snapshot = Snapshot.build(new ArrayList<>(merged.values()), Collections.emptyMap());
+  }
+
+  private static Set<String> grams(String text) {
+    Set<String> grams = new LinkedHashSet<>();
+    for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+      grams.add(text.substring(i, i + GRAM_SIZE));
+    }
+    return grams;
+  }
+
+  private static class Snapshot {
+    private static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), Collections.emptyMap(),
+        Collections.emptyMap(), Collections.emptyMap());
+
+    //apps sorted by app id, the postings refer to the positions in this list
+    private final List<IndexedApp> apps;
+    private final Map<String, Integer> positions;
+    private final Map<String, int[]> postings;
+    private final Map<String, PendingChange> changes;
+
+    private Snapshot(List<IndexedApp> apps, Map<String, Integer> positions, Map<String, int[]> postings,
+                     Map<String, PendingChange> changes) {
+      this.apps = apps;
+      this.positions = positions;
+      this.postings = postings;
+      this.changes = changes;
+    }
+
+    static Snapshot build(List<IndexedApp> apps, Map<String, PendingChange> changes) {
+      apps.sort(Comparator.comparing(app -> app.appId));
+
+      Map<String, Integer> positions = new HashMap<>(apps.size() * 2);
+      Map<String, IntArrayBuilder> builders = new HashMap<>();
+      for (int i = 0; i < apps.size(); i++) {
+        IndexedApp app = apps.get(i);
+        positions.put(app.appId, i);
+        for (String gram : grams(app.searchText)) {
+          builders.computeIfAbsent(gram, key -> new IntArrayBuilder()).add(i);
+        }
+      }
+
+      Map<String, int[]> postings = new HashMap<>(builders.size() * 2);
+      builders.forEach((gram, builder) -> postings.put(gram, builder.toArray()));
+
+      return new Snapshot(Collections.unmodifiableList(apps), positions, postings, ImmutableMap.copyOf(changes));
+    }
+
+    /**
+     * @return the indexed apps which might contain the keyword, short keywords are matched against all apps
+     */
+    List<IndexedApp> candidates(String keyword) {
+      if (keyword.length() < GRAM_SIZE) {
+        return apps;
+      }
+
+      List<int[]> lists = new ArrayList<>();
+      for (String gram : grams(keyword)) {
+        int[] positions = postings.get(gram);
+        if (positions == null) {
+          return Collections.emptyList();
+        }
+        lists.add(positions);
+      }
+      lists.sort(Comparator.comparingInt(positions -> positions.length));
+
+      int[] result = lists.get(0);
+      for (int i = 1; i < lists.size() && result.length > 0; i++) {
+        result = intersect(result, lists.get(i));
+      }
+
+      List<IndexedApp> candidates = Lists.newArrayListWithCapacity(result.length);
+      for (int position : result) {
+        candidates.add(apps.get(position));
+      }
+      return candidates;
+    }
+
+    private static int[] intersect(int[] first, int[] second) {
+      int[] result = new int[Math.min(first.length, second.length)];
+      int i = 0, j = 0, size = 0;
+      while (i < first.length && j < second.length) {
+        if (first[i] < second[j]) {
+          i++;
+        } else if (first[i] > second[j]) {
+          j++;
+        } else {
+          result[size++] = first[i];
+          i++;
+          j++;
+        }
+      }
+      return Arrays.copyOf(result, size);
+    }
+  }
+
+  private static class IndexedApp {
+    private final App app;
+    private final String appId;
+    private final String lowerCaseAppId;
+    private final String lowerCaseName;
+    private final String searchText;
+
+    IndexedApp(App app) {
+      this.app = app;
+      this.appId = app.getAppId();
+      this.lowerCaseAppId = Strings.nullToEmpty(appId).toLowerCase(Locale.ROOT);
+      this.lowerCaseName = Strings.nullToEmpty(app.getName()).toLowerCase(Locale.ROOT);
+      this.searchText = String.join(String.valueOf(FIELD_SEPARATOR), lowerCaseAppId, lowerCaseName,
+          Strings.nullToEmpty(app.getOrgId()).toLowerCase(Locale.ROOT),
+          Strings.nullToEmpty(app.getOrgName()).toLowerCase(Locale.ROOT),
+          Strings.nullToEmpty(app.getOwnerName()).toLowerCase(Locale.ROOT));
+    }
+
+    boolean matches(String keyword) {
+      return searchText.contains(keyword);
+    }
+
+    int rank(String keyword) {
+      if (lowerCaseAppId.equals(keyword)) {
+        return 0;
+      }
+      if (lowerCaseAppId.startsWith(keyword)) {
+        return 1;
+      }
+      if (lowerCaseName.startsWith(keyword)) {
+        return 2;
+      }
+      return 3;
+    }
+  }
+
+  private static class PendingChange {
+    //null means the app is deleted
+    private final IndexedApp app;
+    private final long sequence;
+
+    PendingChange(IndexedApp app, long sequence) {
+      this.app = app;
+      this.sequence = sequence;
+    }
+  }
+
+  private static class IntArrayBuilder {
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
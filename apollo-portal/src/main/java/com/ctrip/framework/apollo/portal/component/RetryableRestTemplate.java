@@ -4,9 +4,12 @@ import com.ctrip.framework.apollo.common.exception.ServiceException;
 import com.ctrip.framework.apollo.core.MetaDomainConsts;
 import com.ctrip.framework.apollo.core.dto.ServiceDTO;
 import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
 import com.ctrip.framework.apollo.portal.constant.TracerEventType;
 import com.ctrip.framework.apollo.tracer.Tracer;
 import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.google.common.collect.Lists;
 import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.conn.HttpHostConnectException;
 import org.slf4j.Logger;
@@ -23,35 +26,66 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import org.springframework.web.util.UriTemplateHandler;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.net.SocketTimeoutException;
+import java.util.Deque;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * 封装RestTemplate. admin server集群在某些机器宕机或者超时的情况下轮询重试
+ * 优先选择响应快的admin server，并在开启时对GET请求发起对冲请求
  */
 @Component
 public class RetryableRestTemplate {
 
+  private static final int MAX_HEDGE_THREADS = 64;
+
   private Logger logger = LoggerFactory.getLogger(RetryableRestTemplate.class);
 
   private UriTemplateHandler uriTemplateHandler = new DefaultUriBuilderFactory();
 
   private RestTemplate restTemplate;
 
+  private ExecutorService hedgeExecutorService;
+
   private final RestTemplateFactory restTemplateFactory;
   private final AdminServiceAddressLocator adminServiceAddressLocator;
+  private final AdminServiceLatencyTracker latencyTracker;
+  private final PortalConfig portalConfig;
 
   public RetryableRestTemplate(
       final @Lazy RestTemplateFactory restTemplateFactory,
-      final @Lazy AdminServiceAddressLocator adminServiceAddressLocator) {
+      final @Lazy AdminServiceAddressLocator adminServiceAddressLocator,
+      final AdminServiceLatencyTracker latencyTracker,
+      final PortalConfig portalConfig) {
     this.restTemplateFactory = restTemplateFactory;
     this.adminServiceAddressLocator = adminServiceAddressLocator;
+    this.latencyTracker = latencyTracker;
+    this.portalConfig = portalConfig;
   }
 
 
   @PostConstruct
   private void postConstruct() {
     restTemplate = restTemplateFactory.getObject();
+    hedgeExecutorService = new ThreadPoolExecutor(0, MAX_HEDGE_THREADS, 60, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), ApolloThreadFactory.create("AdminAPIHedge", true));
+  }
+
+  @PreDestroy
+  private void preDestroy() {
+    hedgeExecutorService.shutdownNow();
   }
 
   public <T> T get(Env env, String path, Class<T> responseType, Object... urlVariables)
@@ -86,16 +120,38 @@ public class RetryableRestTemplate {
       path = path.substring(1, path.length());
     }
 
+    String finalPath = path;
+    return executeWithRetry(method, env, path, uriVariables,
+        serviceDTO -> doExecute(method, serviceDTO, finalPath, request, responseType, uriVariables));
+  }
+
+  private <T> ResponseEntity<T> exchangeGet(Env env, String path, ParameterizedTypeReference<T> reference,
+                                            Object... uriVariables) {
+    if (path.startsWith("/")) {
+      path = path.substring(1, path.length());
+    }
+
+    String finalPath = path;
+    return executeWithRetry(HttpMethod.GET, env, path, uriVariables, serviceDTO -> restTemplate
+        .exchange(parseHost(serviceDTO) + finalPath, HttpMethod.GET, null, reference, uriVariables));
+  }
+
+  private <T> T executeWithRetry(HttpMethod method, Env env, String path, Object[] uriVariables,
+                                 Function<ServiceDTO, T> call) {
     String uri = uriTemplateHandler.expand(path, uriVariables).getPath();
     Transaction ct = Tracer.newTransaction("AdminAPI", uri);
     ct.addData("Env", env);
 
     List<ServiceDTO> services = getAdminServices(env, ct);
+    Deque<ServiceDTO> candidates = new LinkedList<>(latencyTracker.prioritize(services));
+    //writes are never hedged since they are not idempotent
+    boolean hedge = method == HttpMethod.GET && portalConfig.isAdminServiceHedgeEnabled();
 
-    for (ServiceDTO serviceDTO : services) {
+    while (!candidates.isEmpty()) {
       try {
 
-        T result = doExecute(method, serviceDTO, path, request, responseType, uriVariables);
+        T result = hedge && candidates.size() > 1 ? hedgedCall(candidates, uri, call)
+            : timedCall(candidates.poll(), call);
 
         ct.setStatus(Transaction.SUCCESS);
         ct.complete();
@@ -122,49 +178,92 @@ public class RetryableRestTemplate {
     throw e;
   }
 
-  private <T> ResponseEntity<T> exchangeGet(Env env, String path, ParameterizedTypeReference<T> reference,
-                                            Object... uriVariables) {
-    if (path.startsWith("/")) {
-      path = path.substring(1, path.length());
+  /**
+   * Call the first candidate, and if it doesn't respond within its p95 latency, call the second candidate as well.
+   * The first successful response wins.
+   */
+  private <T> T hedgedCall(Deque<ServiceDTO> candidates, String uri, Function<ServiceDTO, T> call) {
+    ServiceDTO primary = candidates.poll();
+    CompletionService<T> completionService = new ExecutorCompletionService<>(hedgeExecutorService);
+    List<Future<T>> futures = Lists.newArrayListWithCapacity(2);
+    try {
+      futures.add(completionService.submit(() -> timedCall(primary, call)));
+    } catch (RejectedExecutionException ex) {
+      return timedCall(primary, call);
     }
 
-    String uri = uriTemplateHandler.expand(path, uriVariables).getPath();
-    Transaction ct = Tracer.newTransaction("AdminAPI", uri);
-    ct.addData("Env", env);
-
-    List<ServiceDTO> services = getAdminServices(env, ct);
-
-    for (ServiceDTO serviceDTO : services) {
-      try {
-
-        ResponseEntity<T> result =
-            restTemplate.exchange(parseHost(serviceDTO) + path, HttpMethod.GET, null, reference, uriVariables);
-
-        ct.setStatus(Transaction.SUCCESS);
-        ct.complete();
-        return result;
-      } catch (Throwable t) {
-        logger.error("Http request failed, uri: {}, method: {}", uri, HttpMethod.GET, t);
-        Tracer.logError(t);
-        if (canRetry(t, HttpMethod.GET)) {
-          Tracer.logEvent(TracerEventType.API_RETRY, uri);
-        } else {// biz exception rethrow
-          ct.setStatus(t);
-          ct.complete();
-          throw t;
+    try {
+      Future<T> completed = completionService
+          .poll(latencyTracker.hedgeDelay(primary, portalConfig.readTimeout()), TimeUnit.MILLISECONDS);
+      if (completed == null) {
+        ServiceDTO backup = candidates.peek();
+        try {
+          futures.add(completionService.submit(() -> timedCall(backup, call)));
+          candidates.poll();
+          Tracer.logEvent(TracerEventType.API_HEDGE, uri);
+        } catch (RejectedExecutionException ex) {
+          //no hedge when the executor is busy
         }
+      }
 
+      RuntimeException lastException = null;
+      for (int i = 0; i < futures.size(); i++) {
+        if (completed == null) {
+          completed = completionService.take();
+        }
+        try {
+          return completed.get();
+        } catch (ExecutionException ex) {
+          lastException = unwrap(ex);
+          if (!canRetry(lastException, HttpMethod.GET)) {
+            throw lastException;
+          }
+        }
+        completed = null;
+      }
+      throw lastException;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException("Interrupted while waiting for admin service response", ex);
+    } finally {
+      //don't interrupt the slower request, so its latency is still recorded
+      for (Future<T> future : futures) {
+        future.cancel(false);
       }
     }
+  }
 
-    //all admin server down
-    ServiceException e =
-        new ServiceException(String.format("Admin servers are unresponsive. meta server address: %s, admin servers: %s",
-                                           MetaDomainConsts.getDomain(env), services));
-    ct.setStatus(e);
-    ct.complete();
-    throw e;
+  private <T> T timedCall(ServiceDTO serviceDTO, Function<ServiceDTO, T> call) {
+    Transaction transaction = Tracer.newTransaction("AdminAPI.Endpoint", serviceDTO.getHomepageUrl());
+    long start = System.currentTimeMillis();
+    try {
+      T result = call.apply(serviceDTO);
+      latencyTracker.recordSuccess(serviceDTO, System.currentTimeMillis() - start);
+      transaction.setStatus(Transaction.SUCCESS);
+      return result;
+    } catch (RuntimeException ex) {
+      if (isEndpointFailure(ex)) {
+        latencyTracker.recordFailure(serviceDTO);
+      } else {
+        //biz exception, the admin service itself is responsive
+        latencyTracker.recordSuccess(serviceDTO, System.currentTimeMillis() - start);
+      }
+      transaction.setStatus(ex);
+      throw ex;
+    } finally {
+      transaction.complete();
+    }
+  }
 
+  private RuntimeException unwrap(ExecutionException ex) {
+    Throwable cause = ex.getCause();
+    if (cause instanceof RuntimeException) {
+      return (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new ServiceException(cause.getMessage(), (Exception) cause);
   }
 
   private List<ServiceDTO> getAdminServices(Env env, Transaction ct) {
@@ -212,6 +311,13 @@ public class RetryableRestTemplate {
     return serviceAddress.getHomepageUrl() + "/";
   }
 
+  private boolean isEndpointFailure(Throwable e) {
+    Throwable nestedException = e.getCause();
+    return nestedException instanceof SocketTimeoutException
+           || nestedException instanceof HttpHostConnectException
+           || nestedException instanceof ConnectTimeoutException;
+  }
+
   //post,delete,put请求在admin server处理超时情况下不重试
   private boolean canRetry(Throwable e, HttpMethod method) {
     Throwable nestedException = e.getCause();
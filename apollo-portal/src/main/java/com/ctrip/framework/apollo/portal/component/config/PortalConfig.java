@@ -97,6 +97,106 @@ public class PortalConfig extends RefreshableConfig {
     return getIntProperty("api.readTimeout", 10000);
   }
 
+  /**
+   * whether to serve the permission checks of users from the in-memory role permission graph
+   */
+  public boolean isPermissionCacheEnabled() {
+    return getBooleanProperty("permission.cache.enabled", true);
+  }
+
+  /**
+   * the interval in seconds to reconcile the role permission graph with the changes made by other portal instances
+   */
+  public int permissionCacheReconcileInterval() {
+    int interval = getIntProperty("permission.cache.reconcile.interval", 5);
+    return interval > 0 ? interval : 5;
+  }
+
+  /**
+   * whether to send a hedged GET request to another admin service when the first one doesn't respond in its p95 latency
+   */
+  public boolean isAdminServiceHedgeEnabled() {
+    return getBooleanProperty("admin-service.hedge.enabled", false);
+  }
+
+  /**
+   * the timeout in milliseconds of publishing one target in a batch release, could be overridden per env by
+   * batch.release.timeout.{env}, e.g. batch.release.timeout.pro
+   */
+  public int batchReleaseTimeout(Env env) {
+    int defaultTimeout = getIntProperty("batch.release.timeout", 30000);
+    return getIntProperty("batch.release.timeout." + env.name().toLowerCase(), defaultTimeout);
+  }
+
+  public int batchReleaseConcurrency() {
+    int concurrency = getIntProperty("batch.release.concurrency", 10);
+    return concurrency > 0 ? concurrency : 10;
+  }
+
+  /**
+   * the max concurrent admin service requests of each env when comparing or syncing items to several namespaces,
+   * could be overridden per env by item.sync.concurrency.{env}, e.g. item.sync.concurrency.pro
+   */
+  public int itemSyncConcurrency(Env env) {
+    int defaultConcurrency = getIntProperty("item.sync.concurrency", 5);
+    int concurrency = getIntProperty("item.sync.concurrency." + env.name().toLowerCase(), defaultConcurrency);
+    return concurrency > 0 ? concurrency : 5;
+  }
+
+  /**
+   * the max pending tasks of each publish notification stage (enrichment, email and mq), the notifications beyond it
+   * are dead lettered instead of piling up in memory
+   */
+  public int configPublishNotifyQueueCapacity() {
+    int capacity = getIntProperty("config.publish.notify.queue.capacity", 1000);
+    return capacity > 0 ? capacity : 1000;
+  }
+
+  /**
+   * the threads to load the release histories and build the publish emails
+   */
+  public int configPublishNotifyEnrichThreads() {
+    int threads = getIntProperty("config.publish.notify.enrich.threads", 2);
+    return threads > 0 ? threads : 2;
+  }
+
+  public int configPublishNotifyEmailThreads() {
+    int threads = getIntProperty("config.publish.notify.email.threads", 2);
+    return threads > 0 ? threads : 2;
+  }
+
+  /**
+   * the max publish messages sent to mq in one batch
+   */
+  public int configPublishNotifyMqBatchSize() {
+    int batchSize = getIntProperty("config.publish.notify.mq.batch.size", 20);
+    return batchSize > 0 ? batchSize : 20;
+  }
+
+  /**
+   * the max retries of a failed email or mq delivery before it is dead lettered
+   */
+  public int configPublishNotifyMaxRetries() {
+    int maxRetries = getIntProperty("config.publish.notify.max.retries", 3);
+    return maxRetries >= 0 ? maxRetries : 3;
+  }
+
+  /**
+   * the backoff in milliseconds before the first retry, which is doubled on each retry
+   */
+  public int configPublishNotifyRetryBackoff() {
+    int backoff = getIntProperty("config.publish.notify.retry.backoff", 1000);
+    return backoff > 0 ? backoff : 1000;
+  }
+
+  /**
+   * the max size in bytes of each namespace file in the imported zip
+   */
+  public int configImportEntryMaxSize() {
+    int maxSize = getIntProperty("config.import.entry.max.size", 10 * 1024 * 1024);
+    return maxSize > 0 ? maxSize : 10 * 1024 * 1024;
+  }
+
   public List<Organization> organizations() {
 
     String organizations = getValue("organizations");
@@ -143,6 +243,54 @@ public class PortalConfig extends RefreshableConfig {
     return getValue("consumer.token.salt", "apollo-portal");
   }
 
+  /**
+   * the max number of apps matched by an app search
+   */
+  public int appSearchResultCap() {
+    return getIntProperty("app.search.result.cap", 500);
+  }
+
+  /**
+   * the interval in seconds to rebuild the app search index, so that the apps changed by other portal instances could
+   * be searched
+   */
+  public int appSearchIndexRebuildInterval() {
+    int interval = getIntProperty("app.search.index.rebuild.interval", 300);
+    return interval > 0 ? interval : 300;
+  }
+
+  public int consumerTokenCacheSize() {
+    return getIntProperty("consumer.token.cache.size", 10000);
+  }
+
+  /**
+   * how long in seconds a verified token is trusted without checking database, the token's expires is always honoured
+   */
+  public int consumerTokenCacheExpireInSeconds() {
+    return getIntProperty("consumer.token.cache.expire", 60);
+  }
+
+  /**
+   * how long in seconds an invalid token is rejected without checking database
+   */
+  public int consumerTokenNegativeCacheExpireInSeconds() {
+    return getIntProperty("consumer.token.negative.cache.expire", 10);
+  }
+
+  /**
+   * the max number of invalid tokens cached, they are kept apart from the valid ones so that they can't evict them
+   */
+  public int consumerTokenNegativeCacheSize() {
+    return getIntProperty("consumer.token.negative.cache.size", 1000);
+  }
+
+  /**
+   * the max open api requests per second of each consumer, non-positive value means no limit
+   */
+  public int consumerRateLimitQps() {
+    return getIntProperty("consumer.rate.limit.qps", 0);
+  }
+
   public String emailSender() {
     return getValue("email.sender");
   }
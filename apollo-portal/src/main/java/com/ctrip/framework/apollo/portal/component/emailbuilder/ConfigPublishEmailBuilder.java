@@ -200,9 +200,9 @@ public abstract class ConfigPublishEmailBuilder {
             && releaseHistory.getPreviousReleaseId() == 0) {
       ReleaseDTO masterLatestActiveRelease = releaseService.loadLatestRelease(
               releaseHistory.getAppId(), env, releaseHistory.getClusterName(), releaseHistory.getNamespaceName());
-      ReleaseDTO branchLatestActiveRelease = releaseService.findReleaseById(env, releaseHistory.getReleaseId());
+      long masterLatestActiveReleaseId = masterLatestActiveRelease == null ? 0 : masterLatestActiveRelease.getId();
 
-      return releaseService.compare(masterLatestActiveRelease, branchLatestActiveRelease);
+      return releaseService.compare(env, masterLatestActiveReleaseId, releaseHistory.getReleaseId());
     }
 
     return releaseService.compare(env, releaseHistory.getPreviousReleaseId(), releaseHistory.getReleaseId());
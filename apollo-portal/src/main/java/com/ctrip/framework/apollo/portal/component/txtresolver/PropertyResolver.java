@@ -3,11 +3,13 @@ package com.ctrip.framework.apollo.portal.component.txtresolver;
 import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
-import com.ctrip.framework.apollo.common.utils.BeanUtils;
 
 import com.google.common.base.Strings;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -18,170 +20,300 @@ import java.util.Set;
  * normal property file resolver.
  * update comment and blank item implement by create new item and delete old item.
  * update normal key/value item implement by update.
+ *
+ * <p>The config text is scanned in one pass and compared with the old items line by line (Myers diff), so the lines
+ * only shifted by an insertion or a deletion are left untouched. The line numbers are only used to order the items,
+ * so the new lines take the line numbers in the gaps between the kept lines, and when there is no gap left, the lines
+ * are renumbered with a gap of {@link #LINE_NUM_GAP} to leave room for the next edits.</p>
  */
 @Component("propertyResolver")
 public class PropertyResolver implements ConfigTextResolver {
 
-  private static final String KV_SEPARATOR = "=";
-  private static final String ITEM_SEPARATOR = "\n";
+  static final int LINE_NUM_GAP = 1000;
+  //the diff falls back to matching by key when the texts differ in more lines, which bounds the memory of the diff
+  private static final int MAX_EDIT_DISTANCE = 1000;
 
-  @Override
-  public ItemChangeSets resolve(long namespaceId, String configText, List<ItemDTO> baseItems) {
-
-    Map<Integer, ItemDTO> oldLineNumMapItem = BeanUtils.mapByKey("lineNum", baseItems);
-    Map<String, ItemDTO> oldKeyMapItem = BeanUtils.mapByKey("key", baseItems);
+  private static final char KV_SEPARATOR = '=';
+  private static final char ITEM_SEPARATOR = '\n';
 
-    //remove comment and blank item map.
-    oldKeyMapItem.remove("");
+  private static final byte NORMAL = 0;
+  private static final byte COMMENT = 1;
+  private static final byte BLANK = 2;
 
-    String[] newItems = configText.split(ITEM_SEPARATOR);
+  private static final Comparator<ItemDTO> LINE_NUM_COMPARATOR = Comparator.comparingInt(ItemDTO::getLineNum);
 
-    if (isHasRepeatKey(newItems)) {
-      throw new BadRequestException("config text has repeat key please check.");
+  @Override
+  public ItemChangeSets resolve(long namespaceId, String configText, List<ItemDTO> baseItems) {
+    Lines newLines = parseConfigText(configText);
+
+    ItemDTO[] oldItems = baseItems == null ? new ItemDTO[0] : baseItems.toArray(new ItemDTO[0]);
+    Arrays.sort(oldItems, LINE_NUM_COMPARATOR);
+    Lines oldLines = toLines(oldItems);
+
+    int[] matchedOldIndexes = diff(oldLines, newLines);
+    ItemDTO[] newLineItems = new ItemDTO[newLines.size];
+    boolean[] kept = new boolean[newLines.size];
+    boolean[] oldUsed = new boolean[oldItems.length];
+    for (int i = 0; i < newLines.size; i++) {
+      if (matchedOldIndexes[i] >= 0) {
+        newLineItems[i] = oldItems[matchedOldIndexes[i]];
+        kept[i] = true;
+        oldUsed[matchedOldIndexes[i]] = true;
+      }
     }
 
-    ItemChangeSets changeSets = new ItemChangeSets();
-    Map<Integer, String> newLineNumMapItem = new HashMap<>();//use for delete blank and comment item
-    int lineCounter = 1;
-    for (String newItem : newItems) {
-      newItem = newItem.trim();
-      newLineNumMapItem.put(lineCounter, newItem);
-      ItemDTO oldItemByLine = oldLineNumMapItem.get(lineCounter);
-
-      //comment item
-      if (isCommentItem(newItem)) {
-
-        handleCommentLine(namespaceId, oldItemByLine, newItem, lineCounter, changeSets);
-
-        //blank item
-      } else if (isBlankItem(newItem)) {
+    //the key value lines moved to another place are updated rather than deleted and created
+    Map<String, Integer> movedKeys = new HashMap<>();
+    for (int i = 0; i < oldItems.length; i++) {
+      if (!oldUsed[i] && oldLines.types[i] == NORMAL) {
+        movedKeys.put(oldLines.texts[i], i);
+      }
+    }
+    if (!movedKeys.isEmpty()) {
+      for (int i = 0; i < newLines.size; i++) {
+        if (newLineItems[i] == null && newLines.types[i] == NORMAL) {
+          Integer oldIndex = movedKeys.remove(newLines.texts[i]);
+          if (oldIndex != null) {
+            newLineItems[i] = oldItems[oldIndex];
+            oldUsed[oldIndex] = true;
+          }
+        }
+      }
+    }
 
-        handleBlankLine(namespaceId, oldItemByLine, lineCounter, changeSets);
+    int[] lineNums = assignLineNums(newLineItems, kept);
 
-        //normal item
-      } else {
-        handleNormalLine(namespaceId, oldKeyMapItem, newItem, lineCounter, changeSets);
+    ItemChangeSets changeSets = new ItemChangeSets();
+    for (int i = 0; i < newLines.size; i++) {
+      ItemDTO oldItem = newLineItems[i];
+      String text = newLines.texts[i];
+      byte type = newLines.types[i];
+
+      if (oldItem == null) {
+        if (type == NORMAL) {
+          changeSets.addCreateItem(buildNormalItem(0L, namespaceId, text, newLines.values[i], "", lineNums[i]));
+        } else if (type == COMMENT) {
+          changeSets.addCreateItem(buildCommentItem(0L, namespaceId, text, lineNums[i]));
+        } else {
+          changeSets.addCreateItem(buildBlankItem(0L, namespaceId, lineNums[i]));
+        }
+      } else if (type == NORMAL) {
+        if (!newLines.values[i].equals(oldItem.getValue()) || lineNums[i] != oldItem.getLineNum()) {
+          changeSets.addUpdateItem(buildNormalItem(oldItem.getId(), namespaceId, text, newLines.values[i],
+              oldItem.getComment(), lineNums[i]));
+        }
+      } else if (lineNums[i] != oldItem.getLineNum()) {
+        //comment and blank lines are kept as they are, only the line number may be changed
+        changeSets.addUpdateItem(buildNormalItem(oldItem.getId(), namespaceId, "", "", oldItem.getComment(),
+            lineNums[i]));
       }
-
-      lineCounter++;
     }
 
-    deleteCommentAndBlankItem(oldLineNumMapItem, newLineNumMapItem, changeSets);
-    deleteNormalKVItem(oldKeyMapItem, changeSets);
+    for (int i = 0; i < oldItems.length; i++) {
+      if (!oldUsed[i]) {
+        changeSets.addDeleteItem(oldItems[i]);
+      }
+    }
 
     return changeSets;
   }
 
-  private boolean isHasRepeatKey(String[] newItems) {
+  /**
+   * Scans the config text without splitting it up front. Each line is trimmed, classified and checked for the key
+   * value separator and the repeat keys as it is read.
+   */
+  private Lines parseConfigText(String configText) {
+    String text = configText == null ? "" : configText;
+    Lines lines = new Lines(Math.max(16, text.length() / 32));
     Set<String> keys = new HashSet<>();
+
+    //same as String.split, the trailing empty lines are ignored unless the text is empty
+    int lastNonEmptyLine = text.isEmpty() ? 0 : -1;
+    int start = 0;
+    int length = text.length();
     int lineCounter = 1;
-    int keyCount = 0;
-    for (String item : newItems) {
-      if (!isCommentItem(item) && !isBlankItem(item)) {
-        keyCount++;
-        String[] kv = parseKeyValueFromItem(item);
-        if (kv != null) {
-          keys.add(kv[0].toLowerCase());
-        } else {
+    while (start <= length) {
+      int end = text.indexOf(ITEM_SEPARATOR, start);
+      if (end == -1) {
+        end = length;
+      }
+      if (end > start) {
+        lastNonEmptyLine = lineCounter - 1;
+      }
+      String line = text.substring(start, end).trim();
+
+      if (line.isEmpty()) {
+        lines.add(BLANK, "", null);
+      } else if (isCommentItem(line)) {
+        lines.add(COMMENT, line, null);
+      } else {
+        int kvSeparator = line.indexOf(KV_SEPARATOR);
+        if (kvSeparator == -1) {
           throw new BadRequestException("line:" + lineCounter + " key value must separate by '='");
         }
+        String key = line.substring(0, kvSeparator).trim();
+        if (!keys.add(key.toLowerCase())) {
+          throw new BadRequestException("config text has repeat key please check.");
+        }
+        String value = line.substring(kvSeparator + 1).trim().replace("\\n", "\n"); //handle user input \n
+        lines.add(NORMAL, key, value);
       }
+
       lineCounter++;
+      start = end + 1;
     }
 
-    return keyCount > keys.size();
+    lines.size = lastNonEmptyLine + 1;
+    return lines;
   }
 
-  private String[] parseKeyValueFromItem(String item) {
-    int kvSeparator = item.indexOf(KV_SEPARATOR);
-    if (kvSeparator == -1) {
-      return null;
+  private Lines toLines(ItemDTO[] items) {
+    Lines lines = new Lines(Math.max(1, items.length));
+    for (ItemDTO item : items) {
+      String comment = Strings.nullToEmpty(item.getComment());
+      if (!Strings.isNullOrEmpty(item.getKey())) {
+        lines.add(NORMAL, item.getKey(), null);
+      } else if (comment.isEmpty()) {
+        lines.add(BLANK, "", null);
+      } else {
+        lines.add(COMMENT, comment, null);
+      }
     }
-
-    String[] kv = new String[2];
-    kv[0] = item.substring(0, kvSeparator).trim();
-    kv[1] = item.substring(kvSeparator + 1, item.length()).trim();
-    return kv;
+    return lines;
   }
 
-  private void handleCommentLine(Long namespaceId, ItemDTO oldItemByLine, String newItem, int lineCounter, ItemChangeSets changeSets) {
-    String oldComment = oldItemByLine == null ? "" : oldItemByLine.getComment();
-    //create comment. implement update comment by delete old comment and create new comment
-    if (!(isCommentItem(oldItemByLine) && newItem.equals(oldComment))) {
-      changeSets.addCreateItem(buildCommentItem(0l, namespaceId, newItem, lineCounter));
+  /**
+   * @return the index of the matched old line for each new line, -1 if the new line is not matched
+   */
+  private int[] diff(Lines oldLines, Lines newLines) {
+    int[] matched = new int[newLines.size];
+    Arrays.fill(matched, -1);
+
+    int prefix = 0;
+    int maxPrefix = Math.min(oldLines.size, newLines.size);
+    while (prefix < maxPrefix && isSameLine(oldLines, prefix, newLines, prefix)) {
+      matched[prefix] = prefix;
+      prefix++;
     }
-  }
 
-  private void handleBlankLine(Long namespaceId, ItemDTO oldItem, int lineCounter, ItemChangeSets changeSets) {
-    if (!isBlankItem(oldItem)) {
-      changeSets.addCreateItem(buildBlankItem(0l, namespaceId, lineCounter));
+    int oldEnd = oldLines.size;
+    int newEnd = newLines.size;
+    while (oldEnd > prefix && newEnd > prefix && isSameLine(oldLines, oldEnd - 1, newLines, newEnd - 1)) {
+      oldEnd--;
+      newEnd--;
+      matched[newEnd] = oldEnd;
     }
-  }
-
-  private void handleNormalLine(Long namespaceId, Map<String, ItemDTO> keyMapOldItem, String newItem,
-                                int lineCounter, ItemChangeSets changeSets) {
 
-    String[] kv = parseKeyValueFromItem(newItem);
-
-    if (kv == null) {
-      throw new BadRequestException("line:" + lineCounter + " key value must separate by '='");
+    if (oldEnd > prefix && newEnd > prefix) {
+      myersDiff(oldLines, prefix, oldEnd, newLines, prefix, newEnd, matched);
     }
+    return matched;
+  }
 
-    String newKey = kv[0];
-    String newValue = kv[1].replace("\\n", "\n"); //handle user input \n
-
-    ItemDTO oldItem = keyMapOldItem.get(newKey);
+  private void myersDiff(Lines oldLines, int oldStart, int oldEnd, Lines newLines, int newStart, int newEnd,
+                         int[] matched) {
+    int n = oldEnd - oldStart;
+    int m = newEnd - newStart;
+    int maxD = Math.min(n + m, MAX_EDIT_DISTANCE);
+    int offset = maxD + 1;
+    int[] v = new int[2 * maxD + 3];
+    //trace.get(d) holds v[-(d-1)..d-1] before the step d, which is all the backtracking needs
+    List<int[]> trace = new ArrayList<>();
+
+    for (int d = 0; d <= maxD; d++) {
+      trace.add(d == 0 ? new int[0] : Arrays.copyOfRange(v, offset - d + 1, offset + d));
+      for (int k = -d; k <= d; k += 2) {
+        int x = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) ? v[offset + k + 1]
+            : v[offset + k - 1] + 1;
+        int y = x - k;
+        while (x < n && y < m && isSameLine(oldLines, oldStart + x, newLines, newStart + y)) {
+          x++;
+          y++;
+        }
+        v[offset + k] = x;
 
-    if (oldItem == null) {//new item
-      changeSets.addCreateItem(buildNormalItem(0l, namespaceId, newKey, newValue, "", lineCounter));
-    } else if (!newValue.equals(oldItem.getValue()) || lineCounter != oldItem.getLineNum()) {//update item
-      changeSets.addUpdateItem(
-          buildNormalItem(oldItem.getId(), namespaceId, newKey, newValue, oldItem.getComment(),
-              lineCounter));
+        if (x >= n && y >= m) {
+          backtrack(trace, d, n, m, oldStart, newStart, matched);
+          return;
+        }
+      }
     }
-    keyMapOldItem.remove(newKey);
+    //too many differences, the lines left are matched by key only
   }
 
-  private boolean isCommentItem(ItemDTO item) {
-    return item != null && "".equals(item.getKey())
-        && (item.getComment().startsWith("#") || item.getComment().startsWith("!"));
-  }
-
-  private boolean isCommentItem(String line) {
-    return line != null && (line.startsWith("#") || line.startsWith("!"));
+  private void backtrack(List<int[]> trace, int maxD, int x, int y, int oldStart, int newStart, int[] matched) {
+    for (int d = maxD; d > 0; d--) {
+      int[] v = trace.get(d);
+      int base = d - 1;
+      int k = x - y;
+      int prevK = (k == -d || (k != d && v[base + k - 1] < v[base + k + 1])) ? k + 1 : k - 1;
+      int prevX = v[base + prevK];
+      int prevY = prevX - prevK;
+      while (x > prevX && y > prevY) {
+        x--;
+        y--;
+        matched[newStart + y] = oldStart + x;
+      }
+      x = prevX;
+      y = prevY;
+    }
+    while (x > 0 && y > 0) {
+      x--;
+      y--;
+      matched[newStart + y] = oldStart + x;
+    }
   }
 
-  private boolean isBlankItem(ItemDTO item) {
-    return item != null && "".equals(item.getKey()) && "".equals(item.getComment());
-  }
+  /**
+   * Keeps the line numbers of the kept lines as long as they are still in order, and picks the line numbers of the
+   * other lines between their neighbours.
+   */
+  private int[] assignLineNums(ItemDTO[] newLineItems, boolean[] kept) {
+    int size = newLineItems.length;
+    int[] lineNums = new int[size];
+
+    int[] nextKept = new int[size + 1];
+    nextKept[size] = -1;
+    for (int i = size - 1; i >= 0; i--) {
+      nextKept[i] = kept[i] ? i : nextKept[i + 1];
+    }
 
-  private boolean isBlankItem(String line) {
-    return  Strings.nullToEmpty(line).trim().isEmpty();
-  }
+    long prev = 0;
+    for (int i = 0; i < size; i++) {
+      long lineNum;
+      if (kept[i] && newLineItems[i].getLineNum() > prev) {
+        lineNum = newLineItems[i].getLineNum();
+      } else {
+        int next = nextKept[i + 1];
+        long nextLineNum = next == -1 ? 0 : newLineItems[next].getLineNum();
+        int pending = next == -1 ? 0 : next - i;
+        if (next != -1 && nextLineNum - prev > pending) {
+          lineNum = prev + (nextLineNum - prev) / (pending + 1);
+        } else {
+          lineNum = prev + LINE_NUM_GAP;
+        }
+      }
 
-  private void deleteNormalKVItem(Map<String, ItemDTO> baseKeyMapItem, ItemChangeSets changeSets) {
-    //surplus item is to be deleted
-    for (Map.Entry<String, ItemDTO> entry : baseKeyMapItem.entrySet()) {
-      changeSets.addDeleteItem(entry.getValue());
+      if (lineNum > Integer.MAX_VALUE) {
+        //no room left, simply renumber all the lines
+        for (int j = 0; j < size; j++) {
+          lineNums[j] = j + 1;
+        }
+        return lineNums;
+      }
+      lineNums[i] = (int) lineNum;
+      prev = lineNum;
     }
+    return lineNums;
   }
 
-  private void deleteCommentAndBlankItem(Map<Integer, ItemDTO> oldLineNumMapItem,
-                                         Map<Integer, String> newLineNumMapItem,
-                                         ItemChangeSets changeSets) {
-
-    for (Map.Entry<Integer, ItemDTO> entry : oldLineNumMapItem.entrySet()) {
-      int lineNum = entry.getKey();
-      ItemDTO oldItem = entry.getValue();
-      String newItem = newLineNumMapItem.get(lineNum);
+  private boolean isSameLine(Lines oldLines, int oldIndex, Lines newLines, int newIndex) {
+    return oldLines.types[oldIndex] == newLines.types[newIndex]
+        && oldLines.texts[oldIndex].equals(newLines.texts[newIndex]);
+  }
 
-      //1. old is blank by now is not
-      //2.old is comment by now is not exist or modified
-      if ((isBlankItem(oldItem) && !isBlankItem(newItem))
-          || isCommentItem(oldItem) && (newItem == null || !newItem.equals(oldItem.getComment()))) {
-        changeSets.addDeleteItem(oldItem);
-      }
-    }
+  private boolean isCommentItem(String line) {
+    return line.startsWith("#") || line.startsWith("!");
   }
 
   private ItemDTO buildCommentItem(Long id, Long namespaceId, String comment, int lineNum) {
@@ -198,4 +330,33 @@ public class PropertyResolver implements ConfigTextResolver {
     item.setNamespaceId(namespaceId);
     return item;
   }
+
+  /**
+   * The lines in columns: the type, the key or the comment, and the value of key value lines.
+   */
+  private static class Lines {
+    private byte[] types;
+    private String[] texts;
+    private String[] values;
+    private int size;
+
+    Lines(int capacity) {
+      types = new byte[capacity];
+      texts = new String[capacity];
+      values = new String[capacity];
+    }
+
+    void add(byte type, String text, String value) {
+      if (size == types.length) {
+        int capacity = size * 2;
+        types = Arrays.copyOf(types, capacity);
+        texts = Arrays.copyOf(texts, capacity);
+        values = Arrays.copyOf(values, capacity);
+      }
+      types[size] = type;
+      texts[size] = text;
+      values[size] = value;
+      size++;
+    }
+  }
 }
@@ -14,10 +14,18 @@ public interface TracerEventType {
 
   String CREATE_CLUSTER = "Cluster.Create";
 
+  String EXPORT_APP = "App.Export";
+
+  String IMPORT_APP = "App.Import";
+
   String CREATE_NAMESPACE = "Namespace.Create";
 
   String API_RETRY = "API.Retry";
 
+  String API_HEDGE = "API.Hedge";
+
+  String API_EJECT = "API.Eject";
+
   String USER_ACCESS = "User.Access";
 
   String CREATE_GRAY_RELEASE = "GrayRelease.Create";
@@ -27,4 +35,12 @@ public interface TracerEventType {
   String MERGE_GRAY_RELEASE = "GrayRelease.Merge";
 
   String UPDATE_GRAY_RELEASE_RULE = "GrayReleaseRule.Update";
+
+  String BATCH_RELEASE_TIMEOUT = "BatchRelease.Timeout";
+
+  String BATCH_RELEASE_PARTIAL_FAILURE = "BatchRelease.PartialFailure";
+
+  String PUBLISH_NOTIFY_RETRY = "PublishNotify.Retry";
+
+  String PUBLISH_NOTIFY_DEAD_LETTER = "PublishNotify.DeadLetter";
 }
@@ -1,6 +1,7 @@
 package com.ctrip.framework.apollo.portal.controller;
 
 
+import com.ctrip.framework.apollo.common.dto.PageDTO;
 import com.ctrip.framework.apollo.common.entity.App;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.http.MultiResponseEntity;
@@ -71,15 +72,20 @@ public class AppController {
   }
 
   @GetMapping
-  public List<App> findApps(@RequestParam(value = "appIds", required = false) String appIds) {
+  public List<App> findApps(@RequestParam(value = "appIds", required = false) String appIds, Pageable page) {
     if (StringUtils.isEmpty(appIds)) {
-      return appService.findAll();
+      return appService.findAll(page);
     } else {
       return appService.findByAppIds(Sets.newHashSet(appIds.split(",")));
     }
 
   }
 
+  @GetMapping("/search")
+  public PageDTO<App> searchApps(@RequestParam(value = "query", required = false) String query, Pageable page) {
+    return appService.searchApps(query, page);
+  }
+
   @GetMapping("/by-owner")
   public List<App> findAppsByOwner(@RequestParam("owner") String owner, Pageable page) {
     Set<String> appIds = Sets.newHashSet();
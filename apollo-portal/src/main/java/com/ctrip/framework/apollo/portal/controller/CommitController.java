@@ -7,7 +7,6 @@ import com.ctrip.framework.apollo.portal.component.PermissionValidator;
 import com.ctrip.framework.apollo.portal.service.CommitService;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
-import javax.validation.constraints.PositiveOrZero;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -32,12 +31,12 @@ public class CommitController {
   @GetMapping("/apps/{appId}/envs/{env}/clusters/{clusterName}/namespaces/{namespaceName}/commits")
   public List<CommitDTO> find(@PathVariable String appId, @PathVariable String env,
                               @PathVariable String clusterName, @PathVariable String namespaceName,
-                              @Valid @PositiveOrZero(message = "page should be positive or 0") @RequestParam(defaultValue = "0") int page,
+                              @Valid @Positive(message = "cursor should be positive number") @RequestParam(value = "cursor", required = false) Long cursor,
                               @Valid @Positive(message = "size should be positive number") @RequestParam(defaultValue = "10") int size) {
     if (permissionValidator.shouldHideConfigToCurrentUser(appId, env, namespaceName)) {
       return Collections.emptyList();
     }
 
-    return commitService.find(appId, Env.valueOf(env), clusterName, namespaceName, page, size);
+    return commitService.find(appId, Env.valueOf(env), clusterName, namespaceName, cursor, size);
   }
 }
@@ -1,19 +1,20 @@
 package com.ctrip.framework.apollo.portal.controller;
 
+import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.dto.NamespaceDTO;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.exception.ServiceException;
-import com.ctrip.framework.apollo.core.ConfigConsts;
-import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
 import com.ctrip.framework.apollo.core.enums.Env;
-import com.ctrip.framework.apollo.portal.entity.bo.NamespaceBO;
 import com.ctrip.framework.apollo.portal.entity.model.NamespaceTextModel;
+import com.ctrip.framework.apollo.portal.entity.vo.NamespaceImportResult;
+import com.ctrip.framework.apollo.portal.service.ConfigsExportService;
+import com.ctrip.framework.apollo.portal.service.ConfigsImportService;
 import com.ctrip.framework.apollo.portal.service.ItemService;
 import com.ctrip.framework.apollo.portal.service.NamespaceService;
 import com.ctrip.framework.apollo.portal.util.ConfigToFileUtils;
-import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -26,7 +27,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * jian.tan
@@ -38,11 +38,19 @@ public class ConfigsExportController {
 
   private final NamespaceService namespaceService;
 
+  private final ConfigsExportService configsExportService;
+
+  private final ConfigsImportService configsImportService;
+
   public ConfigsExportController(
       final ItemService configService,
-      final @Lazy NamespaceService namespaceService) {
+      final @Lazy NamespaceService namespaceService,
+      final ConfigsExportService configsExportService,
+      final ConfigsImportService configsImportService) {
     this.configService = configService;
     this.namespaceService = namespaceService;
+    this.configsExportService = configsExportService;
+    this.configsImportService = configsImportService;
   }
 
   @PostMapping("/apps/{appId}/envs/{env}/clusters/{clusterName}/namespaces/{namespaceName}/items/import")
@@ -88,29 +96,14 @@ public class ConfigsExportController {
   public void exportItems(@PathVariable String appId, @PathVariable String env,
       @PathVariable String clusterName, @PathVariable String namespaceName,
       HttpServletResponse res) {
-    List<String> fileNameSplit = Splitter.on(".").splitToList(namespaceName);
-
-    String fileName = fileNameSplit.size() <= 1 ? Joiner.on(".")
-        .join(namespaceName, ConfigFileFormat.Properties.getValue()) : namespaceName;
-    NamespaceBO namespaceBO = namespaceService.loadNamespaceBO(appId, Env.fromString
-        (env), clusterName, namespaceName);
+    String fileName = configsExportService.findFileName(appId, namespaceName);
+    //the items are enough to write the file, the release comparison of the namespace is not needed
+    List<ItemDTO> items = configService.findItems(appId, Env.fromString(env), clusterName, namespaceName);
 
     //generate a file.
     res.setHeader("Content-Disposition", "attachment;filename=" + fileName);
 
-    List<String> fileItems = namespaceBO.getItems().stream().map(itemBO -> {
-      String key = itemBO.getItem().getKey();
-      String value = itemBO.getItem().getValue();
-      if (ConfigConsts.CONFIG_FILE_CONTENT_KEY.equals(key)) {
-        return value;
-      }
-
-      if ("".equals(key)) {
-        return Joiner.on("").join(itemBO.getItem().getKey(), itemBO.getItem().getValue());
-      }
-
-      return Joiner.on(" = ").join(itemBO.getItem().getKey(), itemBO.getItem().getValue());
-    }).collect(Collectors.toList());
+    List<String> fileItems = ConfigToFileUtils.itemsToLines(items);
 
     try {
       ConfigToFileUtils.itemsToFile(res.getOutputStream(), fileItems);
@@ -118,4 +111,38 @@ public class ConfigsExportController {
       throw new ServiceException("export items failed:{}", e);
     }
   }
+
+  /**
+   * export all the namespaces of the app in all the clusters and envs as a zip
+   */
+  @PreAuthorize(value = "@permissionValidator.isAppAdmin(#appId)")
+  @GetMapping("/apps/{appId}/configs/export")
+  public void exportApp(@PathVariable String appId, HttpServletResponse res) {
+    res.setContentType("application/zip");
+    res.setHeader("Content-Disposition", "attachment;filename=" + appId + ".zip");
+
+    try {
+      configsExportService.exportApp(appId, res.getOutputStream());
+    } catch (IOException e) {
+      throw new ServiceException("export app failed:{}", e);
+    }
+  }
+
+  /**
+   * import the zip exported by {@link #exportApp}, the namespaces should already exist
+   */
+  @PreAuthorize(value = "@permissionValidator.isAppAdmin(#appId)")
+  @PostMapping("/apps/{appId}/configs/import")
+  public List<NamespaceImportResult> importApp(@PathVariable String appId,
+      @RequestParam("file") MultipartFile file) {
+    if (file.isEmpty()) {
+      throw new BadRequestException("The file is empty.");
+    }
+
+    try (InputStream in = file.getInputStream()) {
+      return configsImportService.importApp(appId, in);
+    } catch (IOException e) {
+      throw new ServiceException("Read config file errors:{}", e);
+    }
+  }
 }
@@ -3,6 +3,7 @@ package com.ctrip.framework.apollo.portal.controller;
 import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
+import com.ctrip.framework.apollo.common.exception.NotFoundException;
 import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
 import com.ctrip.framework.apollo.core.enums.Env;
 import com.ctrip.framework.apollo.core.utils.StringUtils;
@@ -10,6 +11,7 @@ import com.ctrip.framework.apollo.portal.component.PermissionValidator;
 import com.ctrip.framework.apollo.portal.entity.model.NamespaceSyncModel;
 import com.ctrip.framework.apollo.portal.entity.model.NamespaceTextModel;
 import com.ctrip.framework.apollo.portal.entity.vo.ItemDiffs;
+import com.ctrip.framework.apollo.portal.entity.vo.ItemSyncJob;
 import com.ctrip.framework.apollo.portal.entity.vo.NamespaceIdentifier;
 import com.ctrip.framework.apollo.portal.service.ItemService;
 import com.ctrip.framework.apollo.portal.spi.UserInfoHolder;
@@ -165,27 +167,31 @@ public class ItemController {
   public ResponseEntity<Void> update(@PathVariable String appId, @PathVariable String namespaceName,
                                      @RequestBody NamespaceSyncModel model) {
     checkModel(!model.isInvalid());
-    boolean hasPermission = permissionValidator.hasModifyNamespacePermission(appId, namespaceName);
-    Env envNoPermission = null;
-    // if uses has ModifyNamespace permission then he has permission
-    if (!hasPermission) {
-      // else check if user has every env's ModifyNamespace permission
-      hasPermission = true;
-      for (NamespaceIdentifier namespaceIdentifier : model.getSyncToNamespaces()) {
-        // once user has not one of the env's ModifyNamespace permission, then break the loop
-        hasPermission &= permissionValidator.hasModifyNamespacePermission(namespaceIdentifier.getAppId(), namespaceIdentifier.getNamespaceName(), namespaceIdentifier.getEnv().toString());
-        if (!hasPermission) {
-          envNoPermission = namespaceIdentifier.getEnv();
-          break;
-        }
-      }
+    checkSyncPermission(appId, namespaceName, model);
+
+    configService.syncItems(model.getSyncToNamespaces(), model.getSyncItems());
+    return ResponseEntity.status(HttpStatus.OK).build();
+  }
+
+  @PostMapping(value = "/apps/{appId}/namespaces/{namespaceName}/items/sync-jobs", consumes = {"application/json"})
+  public ItemSyncJob submitSyncJob(@PathVariable String appId, @PathVariable String namespaceName,
+                                   @RequestBody NamespaceSyncModel model) {
+    checkModel(!model.isInvalid());
+    checkSyncPermission(appId, namespaceName, model);
+
+    return configService.submitSyncJob(model.getSyncToNamespaces(), model.getSyncItems());
+  }
+
+  @GetMapping("/items/sync-jobs/{jobId}")
+  public ItemSyncJob findSyncJob(@PathVariable String jobId) {
+    ItemSyncJob job = configService.findSyncJob(jobId);
+    if (job == null) {
+      throw new NotFoundException("sync job not found or expired, jobId:" + jobId);
     }
-    if (hasPermission) {
-      configService.syncItems(model.getSyncToNamespaces(), model.getSyncItems());
-      return ResponseEntity.status(HttpStatus.OK).build();
+    if (!Objects.equals(job.getOperator(), userInfoHolder.getUser().getUserId())) {
+      throw new AccessDeniedException("您没有查看该同步任务的权限");
     }
-    else
-      throw new AccessDeniedException(String.format("您没有修改环境%s的权限", envNoPermission));
+    return job;
   }
 
   @PreAuthorize(value = "@permissionValidator.hasModifyNamespacePermission(#appId, #namespaceName, #env)")
@@ -216,6 +222,27 @@ public class ItemController {
     yamlPropertiesFactoryBean.getObject();
   }
 
+  private void checkSyncPermission(String appId, String namespaceName, NamespaceSyncModel model) {
+    boolean hasPermission = permissionValidator.hasModifyNamespacePermission(appId, namespaceName);
+    Env envNoPermission = null;
+    // if uses has ModifyNamespace permission then he has permission
+    if (!hasPermission) {
+      // else check if user has every env's ModifyNamespace permission
+      hasPermission = true;
+      for (NamespaceIdentifier namespaceIdentifier : model.getSyncToNamespaces()) {
+        // once user has not one of the env's ModifyNamespace permission, then break the loop
+        hasPermission &= permissionValidator.hasModifyNamespacePermission(namespaceIdentifier.getAppId(), namespaceIdentifier.getNamespaceName(), namespaceIdentifier.getEnv().toString());
+        if (!hasPermission) {
+          envNoPermission = namespaceIdentifier.getEnv();
+          break;
+        }
+      }
+    }
+    if (!hasPermission) {
+      throw new AccessDeniedException(String.format("您没有修改环境%s的权限", envNoPermission));
+    }
+  }
+
   private boolean isValidItem(ItemDTO item) {
     return Objects.nonNull(item) && !StringUtils.isContainEmpty(item.getKey());
   }
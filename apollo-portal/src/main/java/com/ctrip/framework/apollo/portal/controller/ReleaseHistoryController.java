@@ -1,9 +1,11 @@
 package com.ctrip.framework.apollo.portal.controller;
 
 
+import com.ctrip.framework.apollo.common.entity.EntityPair;
 import com.ctrip.framework.apollo.core.enums.Env;
 import com.ctrip.framework.apollo.portal.component.PermissionValidator;
 import com.ctrip.framework.apollo.portal.entity.bo.ReleaseHistoryBO;
+import com.ctrip.framework.apollo.portal.entity.vo.ReleaseCompareResult;
 import com.ctrip.framework.apollo.portal.service.ReleaseHistoryService;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -29,14 +31,50 @@ public class ReleaseHistoryController {
                                                                 @PathVariable String env,
                                                                 @PathVariable String clusterName,
                                                                 @PathVariable String namespaceName,
-                                                                @RequestParam(value = "page", defaultValue = "0") int page,
-                                                                @RequestParam(value = "size", defaultValue = "10") int size) {
+                                                                @RequestParam(value = "cursor", required = false) Long cursor,
+                                                                @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                @RequestParam(value = "summary", defaultValue = "false") boolean summary) {
 
     if (permissionValidator.shouldHideConfigToCurrentUser(appId, env, namespaceName)) {
       return Collections.emptyList();
     }
 
-   return releaseHistoryService.findNamespaceReleaseHistory(appId, Env.valueOf(env), clusterName ,namespaceName, page, size);
+    if (summary) {
+      return releaseHistoryService.findNamespaceReleaseHistorySummaries(appId, Env.valueOf(env), clusterName,
+          namespaceName, cursor, size);
+    }
+
+   return releaseHistoryService.findNamespaceReleaseHistory(appId, Env.valueOf(env), clusterName ,namespaceName, cursor, size);
+  }
+
+  @GetMapping("/apps/{appId}/envs/{env}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories/configuration")
+  public List<EntityPair<String>> findReleaseConfiguration(@PathVariable String appId,
+                                                           @PathVariable String env,
+                                                           @PathVariable String clusterName,
+                                                           @PathVariable String namespaceName,
+                                                           @RequestParam long releaseId) {
+
+    if (permissionValidator.shouldHideConfigToCurrentUser(appId, env, namespaceName)) {
+      return Collections.emptyList();
+    }
+
+    return releaseHistoryService.findReleaseConfiguration(appId, Env.valueOf(env), namespaceName, releaseId);
+  }
+
+  @GetMapping("/apps/{appId}/envs/{env}/clusters/{clusterName}/namespaces/{namespaceName}/releases/histories/diff")
+  public ReleaseCompareResult compareWithPreviousRelease(@PathVariable String appId,
+                                                         @PathVariable String env,
+                                                         @PathVariable String clusterName,
+                                                         @PathVariable String namespaceName,
+                                                         @RequestParam long releaseId,
+                                                         @RequestParam(defaultValue = "0") long previousReleaseId) {
+
+    if (permissionValidator.shouldHideConfigToCurrentUser(appId, env, namespaceName)) {
+      return new ReleaseCompareResult();
+    }
+
+    return releaseHistoryService.compareWithPreviousRelease(appId, Env.valueOf(env), namespaceName, releaseId,
+        previousReleaseId);
   }
 
 }
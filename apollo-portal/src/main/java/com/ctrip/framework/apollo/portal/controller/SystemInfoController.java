@@ -4,10 +4,15 @@ import com.ctrip.framework.apollo.Apollo;
 import com.ctrip.framework.apollo.core.MetaDomainConsts;
 import com.ctrip.framework.apollo.core.dto.ServiceDTO;
 import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.portal.component.AdminServiceLatencyTracker;
 import com.ctrip.framework.apollo.portal.component.PortalSettings;
 import com.ctrip.framework.apollo.portal.component.RestTemplateFactory;
+import com.ctrip.framework.apollo.portal.entity.vo.AdminServiceLatencyInfo;
 import com.ctrip.framework.apollo.portal.entity.vo.EnvironmentInfo;
+import com.ctrip.framework.apollo.portal.entity.vo.PublishNotifyDeadLetter;
+import com.ctrip.framework.apollo.portal.entity.vo.PublishNotifyStageInfo;
 import com.ctrip.framework.apollo.portal.entity.vo.SystemInfo;
+import com.ctrip.framework.apollo.portal.listener.ConfigPublishListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.health.Health;
@@ -32,12 +37,18 @@ public class SystemInfoController {
   private RestTemplate restTemplate;
   private final PortalSettings portalSettings;
   private final RestTemplateFactory restTemplateFactory;
+  private final AdminServiceLatencyTracker adminServiceLatencyTracker;
+  private final ConfigPublishListener configPublishListener;
 
   public SystemInfoController(
       final PortalSettings portalSettings,
-      final RestTemplateFactory restTemplateFactory) {
+      final RestTemplateFactory restTemplateFactory,
+      final AdminServiceLatencyTracker adminServiceLatencyTracker,
+      final ConfigPublishListener configPublishListener) {
     this.portalSettings = portalSettings;
     this.restTemplateFactory = restTemplateFactory;
+    this.adminServiceLatencyTracker = adminServiceLatencyTracker;
+    this.configPublishListener = configPublishListener;
   }
 
   @PostConstruct
@@ -99,6 +110,24 @@ public class SystemInfoController {
     return restTemplate.getForObject(service.getHomepageUrl() + "/health", Health.class);
   }
 
+  @PreAuthorize(value = "@permissionValidator.isSuperAdmin()")
+  @GetMapping(value = "/admin-service-latency")
+  public List<AdminServiceLatencyInfo> getAdminServiceLatency() {
+    return adminServiceLatencyTracker.getLatencyInfos();
+  }
+
+  @PreAuthorize(value = "@permissionValidator.isSuperAdmin()")
+  @GetMapping(value = "/publish-notify")
+  public List<PublishNotifyStageInfo> getPublishNotifyStages() {
+    return configPublishListener.getStageInfos();
+  }
+
+  @PreAuthorize(value = "@permissionValidator.isSuperAdmin()")
+  @GetMapping(value = "/publish-notify/dead-letters")
+  public List<PublishNotifyDeadLetter> getPublishNotifyDeadLetters() {
+    return configPublishListener.getDeadLetters();
+  }
+
   private EnvironmentInfo adaptEnv2EnvironmentInfo(final Env env) {
     EnvironmentInfo environmentInfo = new EnvironmentInfo();
     String metaServerAddresses = MetaDomainConsts.getMetaServerAddress(env);
@@ -0,0 +1,50 @@
+package com.ctrip.framework.apollo.portal.entity.vo;
+
+public class AdminServiceLatencyInfo {
+
+  private String homepageUrl;
+  private long ewmaLatency;
+  private long p95Latency;
+  private int consecutiveFailures;
+  private boolean ejected;
+
+  public String getHomepageUrl() {
+    return homepageUrl;
+  }
+
+  public void setHomepageUrl(String homepageUrl) {
+    this.homepageUrl = homepageUrl;
+  }
+
+  public long getEwmaLatency() {
+    return ewmaLatency;
+  }
+
+  public void setEwmaLatency(long ewmaLatency) {
+    this.ewmaLatency = ewmaLatency;
+  }
+
+  public long getP95Latency() {
+    return p95Latency;
+  }
+
+  public void setP95Latency(long p95Latency) {
+    this.p95Latency = p95Latency;
+  }
+
+  public int getConsecutiveFailures() {
+    return consecutiveFailures;
+  }
+
+  public void setConsecutiveFailures(int consecutiveFailures) {
+    this.consecutiveFailures = consecutiveFailures;
+  }
+
+  public boolean isEjected() {
+    return ejected;
+  }
+
+  public void setEjected(boolean ejected) {
+    this.ejected = ejected;
+  }
+}
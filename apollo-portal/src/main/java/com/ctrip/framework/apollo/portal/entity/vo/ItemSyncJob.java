@@ -0,0 +1,52 @@
+package com.ctrip.framework.apollo.portal.entity.vo;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * An asynchronous job of syncing items to several namespaces, the result of each target is available as soon as
+ * it's completed, so the job could be polled for the progress.
+ */
+public class ItemSyncJob {
+
+  private final String id;
+  private final String operator;
+  private final Date createdTime;
+  private final List<ItemSyncTargetResult> targets;
+
+  public ItemSyncJob(String id, String operator, List<ItemSyncTargetResult> targets) {
+    this.id = id;
+    this.operator = operator;
+    this.createdTime = new Date();
+    this.targets = Collections.unmodifiableList(targets);
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getOperator() {
+    return operator;
+  }
+
+  public Date getCreatedTime() {
+    return createdTime;
+  }
+
+  public List<ItemSyncTargetResult> getTargets() {
+    return targets;
+  }
+
+  public int getCompletedTargets() {
+    return (int) targets.stream().filter(ItemSyncTargetResult::isCompleted).count();
+  }
+
+  public int getFailedTargets() {
+    return (int) targets.stream().filter(target -> target.getStatus() == ItemSyncTargetResult.Status.FAILED).count();
+  }
+
+  public boolean isCompleted() {
+    return getCompletedTargets() == targets.size();
+  }
+}
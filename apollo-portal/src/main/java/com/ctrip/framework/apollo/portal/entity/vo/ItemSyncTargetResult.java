@@ -0,0 +1,62 @@
+package com.ctrip.framework.apollo.portal.entity.vo;
+
+import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
+
+/**
+ * The progress and result of syncing items to one namespace, which is updated by the sync worker threads
+ */
+public class ItemSyncTargetResult {
+
+  public enum Status {
+    PENDING, RUNNING, SUCCESS, FAILED
+  }
+
+  private final NamespaceIdentifier target;
+  private volatile Status status = Status.PENDING;
+  private volatile int createdItems;
+  private volatile int updatedItems;
+  private volatile String message;
+
+  public ItemSyncTargetResult(NamespaceIdentifier target) {
+    this.target = target;
+  }
+
+  public void running() {
+    status = Status.RUNNING;
+  }
+
+  public void success(ItemChangeSets changeSets) {
+    createdItems = changeSets.getCreateItems().size();
+    updatedItems = changeSets.getUpdateItems().size();
+    status = Status.SUCCESS;
+  }
+
+  public void failure(String message) {
+    this.message = message;
+    status = Status.FAILED;
+  }
+
+  public NamespaceIdentifier getTarget() {
+    return target;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public int getCreatedItems() {
+    return createdItems;
+  }
+
+  public int getUpdatedItems() {
+    return updatedItems;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public boolean isCompleted() {
+    return status == Status.SUCCESS || status == Status.FAILED;
+  }
+}
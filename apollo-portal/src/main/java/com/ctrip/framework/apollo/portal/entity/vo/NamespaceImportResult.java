@@ -0,0 +1,69 @@
+package com.ctrip.framework.apollo.portal.entity.vo;
+
+public class NamespaceImportResult {
+
+  private String entryName;
+  private String env;
+  private String clusterName;
+  private String namespaceName;
+  private boolean success;
+  //the count of the created, updated and deleted items
+  private int changes;
+  private String message;
+
+  public String getEntryName() {
+    return entryName;
+  }
+
+  public void setEntryName(String entryName) {
+    this.entryName = entryName;
+  }
+
+  public String getEnv() {
+    return env;
+  }
+
+  public void setEnv(String env) {
+    this.env = env;
+  }
+
+  public String getClusterName() {
+    return clusterName;
+  }
+
+  public void setClusterName(String clusterName) {
+    this.clusterName = clusterName;
+  }
+
+  public String getNamespaceName() {
+    return namespaceName;
+  }
+
+  public void setNamespaceName(String namespaceName) {
+    this.namespaceName = namespaceName;
+  }
+
+  public boolean isSuccess() {
+    return success;
+  }
+
+  public void setSuccess(boolean success) {
+    this.success = success;
+  }
+
+  public int getChanges() {
+    return changes;
+  }
+
+  public void setChanges(int changes) {
+    this.changes = changes;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public void setMessage(String message) {
+    this.message = message;
+  }
+}
@@ -0,0 +1,87 @@
+package com.ctrip.framework.apollo.portal.entity.vo;
+
+public class PublishNotifyStageInfo {
+
+  private String stage;
+  private int queueDepth;
+  private int queueCapacity;
+  private long processed;
+  private long failed;
+  private long retried;
+  private long deadLettered;
+  //in milliseconds
+  private long averageLatency;
+  private long maxLatency;
+
+  public String getStage() {
+    return stage;
+  }
+
+  public void setStage(String stage) {
+    this.stage = stage;
+  }
+
+  public int getQueueDepth() {
+    return queueDepth;
+  }
+
+  public void setQueueDepth(int queueDepth) {
+    this.queueDepth = queueDepth;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public long getProcessed() {
+    return processed;
+  }
+
+  public void setProcessed(long processed) {
+    this.processed = processed;
+  }
+
+  public long getFailed() {
+    return failed;
+  }
+
+  public void setFailed(long failed) {
+    this.failed = failed;
+  }
+
+  public long getRetried() {
+    return retried;
+  }
+
+  public void setRetried(long retried) {
+    this.retried = retried;
+  }
+
+  public long getDeadLettered() {
+    return deadLettered;
+  }
+
+  public void setDeadLettered(long deadLettered) {
+    this.deadLettered = deadLettered;
+  }
+
+  public long getAverageLatency() {
+    return averageLatency;
+  }
+
+  public void setAverageLatency(long averageLatency) {
+    this.averageLatency = averageLatency;
+  }
+
+  public long getMaxLatency() {
+    return maxLatency;
+  }
+
+  public void setMaxLatency(long maxLatency) {
+    this.maxLatency = maxLatency;
+  }
+}
@@ -0,0 +1,43 @@
+package com.ctrip.framework.apollo.portal.entity.vo;
+
+import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+
+/**
+ * The result of publishing one target in a batch release
+ */
+public class ReleaseTargetResult {
+
+  private final NamespaceIdentifier target;
+  private final ReleaseDTO release;
+  private final String message;
+
+  private ReleaseTargetResult(NamespaceIdentifier target, ReleaseDTO release, String message) {
+    this.target = target;
+    this.release = release;
+    this.message = message;
+  }
+
+  public static ReleaseTargetResult success(NamespaceIdentifier target, ReleaseDTO release) {
+    return new ReleaseTargetResult(target, release, null);
+  }
+
+  public static ReleaseTargetResult failure(NamespaceIdentifier target, String message) {
+    return new ReleaseTargetResult(target, null, message);
+  }
+
+  public NamespaceIdentifier getTarget() {
+    return target;
+  }
+
+  public ReleaseDTO getRelease() {
+    return release;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public boolean isSuccess() {
+    return release != null;
+  }
+}
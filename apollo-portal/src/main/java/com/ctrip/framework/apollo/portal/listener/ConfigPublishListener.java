@@ -8,21 +8,61 @@ import com.ctrip.framework.apollo.portal.component.emailbuilder.GrayPublishEmail
 import com.ctrip.framework.apollo.portal.component.emailbuilder.MergeEmailBuilder;
 import com.ctrip.framework.apollo.portal.component.emailbuilder.NormalPublishEmailBuilder;
 import com.ctrip.framework.apollo.portal.component.emailbuilder.RollbackEmailBuilder;
+import com.ctrip.framework.apollo.portal.constant.TracerEventType;
 import com.ctrip.framework.apollo.portal.entity.bo.Email;
 import com.ctrip.framework.apollo.portal.entity.bo.ReleaseHistoryBO;
+import com.ctrip.framework.apollo.portal.entity.vo.PublishNotifyDeadLetter;
+import com.ctrip.framework.apollo.portal.entity.vo.PublishNotifyStageInfo;
 import com.ctrip.framework.apollo.portal.service.ReleaseHistoryService;
 import com.ctrip.framework.apollo.portal.spi.EmailService;
 import com.ctrip.framework.apollo.portal.spi.MQService;
 import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.google.common.collect.EvictingQueue;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
-import java.util.concurrent.ExecutorService;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
+/**
+ * Notifies the config publishes by email and mq in a staged pipeline: the release history is loaded and the email is
+ * built in the enrichment stage, then the email and the mq message are delivered in their own stages, so that a slow
+ * smtp server or mq doesn't hold up the other notifications.
+ *
+ * <p>Each stage has bounded threads and queue, the failed deliveries are retried with exponential backoff, and the
+ * notifications which are rejected or still fail after all the retries are dead lettered. Only the messages of a
+ * batch which are not sent yet are retried, so the messages already sent are not sent twice.</p>
+ */
 @Component
 public class ConfigPublishListener {
+  private static final Logger logger = LoggerFactory.getLogger(ConfigPublishListener.class);
+  private static final String ENRICH_STAGE = "enrich";
+  private static final String EMAIL_STAGE = "email";
+  private static final String MQ_STAGE = "mq";
+  private static final int MAX_DEAD_LETTERS = 100;
+  private static final long MAX_RETRY_BACKOFF = TimeUnit.MINUTES.toMillis(1);
 
   private final ReleaseHistoryService releaseHistoryService;
   private final EmailService emailService;
@@ -33,7 +73,18 @@ public class ConfigPublishListener {
   private final PortalConfig portalConfig;
   private final MQService mqService;
 
-  private ExecutorService executorService;
+  private final Queue<PublishNotifyDeadLetter> deadLetters = Queues.synchronizedQueue(
+      EvictingQueue.create(MAX_DEAD_LETTERS));
+  private final AtomicBoolean publishMsgDrainScheduled = new AtomicBoolean();
+
+  private NotifyStage enrichStage;
+  private NotifyStage emailStage;
+  private NotifyStage mqStage;
+  private BlockingQueue<PublishMsg> publishMsgQueue;
+  private ScheduledExecutorService retryScheduler;
+  private int mqBatchSize;
+  private int maxRetries;
+  private long retryBackoff;
 
   public ConfigPublishListener(
       final ReleaseHistoryService releaseHistoryService,
@@ -56,100 +107,313 @@ public class ConfigPublishListener {
 
   @PostConstruct
   public void init() {
-    executorService = Executors.newSingleThreadExecutor(ApolloThreadFactory.create("ConfigPublishNotify", true));
+    int queueCapacity = portalConfig.configPublishNotifyQueueCapacity();
+    mqBatchSize = portalConfig.configPublishNotifyMqBatchSize();
+    maxRetries = portalConfig.configPublishNotifyMaxRetries();
+    retryBackoff = portalConfig.configPublishNotifyRetryBackoff();
+
+    enrichStage = new NotifyStage(ENRICH_STAGE, portalConfig.configPublishNotifyEnrichThreads(), queueCapacity);
+    emailStage = new NotifyStage(EMAIL_STAGE, portalConfig.configPublishNotifyEmailThreads(), queueCapacity);
+    //the mq messages are queued in publishMsgQueue and sent in batches by the only thread of the mq stage
+    mqStage = new NotifyStage(MQ_STAGE, 1, queueCapacity);
+    publishMsgQueue = new ArrayBlockingQueue<>(queueCapacity);
+    retryScheduler = Executors.newSingleThreadScheduledExecutor(
+        ApolloThreadFactory.create("ConfigPublishNotifyRetry", true));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    retryScheduler.shutdownNow();
+    enrichStage.executor.shutdownNow();
+    emailStage.executor.shutdownNow();
+    mqStage.executor.shutdownNow();
   }
 
   @EventListener
   public void onConfigPublish(ConfigPublishEvent event) {
-    executorService.submit(new ConfigPublishNotifyTask(event.getConfigPublishInfo()));
+    ConfigPublishEvent.ConfigPublishInfo publishInfo = event.getConfigPublishInfo();
+    submit(enrichStage, () -> Collections.singletonList(publishInfo), () -> enrich(publishInfo), 1);
   }
 
+  public List<PublishNotifyStageInfo> getStageInfos() {
+    return Lists.newArrayList(enrichStage.toStageInfo(0), emailStage.toStageInfo(0),
+        mqStage.toStageInfo(publishMsgQueue.size()));
+  }
 
-  private class ConfigPublishNotifyTask implements Runnable {
+  public List<PublishNotifyDeadLetter> getDeadLetters() {
+    synchronized (deadLetters) {
+      return new ArrayList<>(deadLetters);
+    }
+  }
 
-    private ConfigPublishEvent.ConfigPublishInfo publishInfo;
+  private void enrich(ConfigPublishEvent.ConfigPublishInfo publishInfo) {
+    ReleaseHistoryBO releaseHistory = getReleaseHistory(publishInfo);
+    if (releaseHistory == null) {
+      Tracer.logError("Load release history failed", null);
+      return;
+    }
 
-    ConfigPublishNotifyTask(ConfigPublishEvent.ConfigPublishInfo publishInfo) {
-      this.publishInfo = publishInfo;
+    Email email = buildPublishEmail(publishInfo, releaseHistory);
+    if (email != null) {
+      submit(emailStage, () -> Collections.singletonList(publishInfo), () -> emailService.send(email), 1);
     }
 
-    @Override
-    public void run() {
-      ReleaseHistoryBO releaseHistory = getReleaseHistory();
-      if (releaseHistory == null) {
-        Tracer.logError("Load release history failed", null);
-        return;
-      }
+    enqueuePublishMsg(new PublishMsg(publishInfo, releaseHistory));
+  }
 
-      sendPublishEmail(releaseHistory);
+  private ReleaseHistoryBO getReleaseHistory(ConfigPublishEvent.ConfigPublishInfo publishInfo) {
+    Env env = publishInfo.getEnv();
 
-      sendPublishMsg(releaseHistory);
+    int operation = publishInfo.isMergeEvent() ? ReleaseOperation.GRAY_RELEASE_MERGE_TO_MASTER :
+                    publishInfo.isRollbackEvent() ? ReleaseOperation.ROLLBACK :
+                    publishInfo.isNormalPublishEvent() ? ReleaseOperation.NORMAL_RELEASE :
+                    publishInfo.isGrayPublishEvent() ? ReleaseOperation.GRAY_RELEASE : -1;
+
+    if (operation == -1) {
+      return null;
     }
 
-    private ReleaseHistoryBO getReleaseHistory() {
-      Env env = publishInfo.getEnv();
+    if (publishInfo.isRollbackEvent()) {
+      return releaseHistoryService
+          .findLatestByPreviousReleaseIdAndOperation(env, publishInfo.getPreviousReleaseId(), operation);
+    } else {
+      return releaseHistoryService.findLatestByReleaseIdAndOperation(env, publishInfo.getReleaseId(), operation);
+    }
 
-      int operation = publishInfo.isMergeEvent() ? ReleaseOperation.GRAY_RELEASE_MERGE_TO_MASTER :
-                      publishInfo.isRollbackEvent() ? ReleaseOperation.ROLLBACK :
-                      publishInfo.isNormalPublishEvent() ? ReleaseOperation.NORMAL_RELEASE :
-                      publishInfo.isGrayPublishEvent() ? ReleaseOperation.GRAY_RELEASE : -1;
+  }
 
-      if (operation == -1) {
-        return null;
+  private Email buildPublishEmail(ConfigPublishEvent.ConfigPublishInfo publishInfo, ReleaseHistoryBO releaseHistory) {
+    Env env = publishInfo.getEnv();
+
+    if (!portalConfig.emailSupportedEnvs().contains(env)) {
+      return null;
+    }
+
+    try {
+      return buildEmail(env, releaseHistory, releaseHistory.getOperation());
+    } catch (Throwable e) {
+      Tracer.logError("build email failed.", e);
+      return null;
+    }
+  }
+
+  private Email buildEmail(Env env, ReleaseHistoryBO releaseHistory, int operation) {
+    switch (operation) {
+      case ReleaseOperation.GRAY_RELEASE: {
+        return grayPublishEmailBuilder.build(env, releaseHistory);
+      }
+      case ReleaseOperation.NORMAL_RELEASE: {
+        return normalPublishEmailBuilder.build(env, releaseHistory);
+      }
+      case ReleaseOperation.ROLLBACK: {
+        return rollbackEmailBuilder.build(env, releaseHistory);
+      }
+      case ReleaseOperation.GRAY_RELEASE_MERGE_TO_MASTER: {
+        return mergeEmailBuilder.build(env, releaseHistory);
       }
+      default:
+        return null;
+    }
+  }
+
+  private void enqueuePublishMsg(PublishMsg publishMsg) {
+    if (!publishMsgQueue.offer(publishMsg)) {
+      deadLetter(mqStage, Collections.singletonList(publishMsg.publishInfo), "queue is full");
+      return;
+    }
+    scheduleDrainPublishMsgs();
+  }
 
-      if (publishInfo.isRollbackEvent()) {
-        return releaseHistoryService
-            .findLatestByPreviousReleaseIdAndOperation(env, publishInfo.getPreviousReleaseId(), operation);
-      } else {
-        return releaseHistoryService.findLatestByReleaseIdAndOperation(env, publishInfo.getReleaseId(), operation);
+  private void scheduleDrainPublishMsgs() {
+    if (!publishMsgDrainScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      mqStage.executor.execute(this::drainPublishMsgs);
+    } catch (RejectedExecutionException ex) {
+      //the mq stage is busy with the retries, drain later instead of waiting for the next publish
+      try {
+        retryScheduler.schedule(() -> {
+          publishMsgDrainScheduled.set(false);
+          scheduleDrainPublishMsgs();
+        }, retryBackoff, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException rejected) {
+        publishMsgDrainScheduled.set(false);
       }
+    }
+  }
+
+  private void drainPublishMsgs() {
+    publishMsgDrainScheduled.set(false);
 
+    List<PublishMsg> batch = new ArrayList<>(mqBatchSize);
+    while (publishMsgQueue.drainTo(batch, mqBatchSize) > 0) {
+      Map<Env, List<PublishMsg>> batchByEnv = new LinkedHashMap<>();
+      for (PublishMsg publishMsg : batch) {
+        batchByEnv.computeIfAbsent(publishMsg.publishInfo.getEnv(), env -> new ArrayList<>()).add(publishMsg);
+      }
+      for (Map.Entry<Env, List<PublishMsg>> entry : batchByEnv.entrySet()) {
+        sendPublishMsgs(entry.getKey(), entry.getValue());
+      }
+      batch.clear();
     }
+  }
 
-    private void sendPublishEmail(ReleaseHistoryBO releaseHistory) {
-      Env env = publishInfo.getEnv();
+  private void sendPublishMsgs(Env env, List<PublishMsg> publishMsgs) {
+    PublishMsgBatch batch = new PublishMsgBatch(env, publishMsgs);
+    execute(mqStage, batch::unsentPublishInfos, batch, 1);
+  }
 
-      if (!portalConfig.emailSupportedEnvs().contains(env)) {
+  private void submit(NotifyStage stage, Supplier<List<ConfigPublishEvent.ConfigPublishInfo>> publishInfos,
+                      Runnable task, int attempt) {
+    try {
+      stage.executor.execute(() -> execute(stage, publishInfos, task, attempt));
+    } catch (RejectedExecutionException ex) {
+      deadLetter(stage, publishInfos.get(), "queue is full");
+    }
+  }
+
+  /**
+   * @param publishInfos the publishes not notified yet, which are dead lettered if the task fails at last
+   */
+  private void execute(NotifyStage stage, Supplier<List<ConfigPublishEvent.ConfigPublishInfo>> publishInfos,
+                       Runnable task, int attempt) {
+    try {
+      stage.run(task);
+    } catch (Throwable ex) {
+      if (attempt > maxRetries) {
+        logger.error("Notify config publish in stage {} failed after {} attempts", stage.name, attempt, ex);
+        deadLetter(stage, publishInfos.get(), ex.getMessage());
         return;
       }
+      long backoff = Math.min(retryBackoff << (attempt - 1), MAX_RETRY_BACKOFF);
+      stage.retried.incrementAndGet();
+      Tracer.logEvent(TracerEventType.PUBLISH_NOTIFY_RETRY, stage.name);
+      try {
+        retryScheduler.schedule(() -> submit(stage, publishInfos, task, attempt + 1), backoff, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException rejected) {
+        deadLetter(stage, publishInfos.get(), ex.getMessage());
+      }
+    }
+  }
+
+  private void deadLetter(NotifyStage stage, List<ConfigPublishEvent.ConfigPublishInfo> publishInfos, String reason) {
+    Date now = new Date();
+    for (ConfigPublishEvent.ConfigPublishInfo publishInfo : publishInfos) {
+      PublishNotifyDeadLetter deadLetter = new PublishNotifyDeadLetter();
+      deadLetter.setStage(stage.name);
+      deadLetter.setEnv(String.valueOf(publishInfo.getEnv()));
+      deadLetter.setAppId(publishInfo.getAppId());
+      deadLetter.setClusterName(publishInfo.getClusterName());
+      deadLetter.setNamespaceName(publishInfo.getNamespaceName());
+      deadLetter.setReleaseId(publishInfo.getReleaseId());
+      deadLetter.setReason(reason);
+      deadLetter.setTime(now);
+      deadLetters.add(deadLetter);
+
+      stage.deadLettered.incrementAndGet();
+      Tracer.logEvent(TracerEventType.PUBLISH_NOTIFY_DEAD_LETTER, String.format("%s+%s+%s+%s+%s", stage.name,
+          publishInfo.getEnv(), publishInfo.getAppId(), publishInfo.getClusterName(), publishInfo.getNamespaceName()));
+    }
+  }
+
+  private static class NotifyStage {
+    private final String name;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
 
-      int realOperation = releaseHistory.getOperation();
+    NotifyStage(String name, int threads, int queueCapacity) {
+      this.name = name;
+      this.queueCapacity = queueCapacity;
+      this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(queueCapacity), ApolloThreadFactory.create("ConfigPublishNotify-" + name, true));
+    }
 
-      Email email = null;
+    void run(Runnable task) {
+      Transaction transaction = Tracer.newTransaction("Apollo.PublishNotify", name);
+      long start = System.currentTimeMillis();
       try {
-        email = buildEmail(env, releaseHistory, realOperation);
-      } catch (Throwable e) {
-        Tracer.logError("build email failed.", e);
+        task.run();
+        transaction.setStatus(Transaction.SUCCESS);
+      } catch (Throwable ex) {
+        failed.incrementAndGet();
+        transaction.setStatus(ex);
+        throw ex;
+      } finally {
+        long latency = System.currentTimeMillis() - start;
+        processed.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        transaction.complete();
       }
+    }
 
-      if (email != null) {
-        emailService.send(email);
+    PublishNotifyStageInfo toStageInfo(int pendingMessages) {
+      PublishNotifyStageInfo info = new PublishNotifyStageInfo();
+      info.setStage(name);
+      info.setQueueDepth(executor.getQueue().size() + pendingMessages);
+      info.setQueueCapacity(queueCapacity);
+      long processedCount = processed.get();
+      info.setProcessed(processedCount);
+      info.setFailed(failed.get());
+      info.setRetried(retried.get());
+      info.setDeadLettered(deadLettered.get());
+      info.setAverageLatency(processedCount == 0 ? 0 : totalLatency.get() / processedCount);
+      info.setMaxLatency(maxLatency.get());
+      return info;
+    }
+  }
+
+  /**
+   * The publish messages of the same env sent together, the retries only send the messages not sent yet
+   */
+  private class PublishMsgBatch implements Runnable {
+    private final Env env;
+    private final List<PublishMsg> publishMsgs;
+    //only accessed by the mq stage thread
+    private int sent;
+
+    PublishMsgBatch(Env env, List<PublishMsg> publishMsgs) {
+      this.env = env;
+      this.publishMsgs = publishMsgs;
+    }
+
+    @Override
+    public void run() {
+      List<ReleaseHistoryBO> releaseHistories = new ArrayList<>(publishMsgs.size() - sent);
+      for (PublishMsg publishMsg : publishMsgs.subList(sent, publishMsgs.size())) {
+        releaseHistories.add(publishMsg.releaseHistory);
+      }
+      int sentNow = mqService.sendPublishMsgs(env, releaseHistories);
+      sent += Math.max(0, Math.min(sentNow, releaseHistories.size()));
+      if (sent < publishMsgs.size()) {
+        throw new IllegalStateException(String.format("%d of %d publish messages are not sent",
+            publishMsgs.size() - sent, publishMsgs.size()));
       }
     }
 
-    private void sendPublishMsg(ReleaseHistoryBO releaseHistory) {
-      mqService.sendPublishMsg(publishInfo.getEnv(), releaseHistory);
-    }
-
-    private Email buildEmail(Env env, ReleaseHistoryBO releaseHistory, int operation) {
-      switch (operation) {
-        case ReleaseOperation.GRAY_RELEASE: {
-          return grayPublishEmailBuilder.build(env, releaseHistory);
-        }
-        case ReleaseOperation.NORMAL_RELEASE: {
-          return normalPublishEmailBuilder.build(env, releaseHistory);
-        }
-        case ReleaseOperation.ROLLBACK: {
-          return rollbackEmailBuilder.build(env, releaseHistory);
-        }
-        case ReleaseOperation.GRAY_RELEASE_MERGE_TO_MASTER: {
-          return mergeEmailBuilder.build(env, releaseHistory);
-        }
-        default:
-          return null;
+    List<ConfigPublishEvent.ConfigPublishInfo> unsentPublishInfos() {
+      List<ConfigPublishEvent.ConfigPublishInfo> publishInfos = new ArrayList<>(publishMsgs.size() - sent);
+      for (PublishMsg publishMsg : publishMsgs.subList(sent, publishMsgs.size())) {
+        publishInfos.add(publishMsg.publishInfo);
       }
+      return publishInfos;
     }
   }
 
+  private static class PublishMsg {
+    private final ConfigPublishEvent.ConfigPublishInfo publishInfo;
+    private final ReleaseHistoryBO releaseHistory;
+
+    PublishMsg(ConfigPublishEvent.ConfigPublishInfo publishInfo, ReleaseHistoryBO releaseHistory) {
+      this.publishInfo = publishInfo;
+      this.releaseHistory = releaseHistory;
+    }
+  }
 }
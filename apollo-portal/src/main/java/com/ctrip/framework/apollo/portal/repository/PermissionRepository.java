@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import org.springframework.data.repository.query.Param;
 
@@ -34,4 +35,22 @@ public interface PermissionRepository extends PagingAndSortingRepository<Permiss
   @Modifying
   @Query("UPDATE Permission SET IsDeleted=1, DataChange_LastModifiedBy = ?2 WHERE Id in ?1")
   Integer batchDelete(List<Long> permissionIds, String operator);
+
+  /**
+   * find the permissions modified after the time, including the deleted ones
+   */
+  @Query(value = "SELECT * FROM `Permission` WHERE `DataChange_LastTime` > ?1", nativeQuery = true)
+  List<Permission> findModifiedIncludingDeleted(Date lastModifiedTime);
+
+  @Query(value = "SELECT current_timestamp", nativeQuery = true)
+  Date currentTimestamp();
+
+  /**
+   * find the latest modified time of permissions, role permissions and user roles, including the deleted ones
+   */
+  @Query(value = "SELECT MAX(`LastTime`) FROM ("
+      + "SELECT MAX(`DataChange_LastTime`) AS `LastTime` FROM `Permission` UNION ALL "
+      + "SELECT MAX(`DataChange_LastTime`) AS `LastTime` FROM `RolePermission` UNION ALL "
+      + "SELECT MAX(`DataChange_LastTime`) AS `LastTime` FROM `UserRole`) AS `LastTimes`", nativeQuery = true)
+  Date findLatestModifiedTime();
 }
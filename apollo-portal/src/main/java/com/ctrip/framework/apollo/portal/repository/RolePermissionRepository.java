@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -22,4 +23,10 @@ public interface RolePermissionRepository extends PagingAndSortingRepository<Rol
   @Modifying
   @Query("UPDATE RolePermission SET IsDeleted=1, DataChange_LastModifiedBy = ?2 WHERE PermissionId in ?1")
   Integer batchDeleteByPermissionIds(List<Long> permissionIds, String operator);
+
+  /**
+   * find the role permissions modified after the time, including the deleted ones
+   */
+  @Query(value = "SELECT * FROM `RolePermission` WHERE `DataChange_LastTime` > ?1", nativeQuery = true)
+  List<RolePermission> findModifiedIncludingDeleted(Date lastModifiedTime);
 }
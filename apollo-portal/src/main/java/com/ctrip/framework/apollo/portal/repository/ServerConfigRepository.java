@@ -3,8 +3,19 @@ package com.ctrip.framework.apollo.portal.repository;
 
 import com.ctrip.framework.apollo.portal.entity.po.ServerConfig;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
 
 public interface ServerConfigRepository extends PagingAndSortingRepository<ServerConfig, Long> {
   ServerConfig findByKey(String key);
+
+  /**
+   * the deleted configs are included, so that the refresh could remove them
+   */
+  @Query(value = "select * from `ServerConfig` where `DataChange_LastTime` >= :lastModifiedTime", nativeQuery = true)
+  List<ServerConfig> findModifiedSinceIncludingDeleted(@Param("lastModifiedTime") Date lastModifiedTime);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -32,4 +33,9 @@ public interface UserRoleRepository extends PagingAndSortingRepository<UserRole,
   @Query("UPDATE UserRole SET IsDeleted=1, DataChange_LastModifiedBy = ?2 WHERE RoleId in ?1")
   Integer batchDeleteByRoleIds(List<Long> roleIds, String operator);
 
+  /**
+   * find the user roles modified after the time, including the deleted ones
+   */
+  @Query(value = "SELECT * FROM `UserRole` WHERE `DataChange_LastTime` > ?1", nativeQuery = true)
+  List<UserRole> findModifiedIncludingDeleted(Date lastModifiedTime);
 }
@@ -1,11 +1,13 @@
 package com.ctrip.framework.apollo.portal.service;
 
 import com.ctrip.framework.apollo.common.dto.AppDTO;
+import com.ctrip.framework.apollo.common.dto.PageDTO;
 import com.ctrip.framework.apollo.common.entity.App;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
 import com.ctrip.framework.apollo.core.enums.Env;
 import com.ctrip.framework.apollo.portal.api.AdminServiceAPI;
+import com.ctrip.framework.apollo.portal.component.AppSearchIndex;
 import com.ctrip.framework.apollo.portal.constant.TracerEventType;
 import com.ctrip.framework.apollo.portal.entity.bo.UserInfo;
 import com.ctrip.framework.apollo.portal.entity.vo.EnvClusterInfo;
@@ -34,6 +36,7 @@ public class AppService {
   private final RolePermissionService rolePermissionService;
   private final FavoriteService favoriteService;
   private final UserService userService;
+  private final AppSearchIndex appSearchIndex;
 
   public AppService(
       final UserInfoHolder userInfoHolder,
@@ -44,7 +47,8 @@ public class AppService {
       final RoleInitializationService roleInitializationService,
       final RolePermissionService rolePermissionService,
       final FavoriteService favoriteService,
-      final UserService userService) {
+      final UserService userService,
+      final AppSearchIndex appSearchIndex) {
     this.userInfoHolder = userInfoHolder;
     this.appAPI = appAPI;
     this.appRepository = appRepository;
@@ -54,6 +58,7 @@ public class AppService {
     this.rolePermissionService = rolePermissionService;
     this.favoriteService = favoriteService;
     this.userService = userService;
+    this.appSearchIndex = appSearchIndex;
   }
 
 
@@ -65,6 +70,14 @@ public class AppService {
     return Lists.newArrayList((apps));
   }
 
+  public List<App> findAll(Pageable pageable) {
+    return appRepository.findAll(pageable).getContent();
+  }
+
+  public PageDTO<App> searchApps(String query, Pageable pageable) {
+    return appSearchIndex.search(query, pageable);
+  }
+
   public List<App> findByAppIds(Set<String> appIds) {
     return appRepository.findByAppIdIn(appIds);
   }
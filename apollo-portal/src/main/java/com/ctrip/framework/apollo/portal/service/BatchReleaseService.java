@@ -0,0 +1,155 @@
+package com.ctrip.framework.apollo.portal.service;
+
+import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.core.utils.StringUtils;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
+import com.ctrip.framework.apollo.portal.constant.TracerEventType;
+import com.ctrip.framework.apollo.portal.entity.model.NamespaceReleaseModel;
+import com.ctrip.framework.apollo.portal.entity.vo.NamespaceIdentifier;
+import com.ctrip.framework.apollo.portal.entity.vo.ReleaseTargetResult;
+import com.ctrip.framework.apollo.portal.spi.UserInfoHolder;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the same release to several envs and clusters concurrently, so the total latency is bounded by the
+ * slowest target instead of the sum of all the admin service round trips.
+ *
+ * <p>Every target is published independently: a failed or timed out target doesn't affect the others, and the
+ * result of each target is reported back in the order of the request.</p>
+ */
+@Service
+public class BatchReleaseService {
+  private static final Logger logger = LoggerFactory.getLogger(BatchReleaseService.class);
+
+  private final ReleaseService releaseService;
+  private final UserInfoHolder userInfoHolder;
+  private final PortalConfig portalConfig;
+
+  private ExecutorService executorService;
+
+  public BatchReleaseService(
+      final ReleaseService releaseService,
+      final UserInfoHolder userInfoHolder,
+      final PortalConfig portalConfig) {
+    this.releaseService = releaseService;
+    this.userInfoHolder = userInfoHolder;
+    this.portalConfig = portalConfig;
+  }
+
+  @PostConstruct
+  public void init() {
+    executorService = Executors.newFixedThreadPool(portalConfig.batchReleaseConcurrency(),
+        ApolloThreadFactory.create("BatchRelease", true));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    executorService.shutdownNow();
+  }
+
+  /**
+   * @param model   the release information, env, cluster and namespace of which are ignored
+   * @param targets the envs, clusters and namespaces to publish
+   * @return the result of each target, in the same order as the targets
+   */
+  public List<ReleaseTargetResult> publish(NamespaceReleaseModel model, List<NamespaceIdentifier> targets) {
+    //resolve the operator in the request thread, the user info is not available in the worker threads
+    String releasedBy = StringUtils.isEmpty(model.getReleasedBy()) ?
+                        userInfoHolder.getUser().getUserId() : model.getReleasedBy();
+
+    Transaction transaction = Tracer.newTransaction("Apollo.BatchRelease", String.valueOf(targets.size()));
+    try {
+      List<Future<ReleaseDTO>> futures = Lists.newArrayListWithCapacity(targets.size());
+      for (NamespaceIdentifier target : targets) {
+        NamespaceReleaseModel targetModel = assembleTargetModel(model, target, releasedBy);
+        futures.add(executorService.submit(() -> releaseService.publish(targetModel)));
+      }
+
+      long startTime = System.currentTimeMillis();
+      List<ReleaseTargetResult> results = Lists.newArrayListWithCapacity(targets.size());
+      int failed = 0;
+      for (int i = 0; i < targets.size(); i++) {
+        ReleaseTargetResult result = awaitResult(targets.get(i), futures.get(i), startTime);
+        if (!result.isSuccess()) {
+          failed++;
+        }
+        results.add(result);
+      }
+
+      if (failed > 0) {
+        Tracer.logEvent(TracerEventType.BATCH_RELEASE_PARTIAL_FAILURE,
+            String.format("%d of %d targets failed", failed, targets.size()));
+      }
+      transaction.setStatus(Transaction.SUCCESS);
+      return results;
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      throw ex;
+    } finally {
+      transaction.complete();
+    }
+  }
+
+  private ReleaseTargetResult awaitResult(NamespaceIdentifier target, Future<ReleaseDTO> future, long startTime) {
+    Env env = target.getEnv();
+    long timeout = portalConfig.batchReleaseTimeout(env);
+    long remaining = Math.max(0, startTime + timeout - System.currentTimeMillis());
+    try {
+      return ReleaseTargetResult.success(target, future.get(remaining, TimeUnit.MILLISECONDS));
+    } catch (TimeoutException ex) {
+      //the release might still be created if the request is already sent to admin service
+      future.cancel(true);
+      Tracer.logEvent(TracerEventType.BATCH_RELEASE_TIMEOUT, String.format("%s+%s+%s+%s", target.getAppId(), env,
+          target.getClusterName(), target.getNamespaceName()));
+      return ReleaseTargetResult.failure(target, String.format(
+          "Publish timed out after %d ms, please check the latest release of the namespace", timeout));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      return ReleaseTargetResult.failure(target, "Publish interrupted");
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      logger.warn("Publish {} failed", target, cause);
+      return ReleaseTargetResult.failure(target, extractMessage(cause));
+    }
+  }
+
+  private NamespaceReleaseModel assembleTargetModel(NamespaceReleaseModel model, NamespaceIdentifier target,
+                                                    String releasedBy) {
+    NamespaceReleaseModel targetModel = new NamespaceReleaseModel();
+    targetModel.setAppId(target.getAppId());
+    targetModel.setEnv(target.getEnv().toString());
+    targetModel.setClusterName(target.getClusterName());
+    targetModel.setNamespaceName(target.getNamespaceName());
+    targetModel.setReleaseTitle(model.getReleaseTitle());
+    targetModel.setReleaseComment(model.getReleaseComment());
+    targetModel.setReleasedBy(releasedBy);
+    targetModel.setEmergencyPublish(model.isEmergencyPublish());
+    return targetModel;
+  }
+
+  private String extractMessage(Throwable cause) {
+    if (cause instanceof HttpStatusCodeException) {
+      return ((HttpStatusCodeException) cause).getResponseBodyAsString();
+    }
+    return cause.getMessage();
+  }
+}
@@ -1,10 +1,12 @@
 package com.ctrip.framework.apollo.portal.service;
 
 import com.ctrip.framework.apollo.common.dto.CommitDTO;
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.core.enums.Env;
 import com.ctrip.framework.apollo.portal.api.AdminServiceAPI;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -17,8 +19,13 @@ public class CommitService {
     this.commitAPI = commitAPI;
   }
 
-  public List<CommitDTO> find(String appId, Env env, String clusterName, String namespaceName, int page, int size) {
-    return commitAPI.find(appId, env, clusterName, namespaceName, page, size);
+  /**
+   * @param cursor the id of the last commit in the previous page, null for the first page
+   */
+  public List<CommitDTO> find(String appId, Env env, String clusterName, String namespaceName, Long cursor,
+      int size) {
+    CursorPageDTO<CommitDTO> result = commitAPI.findByCursor(appId, env, clusterName, namespaceName, cursor, size);
+    return result == null ? Collections.emptyList() : result.getContent();
   }
 
 }
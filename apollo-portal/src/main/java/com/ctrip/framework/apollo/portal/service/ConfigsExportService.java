@@ -0,0 +1,148 @@
+package com.ctrip.framework.apollo.portal.service;
+
+import com.ctrip.framework.apollo.common.dto.ClusterDTO;
+import com.ctrip.framework.apollo.common.dto.ItemDTO;
+import com.ctrip.framework.apollo.common.dto.NamespaceDTO;
+import com.ctrip.framework.apollo.common.entity.AppNamespace;
+import com.ctrip.framework.apollo.common.exception.ServiceException;
+import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.portal.api.AdminServiceAPI;
+import com.ctrip.framework.apollo.portal.component.PortalSettings;
+import com.ctrip.framework.apollo.portal.constant.TracerEventType;
+import com.ctrip.framework.apollo.portal.util.ConfigToFileUtils;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports all the namespaces of an app in all the clusters and envs as a zip, the entries of which are named as
+ * {env}/{clusterName}/{namespace file name}, e.g. DEV/default/application.properties.
+ *
+ * <p>The items are loaded concurrently and each namespace is written as soon as its items are loaded, at most
+ * {@link #MAX_PENDING_NAMESPACES} namespaces are loaded ahead, so the memory usage doesn't grow with the size of the
+ * app.</p>
+ */
+@Service
+public class ConfigsExportService {
+  private static final Logger logger = LoggerFactory.getLogger(ConfigsExportService.class);
+  private static final int MAX_PENDING_NAMESPACES = 20;
+
+  private final PortalSettings portalSettings;
+  private final ClusterService clusterService;
+  private final AdminServiceAPI.NamespaceAPI namespaceAPI;
+  private final ItemService itemService;
+  private final AppNamespaceService appNamespaceService;
+
+  public ConfigsExportService(
+      final PortalSettings portalSettings,
+      final ClusterService clusterService,
+      final AdminServiceAPI.NamespaceAPI namespaceAPI,
+      final ItemService itemService,
+      final AppNamespaceService appNamespaceService) {
+    this.portalSettings = portalSettings;
+    this.clusterService = clusterService;
+    this.namespaceAPI = namespaceAPI;
+    this.itemService = itemService;
+    this.appNamespaceService = appNamespaceService;
+  }
+
+  /**
+   * the file name of the namespace, which is decided by the format of its app namespace
+   */
+  public String findFileName(String appId, String namespaceName) {
+    AppNamespace appNamespace = appNamespaceService.findByAppIdAndName(appId, namespaceName);
+    if (appNamespace == null) {
+      appNamespace = appNamespaceService.findPublicAppNamespace(namespaceName);
+    }
+    return ConfigToFileUtils.toFileName(namespaceName, appNamespace == null ? null : appNamespace.getFormat());
+  }
+
+  public void exportApp(String appId, OutputStream outputStream) throws IOException {
+    ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+    Writer writer = new OutputStreamWriter(zipOutputStream, StandardCharsets.UTF_8);
+    Deque<PendingNamespace> pendingNamespaces = new ArrayDeque<>(MAX_PENDING_NAMESPACES);
+    Map<String, String> fileNames = Maps.newHashMap();
+    try {
+      for (Env env : portalSettings.getActiveEnvs()) {
+        for (ClusterDTO cluster : clusterService.findClusters(env, appId)) {
+          String clusterName = cluster.getName();
+          for (NamespaceDTO namespace : namespaceAPI.findNamespaceByCluster(appId, env, clusterName)) {
+            String namespaceName = namespace.getNamespaceName();
+            String fileName = fileNames.computeIfAbsent(namespaceName, name -> findFileName(appId, name));
+            String entryName = String.format("%s/%s/%s", env, clusterName, fileName);
+            pendingNamespaces.add(new PendingNamespace(entryName,
+                itemService.findItemsAsync(appId, env, clusterName, namespaceName)));
+
+            if (pendingNamespaces.size() >= MAX_PENDING_NAMESPACES) {
+              writeEntry(zipOutputStream, writer, pendingNamespaces.poll());
+            }
+          }
+        }
+      }
+
+      while (!pendingNamespaces.isEmpty()) {
+        writeEntry(zipOutputStream, writer, pendingNamespaces.poll());
+      }
+      zipOutputStream.finish();
+    } finally {
+      //the namespaces not written are not needed any more
+      for (PendingNamespace pendingNamespace : pendingNamespaces) {
+        pendingNamespace.items.cancel(true);
+      }
+    }
+
+    Tracer.logEvent(TracerEventType.EXPORT_APP, appId);
+  }
+
+  private void writeEntry(ZipOutputStream zipOutputStream, Writer writer, PendingNamespace pendingNamespace)
+      throws IOException {
+    List<ItemDTO> items;
+    try {
+      items = pendingNamespace.items.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException("Interrupted while exporting " + pendingNamespace.entryName, ex);
+    } catch (ExecutionException ex) {
+      logger.error("Load items of {} failed", pendingNamespace.entryName, ex.getCause());
+      throw new ServiceException("Load items of " + pendingNamespace.entryName + " failed", ex);
+    }
+
+    zipOutputStream.putNextEntry(new ZipEntry(pendingNamespace.entryName));
+    //the lines are only separated, so that the content of text namespaces is imported back as is
+    List<String> lines = ConfigToFileUtils.itemsToLines(items);
+    for (int i = 0; i < lines.size(); i++) {
+      if (i > 0) {
+        writer.write(System.lineSeparator());
+      }
+      writer.write(lines.get(i));
+    }
+    writer.flush();
+    zipOutputStream.closeEntry();
+  }
+
+  private static class PendingNamespace {
+    private final String entryName;
+    private final Future<List<ItemDTO>> items;
+
+    PendingNamespace(String entryName, Future<List<ItemDTO>> items) {
+      this.entryName = entryName;
+      this.items = items;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.ctrip.framework.apollo.portal.service;
+
+import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
+import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
+import com.ctrip.framework.apollo.portal.constant.TracerEventType;
+import com.ctrip.framework.apollo.portal.entity.vo.NamespaceIdentifier;
+import com.ctrip.framework.apollo.portal.entity.vo.NamespaceImportResult;
+import com.ctrip.framework.apollo.portal.spi.UserInfoHolder;
+import com.ctrip.framework.apollo.portal.util.ConfigToFileUtils;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Imports the zip exported by {@link ConfigsExportService}. The entries are parsed one by one while reading the zip,
+ * and the items of each namespace are updated by one change set, so the memory usage doesn't grow with the size of the
+ * zip.
+ *
+ * <p>The namespaces are imported independently, the failure of one namespace doesn't stop the others.</p>
+ */
+@Service
+public class ConfigsImportService {
+  private static final Logger logger = LoggerFactory.getLogger(ConfigsImportService.class);
+  private static final Splitter PATH_SPLITTER = Splitter.on("/");
+  private static final String PROPERTIES_SUFFIX = "." + ConfigFileFormat.Properties.getValue();
+
+  private final UserInfoHolder userInfoHolder;
+  private final ItemService itemService;
+  private final PortalConfig portalConfig;
+
+  public ConfigsImportService(final UserInfoHolder userInfoHolder, final ItemService itemService,
+      final PortalConfig portalConfig) {
+    this.userInfoHolder = userInfoHolder;
+    this.itemService = itemService;
+    this.portalConfig = portalConfig;
+  }
+
+  public List<NamespaceImportResult> importApp(String appId, InputStream inputStream) throws IOException {
+    String operator = userInfoHolder.getUser().getUserId();
+    List<NamespaceImportResult> results = Lists.newLinkedList();
+    int maxEntrySize = portalConfig.configImportEntryMaxSize();
+
+    ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+    ZipEntry entry;
+    while ((entry = zipInputStream.getNextEntry()) != null) {
+      if (entry.isDirectory()) {
+        continue;
+      }
+      //the zip input stream reaches its end at the end of each entry
+      String configText;
+      try {
+        configText = ConfigToFileUtils.fileToString(zipInputStream, maxEntrySize);
+      } catch (BadRequestException ex) {
+        NamespaceImportResult result = new NamespaceImportResult();
+        result.setEntryName(entry.getName());
+        result.setMessage(ex.getMessage());
+        results.add(result);
+        continue;
+      }
+      results.add(importNamespace(appId, entry.getName(), configText, operator));
+    }
+
+    Tracer.logEvent(TracerEventType.IMPORT_APP, appId);
+    return results;
+  }
+
+  private NamespaceImportResult importNamespace(String appId, String entryName, String configText, String operator) {
+    NamespaceImportResult result = new NamespaceImportResult();
+    result.setEntryName(entryName);
+
+    List<String> paths = PATH_SPLITTER.splitToList(entryName);
+    if (paths.size() != 3 || paths.get(2).lastIndexOf('.') <= 0) {
+      result.setMessage("The entry should be named as {env}/{clusterName}/{namespace file name}");
+      return result;
+    }
+
+    String fileName = paths.get(2);
+    String namespaceName = fileName.endsWith(PROPERTIES_SUFFIX) ?
+                           fileName.substring(0, fileName.length() - PROPERTIES_SUFFIX.length()) : fileName;
+    String format = fileName.substring(fileName.lastIndexOf('.') + 1);
+    result.setEnv(paths.get(0));
+    result.setClusterName(paths.get(1));
+    result.setNamespaceName(namespaceName);
+
+    try {
+      NamespaceIdentifier namespace = new NamespaceIdentifier();
+      namespace.setAppId(appId);
+      namespace.setEnv(paths.get(0));
+      namespace.setClusterName(paths.get(1));
+      namespace.setNamespaceName(namespaceName);
+
+      ItemChangeSets changeSets = itemService.updateConfigItemByText(namespace, ConfigFileFormat.fromString(format),
+          configText, operator);
+
+      result.setSuccess(true);
+      result.setChanges(changeSets.getCreateItems().size() + changeSets.getUpdateItems().size()
+          + changeSets.getDeleteItems().size());
+    } catch (Throwable ex) {
+      logger.warn("Import {} of app {} failed", entryName, appId, ex);
+      result.setMessage(ex instanceof HttpStatusCodeException ?
+                        ((HttpStatusCodeException) ex).getResponseBodyAsString() : ex.getMessage());
+    }
+    return result;
+  }
+}
@@ -4,49 +4,78 @@ package com.ctrip.framework.apollo.portal.service;
 import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.dto.NamespaceDTO;
+import com.ctrip.framework.apollo.common.dto.NamespaceItemsDTO;
 import com.ctrip.framework.apollo.common.exception.BadRequestException;
+import com.ctrip.framework.apollo.common.exception.ServiceException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
 import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
 import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
 import com.ctrip.framework.apollo.core.utils.StringUtils;
 import com.ctrip.framework.apollo.portal.api.AdminServiceAPI;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
 import com.ctrip.framework.apollo.portal.component.txtresolver.ConfigTextResolver;
 import com.ctrip.framework.apollo.portal.constant.TracerEventType;
 import com.ctrip.framework.apollo.portal.entity.model.NamespaceTextModel;
 import com.ctrip.framework.apollo.portal.entity.vo.ItemDiffs;
+import com.ctrip.framework.apollo.portal.entity.vo.ItemSyncJob;
+import com.ctrip.framework.apollo.portal.entity.vo.ItemSyncTargetResult;
 import com.ctrip.framework.apollo.portal.entity.vo.NamespaceIdentifier;
 import com.ctrip.framework.apollo.portal.spi.UserInfoHolder;
 import com.ctrip.framework.apollo.tracer.Tracer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
 
+import javax.annotation.PreDestroy;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class ItemService {
+  private static final Logger logger = LoggerFactory.getLogger(ItemService.class);
 
   private final UserInfoHolder userInfoHolder;
   private final AdminServiceAPI.NamespaceAPI namespaceAPI;
   private final AdminServiceAPI.ItemAPI itemAPI;
   private final ConfigTextResolver fileTextResolver;
   private final ConfigTextResolver propertyResolver;
+  private final PortalConfig portalConfig;
+  private final ConcurrentMap<Env, ExecutorService> executors = Maps.newConcurrentMap();
+  private final Cache<String, ItemSyncJob> syncJobs = CacheBuilder.newBuilder()
+      .expireAfterWrite(1, TimeUnit.HOURS).maximumSize(1000).build();
 
   public ItemService(
       final UserInfoHolder userInfoHolder,
       final AdminServiceAPI.NamespaceAPI namespaceAPI,
       final AdminServiceAPI.ItemAPI itemAPI,
       final @Qualifier("fileTextResolver") ConfigTextResolver fileTextResolver,
-      final @Qualifier("propertyResolver") ConfigTextResolver propertyResolver) {
+      final @Qualifier("propertyResolver") ConfigTextResolver propertyResolver,
+      final PortalConfig portalConfig) {
     this.userInfoHolder = userInfoHolder;
     this.namespaceAPI = namespaceAPI;
     this.itemAPI = itemAPI;
     this.fileTextResolver = fileTextResolver;
     this.propertyResolver = propertyResolver;
+    this.portalConfig = portalConfig;
   }
 
 
@@ -80,6 +109,36 @@ public class ItemService {
     Tracer.logEvent(TracerEventType.MODIFY_NAMESPACE, String.format("%s+%s+%s+%s", appId, env, clusterName, namespaceName));
   }
 
+  /**
+   * parse config text and update config items, the namespace id and the current items are loaded in one round trip
+   *
+   * @return the applied change sets, which is empty if nothing is changed
+   */
+  public ItemChangeSets updateConfigItemByText(NamespaceIdentifier namespace, ConfigFileFormat format,
+                                               String configText, String operator) {
+    ConfigTextResolver resolver = format == ConfigFileFormat.Properties ? propertyResolver : fileTextResolver;
+
+    NamespaceItemsDTO namespaceItems = loadNamespaceItems(namespace);
+    ItemChangeSets changeSets = resolver.resolve(namespaceItems.getNamespaceId(), configText,
+        namespaceItems.getItems());
+    if (changeSets.isEmpty()) {
+      return changeSets;
+    }
+
+    String appId = namespace.getAppId();
+    Env env = namespace.getEnv();
+    String clusterName = namespace.getClusterName();
+    String namespaceName = namespace.getNamespaceName();
+
+    changeSets.setDataChangeLastModifiedBy(operator);
+    updateItems(appId, env, clusterName, namespaceName, changeSets);
+
+    Tracer.logEvent(TracerEventType.MODIFY_NAMESPACE_BY_TEXT,
+        String.format("%s+%s+%s+%s", appId, env, clusterName, namespaceName));
+    Tracer.logEvent(TracerEventType.MODIFY_NAMESPACE, String.format("%s+%s+%s+%s", appId, env, clusterName, namespaceName));
+    return changeSets;
+  }
+
   public void updateItems(String appId, Env env, String clusterName, String namespaceName, ItemChangeSets changeSets){
     itemAPI.updateItemsByChangeSet(appId, env, clusterName, namespaceName, changeSets);
   }
@@ -110,37 +169,89 @@ public class ItemService {
     return itemAPI.findItems(appId, env, clusterName, namespaceName);
   }
 
+  /**
+   * Load the items with the executor of the env, so that the admin services won't be flooded when loading the items
+   * of a lot of namespaces
+   */
+  public Future<List<ItemDTO>> findItemsAsync(String appId, Env env, String clusterName, String namespaceName) {
+    return executorOf(env).submit(() -> itemAPI.findItems(appId, env, clusterName, namespaceName));
+  }
+
   public ItemDTO loadItem(Env env, String appId, String clusterName, String namespaceName, String key) {
     return itemAPI.loadItem(env, appId, clusterName, namespaceName, key);
   }
 
-  public void syncItems(List<NamespaceIdentifier> comparedNamespaces, List<ItemDTO> sourceItems) {
-    List<ItemDiffs> itemDiffs = compare(comparedNamespaces, sourceItems);
-    for (ItemDiffs itemDiff : itemDiffs) {
-      NamespaceIdentifier namespaceIdentifier = itemDiff.getNamespace();
-      ItemChangeSets changeSets = itemDiff.getDiffs();
-      changeSets.setDataChangeLastModifiedBy(userInfoHolder.getUser().getUserId());
+  /**
+   * Sync the items to the namespaces concurrently, each target is compared and updated independently.
+   *
+   * @throws RuntimeException the failure of the first failed target, after all the targets are completed
+   */
+  public List<ItemSyncTargetResult> syncItems(List<NamespaceIdentifier> comparedNamespaces, List<ItemDTO> sourceItems) {
+    //resolve the operator in the request thread, the user info is not available in the worker threads
+    String operator = userInfoHolder.getUser().getUserId();
+
+    List<ItemSyncTargetResult> results = Lists.newArrayListWithCapacity(comparedNamespaces.size());
+    List<Future<ItemChangeSets>> futures = Lists.newArrayListWithCapacity(comparedNamespaces.size());
+    for (NamespaceIdentifier namespace : comparedNamespaces) {
+      ItemSyncTargetResult result = new ItemSyncTargetResult(namespace);
+      results.add(result);
+      futures.add(submitSync(namespace, sourceItems, operator, result));
+    }
+
+    RuntimeException failure = null;
+    for (Future<ItemChangeSets> future : futures) {
+      try {
+        await(future);
+      } catch (RuntimeException ex) {
+        if (failure == null) {
+          failure = ex;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return results;
+  }
 
-      String appId = namespaceIdentifier.getAppId();
-      Env env = namespaceIdentifier.getEnv();
-      String clusterName = namespaceIdentifier.getClusterName();
-      String namespaceName = namespaceIdentifier.getNamespaceName();
+  /**
+   * Submit an asynchronous job to sync the items to the namespaces, the progress of which could be polled with
+   * {@link #findSyncJob(String)}
+   */
+  public ItemSyncJob submitSyncJob(List<NamespaceIdentifier> comparedNamespaces, List<ItemDTO> sourceItems) {
+    String operator = userInfoHolder.getUser().getUserId();
 
-      itemAPI.updateItemsByChangeSet(appId, env, clusterName, namespaceName, changeSets);
+    List<ItemSyncTargetResult> results = Lists.newArrayListWithCapacity(comparedNamespaces.size());
+    for (NamespaceIdentifier namespace : comparedNamespaces) {
+      results.add(new ItemSyncTargetResult(namespace));
+    }
+    ItemSyncJob job = new ItemSyncJob(UUID.randomUUID().toString().replace("-", ""), operator, results);
+    syncJobs.put(job.getId(), job);
 
-      Tracer.logEvent(TracerEventType.SYNC_NAMESPACE, String.format("%s+%s+%s+%s", appId, env, clusterName, namespaceName));
+    for (ItemSyncTargetResult result : results) {
+      submitSync(result.getTarget(), sourceItems, operator, result);
     }
+    return job;
+  }
+
+  public ItemSyncJob findSyncJob(String jobId) {
+    return syncJobs.getIfPresent(jobId);
   }
 
   public List<ItemDiffs> compare(List<NamespaceIdentifier> comparedNamespaces, List<ItemDTO> sourceItems) {
+    List<Future<ItemChangeSets>> futures = Lists.newArrayListWithCapacity(comparedNamespaces.size());
+    for (NamespaceIdentifier namespace : comparedNamespaces) {
+      futures.add(executorOf(namespace.getEnv()).submit(() -> parseChangeSets(namespace, sourceItems)));
+    }
 
     List<ItemDiffs> result = new LinkedList<>();
 
-    for (NamespaceIdentifier namespace : comparedNamespaces) {
+    for (int i = 0; i < comparedNamespaces.size(); i++) {
+      NamespaceIdentifier namespace = comparedNamespaces.get(i);
 
       ItemDiffs itemDiffs = new ItemDiffs(namespace);
       try {
-        itemDiffs.setDiffs(parseChangeSets(namespace, sourceItems));
+        itemDiffs.setDiffs(await(futures.get(i)));
       } catch (BadRequestException e) {
         itemDiffs.setDiffs(new ItemChangeSets());
         itemDiffs.setExtInfo("该集群下没有名为 " + namespace.getNamespaceName() + " 的namespace");
@@ -151,12 +262,92 @@ public class ItemService {
     return result;
   }
 
-  private long getNamespaceId(NamespaceIdentifier namespaceIdentifier) {
+  @PreDestroy
+  public void destroy() {
+    executors.values().forEach(ExecutorService::shutdownNow);
+  }
+
+  private Future<ItemChangeSets> submitSync(NamespaceIdentifier namespace, List<ItemDTO> sourceItems, String operator,
+                                            ItemSyncTargetResult result) {
+    return executorOf(namespace.getEnv()).submit(() -> {
+      result.running();
+      try {
+        ItemChangeSets changeSets = parseChangeSets(namespace, sourceItems);
+        if (!changeSets.isEmpty()) {
+          changeSets.setDataChangeLastModifiedBy(operator);
+
+          String appId = namespace.getAppId();
+          Env env = namespace.getEnv();
+          String clusterName = namespace.getClusterName();
+          String namespaceName = namespace.getNamespaceName();
+
+          itemAPI.updateItemsByChangeSet(appId, env, clusterName, namespaceName, changeSets);
+
+          Tracer.logEvent(TracerEventType.SYNC_NAMESPACE,
+              String.format("%s+%s+%s+%s", appId, env, clusterName, namespaceName));
+        }
+        result.success(changeSets);
+        return changeSets;
+      } catch (RuntimeException ex) {
+        logger.warn("Sync items to {} failed", namespace, ex);
+        result.failure(extractMessage(ex));
+        throw ex;
+      }
+    });
+  }
+
+  /**
+   * Each env has its own executor, so a slow env doesn't hold up the other envs and the admin services of each env
+   * won't be flooded when syncing to a lot of clusters.
+   */
+  private ExecutorService executorOf(Env env) {
+    return executors.computeIfAbsent(env, key -> {
+      int concurrency = portalConfig.itemSyncConcurrency(key);
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(), ApolloThreadFactory.create("ItemSync-" + key, true));
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    });
+  }
+
+  private <T> T await(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      throw new ServiceException("Interrupted while waiting for admin service response", ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new ServiceException(cause.getMessage(), (Exception) cause);
+    }
+  }
+
+  private String extractMessage(Throwable cause) {
+    if (cause instanceof HttpStatusCodeException) {
+      return ((HttpStatusCodeException) cause).getResponseBodyAsString();
+    }
+    return cause.getMessage();
+  }
+
+  private NamespaceItemsDTO loadNamespaceItems(NamespaceIdentifier namespaceIdentifier) {
     String appId = namespaceIdentifier.getAppId();
     String clusterName = namespaceIdentifier.getClusterName();
     String namespaceName = namespaceIdentifier.getNamespaceName();
     Env env = namespaceIdentifier.getEnv();
-    NamespaceDTO namespaceDTO = null;
+    try {
+      return itemAPI.findNamespaceItems(appId, env, clusterName, namespaceName);
+    } catch (HttpClientErrorException e) {
+      if (e.getStatusCode() != HttpStatus.NOT_FOUND) {
+        throw e;
+      }
+    }
+
+    //the admin service is older than the portal, e.g. during a rolling upgrade, or the namespace doesn't exist
+    NamespaceDTO namespaceDTO;
     try {
       namespaceDTO = namespaceAPI.loadNamespace(appId, env, clusterName, namespaceName);
     } catch (HttpClientErrorException e) {
@@ -165,18 +356,21 @@ public class ItemService {
             "namespace not exist. appId:%s, env:%s, clusterName:%s, namespaceName:%s", appId, env, clusterName,
             namespaceName));
       }
+      throw e;
     }
-    return namespaceDTO.getId();
+
+    NamespaceItemsDTO namespaceItems = new NamespaceItemsDTO();
+    namespaceItems.setNamespaceId(namespaceDTO.getId());
+    namespaceItems.setItems(itemAPI.findItems(appId, env, clusterName, namespaceName));
+    return namespaceItems;
   }
 
   private ItemChangeSets parseChangeSets(NamespaceIdentifier namespace, List<ItemDTO> sourceItems) {
     ItemChangeSets changeSets = new ItemChangeSets();
-    List<ItemDTO>
-        targetItems =
-        itemAPI.findItems(namespace.getAppId(), namespace.getEnv(),
-            namespace.getClusterName(), namespace.getNamespaceName());
-
-    long namespaceId = getNamespaceId(namespace);
+    //load the items and the namespace id in one round trip
+    NamespaceItemsDTO namespaceItems = loadNamespaceItems(namespace);
+    List<ItemDTO> targetItems = namespaceItems.getItems();
+    long namespaceId = namespaceItems.getNamespaceId();
 
     if (CollectionUtils.isEmpty(targetItems)) {//all source items is added
       int lineNum = 1;
@@ -187,7 +381,10 @@ public class ItemService {
       Map<String, ItemDTO> targetItemMap = BeanUtils.mapByKey("key", targetItems);
       String key, sourceValue, sourceComment;
       ItemDTO targetItem = null;
-      int maxLineNum = targetItems.size();//append to last
+      int maxLineNum = 0;//append to last
+      for (ItemDTO item : targetItems) {
+        maxLineNum = Math.max(maxLineNum, item.getLineNum());
+      }
       for (ItemDTO sourceItem : sourceItems) {
         key = sourceItem.getKey();
         sourceValue = sourceItem.getValue();
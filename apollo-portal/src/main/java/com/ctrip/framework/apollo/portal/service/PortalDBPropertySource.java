@@ -1,30 +1,36 @@
 package com.ctrip.framework.apollo.portal.service;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import com.ctrip.framework.apollo.common.config.RefreshablePropertySource;
 import com.ctrip.framework.apollo.portal.entity.po.ServerConfig;
 import com.ctrip.framework.apollo.portal.repository.ServerConfigRepository;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
 
 
 /**
+ * Loads all the server configs at the first time, and then only the configs modified since the last refresh. All the
+ * configs are reloaded once in a while in case the changes committed late with earlier modified time are missed.
+ *
  * @author Jason Song(song_s@ctrip.com)
  */
 @Component
 public class PortalDBPropertySource extends RefreshablePropertySource {
-  private static final Logger logger = LoggerFactory.getLogger(PortalDBPropertySource.class);
+  private static final int FULL_REFRESH_ROUNDS = 10;
 
   @Autowired
   private ServerConfigRepository serverConfigRepository;
 
+  private Date lastModifiedTime;
+  private int incrementalRefreshRounds;
+
   public PortalDBPropertySource(String name, Map<String, Object> source) {
     super(name, source);
   }
@@ -34,21 +40,36 @@ public class PortalDBPropertySource extends RefreshablePropertySource {
   }
 
   @Override
-  protected void refresh() {
-    Iterable<ServerConfig> dbConfigs = serverConfigRepository.findAll();
+  protected synchronized void refresh() {
+    Iterable<ServerConfig> dbConfigs;
+    boolean fullRefresh = lastModifiedTime == null || incrementalRefreshRounds >= FULL_REFRESH_ROUNDS;
+    if (fullRefresh) {
+      dbConfigs = serverConfigRepository.findAll();
+      incrementalRefreshRounds = 0;
+    } else {
+      //the configs modified at the same time as the last one are loaded again, as the time is only precise to second
+      dbConfigs = serverConfigRepository.findModifiedSinceIncludingDeleted(lastModifiedTime);
+      incrementalRefreshRounds++;
+    }
 
+    Set<String> loadedKeys = Sets.newHashSet();
     for (ServerConfig config: dbConfigs) {
-      String key = config.getKey();
-      Object value = config.getValue();
-
-      if (this.source.isEmpty()) {
-        logger.info("Load config from DB : {} = {}", key, value);
-      } else if (!Objects.equals(this.source.get(key), value)) {
-        logger.info("Load config from DB : {} = {}. Old value = {}", key,
-                    value, this.source.get(key));
+      Date modifiedTime = config.getDataChangeLastModifiedTime();
+      if (modifiedTime != null && (lastModifiedTime == null || modifiedTime.after(lastModifiedTime))) {
+        lastModifiedTime = modifiedTime;
       }
 
-      this.source.put(key, value);
+      loadedKeys.add(config.getKey());
+      if (config.isDeleted()) {
+        removeProperty(config.getKey());
+      } else {
+        updateProperty(config.getKey(), config.getValue());
+      }
+    }
+
+    //the configs missed by the incremental refreshes after they were deleted
+    if (fullRefresh) {
+      Sets.difference(source.keySet(), loadedKeys).immutableCopy().forEach(this::removeProperty);
     }
   }
 
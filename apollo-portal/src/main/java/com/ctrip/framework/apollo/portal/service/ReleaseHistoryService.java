@@ -1,14 +1,18 @@
 package com.ctrip.framework.apollo.portal.service;
 
 import com.ctrip.framework.apollo.common.constants.GsonType;
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.common.dto.PageDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseDiffDTO;
 import com.ctrip.framework.apollo.common.dto.ReleaseHistoryDTO;
 import com.ctrip.framework.apollo.common.entity.EntityPair;
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.common.utils.BeanUtils;
 import com.ctrip.framework.apollo.core.enums.Env;
 import com.ctrip.framework.apollo.portal.api.AdminServiceAPI;
 import com.ctrip.framework.apollo.portal.entity.bo.ReleaseHistoryBO;
+import com.ctrip.framework.apollo.portal.entity.vo.ReleaseCompareResult;
 import com.ctrip.framework.apollo.portal.util.RelativeDateFormat;
 import com.google.gson.Gson;
 import org.springframework.stereotype.Service;
@@ -19,6 +23,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 @Service
@@ -58,10 +63,13 @@ public class ReleaseHistoryService {
     return null;
   }
 
+  /**
+   * @param cursor the id of the last release history in the previous page, null for the first page
+   */
   public List<ReleaseHistoryBO> findNamespaceReleaseHistory(String appId, Env env, String clusterName,
-                                                            String namespaceName, int page, int size) {
-    PageDTO<ReleaseHistoryDTO> result = releaseHistoryAPI.findReleaseHistoriesByNamespace(appId, env, clusterName,
-                                                                                          namespaceName, page, size);
+                                                            String namespaceName, Long cursor, int size) {
+    CursorPageDTO<ReleaseHistoryDTO> result = releaseHistoryAPI.findReleaseHistoriesByNamespaceAndCursor(appId, env,
+        clusterName, namespaceName, cursor, size);
     if (result == null || !result.hasContent()) {
       return Collections.emptyList();
     }
@@ -80,6 +88,69 @@ public class ReleaseHistoryService {
     return transformReleaseHistoryDTO2BO(content, releases);
   }
 
+  /**
+   * Find the release histories without the release configurations, which could be loaded on demand by
+   * {@link #findReleaseConfiguration} and {@link #compareWithPreviousRelease}
+   *
+   * @param cursor the id of the last release history in the previous page, null for the first page
+   */
+  public List<ReleaseHistoryBO> findNamespaceReleaseHistorySummaries(String appId, Env env, String clusterName,
+                                                                     String namespaceName, Long cursor, int size) {
+    CursorPageDTO<ReleaseHistoryDTO> result = releaseHistoryAPI.findReleaseHistorySummariesByNamespaceAndCursor(
+        appId, env, clusterName, namespaceName, cursor, size);
+    if (result == null || !result.hasContent()) {
+      return Collections.emptyList();
+    }
+
+    List<ReleaseHistoryBO> bos = new ArrayList<>(result.getContent().size());
+    for (ReleaseHistoryDTO dto : result.getContent()) {
+      ReleaseHistoryBO bo = assembleReleaseHistoryBO(dto);
+      if (dto.getReleaseTitle() != null) {
+        bo.setReleaseTitle(dto.getReleaseTitle());
+        bo.setReleaseComment(dto.getReleaseComment());
+      } else {
+        bo.setReleaseTitle("no release information");
+      }
+      bos.add(bo);
+    }
+    return bos;
+  }
+
+  public List<EntityPair<String>> findReleaseConfiguration(String appId, Env env, String namespaceName,
+                                                           long releaseId) {
+    ReleaseDTO release = releaseService.findReleaseById(env, releaseId);
+    if (release == null) {
+      throw new BadRequestException(String.format("release not found. env:%s, releaseId:%s", env, releaseId));
+    }
+    checkReleaseBelongsTo(release, appId, namespaceName);
+    return transformConfiguration(release.getConfigurations());
+  }
+
+  /**
+   * @param previousReleaseId 0 means no previous release, then all the configurations are treated as added
+   */
+  public ReleaseCompareResult compareWithPreviousRelease(String appId, Env env, String namespaceName,
+                                                         long releaseId, long previousReleaseId) {
+    if (releaseId == 0 && previousReleaseId == 0) {
+      return new ReleaseCompareResult();
+    }
+    //the diff is computed and cached by the admin service
+    ReleaseDiffDTO releaseDiff = releaseService.findReleaseDiff(env, previousReleaseId, releaseId);
+    if (!Objects.equals(releaseDiff.getAppId(), appId)
+        || !Objects.equals(releaseDiff.getNamespaceName(), namespaceName)) {
+      throw new BadRequestException(String.format("release %s doesn't belong to appId:%s, namespaceName:%s",
+          releaseId != 0 ? releaseId : previousReleaseId, appId, namespaceName));
+    }
+    return releaseService.transformReleaseDiff(releaseDiff);
+  }
+
+  private void checkReleaseBelongsTo(ReleaseDTO release, String appId, String namespaceName) {
+    if (!Objects.equals(release.getAppId(), appId) || !Objects.equals(release.getNamespaceName(), namespaceName)) {
+      throw new BadRequestException(String.format("release %s doesn't belong to appId:%s, namespaceName:%s",
+          release.getId(), appId, namespaceName));
+    }
+  }
+
   private List<ReleaseHistoryBO> transformReleaseHistoryDTO2BO(List<ReleaseHistoryDTO> source,
                                                                List<ReleaseDTO> releases) {
 
@@ -95,6 +166,14 @@ public class ReleaseHistoryService {
   }
 
   private ReleaseHistoryBO transformReleaseHistoryDTO2BO(ReleaseHistoryDTO dto, ReleaseDTO release){
+    ReleaseHistoryBO bo = assembleReleaseHistoryBO(dto);
+    //set release info
+    setReleaseInfoToReleaseHistoryBO(bo, release);
+
+    return bo;
+  }
+
+  private ReleaseHistoryBO assembleReleaseHistoryBO(ReleaseHistoryDTO dto) {
     ReleaseHistoryBO bo = new ReleaseHistoryBO();
     bo.setId(dto.getId());
     bo.setAppId(dto.getAppId());
@@ -109,27 +188,29 @@ public class ReleaseHistoryService {
     bo.setReleaseTime(releaseTime);
     bo.setReleaseTimeFormatted(RelativeDateFormat.format(releaseTime));
     bo.setOperationContext(dto.getOperationContext());
-    //set release info
-    setReleaseInfoToReleaseHistoryBO(bo, release);
-
     return bo;
   }
+
   private void setReleaseInfoToReleaseHistoryBO(ReleaseHistoryBO bo, ReleaseDTO release) {
     if (release != null) {
       bo.setReleaseTitle(release.getName());
       bo.setReleaseComment(release.getComment());
 
-      Map<String, String> configuration = gson.fromJson(release.getConfigurations(), GsonType.CONFIG);
-      List<EntityPair<String>> items = new ArrayList<>(configuration.size());
-      for (Map.Entry<String, String> entry : configuration.entrySet()) {
-        EntityPair<String> entityPair = new EntityPair<>(entry.getKey(), entry.getValue());
-        items.add(entityPair);
-      }
-      bo.setConfiguration(items);
+      bo.setConfiguration(transformConfiguration(release.getConfigurations()));
 
     } else {
       bo.setReleaseTitle("no release information");
       bo.setConfiguration(null);
     }
   }
+
+  private List<EntityPair<String>> transformConfiguration(String configurations) {
+    Map<String, String> configuration = gson.fromJson(configurations, GsonType.CONFIG);
+    List<EntityPair<String>> items = new ArrayList<>(configuration.size());
+    for (Map.Entry<String, String> entry : configuration.entrySet()) {
+      EntityPair<String> entityPair = new EntityPair<>(entry.getKey(), entry.getValue());
+      items.add(entityPair);
+    }
+    return items;
+  }
 }
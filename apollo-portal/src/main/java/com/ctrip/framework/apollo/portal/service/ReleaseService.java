@@ -1,8 +1,11 @@
 package com.ctrip.framework.apollo.portal.service;
 
 import com.ctrip.framework.apollo.common.constants.GsonType;
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
 import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
 import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseDiffDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseItemChangeDTO;
 import com.ctrip.framework.apollo.core.enums.Env;
 import com.ctrip.framework.apollo.core.utils.StringUtils;
 import com.ctrip.framework.apollo.portal.api.AdminServiceAPI;
@@ -15,13 +18,11 @@ import com.ctrip.framework.apollo.portal.entity.vo.ReleaseCompareResult;
 import com.ctrip.framework.apollo.portal.enums.ChangeType;
 import com.ctrip.framework.apollo.portal.spi.UserInfoHolder;
 import com.ctrip.framework.apollo.tracer.Tracer;
-import com.google.common.base.Objects;
 import com.google.gson.Gson;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -87,13 +88,18 @@ public class ReleaseService {
                                        isEmergencyPublish, deleteBranch, changeSets);
   }
 
-  public List<ReleaseBO> findAllReleases(String appId, Env env, String clusterName, String namespaceName, int page,
+  /**
+   * @param cursor the id of the last release in the previous page, null for the first page
+   */
+  public List<ReleaseBO> findAllReleases(String appId, Env env, String clusterName, String namespaceName, Long cursor,
                                          int size) {
-    List<ReleaseDTO> releaseDTOs = releaseAPI.findAllReleases(appId, env, clusterName, namespaceName, page, size);
+    CursorPageDTO<ReleaseDTO> result = releaseAPI.findAllReleasesByCursor(appId, env, clusterName, namespaceName,
+        cursor, size);
 
-    if (CollectionUtils.isEmpty(releaseDTOs)) {
+    if (result == null || !result.hasContent()) {
       return Collections.emptyList();
     }
+    List<ReleaseDTO> releaseDTOs = result.getContent();
 
     List<ReleaseBO> releases = new LinkedList<>();
     for (ReleaseDTO releaseDTO : releaseDTOs) {
@@ -115,9 +121,14 @@ public class ReleaseService {
     return releases;
   }
 
-  public List<ReleaseDTO> findActiveReleases(String appId, Env env, String clusterName, String namespaceName, int page,
-                                             int size) {
-    return releaseAPI.findActiveReleases(appId, env, clusterName, namespaceName, page, size);
+  /**
+   * @param cursor the id of the last release in the previous page, null for the first page
+   */
+  public List<ReleaseDTO> findActiveReleases(String appId, Env env, String clusterName, String namespaceName,
+                                             Long cursor, int size) {
+    CursorPageDTO<ReleaseDTO> result = releaseAPI.findActiveReleasesByCursor(appId, env, clusterName, namespaceName,
+        cursor, size);
+    return result == null ? Collections.emptyList() : result.getContent();
   }
 
   public ReleaseDTO findReleaseById(Env env, long releaseId) {
@@ -144,55 +155,41 @@ public class ReleaseService {
     releaseAPI.rollback(env, releaseId, userInfoHolder.getUser().getUserId());
   }
 
+  /**
+   * @param baseReleaseId      0 means an empty release, e.g. the first release has no previous release
+   * @param toCompareReleaseId 0 means an empty release
+   */
   public ReleaseCompareResult compare(Env env, long baseReleaseId, long toCompareReleaseId) {
-
-    ReleaseDTO baseRelease = null;
-    ReleaseDTO toCompareRelease = null;
-    if (baseReleaseId != 0) {
-      baseRelease = releaseAPI.loadRelease(env, baseReleaseId);
-    }
-
-    if (toCompareReleaseId != 0) {
-      toCompareRelease = releaseAPI.loadRelease(env, toCompareReleaseId);
+    if (baseReleaseId == 0 && toCompareReleaseId == 0) {
+      return new ReleaseCompareResult();
     }
-
-    return compare(baseRelease, toCompareRelease);
+    return transformReleaseDiff(findReleaseDiff(env, baseReleaseId, toCompareReleaseId));
   }
 
-  public ReleaseCompareResult compare(ReleaseDTO baseRelease, ReleaseDTO toCompareRelease) {
-    Map<String, String> baseReleaseConfiguration = baseRelease == null ? new HashMap<>() :
-                                                   gson.fromJson(baseRelease.getConfigurations(), GsonType.CONFIG);
-    Map<String, String> toCompareReleaseConfiguration = toCompareRelease == null ? new HashMap<>() :
-                                                        gson.fromJson(toCompareRelease.getConfigurations(),
-                                                                      GsonType.CONFIG);
+  public ReleaseDiffDTO findReleaseDiff(Env env, long baseReleaseId, long toCompareReleaseId) {
+    return releaseAPI.compareReleases(env, baseReleaseId, toCompareReleaseId);
+  }
 
+  public ReleaseCompareResult transformReleaseDiff(ReleaseDiffDTO releaseDiff) {
     ReleaseCompareResult compareResult = new ReleaseCompareResult();
 
-    //added and modified in firstRelease
-    for (Map.Entry<String, String> entry : baseReleaseConfiguration.entrySet()) {
-      String key = entry.getKey();
-      String firstValue = entry.getValue();
-      String secondValue = toCompareReleaseConfiguration.get(key);
-      //added
-      if (secondValue == null) {
-        compareResult.addEntityPair(ChangeType.DELETED, new KVEntity(key, firstValue),
-                                    new KVEntity(key, null));
-      } else if (!Objects.equal(firstValue, secondValue)) {
-        compareResult.addEntityPair(ChangeType.MODIFIED, new KVEntity(key, firstValue),
-                                    new KVEntity(key, secondValue));
+    for (ReleaseItemChangeDTO change : releaseDiff.getChanges()) {
+      String key = change.getKey();
+      ChangeType type = ChangeType.valueOf(change.getType());
+      switch (type) {
+        case ADDED:
+          compareResult.addEntityPair(type, new KVEntity(key, ""), new KVEntity(key, change.getNewValue()));
+          break;
+        case MODIFIED:
+          compareResult.addEntityPair(type, new KVEntity(key, change.getOldValue()),
+                                      new KVEntity(key, change.getNewValue()));
+          break;
+        case DELETED:
+          compareResult.addEntityPair(type, new KVEntity(key, change.getOldValue()), new KVEntity(key, null));
+          break;
+        default:
+          break;
       }
-
-    }
-
-    //deleted in firstRelease
-    for (Map.Entry<String, String> entry : toCompareReleaseConfiguration.entrySet()) {
-      String key = entry.getKey();
-      String value = entry.getValue();
-      if (baseReleaseConfiguration.get(key) == null) {
-        compareResult
-            .addEntityPair(ChangeType.ADDED, new KVEntity(key, ""), new KVEntity(key, value));
-      }
-
     }
 
     return compareResult;
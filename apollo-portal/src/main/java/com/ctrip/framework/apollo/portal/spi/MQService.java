@@ -3,8 +3,31 @@ package com.ctrip.framework.apollo.portal.spi;
 import com.ctrip.framework.apollo.core.enums.Env;
 import com.ctrip.framework.apollo.portal.entity.bo.ReleaseHistoryBO;
 
+import java.util.List;
+
 public interface MQService {
 
   void sendPublishMsg(Env env, ReleaseHistoryBO releaseHistory);
 
+  /**
+   * send the publish messages of the same env in order, the implementations could override it to send them in one
+   * request
+   *
+   * @return the number of the leading messages sent, the others are sent again later
+   * @throws RuntimeException if none of the messages is sent
+   */
+  default int sendPublishMsgs(Env env, List<ReleaseHistoryBO> releaseHistories) {
+    for (int i = 0; i < releaseHistories.size(); i++) {
+      try {
+        sendPublishMsg(env, releaseHistories.get(i));
+      } catch (RuntimeException ex) {
+        if (i == 0) {
+          throw ex;
+        }
+        return i;
+      }
+    }
+    return releaseHistories.size();
+  }
+
 }
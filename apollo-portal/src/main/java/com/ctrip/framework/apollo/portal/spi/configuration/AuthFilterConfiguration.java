@@ -3,6 +3,7 @@ package com.ctrip.framework.apollo.portal.spi.configuration;
 import com.ctrip.framework.apollo.openapi.filter.ConsumerAuthenticationFilter;
 import com.ctrip.framework.apollo.openapi.util.ConsumerAuditUtil;
 import com.ctrip.framework.apollo.openapi.util.ConsumerAuthUtil;
+import com.ctrip.framework.apollo.openapi.util.ConsumerRateLimiter;
 
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -13,10 +14,12 @@ public class AuthFilterConfiguration {
 
   @Bean
   public FilterRegistrationBean openApiAuthenticationFilter(ConsumerAuthUtil consumerAuthUtil,
-                                                            ConsumerAuditUtil consumerAuditUtil) {
+                                                            ConsumerAuditUtil consumerAuditUtil,
+                                                            ConsumerRateLimiter consumerRateLimiter) {
     FilterRegistrationBean openApiFilter = new FilterRegistrationBean();
 
-    openApiFilter.setFilter(new ConsumerAuthenticationFilter(consumerAuthUtil, consumerAuditUtil));
+    openApiFilter.setFilter(new ConsumerAuthenticationFilter(consumerAuthUtil, consumerAuditUtil,
+        consumerRateLimiter));
     openApiFilter.addUrlPatterns("/openapi/*");
 
     return openApiFilter;
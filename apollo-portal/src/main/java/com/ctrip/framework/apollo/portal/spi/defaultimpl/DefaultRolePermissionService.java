@@ -12,11 +12,14 @@ import com.ctrip.framework.apollo.portal.repository.RolePermissionRepository;
 import com.ctrip.framework.apollo.portal.repository.RoleRepository;
 import com.ctrip.framework.apollo.portal.repository.UserRoleRepository;
 import com.ctrip.framework.apollo.portal.service.RolePermissionService;
+import com.ctrip.framework.apollo.tracer.Tracer;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -26,13 +29,16 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 /**
  * Created by timothy on 2017/4/26.
  */
-public class DefaultRolePermissionService implements RolePermissionService {
+public class DefaultRolePermissionService implements RolePermissionService, InitializingBean, DisposableBean {
+    private static final String PERMISSION_CACHE = "Apollo.PermissionCache";
+
     @Autowired
     private RoleRepository roleRepository;
     @Autowired
@@ -46,6 +52,20 @@ public class DefaultRolePermissionService implements RolePermissionService {
     @Autowired
     private ConsumerRoleRepository consumerRoleRepository;
 
+    private RolePermissionCache rolePermissionCache;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        rolePermissionCache = new RolePermissionCache(permissionRepository, rolePermissionRepository,
+            userRoleRepository, portalConfig);
+        rolePermissionCache.start();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        rolePermissionCache.stop();
+    }
+
     /**
      * Create role with permissions, note that role name should be unique
      */
@@ -65,7 +85,8 @@ public class DefaultRolePermissionService implements RolePermissionService {
                 rolePermission.setDataChangeLastModifiedBy(createdRole.getDataChangeLastModifiedBy());
                 return rolePermission;
             }).collect(Collectors.toList());
-            rolePermissionRepository.saveAll(rolePermissions);
+            Iterable<RolePermission> created = rolePermissionRepository.saveAll(rolePermissions);
+            rolePermissionCache.applyAfterCommit(graph -> created.forEach(graph::applyRolePermission));
         }
 
         return createdRole;
@@ -98,7 +119,8 @@ public class DefaultRolePermissionService implements RolePermissionService {
             return userRole;
         }).collect(Collectors.toList());
 
-        userRoleRepository.saveAll(toCreate);
+        Iterable<UserRole> created = userRoleRepository.saveAll(toCreate);
+        rolePermissionCache.applyAfterCommit(graph -> created.forEach(graph::applyUserRole));
         return toAssignUserIds;
     }
 
@@ -120,6 +142,7 @@ public class DefaultRolePermissionService implements RolePermissionService {
         }
 
         userRoleRepository.saveAll(existedUserRoles);
+        rolePermissionCache.applyAfterCommit(graph -> existedUserRoles.forEach(graph::applyUserRole));
     }
 
     /**
@@ -154,6 +177,35 @@ public class DefaultRolePermissionService implements RolePermissionService {
      * Check whether user has the permission
      */
     public boolean userHasPermission(String userId, String permissionType, String targetId) {
+        RolePermissionGraph graph = rolePermissionCache.getGraph();
+        if (graph == null) {
+            Tracer.logEvent(PERMISSION_CACHE, "Miss");
+            return userHasPermissionInDB(userId, permissionType, targetId);
+        }
+
+        Tracer.logEvent(PERMISSION_CACHE, "Hit");
+        Tracer.logEvent(PERMISSION_CACHE + ".Staleness",
+            String.valueOf(TimeUnit.MILLISECONDS.toSeconds(rolePermissionCache.getStaleness())));
+        // denials are trusted, a permission granted by another portal instance shows up after the next reconcile
+        if (!hasPermission(graph, userId, permissionType, targetId)) {
+            return false;
+        }
+
+        // revocations made by other portal instances are applied before a permission is granted from the graph
+        rolePermissionCache.ensureUpToDate();
+        graph = rolePermissionCache.getGraph();
+        if (graph == null) {
+            return userHasPermissionInDB(userId, permissionType, targetId);
+        }
+        return hasPermission(graph, userId, permissionType, targetId);
+    }
+
+    private boolean hasPermission(RolePermissionGraph graph, String userId, String permissionType, String targetId) {
+        return graph.hasPermission(userId, permissionType, targetId)
+            || graph.containsPermission(permissionType, targetId) && isSuperAdmin(userId);
+    }
+
+    private boolean userHasPermissionInDB(String userId, String permissionType, String targetId) {
         Permission permission =
                 permissionRepository.findTopByPermissionTypeAndTargetId(permissionType, targetId);
         if (permission == null) {
@@ -213,7 +265,9 @@ public class DefaultRolePermissionService implements RolePermissionService {
         Preconditions.checkState(current == null,
                 "Permission with permissionType %s targetId %s already exists!", permissionType, targetId);
 
-        return permissionRepository.save(permission);
+        Permission created = permissionRepository.save(permission);
+        rolePermissionCache.applyAfterCommit(graph -> graph.applyPermission(created));
+        return created;
     }
 
     /**
@@ -236,6 +290,7 @@ public class DefaultRolePermissionService implements RolePermissionService {
         }
 
         Iterable<Permission> results = permissionRepository.saveAll(permissions);
+        rolePermissionCache.applyAfterCommit(graph -> results.forEach(graph::applyPermission));
         return StreamSupport.stream(results.spliterator(), false).collect(Collectors.toSet());
     }
 
@@ -264,6 +319,11 @@ public class DefaultRolePermissionService implements RolePermissionService {
             // 5. delete Consumer Role
             consumerRoleRepository.batchDeleteByRoleIds(roleIds, operator);
         }
+
+        rolePermissionCache.applyAfterCommit(graph -> {
+            graph.removePermissions(permissionIds);
+            graph.removeRoles(roleIds);
+        });
     }
 
     @Transactional
@@ -291,5 +351,10 @@ public class DefaultRolePermissionService implements RolePermissionService {
             // 5. delete Consumer Role
             consumerRoleRepository.batchDeleteByRoleIds(roleIds, operator);
         }
+
+        rolePermissionCache.applyAfterCommit(graph -> {
+            graph.removePermissions(permissionIds);
+            graph.removeRoles(roleIds);
+        });
     }
 }
@@ -0,0 +1,229 @@
+package com.ctrip.framework.apollo.portal.spi.defaultimpl;
+
+import com.ctrip.framework.apollo.core.utils.ApolloThreadFactory;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
+import com.ctrip.framework.apollo.portal.entity.po.Permission;
+import com.ctrip.framework.apollo.portal.entity.po.RolePermission;
+import com.ctrip.framework.apollo.portal.entity.po.UserRole;
+import com.ctrip.framework.apollo.portal.repository.PermissionRepository;
+import com.ctrip.framework.apollo.portal.repository.RolePermissionRepository;
+import com.ctrip.framework.apollo.portal.repository.UserRoleRepository;
+import com.ctrip.framework.apollo.tracer.Tracer;
+import com.ctrip.framework.apollo.tracer.spi.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Holds the {@link RolePermissionGraph} of all users.
+ *
+ * <p>The graph is fully loaded at startup and rebuilt periodically, the changes made by this portal instance are
+ * applied after their transactions commit, and the changes made by other instances are reconciled with the
+ * DataChange_LastTime watermark.</p>
+ *
+ * <p>The denials of the graph are trusted, so a permission granted by another portal instance shows up after the next
+ * reconcile. Before a permission is granted from the graph, {@link #ensureUpToDate()} compares the graph version with
+ * the latest modified time in database, so the revocations made by other instances are applied first.</p>
+ *
+ * <p>The watermark is the database time when the last load started, not the modified time of the rows, as the rows
+ * are stamped by the clocks of different portal instances, or by the database when they are deleted. So a portal
+ * instance with its clock ahead doesn't push the watermark ahead of the others.</p>
+ */
+public class RolePermissionCache {
+  private static final Logger logger = LoggerFactory.getLogger(RolePermissionCache.class);
+  private static final String TRACER_TYPE = "Apollo.PermissionCache";
+  //each reconcile looks back for the rows committed late and the rows stamped by portal instances with their clocks
+  //behind the database, the clocks are expected to be synchronized within the overlap
+  private static final long WATERMARK_OVERLAP = TimeUnit.MINUTES.toMillis(1);
+  private static final long FULL_REBUILD_INTERVAL = TimeUnit.HOURS.toMillis(1);
+  //the graph is not used if it is not reconciled for so many intervals, e.g. the database is not reachable
+  private static final int MAX_STALE_RECONCILE_INTERVALS = 12;
+
+  private final PermissionRepository permissionRepository;
+  private final RolePermissionRepository rolePermissionRepository;
+  private final UserRoleRepository userRoleRepository;
+  private final PortalConfig portalConfig;
+  private final ScheduledExecutorService executorService;
+
+  private volatile RolePermissionGraph graph;
+  private volatile long lastReconcileTime;
+  private long lastRebuildTime;
+  private long watermark;
+
+  public RolePermissionCache(PermissionRepository permissionRepository,
+                             RolePermissionRepository rolePermissionRepository,
+                             UserRoleRepository userRoleRepository,
+                             PortalConfig portalConfig) {
+    this.permissionRepository = permissionRepository;
+    this.rolePermissionRepository = rolePermissionRepository;
+    this.userRoleRepository = userRoleRepository;
+    this.portalConfig = portalConfig;
+    this.executorService = Executors
+        .newSingleThreadScheduledExecutor(ApolloThreadFactory.create("RolePermissionCache", true));
+  }
+
+  public void start() {
+    if (portalConfig.isPermissionCacheEnabled()) {
+      try {
+        rebuild();
+      } catch (Throwable ex) {
+        logger.error("Load role permission cache failed, will retry later", ex);
+        Tracer.logError(ex);
+      }
+    }
+    int interval = portalConfig.permissionCacheReconcileInterval();
+    executorService.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.SECONDS);
+  }
+
+  public void stop() {
+    executorService.shutdownNow();
+  }
+
+  /**
+   * @return the graph, or null if the cache is disabled, not loaded yet or not reconciled for too long
+   */
+  public RolePermissionGraph getGraph() {
+    if (!portalConfig.isPermissionCacheEnabled()) {
+      return null;
+    }
+    long maxStaleness = TimeUnit.SECONDS.toMillis(portalConfig.permissionCacheReconcileInterval())
+        * MAX_STALE_RECONCILE_INTERVALS;
+    return getStaleness() <= maxStaleness ? graph : null;
+  }
+
+  /**
+   * @return the time in milliseconds since the graph was last reconciled with database
+   */
+  public long getStaleness() {
+    return System.currentTimeMillis() - lastReconcileTime;
+  }
+
+  /**
+   * Reconcile the graph at once if the database has changes newer than the graph version, it costs one query on the
+   * DataChange_LastTime indexes when the graph is up to date.
+   */
+  public void ensureUpToDate() {
+    long latestModifiedTime = latestModifiedTime();
+    if (latestModifiedTime <= graph.getVersion()) {
+      return;
+    }
+    synchronized (this) {
+      if (latestModifiedTime > graph.getVersion()) {
+        Tracer.logEvent(TRACER_TYPE, "Outdated");
+        reconcile();
+      }
+    }
+  }
+
+  public void applyAfterCommit(Consumer<RolePermissionGraph> change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      applyNow(change);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        applyNow(change);
+      }
+    });
+  }
+
+  private void applyNow(Consumer<RolePermissionGraph> change) {
+    RolePermissionGraph current = graph;
+    if (current != null) {
+      change.accept(current);
+    }
+  }
+
+  private void refresh() {
+    if (!portalConfig.isPermissionCacheEnabled()) {
+      return;
+    }
+    try {
+      if (graph == null || System.currentTimeMillis() - lastRebuildTime >= FULL_REBUILD_INTERVAL) {
+        rebuild();
+      } else {
+        reconcile();
+      }
+    } catch (Throwable ex) {
+      logger.error("Refresh role permission cache failed", ex);
+      Tracer.logError(ex);
+    }
+  }
+
+  private synchronized void rebuild() {
+    Transaction transaction = Tracer.newTransaction(TRACER_TYPE, "rebuild");
+    try {
+      long startTime = System.currentTimeMillis();
+      long databaseTime = permissionRepository.currentTimestamp().getTime();
+      long latestModifiedTime = latestModifiedTime();
+      RolePermissionGraph newGraph = new RolePermissionGraph();
+      permissionRepository.findAll().forEach(newGraph::applyPermission);
+      rolePermissionRepository.findAll().forEach(newGraph::applyRolePermission);
+      userRoleRepository.findAll().forEach(newGraph::applyUserRole);
+
+      newGraph.setVersion(latestModifiedTime);
+      watermark = databaseTime;
+      graph = newGraph;
+      lastRebuildTime = startTime;
+      lastReconcileTime = startTime;
+      Tracer.logEvent(TRACER_TYPE + ".Size", String.valueOf(newGraph.getPermissionCount()));
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      throw ex;
+    } finally {
+      transaction.complete();
+    }
+  }
+
+  private synchronized void reconcile() {
+    Transaction transaction = Tracer.newTransaction(TRACER_TYPE, "reconcile");
+    try {
+      long startTime = System.currentTimeMillis();
+      long databaseTime = permissionRepository.currentTimestamp().getTime();
+      long latestModifiedTime = latestModifiedTime();
+      //the rows newer than the graph version are always included, even if they are stamped by a clock far behind
+      Date since = new Date(Math.max(0, Math.min(watermark - WATERMARK_OVERLAP, graph.getVersion())));
+      int changes = 0;
+
+      for (Permission permission : permissionRepository.findModifiedIncludingDeleted(since)) {
+        graph.applyPermission(permission);
+        changes++;
+      }
+      for (RolePermission rolePermission : rolePermissionRepository.findModifiedIncludingDeleted(since)) {
+        graph.applyRolePermission(rolePermission);
+        changes++;
+      }
+      for (UserRole userRole : userRoleRepository.findModifiedIncludingDeleted(since)) {
+        graph.applyUserRole(userRole);
+        changes++;
+      }
+
+      graph.setVersion(latestModifiedTime);
+      watermark = databaseTime;
+      lastReconcileTime = startTime;
+      if (changes > 0) {
+        Tracer.logEvent(TRACER_TYPE + ".Reconcile", String.valueOf(changes));
+      }
+      transaction.setStatus(Transaction.SUCCESS);
+    } catch (Throwable ex) {
+      transaction.setStatus(ex);
+      throw ex;
+    } finally {
+      transaction.complete();
+    }
+  }
+
+  private long latestModifiedTime() {
+    Date latestModifiedTime = permissionRepository.findLatestModifiedTime();
+    return latestModifiedTime == null ? 0 : latestModifiedTime.getTime();
+  }
+}
@@ -0,0 +1,137 @@
+package com.ctrip.framework.apollo.portal.spi.defaultimpl;
+
+import com.ctrip.framework.apollo.portal.entity.po.Permission;
+import com.ctrip.framework.apollo.portal.entity.po.RolePermission;
+import com.ctrip.framework.apollo.portal.entity.po.UserRole;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory graph of user -> roles -> permissions, the lookups are lock free hash lookups.
+ *
+ * <p>Role permissions and user roles are keyed by their row ids, so applying the latest state of a row (either alive
+ * or deleted) is idempotent and doesn't depend on the order of the rows.</p>
+ *
+ * <p>The version is the latest DataChange_LastTime in database which the graph has caught up with, so comparing it
+ * with the database tells whether there are changes not applied yet.</p>
+ */
+public class RolePermissionGraph {
+  private static final String KEY_SEPARATOR = ":";
+
+  //permission type + target id -> permission ids
+  private final Map<String, Set<Long>> permissionIdsByKey = new ConcurrentHashMap<>();
+  //permission id -> permission type + target id
+  private final Map<Long, String> permissionKeys = new ConcurrentHashMap<>();
+  //role id -> (role permission id -> permission id)
+  private final Map<Long, Map<Long, Long>> rolePermissions = new ConcurrentHashMap<>();
+  //user id -> (user role id -> role id)
+  private final Map<String, Map<Long, Long>> userRoles = new ConcurrentHashMap<>();
+  private volatile long version;
+
+  public boolean hasPermission(String userId, String permissionType, String targetId) {
+    Set<Long> permissionIds = permissionIdsByKey.get(assembleKey(permissionType, targetId));
+    if (permissionIds == null || permissionIds.isEmpty()) {
+      return false;
+    }
+
+    Map<Long, Long> roles = userRoles.get(userId);
+    if (roles == null) {
+      return false;
+    }
+
+    for (Long roleId : roles.values()) {
+      Map<Long, Long> permissions = rolePermissions.get(roleId);
+      if (permissions == null) {
+        continue;
+      }
+      for (Long permissionId : permissions.values()) {
+        if (permissionIds.contains(permissionId)) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  public boolean containsPermission(String permissionType, String targetId) {
+    Set<Long> permissionIds = permissionIdsByKey.get(assembleKey(permissionType, targetId));
+    return permissionIds != null && !permissionIds.isEmpty();
+  }
+
+  public void applyPermission(Permission permission) {
+    long permissionId = permission.getId();
+    if (permission.isDeleted()) {
+      removePermission(permissionId);
+    } else {
+      String key = assembleKey(permission.getPermissionType(), permission.getTargetId());
+      permissionKeys.put(permissionId, key);
+      permissionIdsByKey.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(permissionId);
+    }
+  }
+
+  public void applyRolePermission(RolePermission rolePermission) {
+    if (rolePermission.isDeleted()) {
+      Map<Long, Long> permissions = rolePermissions.get(rolePermission.getRoleId());
+      if (permissions != null) {
+        permissions.remove(rolePermission.getId());
+      }
+    } else {
+      rolePermissions.computeIfAbsent(rolePermission.getRoleId(), k -> new ConcurrentHashMap<>())
+          .put(rolePermission.getId(), rolePermission.getPermissionId());
+    }
+  }
+
+  public void applyUserRole(UserRole userRole) {
+    if (userRole.isDeleted()) {
+      Map<Long, Long> roles = userRoles.get(userRole.getUserId());
+      if (roles != null) {
+        roles.remove(userRole.getId());
+      }
+    } else {
+      userRoles.computeIfAbsent(userRole.getUserId(), k -> new ConcurrentHashMap<>())
+          .put(userRole.getId(), userRole.getRoleId());
+    }
+  }
+
+  public void removePermissions(Collection<Long> permissionIds) {
+    permissionIds.forEach(this::removePermission);
+  }
+
+  /**
+   * Remove the permissions of the roles, so the users still assigned to the roles get nothing from them
+   */
+  public void removeRoles(Collection<Long> roleIds) {
+    roleIds.forEach(rolePermissions::remove);
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  public int getPermissionCount() {
+    return permissionKeys.size();
+  }
+
+  private void removePermission(long permissionId) {
+    String key = permissionKeys.remove(permissionId);
+    if (key == null) {
+      return;
+    }
+    Set<Long> permissionIds = permissionIdsByKey.get(key);
+    if (permissionIds != null) {
+      permissionIds.remove(permissionId);
+    }
+  }
+
+  private String assembleKey(String permissionType, String targetId) {
+    return permissionType + KEY_SEPARATOR + targetId;
+  }
+}
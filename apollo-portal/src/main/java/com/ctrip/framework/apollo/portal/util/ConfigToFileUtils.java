@@ -1,10 +1,18 @@
 package com.ctrip.framework.apollo.portal.util;
 
-import java.io.BufferedReader;
+import com.ctrip.framework.apollo.common.dto.ItemDTO;
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
+import com.ctrip.framework.apollo.core.ConfigConsts;
+import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
+import com.google.common.base.Joiner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -12,10 +20,11 @@ import java.util.stream.Collectors;
  * jian.tan
  */
 public class ConfigToFileUtils {
+  private static final int BUFFER_SIZE = 8192;
 
   public static void itemsToFile(OutputStream os, List<String> items) {
     try {
-      PrintWriter printWriter = new PrintWriter(os);
+      PrintWriter printWriter = new PrintWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
       items.forEach(printWriter::println);
       printWriter.close();
     } catch (Exception e) {
@@ -23,8 +32,55 @@ public class ConfigToFileUtils {
     }
   }
 
-  public static String fileToString(InputStream inputStream) {
-    BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream));
-    return bufferedReader.lines().collect(Collectors.joining(System.lineSeparator()));
+  public static String fileToString(InputStream inputStream) throws IOException {
+    return fileToString(inputStream, Long.MAX_VALUE);
+  }
+
+  /**
+   * Read the file as utf-8 and keep the content as is, including the line separators
+   *
+   * @throws BadRequestException if the file is larger than maxBytes
+   */
+  public static String fileToString(InputStream inputStream, long maxBytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    long total = 0;
+    int read;
+    while ((read = inputStream.read(buffer)) != -1) {
+      total += read;
+      if (total > maxBytes) {
+        throw new BadRequestException(String.format("The file exceeds the max size of %d bytes", maxBytes));
+      }
+      out.write(buffer, 0, read);
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  public static List<String> itemsToLines(List<ItemDTO> items) {
+    return items.stream().map(item -> {
+      String key = item.getKey();
+      String value = item.getValue();
+      if (ConfigConsts.CONFIG_FILE_CONTENT_KEY.equals(key)) {
+        return value;
+      }
+
+      if ("".equals(key)) {
+        return Joiner.on("").join(key, value);
+      }
+
+      return Joiner.on(" = ").join(key, value);
+    }).collect(Collectors.toList());
+  }
+
+  /**
+   * the namespaces of properties format have no suffix, even if there are dots in the names, e.g. application ->
+   * application.properties, FX.hermes.producer -> FX.hermes.producer.properties, the other namespaces have the suffix
+   * already, e.g. datasource.json -> datasource.json
+   */
+  public static String toFileName(String namespaceName, String format) {
+    if (format == null || ConfigFileFormat.Properties.getValue().equalsIgnoreCase(format)) {
+      return Joiner.on(".").join(namespaceName, ConfigFileFormat.Properties.getValue());
+    }
+    return namespaceName;
   }
 }
@@ -1,10 +1,10 @@
 release_history_module.controller("ReleaseHistoryController",
                                   ['$scope', '$location', 'AppUtil',
-                                   'ReleaseService', 'ConfigService', 'ReleaseHistoryService', releaseHistoryController
+                                   'ConfigService', 'ReleaseHistoryService', releaseHistoryController
                                   ]);
 
 function releaseHistoryController($scope, $location, AppUtil,
-                                  ReleaseService, ConfigService, ReleaseHistoryService) {
+                                  ConfigService, ReleaseHistoryService) {
 
     var params = AppUtil.parseParams($location.$$url);
     $scope.pageContext = {
@@ -21,7 +21,7 @@ function releaseHistoryController($scope, $location, AppUtil,
         ALL: 'all'
     };
 
-    $scope.page = 0;
+    $scope.cursor = null;
     $scope.releaseHistories = [];
     $scope.hasLoadAll = false;
     $scope.selectedReleaseHistory = 0;
@@ -51,9 +51,10 @@ function releaseHistoryController($scope, $location, AppUtil,
                                                             $scope.pageContext.env,
                                                             $scope.pageContext.clusterName,
                                                             $scope.pageContext.namespaceName,
-                                                            $scope.page, PAGE_SIZE)
+                                                            $scope.cursor, PAGE_SIZE)
             .then(function (result) {
-                if ($scope.page == 0) {
+                var isFirstPage = $scope.cursor == null;
+                if (isFirstPage) {
                     $(".release-history").removeClass('hidden');
                 }
 
@@ -67,7 +68,7 @@ function releaseHistoryController($scope, $location, AppUtil,
 
                 $scope.releaseHistories = $scope.releaseHistories.concat(result);
 
-                if ($scope.page == 0) {
+                if (isFirstPage) {
                     var defaultToShowReleaseHistory = result[0];
                     $scope.releaseHistories.forEach(function (history) {
                         if ($scope.pageContext.releaseHistoryId == history.id) {
@@ -84,7 +85,7 @@ function releaseHistoryController($scope, $location, AppUtil,
                     showReleaseHistoryDetail(defaultToShowReleaseHistory);
                 }
 
-                $scope.page = $scope.page + 1;
+                $scope.cursor = result[result.length - 1].id;
 
             }, function (result) {
                 AppUtil.showErrorMsg(result, "加载发布历史信息出错");
@@ -112,6 +113,8 @@ function releaseHistoryController($scope, $location, AppUtil,
         if (!history.viewType) {//default view type
             history.viewType = CONFIG_VIEW_TYPE.DIFF;
             getReleaseDiffConfiguration(history);
+        } else if (history.viewType == CONFIG_VIEW_TYPE.ALL) {
+            getReleaseConfiguration(history);
         }
 
     }
@@ -130,10 +133,30 @@ function releaseHistoryController($scope, $location, AppUtil,
 
         if (viewType == CONFIG_VIEW_TYPE.DIFF) {
             getReleaseDiffConfiguration(history);
+        } else if (viewType == CONFIG_VIEW_TYPE.ALL) {
+            getReleaseConfiguration(history);
         }
 
     }
 
+    // the histories are loaded without configurations, so load the configuration of the release on demand
+    function getReleaseConfiguration(history) {
+        if (history.configuration || !history.releaseId) {
+            return;
+        }
+
+        ReleaseHistoryService.findReleaseConfiguration($scope.pageContext.appId,
+                                                       $scope.pageContext.env,
+                                                       $scope.pageContext.clusterName,
+                                                       $scope.pageContext.namespaceName,
+                                                       history.releaseId)
+            .then(function (result) {
+                history.configuration = result;
+            }, function (result) {
+                AppUtil.showErrorMsg(result, "加载发布配置出错");
+            });
+    }
+
     function getReleaseDiffConfiguration(history) {
 
         if (!history.changes) {
@@ -143,9 +166,12 @@ function releaseHistoryController($scope, $location, AppUtil,
                 history.previousReleaseId = history.operationContext.baseReleaseId;
             }
 
-            ReleaseService.compare($scope.pageContext.env,
-                                   history.previousReleaseId,
-                                   history.releaseId)
+            ReleaseHistoryService.compareWithPreviousRelease($scope.pageContext.appId,
+                                                             $scope.pageContext.env,
+                                                             $scope.pageContext.clusterName,
+                                                             $scope.pageContext.namespaceName,
+                                                             history.releaseId,
+                                                             history.previousReleaseId)
                 .then(function (result) {
                     history.changes = result.changes;
                 })
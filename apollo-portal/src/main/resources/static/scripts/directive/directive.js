@@ -13,19 +13,8 @@ directive_module.directive('apollonav',
                                            scope.pageSetting = setting;
                                        });
 
-                                       scope.sourceApps = [];
                                        scope.copiedApps = [];
 
-                                       AppService.find_apps().then(function (result) {
-                                           result.forEach(function (app) {
-                                               app.selected = false;
-                                               scope.sourceApps.push(app);
-                                           });
-                                           scope.copiedApps = angular.copy(scope.sourceApps);
-                                       }, function (result) {
-                                           toastr.error(AppUtil.errorMsg(result), "load apps error");
-                                       });
-
                                        scope.searchKey = '';
                                        scope.shouldShowAppList = false;
 
@@ -36,13 +25,20 @@ directive_module.directive('apollonav',
                                        };
 
                                        scope.changeSearchKey = function () {
-                                           scope.copiedApps = [];
-                                           var searchKey = scope.searchKey.toLocaleLowerCase();
-                                           scope.sourceApps.forEach(function (app) {
-                                               if (app.name.toLocaleLowerCase().indexOf(searchKey) > -1
-                                                   || app.appId.toLocaleLowerCase().indexOf(searchKey) > -1) {
-                                                   scope.copiedApps.push(app);
+                                           var searchKey = scope.searchKey;
+                                           AppService.search_apps(searchKey, 0, 20).then(function (result) {
+                                               //ignore the out-of-order responses of the previous keys
+                                               if (searchKey != scope.searchKey) {
+                                                   return;
                                                }
+                                               scope.copiedApps = [];
+                                               result.content.forEach(function (app) {
+                                                   app.selected = false;
+                                                   scope.copiedApps.push(app);
+                                               });
+                                               selectedAppIdx = -1;
+                                           }, function (result) {
+                                               toastr.error(AppUtil.errorMsg(result), "load apps error");
                                            });
                                            scope.shouldShowAppList = true;
                                        };
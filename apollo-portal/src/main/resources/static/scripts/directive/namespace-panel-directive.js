@@ -441,7 +441,7 @@ function directive($window, toastr, AppUtil, EventManager, PermissionService, Na
             function loadCommitHistory(namespace) {
                 if (!namespace.commits) {
                     namespace.commits = [];
-                    namespace.commitPage = 0;
+                    namespace.commitCursor = null;
                 }
 
                 var size = 10;
@@ -449,7 +449,7 @@ function directive($window, toastr, AppUtil, EventManager, PermissionService, Na
                                            scope.env,
                                            namespace.baseInfo.clusterName,
                                            namespace.baseInfo.namespaceName,
-                                           namespace.commitPage,
+                                           namespace.commitCursor,
                                            size)
                     .then(function (result) {
                         if (result.length < size) {
@@ -461,7 +461,9 @@ function directive($window, toastr, AppUtil, EventManager, PermissionService, Na
                             result[i].changeSets = JSON.parse(result[i].changeSets);
                             namespace.commits.push(result[i]);
                         }
-                        namespace.commitPage += 1;
+                        if (result.length) {
+                            namespace.commitCursor = result[result.length - 1].id;
+                        }
                     }, function (result) {
                         toastr.error(AppUtil.errorMsg(result), "加载修改历史记录出错");
                     });
@@ -32,7 +32,7 @@ function rollbackModalDirective(AppUtil, EventManager, ReleaseService, toastr) {
                                                   scope.env,
                                                   scope.cluster,
                                                   scope.toRollbackNamespace.baseInfo.namespaceName,
-                                                  0, 2)
+                                                  null, 2)
                     .then(function (result) {
                         if (result.length <= 1) {
                             toastr.error("没有可以回滚的发布历史");
@@ -5,6 +5,11 @@ appService.service('AppService', ['$resource', '$q', function ($resource, $q) {
             isArray: true,
             url: '/apps'
         },
+        search_apps: {
+            method: 'GET',
+            isArray: false,
+            url: '/apps/search'
+        },
         find_app_by_owner: {
             method: 'GET',
             isArray: true,
@@ -61,6 +66,19 @@ appService.service('AppService', ['$resource', '$q', function ($resource, $q) {
             });
             return d.promise;
         },
+        search_apps: function (query, page, size) {
+            var d = $q.defer();
+            app_resource.search_apps({
+                                         query: query,
+                                         page: page,
+                                         size: size
+                                     }, function (result) {
+                d.resolve(result);
+            }, function (result) {
+                d.reject(result);
+            });
+            return d.promise;
+        },
         find_app_by_owner: function (owner, page, size) {
             var d = $q.defer();
             app_resource.find_app_by_owner({
@@ -3,18 +3,18 @@ appService.service('CommitService', ['$resource', '$q', function ($resource, $q)
         find_commits: {
             method: 'GET',
             isArray: true,
-            url: '/apps/:appId/envs/:env/clusters/:clusterName/namespaces/:namespaceName/commits?page=:page'
+            url: '/apps/:appId/envs/:env/clusters/:clusterName/namespaces/:namespaceName/commits'
         }
     });
     return {
-        find_commits: function (appId, env, clusterName, namespaceName, page, size) {
+        find_commits: function (appId, env, clusterName, namespaceName, cursor, size) {
             var d = $q.defer();
             commit_resource.find_commits({
                                              appId: appId,
                                              env: env,
                                              clusterName: clusterName,
                                              namespaceName: namespaceName,
-                                             page: page,
+                                             cursor: cursor,
                                              size: size
                                          },
                                          function (result) {
@@ -4,18 +4,28 @@ appService.service('ReleaseHistoryService', ['$resource', '$q', function ($resou
             method: 'GET',
             url: '/apps/:appId/envs/:env/clusters/:clusterName/namespaces/:namespaceName/releases/histories',
             isArray: true
+        },
+        find_release_configuration: {
+            method: 'GET',
+            url: '/apps/:appId/envs/:env/clusters/:clusterName/namespaces/:namespaceName/releases/histories/configuration',
+            isArray: true
+        },
+        compare_with_previous_release: {
+            method: 'GET',
+            url: '/apps/:appId/envs/:env/clusters/:clusterName/namespaces/:namespaceName/releases/histories/diff'
         }
     });
 
-    function findReleaseHistoryByNamespace(appId, env, clusterName, namespaceName, page, size) {
+    function findReleaseHistoryByNamespace(appId, env, clusterName, namespaceName, cursor, size) {
         var d = $q.defer();
         resource.find_release_history_by_namespace({
                                                        appId: appId,
                                                        env: env,
                                                        clusterName: clusterName,
                                                        namespaceName: namespaceName,
-                                                       page: page,
-                                                       size: size
+                                                       cursor: cursor,
+                                                       size: size,
+                                                       summary: true
                                                    }, function (result) {
             d.resolve(result);
         }, function (result) {
@@ -24,8 +34,43 @@ appService.service('ReleaseHistoryService', ['$resource', '$q', function ($resou
         return d.promise;
     }
 
+    function findReleaseConfiguration(appId, env, clusterName, namespaceName, releaseId) {
+        var d = $q.defer();
+        resource.find_release_configuration({
+                                                appId: appId,
+                                                env: env,
+                                                clusterName: clusterName,
+                                                namespaceName: namespaceName,
+                                                releaseId: releaseId
+                                            }, function (result) {
+            d.resolve(result);
+        }, function (result) {
+            d.reject(result);
+        });
+        return d.promise;
+    }
+
+    function compareWithPreviousRelease(appId, env, clusterName, namespaceName, releaseId, previousReleaseId) {
+        var d = $q.defer();
+        resource.compare_with_previous_release({
+                                                   appId: appId,
+                                                   env: env,
+                                                   clusterName: clusterName,
+                                                   namespaceName: namespaceName,
+                                                   releaseId: releaseId,
+                                                   previousReleaseId: previousReleaseId
+                                               }, function (result) {
+            d.resolve(result);
+        }, function (result) {
+            d.reject(result);
+        });
+        return d.promise;
+    }
+
     
     return {
-        findReleaseHistoryByNamespace: findReleaseHistoryByNamespace
+        findReleaseHistoryByNamespace: findReleaseHistoryByNamespace,
+        findReleaseConfiguration: findReleaseConfiguration,
+        compareWithPreviousRelease: compareWithPreviousRelease
     }
 }]);
@@ -67,14 +67,14 @@ appService.service('ReleaseService', ['$resource', '$q', function ($resource, $q
         return d.promise;
     }
 
-    function findAllReleases(appId, env, clusterName, namespaceName, page, size) {
+    function findAllReleases(appId, env, clusterName, namespaceName, cursor, size) {
         var d = $q.defer();
         resource.find_all_releases({
                                        appId: appId,
                                        env: env,
                                        clusterName: clusterName,
                                        namespaceName: namespaceName,
-                                       page: page,
+                                       cursor: cursor,
                                        size: size
                                    }, function (result) {
             d.resolve(result);
@@ -84,14 +84,14 @@ appService.service('ReleaseService', ['$resource', '$q', function ($resource, $q
         return d.promise;
     }
 
-    function findActiveReleases(appId, env, clusterName, namespaceName, page, size) {
+    function findActiveReleases(appId, env, clusterName, namespaceName, cursor, size) {
         var d = $q.defer();
         resource.find_active_releases({
                                           appId: appId,
                                           env: env,
                                           clusterName: clusterName,
                                           namespaceName: namespaceName,
-                                          page: page,
+                                          cursor: cursor,
                                           size: size
                                       }, function (result) {
             d.resolve(result);
@@ -108,7 +108,6 @@ appService.service('ReleaseService', ['$resource', '$q', function ($resource, $q
                                           env: env,
                                           clusterName: clusterName,
                                           namespaceName: namespaceName,
-                                          page: 0,
                                           size: 1
                                       }, function (result) {
             if (result && result.length) {
@@ -2,6 +2,7 @@ package com.ctrip.framework.apollo.openapi.filter;
 
 import com.ctrip.framework.apollo.openapi.util.ConsumerAuditUtil;
 import com.ctrip.framework.apollo.openapi.util.ConsumerAuthUtil;
+import com.ctrip.framework.apollo.openapi.util.ConsumerRateLimiter;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -32,6 +33,8 @@ public class ConsumerAuthenticationFilterTest {
   @Mock
   private ConsumerAuditUtil consumerAuditUtil;
   @Mock
+  private ConsumerRateLimiter consumerRateLimiter;
+  @Mock
   private HttpServletRequest request;
   @Mock
   private HttpServletResponse response;
@@ -40,7 +43,8 @@ public class ConsumerAuthenticationFilterTest {
 
   @Before
   public void setUp() throws Exception {
-    authenticationFilter = new ConsumerAuthenticationFilter(consumerAuthUtil, consumerAuditUtil);
+    authenticationFilter = new ConsumerAuthenticationFilter(consumerAuthUtil, consumerAuditUtil,
+        consumerRateLimiter);
   }
 
   @Test
@@ -50,6 +54,7 @@ public class ConsumerAuthenticationFilterTest {
 
     when(request.getHeader("Authorization")).thenReturn(someToken);
     when(consumerAuthUtil.getConsumerId(someToken)).thenReturn(someConsumerId);
+    when(consumerRateLimiter.tryAcquire(someConsumerId)).thenReturn(true);
 
     authenticationFilter.doFilter(request, response, filterChain);
 
@@ -72,4 +77,20 @@ public class ConsumerAuthenticationFilterTest {
     verify(consumerAuditUtil, never()).audit(eq(request), anyLong());
     verify(filterChain, never()).doFilter(request, response);
   }
+
+  @Test
+  public void testRateLimited() throws Exception {
+    String someToken = "someToken";
+    Long someConsumerId = 1L;
+
+    when(request.getHeader("Authorization")).thenReturn(someToken);
+    when(consumerAuthUtil.getConsumerId(someToken)).thenReturn(someConsumerId);
+    when(consumerRateLimiter.tryAcquire(someConsumerId)).thenReturn(false);
+
+    authenticationFilter.doFilter(request, response, filterChain);
+
+    verify(response, times(1)).sendError(eq(429), anyString());
+    verify(consumerAuditUtil, never()).audit(eq(request), anyLong());
+    verify(filterChain, never()).doFilter(request, response);
+  }
 }
@@ -84,6 +84,84 @@ public class ConsumerServiceTest extends AbstractUnitTest {
     assertEquals(someConsumerId, consumerService.getConsumerIdByToken(someToken).longValue());
   }
 
+  @Test
+  public void testGetConsumerIdWithCache() throws Exception {
+    String someToken = "someToken";
+    String someInvalidToken = "someInvalidToken";
+    long someConsumerId = 1;
+    ConsumerToken someConsumerToken = new ConsumerToken();
+    someConsumerToken.setConsumerId(someConsumerId);
+    someConsumerToken.setExpires(new Date(System.currentTimeMillis() + 60000));
+
+    when(portalConfig.consumerTokenCacheSize()).thenReturn(10);
+    when(portalConfig.consumerTokenCacheExpireInSeconds()).thenReturn(60);
+    when(portalConfig.consumerTokenNegativeCacheExpireInSeconds()).thenReturn(60);
+    when(portalConfig.consumerTokenNegativeCacheSize()).thenReturn(10);
+    when(consumerTokenRepository.findTopByTokenAndExpiresAfter(eq(someToken), any(Date.class)))
+        .thenReturn(someConsumerToken);
+    ConsumerService service = new ConsumerService(userInfoHolder, consumerTokenRepository, consumerRepository,
+        null, consumerRoleRepository, portalConfig, rolePermissionService, userService);
+
+    assertEquals(someConsumerId, service.getConsumerIdByToken(someToken).longValue());
+    assertEquals(someConsumerId, service.getConsumerIdByToken(someToken).longValue());
+    assertNull(service.getConsumerIdByToken(someInvalidToken));
+    assertNull(service.getConsumerIdByToken(someInvalidToken));
+
+    verify(consumerTokenRepository, times(1)).findTopByTokenAndExpiresAfter(eq(someToken), any(Date.class));
+    verify(consumerTokenRepository, times(1)).findTopByTokenAndExpiresAfter(eq(someInvalidToken), any(Date.class));
+
+    service.invalidateConsumerToken(someInvalidToken);
+    assertNull(service.getConsumerIdByToken(someInvalidToken));
+
+    verify(consumerTokenRepository, times(2)).findTopByTokenAndExpiresAfter(eq(someInvalidToken), any(Date.class));
+  }
+
+  @Test
+  public void testGetConsumerIdWithInvalidTokensFlooding() throws Exception {
+    String someToken = "someToken";
+    long someConsumerId = 1;
+    ConsumerToken someConsumerToken = new ConsumerToken();
+    someConsumerToken.setConsumerId(someConsumerId);
+
+    when(portalConfig.consumerTokenCacheSize()).thenReturn(1);
+    when(portalConfig.consumerTokenCacheExpireInSeconds()).thenReturn(60);
+    when(portalConfig.consumerTokenNegativeCacheExpireInSeconds()).thenReturn(60);
+    when(portalConfig.consumerTokenNegativeCacheSize()).thenReturn(10);
+    when(consumerTokenRepository.findTopByTokenAndExpiresAfter(eq(someToken), any(Date.class)))
+        .thenReturn(someConsumerToken);
+    ConsumerService service = new ConsumerService(userInfoHolder, consumerTokenRepository, consumerRepository,
+        null, consumerRoleRepository, portalConfig, rolePermissionService, userService);
+
+    assertEquals(someConsumerId, service.getConsumerIdByToken(someToken).longValue());
+    for (int i = 0; i < 100; i++) {
+      assertNull(service.getConsumerIdByToken("someInvalidToken" + i));
+    }
+    //the valid token is not evicted by the invalid ones
+    assertEquals(someConsumerId, service.getConsumerIdByToken(someToken).longValue());
+
+    verify(consumerTokenRepository, times(1)).findTopByTokenAndExpiresAfter(eq(someToken), any(Date.class));
+  }
+
+  @Test
+  public void testGetConsumerIdWithExpiredCache() throws Exception {
+    String someToken = "someToken";
+    ConsumerToken someConsumerToken = new ConsumerToken();
+    someConsumerToken.setConsumerId(1L);
+    someConsumerToken.setExpires(new Date(System.currentTimeMillis() - 1));
+
+    when(portalConfig.consumerTokenCacheSize()).thenReturn(10);
+    when(portalConfig.consumerTokenCacheExpireInSeconds()).thenReturn(60);
+    when(consumerTokenRepository.findTopByTokenAndExpiresAfter(eq(someToken), any(Date.class)))
+        .thenReturn(someConsumerToken);
+    ConsumerService service = new ConsumerService(userInfoHolder, consumerTokenRepository, consumerRepository,
+        null, consumerRoleRepository, portalConfig, rolePermissionService, userService);
+
+    service.getConsumerIdByToken(someToken);
+    service.getConsumerIdByToken(someToken);
+
+    verify(consumerTokenRepository, times(2)).findTopByTokenAndExpiresAfter(eq(someToken), any(Date.class));
+  }
+
   @Test
   public void testGetConsumerIdWithNullToken() throws Exception {
     Long consumerId = consumerService.getConsumerIdByToken(null);
@@ -4,7 +4,9 @@ import com.ctrip.framework.apollo.common.exception.ServiceException;
 import com.ctrip.framework.apollo.core.dto.ServiceDTO;
 import com.ctrip.framework.apollo.core.enums.Env;
 import com.ctrip.framework.apollo.portal.component.AdminServiceAddressLocator;
+import com.ctrip.framework.apollo.portal.component.AdminServiceLatencyTracker;
 import com.ctrip.framework.apollo.portal.component.RetryableRestTemplate;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
 
 import org.apache.http.HttpHost;
 import org.apache.http.conn.ConnectTimeoutException;
@@ -14,7 +16,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
@@ -22,6 +26,9 @@ import org.springframework.web.client.RestTemplate;
 import java.net.SocketTimeoutException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
@@ -34,6 +41,10 @@ public class RetryableRestTemplateTest extends AbstractUnitTest {
   private AdminServiceAddressLocator serviceAddressLocator;
   @Mock
   private RestTemplate restTemplate;
+  @Mock
+  private PortalConfig portalConfig;
+  @Spy
+  private AdminServiceLatencyTracker latencyTracker = new AdminServiceLatencyTracker();
   @InjectMocks
   private RetryableRestTemplate retryableRestTemplate;
 
@@ -137,6 +148,43 @@ public class RetryableRestTemplateTest extends AbstractUnitTest {
     verify(restTemplate).put(serviceOne + "/" + path, request);
   }
 
+  @Test
+  public void testHedgedGet() {
+    Object result = new Object();
+    ExecutorService hedgeExecutorService = Executors.newCachedThreadPool();
+    ReflectionTestUtils.setField(retryableRestTemplate, "hedgeExecutorService", hedgeExecutorService);
+    when(portalConfig.isAdminServiceHedgeEnabled()).thenReturn(true);
+    when(portalConfig.readTimeout()).thenReturn(100);
+    when(serviceAddressLocator.getServiceList(any()))
+        .thenReturn(Arrays.asList(mockService(serviceOne), mockService(serviceTwo), mockService(serviceThree)));
+    when(restTemplate.getForObject(serviceOne + "/" + path, Object.class)).thenAnswer(invocation -> {
+      TimeUnit.SECONDS.sleep(1);
+      return new Object();
+    });
+    when(restTemplate.getForObject(serviceTwo + "/" + path, Object.class)).thenReturn(result);
+
+    try {
+      Object o = retryableRestTemplate.get(Env.DEV, path, Object.class);
+
+      Assert.assertEquals(result, o);
+      verify(restTemplate, times(0)).getForObject(serviceThree + "/" + path, Object.class);
+    } finally {
+      hedgeExecutorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testPutNotHedged() {
+    when(portalConfig.isAdminServiceHedgeEnabled()).thenReturn(true);
+    when(serviceAddressLocator.getServiceList(any()))
+        .thenReturn(Arrays.asList(mockService(serviceOne), mockService(serviceTwo), mockService(serviceThree)));
+
+    retryableRestTemplate.put(Env.DEV, path, request);
+
+    verify(restTemplate).put(serviceOne + "/" + path, request);
+    verify(restTemplate, times(0)).put(serviceTwo + "/" + path, request);
+  }
+
   private ServiceDTO mockService(String homeUrl) {
     ServiceDTO serviceDTO = new ServiceDTO();
     serviceDTO.setHomepageUrl(homeUrl);
@@ -0,0 +1,92 @@
+package com.ctrip.framework.apollo.portal.component;
+
+import com.ctrip.framework.apollo.core.dto.ServiceDTO;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AdminServiceLatencyTrackerTest {
+
+  private AdminServiceLatencyTracker latencyTracker;
+  private ServiceDTO serviceOne;
+  private ServiceDTO serviceTwo;
+  private ServiceDTO serviceThree;
+
+  @Before
+  public void setUp() throws Exception {
+    latencyTracker = new AdminServiceLatencyTracker();
+    serviceOne = mockService("http://10.0.0.1");
+    serviceTwo = mockService("http://10.0.0.2");
+    serviceThree = mockService("http://10.0.0.3");
+  }
+
+  @Test
+  public void testPreferFasterService() throws Exception {
+    latencyTracker.recordSuccess(serviceOne, 100);
+    latencyTracker.recordSuccess(serviceTwo, 10);
+    latencyTracker.recordSuccess(serviceThree, 20);
+
+    List<ServiceDTO> services = latencyTracker.prioritize(Lists.newArrayList(serviceOne, serviceTwo, serviceThree));
+
+    assertEquals(Lists.newArrayList(serviceTwo, serviceOne, serviceThree), services);
+  }
+
+  @Test
+  public void testEjectFailedService() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      latencyTracker.recordFailure(serviceOne);
+    }
+
+    List<ServiceDTO> services = latencyTracker.prioritize(Lists.newArrayList(serviceOne, serviceTwo, serviceThree));
+
+    assertSame(serviceOne, services.get(2));
+    assertTrue(latencyTracker.getLatencyInfos().get(0).isEjected());
+  }
+
+  @Test
+  public void testLatencyOutlier() throws Exception {
+    latencyTracker.recordSuccess(serviceOne, 2000);
+    latencyTracker.recordSuccess(serviceTwo, 10);
+
+    List<ServiceDTO> services = latencyTracker.prioritize(Lists.newArrayList(serviceOne, serviceThree, serviceTwo));
+
+    assertEquals(Lists.newArrayList(serviceThree, serviceTwo, serviceOne), services);
+  }
+
+  @Test
+  public void testKeepOrderWhenAllUnhealthy() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      latencyTracker.recordFailure(serviceOne);
+      latencyTracker.recordFailure(serviceTwo);
+    }
+
+    List<ServiceDTO> services = Lists.newArrayList(serviceOne, serviceTwo);
+
+    assertEquals(services, latencyTracker.prioritize(services));
+  }
+
+  @Test
+  public void testHedgeDelay() throws Exception {
+    long maxDelay = 1000;
+    assertEquals(maxDelay, latencyTracker.hedgeDelay(serviceOne, maxDelay));
+
+    for (int i = 1; i <= 100; i++) {
+      latencyTracker.recordSuccess(serviceOne, i);
+    }
+
+    assertEquals(95, latencyTracker.hedgeDelay(serviceOne, maxDelay));
+    assertEquals(80, latencyTracker.hedgeDelay(serviceOne, 80));
+  }
+
+  private ServiceDTO mockService(String homepageUrl) {
+    ServiceDTO serviceDTO = new ServiceDTO();
+    serviceDTO.setHomepageUrl(homepageUrl);
+    return serviceDTO;
+  }
+}
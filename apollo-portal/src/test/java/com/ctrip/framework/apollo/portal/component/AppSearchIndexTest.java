@@ -0,0 +1,121 @@
+package com.ctrip.framework.apollo.portal.component;
+
+import com.ctrip.framework.apollo.common.dto.PageDTO;
+import com.ctrip.framework.apollo.common.entity.App;
+import com.ctrip.framework.apollo.portal.AbstractUnitTest;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
+import com.ctrip.framework.apollo.portal.repository.AppRepository;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class AppSearchIndexTest extends AbstractUnitTest {
+
+  @Mock
+  private AppRepository appRepository;
+  @Mock
+  private PortalConfig portalConfig;
+
+  private AppSearchIndex appSearchIndex;
+
+  @Before
+  public void setUp() throws Exception {
+    when(portalConfig.appSearchResultCap()).thenReturn(100);
+    when(appRepository.findAll()).thenReturn(Lists.newArrayList(
+        app("order-service", "Order Service", "TEST1", "zhangsan"),
+        app("payment", "Payment Gateway", "TEST2", "lisi"),
+        app("some-order", "Another", "TEST1", "wangwu")));
+
+    appSearchIndex = new AppSearchIndex(appRepository, portalConfig);
+    appSearchIndex.rebuild();
+  }
+
+  @Test
+  public void testSearch() throws Exception {
+    assertEquals(Lists.newArrayList("order-service", "some-order"), search("ORDER"));
+    assertEquals(Lists.newArrayList("payment"), search("gateway"));
+    assertEquals(Lists.newArrayList("payment"), search("lisi"));
+    assertEquals(Lists.newArrayList("order-service", "some-order"), search("test1"));
+    assertEquals(Lists.newArrayList("order-service", "payment", "some-order"), search("e"));
+    assertEquals(Lists.newArrayList("order-service", "payment", "some-order"), search(null));
+    assertTrue(search("not-exist").isEmpty());
+  }
+
+  @Test
+  public void testSearchWithPage() throws Exception {
+    PageDTO<App> page = appSearchIndex.search("", PageRequest.of(1, 2));
+
+    assertEquals(3, page.getTotal());
+    assertEquals(1, page.getContent().size());
+    assertEquals("some-order", page.getContent().get(0).getAppId());
+  }
+
+  @Test
+  public void testSearchWithCap() throws Exception {
+    when(portalConfig.appSearchResultCap()).thenReturn(2);
+
+    PageDTO<App> page = appSearchIndex.search("", PageRequest.of(0, 10));
+
+    assertEquals(2, page.getTotal());
+    assertEquals(2, page.getContent().size());
+  }
+
+  @Test
+  public void testIncrementalChanges() throws Exception {
+    appSearchIndex.put(app("order-query", "Order Query", "TEST3", "zhaoliu"));
+    appSearchIndex.put(app("payment", "Payment Center", "TEST2", "lisi"));
+    appSearchIndex.remove("some-order");
+
+    assertEquals(Lists.newArrayList("order-query", "order-service"), search("order"));
+    assertTrue(search("gateway").isEmpty());
+    assertEquals(Lists.newArrayList("payment"), search("center"));
+    assertEquals(3, appSearchIndex.size());
+  }
+
+  @Test
+  public void testFoldPendingChanges() throws Exception {
+    for (int i = 0; i < 300; i++) {
+      appSearchIndex.put(app("batch-app-" + i, "Batch", "TEST", "someone"));
+    }
+    appSearchIndex.remove("payment");
+
+    assertEquals(302, appSearchIndex.size());
+    assertEquals("batch-app-1", search("batch-app-1").get(0));
+    assertTrue(search("payment").isEmpty());
+  }
+
+  @Test
+  public void testRebuildReplacesPendingChanges() throws Exception {
+    appSearchIndex.put(app("order-query", "Order Query", "TEST3", "zhaoliu"));
+
+    assertEquals(Lists.newArrayList("order-query", "order-service", "some-order"), search("order"));
+
+    appSearchIndex.rebuild();
+
+    assertEquals(Lists.newArrayList("order-service", "some-order"), search("order"));
+  }
+
+  private List<String> search(String query) {
+    return appSearchIndex.search(query, PageRequest.of(0, 100)).getContent().stream().map(App::getAppId)
+        .collect(Collectors.toList());
+  }
+
+  private App app(String appId, String name, String orgId, String ownerName) {
+    App app = new App();
+    app.setAppId(appId);
+    app.setName(name);
+    app.setOrgId(orgId);
+    app.setOrgName(orgId);
+    app.setOwnerName(ownerName);
+    return app;
+  }
+}
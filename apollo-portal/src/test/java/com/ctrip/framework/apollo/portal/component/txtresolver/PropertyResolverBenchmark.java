@@ -0,0 +1,75 @@
+package com.ctrip.framework.apollo.portal.component.txtresolver;
+
+import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
+import com.ctrip.framework.apollo.common.dto.ItemDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PropertyResolver} with namespaces of 1k, 10k and 100k lines. It is not run by the unit tests, run the
+ * main method to get the numbers.
+ */
+public class PropertyResolverBenchmark {
+  private static final int[] LINES = {1000, 10000, 100000};
+  private static final int WARM_UP_ROUNDS = 5;
+  private static final int ROUNDS = 20;
+
+  public static void main(String[] args) {
+    PropertyResolver resolver = new PropertyResolver();
+
+    for (int lines : LINES) {
+      List<ItemDTO> baseItems = assembleItems(lines);
+      String text = assembleText(lines);
+
+      run(resolver, lines, "unchanged", text, baseItems);
+      run(resolver, lines, "update value at top", text.replaceFirst("=value1\n", "=newValue\n"), baseItems);
+      run(resolver, lines, "insert line at top", text.replaceFirst("\n", "\nnewKey=newValue\n"), baseItems);
+      run(resolver, lines, "delete line at top", text.replaceFirst("\nkey1=value1\n", "\n"), baseItems);
+      run(resolver, lines, "append line", text + "newKey=newValue", baseItems);
+    }
+  }
+
+  private static void run(PropertyResolver resolver, int lines, String scenario, String text,
+                          List<ItemDTO> baseItems) {
+    ItemChangeSets changeSets = null;
+    for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+      changeSets = resolver.resolve(1, text, baseItems);
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      changeSets = resolver.resolve(1, text, baseItems);
+    }
+    long elapsed = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / ROUNDS;
+
+    System.out.println(String.format("%7d lines, %-20s: %8d us/op, created %d, updated %d, deleted %d", lines,
+        scenario, elapsed, changeSets.getCreateItems().size(), changeSets.getUpdateItems().size(),
+        changeSets.getDeleteItems().size()));
+  }
+
+  private static List<ItemDTO> assembleItems(int lines) {
+    List<ItemDTO> items = new ArrayList<>(lines);
+    for (int i = 0; i < lines; i++) {
+      ItemDTO item = i % 10 == 0 ? new ItemDTO("", "", "#comment" + i, 0) : new ItemDTO("key" + i, "value" + i, "", 0);
+      item.setId(i + 1);
+      item.setLineNum((i + 1) * PropertyResolver.LINE_NUM_GAP);
+      items.add(item);
+    }
+    return items;
+  }
+
+  private static String assembleText(int lines) {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < lines; i++) {
+      if (i % 10 == 0) {
+        text.append("#comment").append(i);
+      } else {
+        text.append("key").append(i).append('=').append("value").append(i);
+      }
+      text.append('\n');
+    }
+    return text.toString();
+  }
+}
@@ -10,6 +10,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -62,7 +63,9 @@ public class PropertyResolverTest extends AbstractUnitTest {
   @Test
   public void testChangeItemNumLine() {
     ItemChangeSets changeSets = resolver.resolve(1, "b=c\nc=d\na=b", mockBaseItemHas3Key());
-    Assert.assertEquals(3, changeSets.getUpdateItems().size());
+    Assert.assertEquals(1, changeSets.getUpdateItems().size());
+    Assert.assertEquals("a", changeSets.getUpdateItems().get(0).getKey());
+    Assert.assertTrue(changeSets.getUpdateItems().get(0).getLineNum() > 3);
   }
 
   @Test
@@ -75,16 +78,16 @@ public class PropertyResolverTest extends AbstractUnitTest {
   @Test
   public void testDeleteCommentItem() {
     ItemChangeSets changeSets = resolver.resolve(1, "a=b\n\nb=c", mockBaseItemWith2Key1Comment1Blank());
-    Assert.assertEquals(2, changeSets.getDeleteItems().size());
-    Assert.assertEquals(2, changeSets.getUpdateItems().size());
-    Assert.assertEquals(1, changeSets.getCreateItems().size());
+    Assert.assertEquals(1, changeSets.getDeleteItems().size());
+    Assert.assertEquals(0, changeSets.getUpdateItems().size());
+    Assert.assertEquals(0, changeSets.getCreateItems().size());
   }
 
   @Test
   public void testDeleteBlankItem(){
     ItemChangeSets changeSets = resolver.resolve(1, "#qqqq\na=b\nb=c", mockBaseItemWith2Key1Comment1Blank());
     Assert.assertEquals(1, changeSets.getDeleteItems().size());
-    Assert.assertEquals(1, changeSets.getUpdateItems().size());
+    Assert.assertEquals(0, changeSets.getUpdateItems().size());
     Assert.assertEquals(0, changeSets.getCreateItems().size());
   }
 
@@ -112,9 +115,60 @@ public class PropertyResolverTest extends AbstractUnitTest {
   @Test
   public void testAllSituation(){
     ItemChangeSets changeSets = resolver.resolve(1, "#ww\nd=e\nb=c\na=b\n\nq=w\n#eee", mockBaseItemWith2Key1Comment1Blank());
-    Assert.assertEquals(2, changeSets.getDeleteItems().size());
-    Assert.assertEquals(2, changeSets.getUpdateItems().size());
-    Assert.assertEquals(5, changeSets.getCreateItems().size());
+    Assert.assertEquals(1, changeSets.getDeleteItems().size());
+    Assert.assertEquals(3, changeSets.getUpdateItems().size());
+    Assert.assertEquals(4, changeSets.getCreateItems().size());
+  }
+
+  @Test
+  public void testInsertLineIntoGap() {
+    ItemChangeSets changeSets = resolver.resolve(1, "x=y\na=b\nb=c\nz=w\nc=d", mockBaseItemHas3KeyWithGap());
+    Assert.assertEquals(0, changeSets.getUpdateItems().size());
+    Assert.assertEquals(0, changeSets.getDeleteItems().size());
+    Assert.assertEquals(2, changeSets.getCreateItems().size());
+
+    ItemDTO x = changeSets.getCreateItems().get(0);
+    ItemDTO z = changeSets.getCreateItems().get(1);
+    Assert.assertEquals("x", x.getKey());
+    Assert.assertTrue(x.getLineNum() > 0 && x.getLineNum() < 1000);
+    Assert.assertEquals("z", z.getKey());
+    Assert.assertTrue(z.getLineNum() > 2000 && z.getLineNum() < 3000);
+  }
+
+  @Test
+  public void testShiftedLinesAreRenumberedWithGap() {
+    ItemChangeSets changeSets = resolver.resolve(1, "x=y\na=b\nb=c\nc=d", mockBaseItemHas3Key());
+    List<ItemDTO> updateItems = changeSets.getUpdateItems();
+    Assert.assertEquals(3, updateItems.size());
+    Assert.assertEquals(PropertyResolver.LINE_NUM_GAP, changeSets.getCreateItems().get(0).getLineNum());
+    for (int i = 0; i < updateItems.size(); i++) {
+      Assert.assertEquals(PropertyResolver.LINE_NUM_GAP * (i + 2), updateItems.get(i).getLineNum());
+    }
+
+    //the next insertion fits in the gap
+    List<ItemDTO> renumberedItems = new ArrayList<>(changeSets.getCreateItems());
+    renumberedItems.addAll(updateItems);
+    changeSets = resolver.resolve(1, "w=v\nx=y\na=b\nb=c\nc=d", renumberedItems);
+    Assert.assertEquals(1, changeSets.getCreateItems().size());
+    Assert.assertEquals(0, changeSets.getUpdateItems().size());
+  }
+
+  @Test
+  public void testDeleteLineInTheMiddle() {
+    ItemChangeSets changeSets = resolver.resolve(1, "a=b\nc=d", mockBaseItemHas3Key());
+    Assert.assertEquals(0, changeSets.getUpdateItems().size());
+    Assert.assertEquals(1, changeSets.getDeleteItems().size());
+    Assert.assertEquals("b", changeSets.getDeleteItems().get(0).getKey());
+  }
+
+  @Test
+  public void testInvalidLine() {
+    try {
+      resolver.resolve(1, "a=b\nb", Collections.emptyList());
+      Assert.fail();
+    } catch (BadRequestException e) {
+      Assert.assertEquals("line:2 key value must separate by '='", e.getMessage());
+    }
   }
 
   /**
@@ -127,6 +181,16 @@ public class PropertyResolverTest extends AbstractUnitTest {
     return Arrays.asList(item1, item2, item3);
   }
 
+  /**
+   * a=b b=c c=d, with gaps between the line numbers
+   */
+  private List<ItemDTO> mockBaseItemHas3KeyWithGap() {
+    ItemDTO item1 = new ItemDTO("a", "b", "", 1000);
+    ItemDTO item2 = new ItemDTO("b", "c", "", 2000);
+    ItemDTO item3 = new ItemDTO("c", "d", "", 3000);
+    return Arrays.asList(item1, item2, item3);
+  }
+
   /**
    * #qqqq
    * a=b
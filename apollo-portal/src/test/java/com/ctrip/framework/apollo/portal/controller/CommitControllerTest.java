@@ -16,16 +16,16 @@ import static org.junit.Assert.fail;
 public class CommitControllerTest extends AbstractIntegrationTest {
 
   @Test
-  public void shouldFailWhenPageOrSiseIsNegative() {
+  public void shouldFailWhenCursorOrSizeIsNotPositive() {
     try {
       restTemplate.getForEntity(
-          url("/apps/{appId}/envs/{env}/clusters/{clusterName}/namespaces/{namespaceName}/commits?page=-1"),
+          url("/apps/{appId}/envs/{env}/clusters/{clusterName}/namespaces/{namespaceName}/commits?cursor=-1"),
           List.class, "1", "env", "cl", "ns"
       );
       fail("should throw");
     } catch (final HttpClientErrorException e) {
       assertThat(
-          new String(e.getResponseBodyAsByteArray()), containsString("page should be positive or 0")
+          new String(e.getResponseBodyAsByteArray()), containsString("cursor should be positive number")
       );
     }
     try {
@@ -0,0 +1,226 @@
+package com.ctrip.framework.apollo.portal.listener;
+
+import com.ctrip.framework.apollo.common.constants.ReleaseOperation;
+import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.portal.AbstractUnitTest;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
+import com.ctrip.framework.apollo.portal.component.emailbuilder.GrayPublishEmailBuilder;
+import com.ctrip.framework.apollo.portal.component.emailbuilder.MergeEmailBuilder;
+import com.ctrip.framework.apollo.portal.component.emailbuilder.NormalPublishEmailBuilder;
+import com.ctrip.framework.apollo.portal.component.emailbuilder.RollbackEmailBuilder;
+import com.ctrip.framework.apollo.portal.entity.bo.Email;
+import com.ctrip.framework.apollo.portal.entity.bo.ReleaseHistoryBO;
+import com.ctrip.framework.apollo.portal.entity.vo.PublishNotifyDeadLetter;
+import com.ctrip.framework.apollo.portal.entity.vo.PublishNotifyStageInfo;
+import com.ctrip.framework.apollo.portal.service.ReleaseHistoryService;
+import com.ctrip.framework.apollo.portal.spi.EmailService;
+import com.ctrip.framework.apollo.portal.spi.MQService;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class ConfigPublishListenerTest extends AbstractUnitTest {
+  private static final Env SOME_ENV = Env.DEV;
+
+  @Mock
+  private ReleaseHistoryService releaseHistoryService;
+  @Mock
+  private NormalPublishEmailBuilder normalPublishEmailBuilder;
+  @Mock
+  private GrayPublishEmailBuilder grayPublishEmailBuilder;
+  @Mock
+  private RollbackEmailBuilder rollbackEmailBuilder;
+  @Mock
+  private MergeEmailBuilder mergeEmailBuilder;
+  @Mock
+  private PortalConfig portalConfig;
+
+  private MockEmailService emailService;
+  private MockMQService mqService;
+  private ConfigPublishListener configPublishListener;
+
+  @Before
+  public void setUp() throws Exception {
+    emailService = new MockEmailService();
+    mqService = new MockMQService();
+
+    when(portalConfig.configPublishNotifyQueueCapacity()).thenReturn(100);
+    when(portalConfig.configPublishNotifyEnrichThreads()).thenReturn(1);
+    when(portalConfig.configPublishNotifyEmailThreads()).thenReturn(1);
+    when(portalConfig.configPublishNotifyMqBatchSize()).thenReturn(10);
+    when(portalConfig.configPublishNotifyMaxRetries()).thenReturn(2);
+    when(portalConfig.configPublishNotifyRetryBackoff()).thenReturn(10);
+    when(portalConfig.emailSupportedEnvs()).thenReturn(Sets.newHashSet(SOME_ENV));
+
+    when(releaseHistoryService.findLatestByReleaseIdAndOperation(eq(SOME_ENV), anyLong(),
+        eq(ReleaseOperation.NORMAL_RELEASE))).thenAnswer(invocation -> {
+      ReleaseHistoryBO releaseHistory = new ReleaseHistoryBO();
+      releaseHistory.setReleaseId(invocation.getArgument(1));
+      releaseHistory.setOperation(ReleaseOperation.NORMAL_RELEASE);
+      return releaseHistory;
+    });
+    when(normalPublishEmailBuilder.build(eq(SOME_ENV), any(ReleaseHistoryBO.class))).thenReturn(new Email());
+
+    configPublishListener = new ConfigPublishListener(releaseHistoryService, emailService, normalPublishEmailBuilder,
+        grayPublishEmailBuilder, rollbackEmailBuilder, mergeEmailBuilder, portalConfig, mqService);
+    configPublishListener.init();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    configPublishListener.destroy();
+  }
+
+  @Test
+  public void testNotifyWithRetry() throws Exception {
+    emailService.failures.set(1);
+    emailService.expectedEmails = new CountDownLatch(1);
+    mqService.expectedMsgs = new CountDownLatch(1);
+
+    configPublishListener.onConfigPublish(assembleNormalPublishEvent(1));
+
+    assertTrue(emailService.expectedEmails.await(5, TimeUnit.SECONDS));
+    assertTrue(mqService.expectedMsgs.await(5, TimeUnit.SECONDS));
+    assertEquals(1, mqService.releaseHistories.get(0).getReleaseId());
+
+    PublishNotifyStageInfo emailStage = configPublishListener.getStageInfos().get(1);
+    assertEquals("email", emailStage.getStage());
+    assertEquals(1, emailStage.getRetried());
+    assertEquals(0, emailStage.getDeadLettered());
+  }
+
+  @Test
+  public void testDeadLetterAfterRetriesExhausted() throws Exception {
+    emailService.failures.set(Integer.MAX_VALUE);
+    mqService.expectedMsgs = new CountDownLatch(1);
+
+    configPublishListener.onConfigPublish(assembleNormalPublishEvent(1));
+
+    assertTrue(mqService.expectedMsgs.await(5, TimeUnit.SECONDS));
+    long deadline = System.currentTimeMillis() + 5000;
+    while (configPublishListener.getDeadLetters().isEmpty() && System.currentTimeMillis() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+
+    List<PublishNotifyDeadLetter> deadLetters = configPublishListener.getDeadLetters();
+    assertEquals(1, deadLetters.size());
+    assertEquals("email", deadLetters.get(0).getStage());
+    assertEquals(1, deadLetters.get(0).getReleaseId());
+    assertEquals(2, configPublishListener.getStageInfos().get(1).getRetried());
+  }
+
+  @Test
+  public void testSendPublishMsgsInBatches() throws Exception {
+    int events = 5;
+    mqService.blocker = new CountDownLatch(1);
+    mqService.expectedMsgs = new CountDownLatch(events);
+    emailService.expectedEmails = new CountDownLatch(events);
+
+    for (int i = 1; i <= events; i++) {
+      configPublishListener.onConfigPublish(assembleNormalPublishEvent(i));
+    }
+
+    //the emails are not held up by the blocked mq
+    assertTrue(emailService.expectedEmails.await(5, TimeUnit.SECONDS));
+
+    mqService.blocker.countDown();
+
+    assertTrue(mqService.expectedMsgs.await(5, TimeUnit.SECONDS));
+    assertEquals(events, mqService.releaseHistories.size());
+    assertTrue(mqService.batches.get() < events);
+  }
+
+  @Test
+  public void testRetryOnlyUnsentPublishMsgs() throws Exception {
+    int events = 3;
+    mqService.blocker = new CountDownLatch(1);
+    mqService.partialFailures.set(1);
+    mqService.expectedMsgs = new CountDownLatch(events);
+    emailService.expectedEmails = new CountDownLatch(events);
+
+    for (int i = 1; i <= events; i++) {
+      configPublishListener.onConfigPublish(assembleNormalPublishEvent(i));
+    }
+    assertTrue(emailService.expectedEmails.await(5, TimeUnit.SECONDS));
+    //the first message is being sent, the others are queued to be sent in one batch
+    long deadline = System.currentTimeMillis() + 5000;
+    while (configPublishListener.getStageInfos().get(2).getQueueDepth() < events - 1
+        && System.currentTimeMillis() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+
+    mqService.blocker.countDown();
+
+    assertTrue(mqService.expectedMsgs.await(5, TimeUnit.SECONDS));
+    //each message is sent once
+    assertEquals(events, mqService.releaseHistories.size());
+    assertEquals(events, mqService.releaseHistories.stream().map(ReleaseHistoryBO::getReleaseId).distinct().count());
+    assertEquals(1, configPublishListener.getStageInfos().get(2).getRetried());
+    assertTrue(configPublishListener.getDeadLetters().isEmpty());
+  }
+
+  private ConfigPublishEvent assembleNormalPublishEvent(long releaseId) {
+    return ConfigPublishEvent.instance().withAppId("someAppId").withCluster("someCluster")
+        .withNamespace("someNamespace").withReleaseId(releaseId).setNormalPublishEvent(true).setEnv(SOME_ENV);
+  }
+
+  private static class MockEmailService implements EmailService {
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile CountDownLatch expectedEmails = new CountDownLatch(0);
+
+    @Override
+    public void send(Email email) {
+      if (failures.getAndDecrement() > 0) {
+        throw new IllegalStateException("smtp server is down");
+      }
+      expectedEmails.countDown();
+    }
+  }
+
+  private static class MockMQService implements MQService {
+    private final List<ReleaseHistoryBO> releaseHistories = new CopyOnWriteArrayList<>();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger partialFailures = new AtomicInteger();
+    private volatile CountDownLatch blocker = new CountDownLatch(0);
+    private volatile CountDownLatch expectedMsgs = new CountDownLatch(0);
+
+    @Override
+    public void sendPublishMsg(Env env, ReleaseHistoryBO releaseHistory) {
+      sendPublishMsgs(env, Lists.newArrayList(releaseHistory));
+    }
+
+    @Override
+    public int sendPublishMsgs(Env env, List<ReleaseHistoryBO> releaseHistories) {
+      try {
+        blocker.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      batches.incrementAndGet();
+      //only the first message is sent when the mq fails in the middle of the batch
+      List<ReleaseHistoryBO> sent = releaseHistories.size() > 1 && partialFailures.getAndDecrement() > 0 ?
+                                    releaseHistories.subList(0, 1) : releaseHistories;
+      this.releaseHistories.addAll(sent);
+      for (int i = 0; i < sent.size(); i++) {
+        expectedMsgs.countDown();
+      }
+      return sent.size();
+    }
+  }
+}
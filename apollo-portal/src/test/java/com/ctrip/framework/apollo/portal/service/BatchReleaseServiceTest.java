@@ -0,0 +1,128 @@
+package com.ctrip.framework.apollo.portal.service;
+
+import com.ctrip.framework.apollo.common.dto.ReleaseDTO;
+import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.portal.AbstractUnitTest;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
+import com.ctrip.framework.apollo.portal.entity.model.NamespaceReleaseModel;
+import com.ctrip.framework.apollo.portal.entity.vo.NamespaceIdentifier;
+import com.ctrip.framework.apollo.portal.entity.vo.ReleaseTargetResult;
+import com.ctrip.framework.apollo.portal.spi.UserInfoHolder;
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchReleaseServiceTest extends AbstractUnitTest {
+  private static final String SOME_APP_ID = "someAppId";
+  private static final String SOME_NAMESPACE = "someNamespace";
+  private static final String SOME_CLUSTER = "someCluster";
+  private static final String SOME_USER = "someUser";
+
+  @Mock
+  private ReleaseService releaseService;
+  @Mock
+  private UserInfoHolder userInfoHolder;
+  @Mock
+  private PortalConfig portalConfig;
+
+  private BatchReleaseService batchReleaseService;
+
+  @Before
+  public void setUp() throws Exception {
+    when(portalConfig.batchReleaseConcurrency()).thenReturn(5);
+    when(portalConfig.batchReleaseTimeout(any(Env.class))).thenReturn(5000);
+
+    batchReleaseService = new BatchReleaseService(releaseService, userInfoHolder, portalConfig);
+    batchReleaseService.init();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    batchReleaseService.destroy();
+  }
+
+  @Test
+  public void testPublishWithPartialFailure() throws Exception {
+    when(releaseService.publish(any(NamespaceReleaseModel.class))).thenAnswer(invocation -> {
+      NamespaceReleaseModel model = invocation.getArgument(0);
+      if (model.getEnv() == Env.UAT) {
+        throw new IllegalStateException("admin service down");
+      }
+      return assembleRelease(model.getEnv() == Env.DEV ? 1 : 2);
+    });
+
+    List<ReleaseTargetResult> results = batchReleaseService.publish(assembleModel(),
+        Lists.newArrayList(assembleTarget(Env.DEV), assembleTarget(Env.UAT), assembleTarget(Env.PRO)));
+
+    assertEquals(3, results.size());
+    assertTrue(results.get(0).isSuccess());
+    assertEquals(1, results.get(0).getRelease().getId());
+    assertFalse(results.get(1).isSuccess());
+    assertEquals("admin service down", results.get(1).getMessage());
+    assertEquals(Env.UAT, results.get(1).getTarget().getEnv());
+    assertTrue(results.get(2).isSuccess());
+    assertEquals(2, results.get(2).getRelease().getId());
+    verify(userInfoHolder, never()).getUser();
+  }
+
+  @Test
+  public void testPublishWithTimeout() throws Exception {
+    CountDownLatch blocker = new CountDownLatch(1);
+    when(portalConfig.batchReleaseTimeout(Env.PRO)).thenReturn(100);
+    when(releaseService.publish(any(NamespaceReleaseModel.class))).thenAnswer(invocation -> {
+      NamespaceReleaseModel model = invocation.getArgument(0);
+      if (model.getEnv() == Env.PRO) {
+        blocker.await(5, TimeUnit.SECONDS);
+      }
+      return assembleRelease(1);
+    });
+
+    try {
+      List<ReleaseTargetResult> results = batchReleaseService.publish(assembleModel(),
+          Lists.newArrayList(assembleTarget(Env.DEV), assembleTarget(Env.PRO)));
+
+      assertTrue(results.get(0).isSuccess());
+      assertFalse(results.get(1).isSuccess());
+      assertNotNull(results.get(1).getMessage());
+    } finally {
+      blocker.countDown();
+    }
+  }
+
+  private NamespaceReleaseModel assembleModel() {
+    NamespaceReleaseModel model = new NamespaceReleaseModel();
+    model.setReleaseTitle("someTitle");
+    model.setReleasedBy(SOME_USER);
+    return model;
+  }
+
+  private NamespaceIdentifier assembleTarget(Env env) {
+    NamespaceIdentifier target = new NamespaceIdentifier();
+    target.setAppId(SOME_APP_ID);
+    target.setEnv(env.toString());
+    target.setClusterName(SOME_CLUSTER);
+    target.setNamespaceName(SOME_NAMESPACE);
+    return target;
+  }
+
+  private ReleaseDTO assembleRelease(long id) {
+    ReleaseDTO release = new ReleaseDTO();
+    release.setId(id);
+    return release;
+  }
+}
@@ -3,29 +3,46 @@ package com.ctrip.framework.apollo.portal.service;
 import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
 import com.ctrip.framework.apollo.common.dto.ItemDTO;
 import com.ctrip.framework.apollo.common.dto.NamespaceDTO;
+import com.ctrip.framework.apollo.common.dto.NamespaceItemsDTO;
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
 import com.ctrip.framework.apollo.core.ConfigConsts;
 import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
 import com.ctrip.framework.apollo.core.enums.Env;
 import com.ctrip.framework.apollo.portal.AbstractUnitTest;
 import com.ctrip.framework.apollo.portal.api.AdminServiceAPI;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
 import com.ctrip.framework.apollo.portal.spi.UserInfoHolder;
 import com.ctrip.framework.apollo.portal.entity.bo.UserInfo;
 import com.ctrip.framework.apollo.portal.component.txtresolver.PropertyResolver;
 import com.ctrip.framework.apollo.portal.entity.model.NamespaceTextModel;
 import com.ctrip.framework.apollo.portal.entity.vo.ItemDiffs;
+import com.ctrip.framework.apollo.portal.entity.vo.ItemSyncJob;
+import com.ctrip.framework.apollo.portal.entity.vo.ItemSyncTargetResult;
 import com.ctrip.framework.apollo.portal.entity.vo.NamespaceIdentifier;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ConfigServiceTest extends AbstractUnitTest {
@@ -41,12 +58,21 @@ public class ConfigServiceTest extends AbstractUnitTest {
   @Mock
   private UserInfoHolder userInfoHolder;
 
+  @Mock
+  private PortalConfig portalConfig;
+
   @InjectMocks
   private ItemService configService;
 
   @Before
   public void setup() {
     ReflectionTestUtils.setField(configService, "propertyResolver", resolver);
+    when(portalConfig.itemSyncConcurrency(any(Env.class))).thenReturn(5);
+  }
+
+  @After
+  public void tearDown() {
+    configService.destroy();
   }
 
   @Test
@@ -101,10 +127,9 @@ public class ConfigServiceTest extends AbstractUnitTest {
     List<NamespaceIdentifier>
         namespaceIdentifiers =
         generateNamespaceIdentifier(appId, env, clusterName, namespaceName);
-    NamespaceDTO namespaceDTO = generateNamespaceDTO(appId, clusterName, namespaceName);
 
-    when(namespaceAPI.loadNamespace(appId, Env.valueOf(env), clusterName, namespaceName)).thenReturn(namespaceDTO);
-    when(itemAPI.findItems(appId, Env.valueOf(env), clusterName, namespaceName)).thenReturn(null);
+    when(itemAPI.findNamespaceItems(appId, Env.valueOf(env), clusterName, namespaceName))
+        .thenReturn(generateNamespaceItems(null));
 
     UserInfo userInfo = new UserInfo();
     userInfo.setUserId("test");
@@ -126,6 +151,42 @@ public class ConfigServiceTest extends AbstractUnitTest {
     assertEquals("comment", createItem.getComment());
   }
 
+  @Test
+  public void testCompareWithOlderAdminService() {
+    ItemDTO sourceItem1 = new ItemDTO("a", "b", "comment", 1);
+    ItemDTO sourceItem2 = new ItemDTO("newKey", "c", "comment", 2);
+    List<ItemDTO> sourceItems = Arrays.asList(sourceItem1, sourceItem2);
+
+    String appId = "6666", env = "LOCAL", clusterName = ConfigConsts.CLUSTER_NAME_DEFAULT,
+        namespaceName = ConfigConsts.NAMESPACE_APPLICATION;
+    List<NamespaceIdentifier>
+        namespaceIdentifiers =
+        generateNamespaceIdentifier(appId, env, clusterName, namespaceName);
+
+    NamespaceDTO namespaceDTO = new NamespaceDTO();
+    namespaceDTO.setId(2);
+    //the items with namespace api is not supported by the admin service
+    when(itemAPI.findNamespaceItems(appId, Env.valueOf(env), clusterName, namespaceName))
+        .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+    when(namespaceAPI.loadNamespace(appId, Env.valueOf(env), clusterName, namespaceName)).thenReturn(namespaceDTO);
+    when(itemAPI.findItems(appId, Env.valueOf(env), clusterName, namespaceName))
+        .thenReturn(Arrays.asList(new ItemDTO("a", "oldValue", "comment", 1)));
+
+    UserInfo userInfo = new UserInfo();
+    userInfo.setUserId("test");
+    when(userInfoHolder.getUser()).thenReturn(userInfo);
+
+    List<ItemDiffs> itemDiffses = configService.compare(namespaceIdentifiers, sourceItems);
+
+    ItemChangeSets changeSets = itemDiffses.get(0).getDiffs();
+    assertEquals(1, changeSets.getUpdateItems().size());
+    assertEquals("b", changeSets.getUpdateItems().get(0).getValue());
+    assertEquals(1, changeSets.getCreateItems().size());
+    ItemDTO createItem = changeSets.getCreateItems().get(0);
+    assertEquals(2, createItem.getNamespaceId());
+    assertEquals(2, createItem.getLineNum());
+  }
+
   @Test
   public void testCompare() {
     ItemDTO sourceItem1 = new ItemDTO("a", "b", "comment", 1);//not modified
@@ -144,10 +205,9 @@ public class ConfigServiceTest extends AbstractUnitTest {
     List<NamespaceIdentifier>
         namespaceIdentifiers =
         generateNamespaceIdentifier(appId, env, clusterName, namespaceName);
-    NamespaceDTO namespaceDTO = generateNamespaceDTO(appId, clusterName, namespaceName);
 
-    when(namespaceAPI.loadNamespace(appId, Env.valueOf(env), clusterName, namespaceName)).thenReturn(namespaceDTO);
-    when(itemAPI.findItems(appId, Env.valueOf(env), clusterName, namespaceName)).thenReturn(targetItems);
+    when(itemAPI.findNamespaceItems(appId, Env.valueOf(env), clusterName, namespaceName))
+        .thenReturn(generateNamespaceItems(targetItems));
 
     UserInfo userInfo = new UserInfo();
     userInfo.setUserId("test");
@@ -191,13 +251,90 @@ public class ConfigServiceTest extends AbstractUnitTest {
 
   }
 
-  private NamespaceDTO generateNamespaceDTO(String appId, String clusterName, String namespaceName) {
-    NamespaceDTO namespaceDTO = new NamespaceDTO();
-    namespaceDTO.setAppId(appId);
-    namespaceDTO.setId(1);
-    namespaceDTO.setClusterName(clusterName);
-    namespaceDTO.setNamespaceName(namespaceName);
-    return namespaceDTO;
+  @Test
+  public void testSyncItemsToSeveralTargets() {
+    List<ItemDTO> sourceItems = Arrays.asList(new ItemDTO("a", "b", "comment", 1));
+    String appId = "6666", clusterName = ConfigConsts.CLUSTER_NAME_DEFAULT,
+        namespaceName = ConfigConsts.NAMESPACE_APPLICATION;
+    NamespaceIdentifier someTarget = generateNamespaceIdentifier(appId, "DEV", clusterName, namespaceName).get(0);
+    NamespaceIdentifier upToDateTarget = generateNamespaceIdentifier(appId, "FAT", clusterName, namespaceName).get(0);
+    NamespaceIdentifier failedTarget = generateNamespaceIdentifier(appId, "PRO", clusterName, namespaceName).get(0);
+
+    when(itemAPI.findNamespaceItems(appId, Env.DEV, clusterName, namespaceName))
+        .thenReturn(generateNamespaceItems(null));
+    when(itemAPI.findNamespaceItems(appId, Env.FAT, clusterName, namespaceName))
+        .thenReturn(generateNamespaceItems(Arrays.asList(new ItemDTO("a", "b", "comment", 1))));
+    when(itemAPI.findNamespaceItems(appId, Env.PRO, clusterName, namespaceName))
+        .thenReturn(generateNamespaceItems(null));
+    doThrow(new BadRequestException("some error")).when(itemAPI)
+        .updateItemsByChangeSet(eq(appId), eq(Env.PRO), anyString(), anyString(), any(ItemChangeSets.class));
+
+    UserInfo userInfo = new UserInfo();
+    userInfo.setUserId("test");
+    when(userInfoHolder.getUser()).thenReturn(userInfo);
+
+    try {
+      configService.syncItems(Arrays.asList(someTarget, upToDateTarget, failedTarget), sourceItems);
+      Assert.fail("Should throw");
+    } catch (BadRequestException ex) {
+      assertEquals("some error", ex.getMessage());
+    }
+
+    // the other targets are synced regardless of the failed one, and the up to date target is skipped
+    verify(itemAPI, times(1))
+        .updateItemsByChangeSet(eq(appId), eq(Env.DEV), eq(clusterName), eq(namespaceName), any(ItemChangeSets.class));
+    verify(itemAPI, never())
+        .updateItemsByChangeSet(eq(appId), eq(Env.FAT), anyString(), anyString(), any(ItemChangeSets.class));
+  }
+
+  @Test
+  public void testSubmitSyncJob() throws Exception {
+    List<ItemDTO> sourceItems = Arrays.asList(new ItemDTO("a", "b", "comment", 1));
+    String appId = "6666", clusterName = ConfigConsts.CLUSTER_NAME_DEFAULT,
+        namespaceName = ConfigConsts.NAMESPACE_APPLICATION;
+    NamespaceIdentifier someTarget = generateNamespaceIdentifier(appId, "DEV", clusterName, namespaceName).get(0);
+    NamespaceIdentifier notExistingTarget = generateNamespaceIdentifier(appId, "PRO", clusterName, namespaceName)
+        .get(0);
+
+    when(itemAPI.findNamespaceItems(appId, Env.DEV, clusterName, namespaceName))
+        .thenReturn(generateNamespaceItems(Arrays.asList(new ItemDTO("a", "c", "comment", 1))));
+    when(itemAPI.findNamespaceItems(appId, Env.PRO, clusterName, namespaceName))
+        .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+    when(namespaceAPI.loadNamespace(appId, Env.PRO, clusterName, namespaceName))
+        .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+
+    UserInfo userInfo = new UserInfo();
+    userInfo.setUserId("test");
+    when(userInfoHolder.getUser()).thenReturn(userInfo);
+
+    ItemSyncJob job = configService.submitSyncJob(Arrays.asList(someTarget, notExistingTarget), sourceItems);
+
+    assertEquals("test", job.getOperator());
+    assertEquals(job, configService.findSyncJob(job.getId()));
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!job.isCompleted() && System.currentTimeMillis() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+
+    assertTrue(job.isCompleted());
+    assertEquals(1, job.getFailedTargets());
+
+    ItemSyncTargetResult someResult = job.getTargets().get(0);
+    assertEquals(ItemSyncTargetResult.Status.SUCCESS, someResult.getStatus());
+    assertEquals(0, someResult.getCreatedItems());
+    assertEquals(1, someResult.getUpdatedItems());
+
+    ItemSyncTargetResult notExistingResult = job.getTargets().get(1);
+    assertEquals(ItemSyncTargetResult.Status.FAILED, notExistingResult.getStatus());
+    assertTrue(notExistingResult.getMessage().contains("namespace not exist"));
+  }
+
+  private NamespaceItemsDTO generateNamespaceItems(List<ItemDTO> items) {
+    NamespaceItemsDTO namespaceItems = new NamespaceItemsDTO();
+    namespaceItems.setNamespaceId(1);
+    namespaceItems.setItems(items);
+    return namespaceItems;
   }
 
   private List<NamespaceIdentifier> generateNamespaceIdentifier(String appId, String env, String clusterName,
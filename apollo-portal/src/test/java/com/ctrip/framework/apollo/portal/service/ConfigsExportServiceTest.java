@@ -0,0 +1,164 @@
+package com.ctrip.framework.apollo.portal.service;
+
+import com.ctrip.framework.apollo.common.dto.ClusterDTO;
+import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
+import com.ctrip.framework.apollo.common.dto.ItemDTO;
+import com.ctrip.framework.apollo.common.dto.NamespaceDTO;
+import com.ctrip.framework.apollo.common.entity.AppNamespace;
+import com.ctrip.framework.apollo.core.ConfigConsts;
+import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
+import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.portal.AbstractUnitTest;
+import com.ctrip.framework.apollo.portal.api.AdminServiceAPI;
+import com.ctrip.framework.apollo.portal.component.PortalSettings;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
+import com.ctrip.framework.apollo.portal.entity.bo.UserInfo;
+import com.ctrip.framework.apollo.portal.entity.vo.NamespaceIdentifier;
+import com.ctrip.framework.apollo.portal.entity.vo.NamespaceImportResult;
+import com.ctrip.framework.apollo.portal.spi.UserInfoHolder;
+import com.ctrip.framework.apollo.portal.util.ConfigToFileUtils;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class ConfigsExportServiceTest extends AbstractUnitTest {
+  private static final String SOME_APP_ID = "someAppId";
+  private static final String SOME_CLUSTER = "someCluster";
+
+  @Mock
+  private PortalSettings portalSettings;
+  @Mock
+  private ClusterService clusterService;
+  @Mock
+  private AdminServiceAPI.NamespaceAPI namespaceAPI;
+  @Mock
+  private ItemService itemService;
+  @Mock
+  private AppNamespaceService appNamespaceService;
+  @Mock
+  private UserInfoHolder userInfoHolder;
+  @Mock
+  private PortalConfig portalConfig;
+
+  private ConfigsExportService configsExportService;
+
+  @Before
+  public void setUp() throws Exception {
+    configsExportService = new ConfigsExportService(portalSettings, clusterService, namespaceAPI, itemService,
+        appNamespaceService);
+
+    ClusterDTO cluster = new ClusterDTO();
+    cluster.setName(SOME_CLUSTER);
+    when(clusterService.findClusters(Env.DEV, SOME_APP_ID)).thenReturn(Lists.newArrayList(cluster));
+  }
+
+  @Test
+  public void testExportApp() throws Exception {
+    when(portalSettings.getActiveEnvs()).thenReturn(Lists.newArrayList(Env.DEV, Env.FAT));
+    when(appNamespaceService.findByAppIdAndName(SOME_APP_ID, "application")).thenReturn(
+        assembleAppNamespace("application", ConfigFileFormat.Properties));
+    when(appNamespaceService.findByAppIdAndName(SOME_APP_ID, "some.json")).thenReturn(
+        assembleAppNamespace("some.json", ConfigFileFormat.JSON));
+    when(namespaceAPI.findNamespaceByCluster(SOME_APP_ID, Env.DEV, SOME_CLUSTER)).thenReturn(Lists.newArrayList(
+        assembleNamespace("application"), assembleNamespace("some.json")));
+    when(itemService.findItemsAsync(SOME_APP_ID, Env.DEV, SOME_CLUSTER, "application")).thenReturn(
+        CompletableFuture.completedFuture(Lists.newArrayList(assembleItem("k1", "v1"), assembleItem("k2", "v2"))));
+    when(itemService.findItemsAsync(SOME_APP_ID, Env.DEV, SOME_CLUSTER, "some.json")).thenReturn(
+        CompletableFuture.completedFuture(Lists.newArrayList(assembleItem(ConfigConsts.CONFIG_FILE_CONTENT_KEY,
+            "{\"k\":\"v\"}"))));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    configsExportService.exportApp(SOME_APP_ID, out);
+
+    Map<String, String> entries = readEntries(out.toByteArray());
+
+    assertEquals(2, entries.size());
+    assertEquals(String.join(System.lineSeparator(), "k1 = v1", "k2 = v2"),
+        entries.get("DEV/someCluster/application.properties"));
+    assertEquals("{\"k\":\"v\"}", entries.get("DEV/someCluster/some.json"));
+  }
+
+  @Test
+  public void testExportAndImportNamespaceWithDots() throws Exception {
+    String someNamespace = "FX.hermes.producer";
+    String someConfigText = "k1 = v1";
+
+    when(portalSettings.getActiveEnvs()).thenReturn(Lists.newArrayList(Env.DEV));
+    when(namespaceAPI.findNamespaceByCluster(SOME_APP_ID, Env.DEV, SOME_CLUSTER)).thenReturn(Lists.newArrayList(
+        assembleNamespace(someNamespace)));
+    //the public namespace associated by the app
+    when(appNamespaceService.findPublicAppNamespace(someNamespace)).thenReturn(
+        assembleAppNamespace(someNamespace, ConfigFileFormat.Properties));
+    when(itemService.findItemsAsync(SOME_APP_ID, Env.DEV, SOME_CLUSTER, someNamespace)).thenReturn(
+        CompletableFuture.completedFuture(Lists.newArrayList(assembleItem("k1", "v1"))));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    configsExportService.exportApp(SOME_APP_ID, out);
+
+    assertEquals(someConfigText, readEntries(out.toByteArray()).get("DEV/someCluster/FX.hermes.producer.properties"));
+
+    UserInfo userInfo = new UserInfo();
+    userInfo.setUserId("someOperator");
+    when(userInfoHolder.getUser()).thenReturn(userInfo);
+    when(portalConfig.configImportEntryMaxSize()).thenReturn(1024);
+    when(itemService.updateConfigItemByText(any(NamespaceIdentifier.class), eq(ConfigFileFormat.Properties),
+        eq(someConfigText), eq("someOperator"))).thenReturn(new ItemChangeSets());
+
+    List<NamespaceImportResult> results = new ConfigsImportService(userInfoHolder, itemService, portalConfig)
+        .importApp(SOME_APP_ID, new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(1, results.size());
+    assertTrue(results.get(0).isSuccess());
+    assertEquals(someNamespace, results.get(0).getNamespaceName());
+  }
+
+  private Map<String, String> readEntries(byte[] zip) throws Exception {
+    Map<String, String> entries = Maps.newLinkedHashMap();
+    try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(zip))) {
+      ZipEntry entry;
+      while ((entry = zipInputStream.getNextEntry()) != null) {
+        entries.put(entry.getName(), ConfigToFileUtils.fileToString(zipInputStream));
+      }
+    }
+    return entries;
+  }
+
+  private AppNamespace assembleAppNamespace(String namespaceName, ConfigFileFormat format) {
+    AppNamespace appNamespace = new AppNamespace();
+    appNamespace.setAppId(SOME_APP_ID);
+    appNamespace.setName(namespaceName);
+    appNamespace.setFormat(format.getValue());
+    return appNamespace;
+  }
+
+  private NamespaceDTO assembleNamespace(String namespaceName) {
+    NamespaceDTO namespace = new NamespaceDTO();
+    namespace.setAppId(SOME_APP_ID);
+    namespace.setClusterName(SOME_CLUSTER);
+    namespace.setNamespaceName(namespaceName);
+    return namespace;
+  }
+
+  private ItemDTO assembleItem(String key, String value) {
+    ItemDTO item = new ItemDTO();
+    item.setKey(key);
+    item.setValue(value);
+    return item;
+  }
+}
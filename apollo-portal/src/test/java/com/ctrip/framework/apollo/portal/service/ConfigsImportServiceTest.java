@@ -0,0 +1,125 @@
+package com.ctrip.framework.apollo.portal.service;
+
+import com.ctrip.framework.apollo.common.dto.ItemChangeSets;
+import com.ctrip.framework.apollo.common.dto.ItemDTO;
+import com.ctrip.framework.apollo.core.enums.ConfigFileFormat;
+import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.portal.AbstractUnitTest;
+import com.ctrip.framework.apollo.portal.component.config.PortalConfig;
+import com.ctrip.framework.apollo.portal.entity.bo.UserInfo;
+import com.ctrip.framework.apollo.portal.entity.vo.NamespaceIdentifier;
+import com.ctrip.framework.apollo.portal.entity.vo.NamespaceImportResult;
+import com.ctrip.framework.apollo.portal.spi.UserInfoHolder;
+import com.google.common.base.Strings;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConfigsImportServiceTest extends AbstractUnitTest {
+  private static final String SOME_APP_ID = "someAppId";
+  private static final String SOME_OPERATOR = "someOperator";
+
+  @Mock
+  private UserInfoHolder userInfoHolder;
+  @Mock
+  private ItemService itemService;
+  @Mock
+  private PortalConfig portalConfig;
+
+  private ConfigsImportService configsImportService;
+
+  @Before
+  public void setUp() throws Exception {
+    UserInfo userInfo = new UserInfo();
+    userInfo.setUserId(SOME_OPERATOR);
+    when(userInfoHolder.getUser()).thenReturn(userInfo);
+    when(portalConfig.configImportEntryMaxSize()).thenReturn(1024);
+
+    configsImportService = new ConfigsImportService(userInfoHolder, itemService, portalConfig);
+  }
+
+  @Test
+  public void testImportApp() throws Exception {
+    String someConfigText = "k1 = v1";
+    ItemChangeSets changeSets = new ItemChangeSets();
+    changeSets.addCreateItem(new ItemDTO());
+
+    when(itemService.updateConfigItemByText(any(NamespaceIdentifier.class), eq(ConfigFileFormat.Properties),
+        eq(someConfigText), eq(SOME_OPERATOR))).thenReturn(changeSets);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(out)) {
+      zipOutputStream.putNextEntry(new ZipEntry("DEV/someCluster/application.properties"));
+      zipOutputStream.write(someConfigText.getBytes(StandardCharsets.UTF_8));
+      zipOutputStream.closeEntry();
+      zipOutputStream.putNextEntry(new ZipEntry("application.properties"));
+      zipOutputStream.closeEntry();
+    }
+
+    List<NamespaceImportResult> results = configsImportService.importApp(SOME_APP_ID,
+        new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(2, results.size());
+    NamespaceImportResult someResult = results.get(0);
+    assertTrue(someResult.isSuccess());
+    assertEquals("application", someResult.getNamespaceName());
+    assertEquals(1, someResult.getChanges());
+    assertFalse(results.get(1).isSuccess());
+
+    ArgumentCaptor<NamespaceIdentifier> namespace = ArgumentCaptor.forClass(NamespaceIdentifier.class);
+    verify(itemService).updateConfigItemByText(namespace.capture(), eq(ConfigFileFormat.Properties),
+        eq(someConfigText), eq(SOME_OPERATOR));
+    assertEquals(Env.DEV, namespace.getValue().getEnv());
+    assertEquals("someCluster", namespace.getValue().getClusterName());
+  }
+
+  @Test
+  public void testImportAppKeepsContentAsIs() throws Exception {
+    String someConfigText = "{\n  \"name\": \"名称\"\r\n}\n";
+    String someLargeConfigText = Strings.repeat("k = v\n", 200);
+
+    when(itemService.updateConfigItemByText(any(NamespaceIdentifier.class), eq(ConfigFileFormat.JSON),
+        eq(someConfigText), eq(SOME_OPERATOR))).thenReturn(new ItemChangeSets());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(out)) {
+      zipOutputStream.putNextEntry(new ZipEntry("DEV/someCluster/large.properties"));
+      zipOutputStream.write(someLargeConfigText.getBytes(StandardCharsets.UTF_8));
+      zipOutputStream.closeEntry();
+      zipOutputStream.putNextEntry(new ZipEntry("DEV/someCluster/some.json"));
+      zipOutputStream.write(someConfigText.getBytes(StandardCharsets.UTF_8));
+      zipOutputStream.closeEntry();
+    }
+
+    List<NamespaceImportResult> results = configsImportService.importApp(SOME_APP_ID,
+        new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(2, results.size());
+    //the entry larger than the max size is skipped
+    assertFalse(results.get(0).isSuccess());
+    assertTrue(results.get(0).getMessage().contains("1024"));
+    assertTrue(results.get(1).isSuccess());
+    verify(itemService, never()).updateConfigItemByText(any(NamespaceIdentifier.class),
+        eq(ConfigFileFormat.Properties), anyString(), anyString());
+    verify(itemService).updateConfigItemByText(any(NamespaceIdentifier.class), eq(ConfigFileFormat.JSON),
+        eq(someConfigText), eq(SOME_OPERATOR));
+  }
+}
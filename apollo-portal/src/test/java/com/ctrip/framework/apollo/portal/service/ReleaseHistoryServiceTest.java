@@ -0,0 +1,106 @@
+package com.ctrip.framework.apollo.portal.service;
+
+import com.ctrip.framework.apollo.common.dto.CursorPageDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseDiffDTO;
+import com.ctrip.framework.apollo.common.dto.ReleaseHistoryDTO;
+import com.ctrip.framework.apollo.common.exception.BadRequestException;
+import com.ctrip.framework.apollo.core.enums.Env;
+import com.ctrip.framework.apollo.portal.AbstractUnitTest;
+import com.ctrip.framework.apollo.portal.api.AdminServiceAPI;
+import com.ctrip.framework.apollo.portal.entity.bo.ReleaseHistoryBO;
+import com.ctrip.framework.apollo.portal.entity.vo.ReleaseCompareResult;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReleaseHistoryServiceTest extends AbstractUnitTest {
+  private static final String SOME_APP_ID = "someAppId";
+  private static final String SOME_CLUSTER = "someCluster";
+  private static final String SOME_NAMESPACE = "someNamespace";
+
+  @Mock
+  private AdminServiceAPI.ReleaseHistoryAPI releaseHistoryAPI;
+  @Mock
+  private ReleaseService releaseService;
+
+  private ReleaseHistoryService releaseHistoryService;
+
+  @Before
+  public void setUp() throws Exception {
+    releaseHistoryService = new ReleaseHistoryService(releaseHistoryAPI, releaseService);
+  }
+
+  @Test
+  public void testFindNamespaceReleaseHistorySummaries() {
+    ReleaseHistoryDTO someReleaseHistory = assembleReleaseHistory(1, 11, "someTitle");
+    ReleaseHistoryDTO anotherReleaseHistory = assembleReleaseHistory(2, 0, null);
+
+    when(releaseHistoryAPI.findReleaseHistorySummariesByNamespaceAndCursor(SOME_APP_ID, Env.DEV, SOME_CLUSTER,
+        SOME_NAMESPACE, null, 10)).thenReturn(CursorPageDTO.of(Lists.newArrayList(someReleaseHistory,
+        anotherReleaseHistory), 10, ReleaseHistoryDTO::getId));
+
+    List<ReleaseHistoryBO> releaseHistories = releaseHistoryService.findNamespaceReleaseHistorySummaries(SOME_APP_ID,
+        Env.DEV, SOME_CLUSTER, SOME_NAMESPACE, null, 10);
+
+    assertEquals(2, releaseHistories.size());
+    assertEquals("someTitle", releaseHistories.get(0).getReleaseTitle());
+    assertNull(releaseHistories.get(0).getConfiguration());
+    assertEquals("no release information", releaseHistories.get(1).getReleaseTitle());
+    verify(releaseService, never()).findReleaseByIds(any(Env.class), anySet());
+  }
+
+  @Test
+  public void testCompareWithPreviousRelease() {
+    long someReleaseId = 11, previousReleaseId = 10;
+    ReleaseDiffDTO someDiff = assembleReleaseDiff(SOME_APP_ID, SOME_NAMESPACE);
+    ReleaseCompareResult someResult = new ReleaseCompareResult();
+
+    when(releaseService.findReleaseDiff(Env.DEV, previousReleaseId, someReleaseId)).thenReturn(someDiff);
+    when(releaseService.transformReleaseDiff(someDiff)).thenReturn(someResult);
+
+    assertSame(someResult, releaseHistoryService.compareWithPreviousRelease(SOME_APP_ID, Env.DEV, SOME_NAMESPACE,
+        someReleaseId, previousReleaseId));
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void testCompareWithPreviousReleaseOfAnotherNamespace() {
+    long someReleaseId = 11;
+    ReleaseDiffDTO someDiff = assembleReleaseDiff(SOME_APP_ID, "anotherNamespace");
+
+    when(releaseService.findReleaseDiff(Env.DEV, 0, someReleaseId)).thenReturn(someDiff);
+
+    releaseHistoryService.compareWithPreviousRelease(SOME_APP_ID, Env.DEV, SOME_NAMESPACE, someReleaseId, 0);
+  }
+
+  private ReleaseHistoryDTO assembleReleaseHistory(long id, long releaseId, String releaseTitle) {
+    ReleaseHistoryDTO releaseHistory = new ReleaseHistoryDTO();
+    releaseHistory.setId(id);
+    releaseHistory.setAppId(SOME_APP_ID);
+    releaseHistory.setClusterName(SOME_CLUSTER);
+    releaseHistory.setNamespaceName(SOME_NAMESPACE);
+    releaseHistory.setReleaseId(releaseId);
+    releaseHistory.setReleaseTitle(releaseTitle);
+    releaseHistory.setDataChangeLastModifiedTime(new Date());
+    return releaseHistory;
+  }
+
+  private ReleaseDiffDTO assembleReleaseDiff(String appId, String namespaceName) {
+    ReleaseDiffDTO releaseDiff = new ReleaseDiffDTO();
+    releaseDiff.setAppId(appId);
+    releaseDiff.setNamespaceName(namespaceName);
+    return releaseDiff;
+  }
+}
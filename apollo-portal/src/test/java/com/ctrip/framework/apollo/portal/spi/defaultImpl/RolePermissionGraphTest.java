@@ -0,0 +1,106 @@
+package com.ctrip.framework.apollo.portal.spi.defaultImpl;
+
+import com.ctrip.framework.apollo.portal.entity.po.Permission;
+import com.ctrip.framework.apollo.portal.entity.po.RolePermission;
+import com.ctrip.framework.apollo.portal.entity.po.UserRole;
+import com.ctrip.framework.apollo.portal.spi.defaultimpl.RolePermissionGraph;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RolePermissionGraphTest {
+  private static final String USER = "someUser";
+  private static final String PERMISSION_TYPE = "ModifyNamespace";
+  private static final String TARGET_ID = "someApp+application";
+
+  private RolePermissionGraph graph;
+
+  @Before
+  public void setUp() throws Exception {
+    graph = new RolePermissionGraph();
+    graph.applyPermission(permission(1, PERMISSION_TYPE, TARGET_ID, false));
+    graph.applyRolePermission(rolePermission(10, 100, 1, false));
+    graph.applyUserRole(userRole(1000, USER, 100, false));
+  }
+
+  @Test
+  public void testHasPermission() throws Exception {
+    assertTrue(graph.hasPermission(USER, PERMISSION_TYPE, TARGET_ID));
+    assertFalse(graph.hasPermission("anotherUser", PERMISSION_TYPE, TARGET_ID));
+    assertFalse(graph.hasPermission(USER, "ReleaseNamespace", TARGET_ID));
+    assertTrue(graph.containsPermission(PERMISSION_TYPE, TARGET_ID));
+    assertEquals(1, graph.getPermissionCount());
+  }
+
+  @Test
+  public void testApplyDeletedRows() throws Exception {
+    graph.applyUserRole(userRole(1000, USER, 100, true));
+
+    assertFalse(graph.hasPermission(USER, PERMISSION_TYPE, TARGET_ID));
+
+    graph.applyUserRole(userRole(1001, USER, 100, false));
+    assertTrue(graph.hasPermission(USER, PERMISSION_TYPE, TARGET_ID));
+
+    graph.applyRolePermission(rolePermission(10, 100, 1, true));
+    assertFalse(graph.hasPermission(USER, PERMISSION_TYPE, TARGET_ID));
+
+    graph.applyRolePermission(rolePermission(11, 100, 1, false));
+    graph.applyPermission(permission(1, PERMISSION_TYPE, TARGET_ID, true));
+    assertFalse(graph.hasPermission(USER, PERMISSION_TYPE, TARGET_ID));
+    assertFalse(graph.containsPermission(PERMISSION_TYPE, TARGET_ID));
+  }
+
+  @Test
+  public void testApplyIsIdempotent() throws Exception {
+    graph.applyUserRole(userRole(1000, USER, 100, false));
+    graph.applyRolePermission(rolePermission(10, 100, 1, false));
+    graph.applyUserRole(userRole(1000, USER, 100, true));
+    graph.applyUserRole(userRole(1000, USER, 100, true));
+
+    assertFalse(graph.hasPermission(USER, PERMISSION_TYPE, TARGET_ID));
+  }
+
+  @Test
+  public void testRemovePermissionsAndRoles() throws Exception {
+    graph.removeRoles(Lists.newArrayList(100L));
+    assertFalse(graph.hasPermission(USER, PERMISSION_TYPE, TARGET_ID));
+
+    graph.applyRolePermission(rolePermission(10, 100, 1, false));
+    assertTrue(graph.hasPermission(USER, PERMISSION_TYPE, TARGET_ID));
+
+    graph.removePermissions(Lists.newArrayList(1L));
+    assertFalse(graph.hasPermission(USER, PERMISSION_TYPE, TARGET_ID));
+    assertEquals(0, graph.getPermissionCount());
+  }
+
+  private Permission permission(long id, String permissionType, String targetId, boolean deleted) {
+    Permission permission = new Permission();
+    permission.setId(id);
+    permission.setPermissionType(permissionType);
+    permission.setTargetId(targetId);
+    permission.setDeleted(deleted);
+    return permission;
+  }
+
+  private RolePermission rolePermission(long id, long roleId, long permissionId, boolean deleted) {
+    RolePermission rolePermission = new RolePermission();
+    rolePermission.setId(id);
+    rolePermission.setRoleId(roleId);
+    rolePermission.setPermissionId(permissionId);
+    rolePermission.setDeleted(deleted);
+    return rolePermission;
+  }
+
+  private UserRole userRole(long id, String userId, long roleId, boolean deleted) {
+    UserRole userRole = new UserRole();
+    userRole.setId(id);
+    userRole.setUserId(userId);
+    userRole.setRoleId(roleId);
+    userRole.setDeleted(deleted);
+    return userRole;
+  }
+}
@@ -17,6 +17,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Set;
@@ -24,6 +26,7 @@ import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -293,6 +296,9 @@ public class RolePermissionServiceTest extends AbstractIntegrationTest {
     String anotherUser = "anotherUser";
     String someUserWithNoPermission = "someUserWithNoPermission";
 
+    //the rows inserted by the scripts are loaded by the next rebuild
+    rebuildRolePermissionCache();
+
     assertTrue(rolePermissionService.userHasPermission(someUser, somePermissionType, someTargetId));
     assertTrue(rolePermissionService.userHasPermission(someUser, anotherPermissionType, anotherTargetId));
     assertTrue(rolePermissionService.userHasPermission(anotherUser, somePermissionType, someTargetId));
@@ -303,6 +309,36 @@ public class RolePermissionServiceTest extends AbstractIntegrationTest {
 
   }
 
+  @Test
+  @Sql(scripts = "/sql/permission/insert-test-roles.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/sql/permission/insert-test-permissions.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/sql/permission/insert-test-userroles.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/sql/permission/insert-test-rolepermissions.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+  @Sql(scripts = "/sql/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+  public void testUserHasPermissionRevokedByAnotherInstance() throws Exception {
+    String someTargetId = "someTargetId";
+    String somePermissionType = "somePermissionType";
+    String someUser = "someUser";
+
+    rebuildRolePermissionCache();
+
+    assertTrue(rolePermissionService.userHasPermission(someUser, somePermissionType, someTargetId));
+
+    //the role is removed without going through this service, e.g. by another portal instance
+    UserRole userRole = userRoleRepository.findById(990L).orElse(null);
+    assertNotNull(userRole);
+    userRole.setDeleted(true);
+    userRoleRepository.save(userRole);
+
+    assertFalse(rolePermissionService.userHasPermission(someUser, somePermissionType, someTargetId));
+  }
+
+  private void rebuildRolePermissionCache() {
+    Object target = AopTestUtils.getTargetObject(rolePermissionService);
+    Object rolePermissionCache = ReflectionTestUtils.getField(target, "rolePermissionCache");
+    ReflectionTestUtils.invokeMethod(rolePermissionCache, "rebuild");
+  }
+
   private Role assembleRole(String roleName) {
     Role role = new Role();
     role.setRoleName(roleName);
@@ -129,7 +129,8 @@ CREATE TABLE `Commit` (
   KEY `DataChange_LastTime` (`DataChange_LastTime`),
   KEY `AppId` (`AppId`(191)),
   KEY `ClusterName` (`ClusterName`(191)),
-  KEY `NamespaceName` (`NamespaceName`(191))
+  KEY `NamespaceName` (`NamespaceName`(191)),
+  KEY `IX_Namespace_Id` (`AppId`(191),`ClusterName`(191),`NamespaceName`(191),`Id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='commit 历史表';
 
 # Dump of table grayreleaserule
@@ -197,7 +198,8 @@ CREATE TABLE `InstanceConfig` (
   UNIQUE KEY `IX_UNIQUE_KEY` (`InstanceId`,`ConfigAppId`,`ConfigNamespaceName`),
   KEY `IX_ReleaseKey` (`ReleaseKey`),
   KEY `IX_DataChange_LastTime` (`DataChange_LastTime`),
-  KEY `IX_Valid_Namespace` (`ConfigAppId`,`ConfigClusterName`,`ConfigNamespaceName`,`DataChange_LastTime`)
+  KEY `IX_Valid_Namespace` (`ConfigAppId`,`ConfigClusterName`,`ConfigNamespaceName`,`DataChange_LastTime`),
+  KEY `IX_Namespace_Id` (`ConfigAppId`,`ConfigClusterName`,`ConfigNamespaceName`,`Id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='应用实例的配置信息';
 
 
@@ -292,7 +294,8 @@ CREATE TABLE `Release` (
   PRIMARY KEY (`Id`),
   KEY `AppId_ClusterName_GroupName` (`AppId`(191),`ClusterName`(191),`NamespaceName`(191)),
   KEY `DataChange_LastTime` (`DataChange_LastTime`),
-  KEY `IX_ReleaseKey` (`ReleaseKey`)
+  KEY `IX_ReleaseKey` (`ReleaseKey`),
+  KEY `IX_Namespace_Id` (`AppId`(191),`ClusterName`(191),`NamespaceName`(191),`Id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='发布';
 
 
@@ -319,7 +322,8 @@ CREATE TABLE `ReleaseHistory` (
   PRIMARY KEY (`Id`),
   KEY `IX_Namespace` (`AppId`,`ClusterName`,`NamespaceName`,`BranchName`),
   KEY `IX_ReleaseId` (`ReleaseId`),
-  KEY `IX_DataChange_LastTime` (`DataChange_LastTime`)
+  KEY `IX_DataChange_LastTime` (`DataChange_LastTime`),
+  KEY `IX_Namespace_Id` (`AppId`,`ClusterName`,`NamespaceName`,`Id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='发布历史';
 
 
@@ -339,6 +343,25 @@ CREATE TABLE `ReleaseMessage` (
 
 
 
+# Dump of table serviceregistry
+# ------------------------------------------------------------
+
+DROP TABLE IF EXISTS `ServiceRegistry`;
+
+CREATE TABLE `ServiceRegistry` (
+  `Id` int(11) unsigned NOT NULL AUTO_INCREMENT COMMENT '自增Id',
+  `ServiceName` varchar(64) NOT NULL COMMENT '服务名',
+  `Uri` varchar(256) NOT NULL COMMENT '服务地址',
+  `DataCenter` varchar(64) DEFAULT NULL COMMENT '数据中心',
+  `DataChange_CreatedTime` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `DataChange_LastTime` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最后心跳时间',
+  PRIMARY KEY (`Id`),
+  UNIQUE KEY `UK_ServiceName_Uri` (`ServiceName`,`Uri`(127)),
+  KEY `IX_ServiceName_DataChange_LastTime` (`ServiceName`,`DataChange_LastTime`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='服务注册';
+
+
+
 # Dump of table serverconfig
 # ------------------------------------------------------------
 
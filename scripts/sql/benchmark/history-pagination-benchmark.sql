@@ -0,0 +1,84 @@
+# benchmark of offset vs keyset(seek) pagination on a synthetic 10M rows commit history
+# run against a scratch database, e.g. mysql -uroot -p < history-pagination-benchmark.sql
+# compare the execution time and the rows examined(via EXPLAIN) before and after applying
+# delta/v140-v150/apolloconfigdb-v140-v150.sql
+
+CREATE DATABASE IF NOT EXISTS ApolloHistoryBenchmark DEFAULT CHARACTER SET = utf8mb4;
+
+Use ApolloHistoryBenchmark;
+
+DROP TABLE IF EXISTS `Commit`;
+
+CREATE TABLE `Commit` (
+  `Id` int(10) unsigned NOT NULL AUTO_INCREMENT COMMENT '主键',
+  `ChangeSets` longtext NOT NULL COMMENT '修改变更集',
+  `AppId` varchar(500) NOT NULL DEFAULT 'default' COMMENT 'AppID',
+  `ClusterName` varchar(500) NOT NULL DEFAULT 'default' COMMENT 'ClusterName',
+  `NamespaceName` varchar(500) NOT NULL DEFAULT 'default' COMMENT 'namespaceName',
+  `Comment` varchar(500) DEFAULT NULL COMMENT '备注',
+  `IsDeleted` bit(1) NOT NULL DEFAULT b'0' COMMENT '1: deleted, 0: normal',
+  `DataChange_CreatedBy` varchar(32) NOT NULL DEFAULT 'default' COMMENT '创建人邮箱前缀',
+  `DataChange_CreatedTime` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `DataChange_LastModifiedBy` varchar(32) DEFAULT '' COMMENT '最后修改人邮箱前缀',
+  `DataChange_LastTime` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最后修改时间',
+  PRIMARY KEY (`Id`),
+  KEY `DataChange_LastTime` (`DataChange_LastTime`),
+  KEY `AppId` (`AppId`(191)),
+  KEY `ClusterName` (`ClusterName`(191)),
+  KEY `NamespaceName` (`NamespaceName`(191))
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='commit 历史表';
+
+# 10M commits spread over 1000 apps, the busiest namespace(app0, default, application) owns 10% of them
+DROP PROCEDURE IF EXISTS `GenerateCommits`;
+
+DELIMITER //
+CREATE PROCEDURE `GenerateCommits`(IN total INT, IN batch INT)
+BEGIN
+  DECLARE i INT DEFAULT 0;
+  DECLARE j INT;
+  SET autocommit = 0;
+  WHILE i < total DO
+    SET j = 0;
+    WHILE j < batch DO
+      INSERT INTO `Commit` (`ChangeSets`, `AppId`, `ClusterName`, `NamespaceName`, `Comment`)
+      VALUES ('{"createItems":[],"updateItems":[],"deleteItems":[]}',
+              IF(MOD(i + j, 10) = 0, 'app0', CONCAT('app', MOD(i + j, 1000))), 'default', 'application', NULL);
+      SET j = j + 1;
+    END WHILE;
+    COMMIT;
+    SET i = i + batch;
+  END WHILE;
+  SET autocommit = 1;
+END //
+DELIMITER ;
+
+CALL `GenerateCommits`(10000000, 10000);
+
+ANALYZE TABLE `Commit`;
+
+# offset pagination, i.e. .../commit?page=10000&size=10
+EXPLAIN SELECT * FROM `Commit` WHERE `AppId` = 'app0' AND `ClusterName` = 'default' AND `NamespaceName` = 'application'
+  AND `IsDeleted` = 0 ORDER BY `Id` DESC LIMIT 100000, 10;
+SELECT SQL_NO_CACHE `Id` FROM `Commit` WHERE `AppId` = 'app0' AND `ClusterName` = 'default' AND `NamespaceName` = 'application'
+  AND `IsDeleted` = 0 ORDER BY `Id` DESC LIMIT 100000, 10;
+
+# keyset pagination, i.e. .../commit/cursor?cursor={last id of the previous page}&size=10
+SELECT @cursor := MIN(`Id`) FROM (SELECT `Id` FROM `Commit` WHERE `AppId` = 'app0' AND `ClusterName` = 'default'
+  AND `NamespaceName` = 'application' ORDER BY `Id` DESC LIMIT 100000) t;
+EXPLAIN SELECT * FROM `Commit` WHERE `AppId` = 'app0' AND `ClusterName` = 'default' AND `NamespaceName` = 'application'
+  AND `Id` < @cursor AND `IsDeleted` = 0 ORDER BY `Id` DESC LIMIT 10;
+SELECT SQL_NO_CACHE `Id` FROM `Commit` WHERE `AppId` = 'app0' AND `ClusterName` = 'default' AND `NamespaceName` = 'application'
+  AND `Id` < @cursor AND `IsDeleted` = 0 ORDER BY `Id` DESC LIMIT 10;
+
+# apply the composite index from delta/v140-v150 and rerun the statements above to compare
+# the index only holds column prefixes, so it is not covering. The EXPLAIN below is expected to show
+# key = IX_Namespace_Id, type = range and rows close to the page size; if Extra shows "Using filesort" the
+# optimizer didn't use the index order and the cursor query should be revisited before rolling out
+CREATE INDEX `IX_Namespace_Id` ON `Commit` (`AppId`(191), `ClusterName`(191), `NamespaceName`(191), `Id`);
+
+EXPLAIN SELECT * FROM `Commit` WHERE `AppId` = 'app0' AND `ClusterName` = 'default' AND `NamespaceName` = 'application'
+  AND `Id` < @cursor AND `IsDeleted` = 0 ORDER BY `Id` DESC LIMIT 10;
+SELECT SQL_NO_CACHE `Id` FROM `Commit` WHERE `AppId` = 'app0' AND `ClusterName` = 'default' AND `NamespaceName` = 'application'
+  AND `Id` < @cursor AND `IsDeleted` = 0 ORDER BY `Id` DESC LIMIT 10;
+
+DROP PROCEDURE IF EXISTS `GenerateCommits`;
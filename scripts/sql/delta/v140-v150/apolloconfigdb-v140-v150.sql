@@ -0,0 +1,30 @@
+# delta schema to upgrade apollo config db from v1.4.0 to v1.5.0
+
+Use ApolloConfigDB;
+
+# support keyset pagination of instances by namespace, i.e. /instances/by-namespace/cursor
+CREATE INDEX `IX_Namespace_Id` ON InstanceConfig (`ConfigAppId`, `ConfigClusterName`, `ConfigNamespaceName`, `Id`);
+
+# support keyset pagination of release and commit histories, i.e. .../commit/cursor and .../releases/all/cursor
+# AppId, ClusterName and NamespaceName of Commit and Release are varchar(500) utf8mb4, which exceed the index key
+# length limit, so only 191 character prefixes are indexed. These indexes are therefore not covering: they narrow the
+# seek to the namespace's id range, and the rows are still read to check the full column values. Check the cursor
+# queries with scripts/sql/benchmark/history-pagination-benchmark.sql, EXPLAIN should show a range scan on
+# IX_Namespace_Id with the rows limited to the page size.
+CREATE INDEX `IX_Namespace_Id` ON `Commit` (`AppId`(191), `ClusterName`(191), `NamespaceName`(191), `Id`);
+CREATE INDEX `IX_Namespace_Id` ON `Release` (`AppId`(191), `ClusterName`(191), `NamespaceName`(191), `Id`);
+# the columns of ReleaseHistory are short enough to be indexed in full
+CREATE INDEX `IX_Namespace_Id` ON `ReleaseHistory` (`AppId`, `ClusterName`, `NamespaceName`, `Id`);
+
+# the service registry used by the database-discovery profile instead of eureka
+CREATE TABLE `ServiceRegistry` (
+  `Id` int(11) unsigned NOT NULL AUTO_INCREMENT COMMENT '自增Id',
+  `ServiceName` varchar(64) NOT NULL COMMENT '服务名',
+  `Uri` varchar(256) NOT NULL COMMENT '服务地址',
+  `DataCenter` varchar(64) DEFAULT NULL COMMENT '数据中心',
+  `DataChange_CreatedTime` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `DataChange_LastTime` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最后心跳时间',
+  PRIMARY KEY (`Id`),
+  UNIQUE KEY `UK_ServiceName_Uri` (`ServiceName`,`Uri`(127)),
+  KEY `IX_ServiceName_DataChange_LastTime` (`ServiceName`,`DataChange_LastTime`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='服务注册';